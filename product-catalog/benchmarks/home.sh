@@ -0,0 +1,49 @@
+#!/usr/bin/env sh
+# End-to-end latency of the dashboard page load: the five calls the frontend
+# makes one after the other, against the single GET /api/v1/home that loads
+# the same sections concurrently.
+#
+#   ./mvnw spring-boot:run   (or any running instance)
+#   benchmarks/home.sh [runs]
+#
+# Runs each variant [runs] times (default 50) after a few unmeasured calls
+# and prints the median and p95 wall time and the bytes received with gzip.
+set -eu
+
+RUNS=${1:-50}
+BASE=${BASE:-http://localhost:8080/api/v1}
+SEQUENTIAL="$BASE/dashboard $BASE/categories $BASE/products/featured?size=8 \
+$BASE/products/low-stock?size=10 $BASE/products/filter?size=5&sort=createdAt,desc"
+AGGREGATE="$BASE/home"
+
+now_ms() {
+    date +%s%3N
+}
+
+# variant name, then the URLs fetched one after the other per page load
+measure() {
+    name=$1
+    shift
+    for url in "$@"; do
+        curl -sf -o /dev/null "$url"
+    done
+    times=""
+    bytes=0
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        start=$(now_ms)
+        bytes=0
+        for url in "$@"; do
+            size=$(curl -sf --compressed -o /dev/null -w '%{size_download}' "$url")
+            bytes=$((bytes + size))
+        done
+        times="$times $(($(now_ms) - start))"
+        i=$((i + 1))
+    done
+    echo "$times" | tr ' ' '\n' | grep . | sort -n | awk -v name="$name" -v bytes="$bytes" \
+        '{ t[NR] = $1 } END { printf "%-12s median %5d ms   p95 %5d ms   %7d bytes\n", name, t[int((NR + 1) / 2)], t[int(NR * 0.95 + 0.5)], bytes }'
+}
+
+# shellcheck disable=SC2086
+measure "sequential" $SEQUENTIAL
+measure "home" "$AGGREGATE"
@@ -0,0 +1,77 @@
+#!/usr/bin/env sh
+# Time-to-first-request of each startup variant: from `docker run` until the
+# pod reports ready (after the JIT warm-up, app.warmup) and
+# GET /api/v1/products?size=1 answers 200. Lazy initialization shortens
+# "Started in" but not necessarily this.
+#
+#   docker-compose up -d postgres redis
+#   benchmarks/startup.sh [runs]
+#
+# Builds the images from the Dockerfile, runs each variant [runs] times
+# (default 5) against the compose Postgres and Redis, and prints the median
+# and worst time per variant. Apply the migrations once first (any plain
+# "prod" run does); the scale-out variants start without them.
+set -eu
+
+RUNS=${1:-5}
+NETWORK=${NETWORK:-product-catalog_default}
+PORT=${PORT:-18080}
+URL="http://localhost:${PORT}/api/v1/products?size=1"
+READY="http://localhost:${PORT}/actuator/health/readiness"
+cd "$(dirname "$0")/.."
+
+docker build -q -t product-catalog:jvm . >/dev/null
+docker build -q -t product-catalog:fast-startup --target fast-startup . >/dev/null
+docker build -q -t product-catalog:fast-startup-scale-out --target fast-startup \
+    --build-arg AOT_PROFILES=prod,scale-out . >/dev/null
+
+now_ms() {
+    date +%s%3N
+}
+
+# variant name, image, then extra environment as NAME=value
+measure() {
+    name=$1
+    image=$2
+    shift 2
+    env_args=""
+    for pair in "$@"; do
+        env_args="$env_args -e $pair"
+    done
+    times=""
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        start=$(now_ms)
+        # shellcheck disable=SC2086
+        container=$(docker run -d --rm --network "$NETWORK" -p "${PORT}:8080" \
+            -e SPRING_DATASOURCE_URL=jdbc:postgresql://postgres:5432/product_catalog \
+            -e SPRING_DATASOURCE_USERNAME=postgres \
+            -e SPRING_DATASOURCE_PASSWORD=password \
+            -e SPRING_DATA_REDIS_HOST=redis \
+            -e SPRING_DATA_REDIS_PASSWORD= \
+            -e SPRING_DATA_REDIS_SSL_ENABLED=false \
+            $env_args "$image")
+        until curl -sf -o /dev/null "$READY" && curl -sf -o /dev/null "$URL"; do
+            if [ $(($(now_ms) - start)) -gt 180000 ]; then
+                echo "$name: no response after 180 s" >&2
+                docker logs "$container" >&2
+                docker stop "$container" >/dev/null
+                exit 1
+            fi
+            sleep 0.05
+        done
+        times="$times $(($(now_ms) - start))"
+        docker stop "$container" >/dev/null
+        i=$((i + 1))
+    done
+    echo "$times" | tr ' ' '\n' | grep . | sort -n | awk -v name="$name" \
+        '{ t[NR] = $1 } END { printf "%-32s median %6d ms   worst %6d ms\n", name, t[int((NR + 1) / 2)], t[NR] }'
+}
+
+measure "jvm" product-catalog:jvm
+measure "jvm scale-out" product-catalog:jvm SPRING_PROFILES_ACTIVE=prod,scale-out
+measure "jvm scale-out lazy" product-catalog:jvm SPRING_PROFILES_ACTIVE=prod,scale-out \
+    SPRING_MAIN_LAZY_INITIALIZATION=true
+measure "aot+cds" product-catalog:fast-startup
+measure "aot+cds scale-out" product-catalog:fast-startup-scale-out
+measure "aot+cds scale-out lazy" product-catalog:fast-startup-scale-out SPRING_MAIN_LAZY_INITIALIZATION=true
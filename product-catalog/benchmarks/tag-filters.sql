@@ -0,0 +1,117 @@
+-- Tag filter and tag facet benchmark: 1M products with ~50 tags each.
+--
+--   psql -d <scratch database> -f benchmarks/tag-filters.sql
+--
+-- Builds its own tag_bench schema (tables copied from public with LIKE, so
+-- the V3 keys and indexes come along) and drops it at the end. Needs the
+-- Flyway migrations applied; takes a few minutes and ~5 GB of disk. The
+-- queries are the SQL Hibernate generates for /products/filter?anyTags=,
+-- ?allTags= and /products/facets/tags. Each is run with the V3 indexes and
+-- then, inside a rolled-back transaction, without them.
+
+\timing on
+DROP SCHEMA IF EXISTS tag_bench CASCADE;
+CREATE SCHEMA tag_bench;
+SET search_path = tag_bench;
+
+CREATE TABLE products (LIKE public.products INCLUDING ALL);
+CREATE TABLE product_tags (LIKE public.product_tags INCLUDING ALL);
+
+INSERT INTO products (id, sku, name, price, status, quantity, low_stock_threshold, brand, category_id, featured,
+                      version, created_at, updated_at)
+SELECT i,
+       'SKU-' || i,
+       'Product ' || i,
+       (random() * 1000)::numeric(19, 2),
+       CASE WHEN i % 10 = 0 THEN 'ARCHIVED' WHEN i % 10 = 1 THEN 'DRAFT' ELSE 'ACTIVE' END,
+       (random() * 50)::int,
+       5,
+       'brand-' || (i % 500),
+       1 + i % 200,
+       i % 50 = 0,
+       0,
+       now() - (i || ' seconds')::interval,
+       now()
+FROM generate_series(1, 1000000) AS i;
+
+-- 60 draws per product from 5,000 tags skewed towards low numbers, so
+-- tag-0 sits on most products and tag-4000 on a few hundred; duplicates
+-- collapse to ~50 distinct tags per product
+INSERT INTO product_tags (product_id, tag)
+SELECT p.id, 'tag-' || floor(5000 * power(random(), 2))::int
+FROM products p
+         CROSS JOIN generate_series(1, 60)
+ON CONFLICT DO NOTHING;
+
+ANALYZE products;
+ANALYZE product_tags;
+
+SELECT count(*) AS tag_rows, round(count(*)::numeric / 1000000, 1) AS tags_per_product FROM product_tags;
+SELECT pg_size_pretty(pg_total_relation_size('product_tags')) AS product_tags_size,
+       pg_size_pretty(pg_relation_size('product_tags_lower_product_id_idx')) AS tag_index_size;
+
+-- ─── With the V3 indexes ─────────────────────────────────────────────────
+
+-- anyTags=tag-2500,tag-3000 (a few thousand products each), first page by id
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT p.id, p.sku, p.name, p.price
+FROM products p
+WHERE p.status <> 'DELETED' AND p.status <> 'ARCHIVED'
+  AND EXISTS (SELECT 1 FROM product_tags t WHERE p.id = t.product_id AND lower(t.tag) IN ('tag-2500', 'tag-3000'))
+ORDER BY p.id
+LIMIT 20;
+
+-- allTags=tag-10,tag-4000: a popular tag intersected with a rare one
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT p.id, p.sku, p.name, p.price
+FROM products p
+WHERE p.status <> 'DELETED' AND p.status <> 'ARCHIVED'
+  AND EXISTS (SELECT 1 FROM product_tags t WHERE p.id = t.product_id AND lower(t.tag) = 'tag-10')
+  AND EXISTS (SELECT 1 FROM product_tags t WHERE p.id = t.product_id AND lower(t.tag) = 'tag-4000')
+ORDER BY p.id
+LIMIT 20;
+
+-- The page count for the same filter
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT count(p.id)
+FROM products p
+WHERE p.status <> 'DELETED' AND p.status <> 'ARCHIVED'
+  AND EXISTS (SELECT 1 FROM product_tags t WHERE p.id = t.product_id AND lower(t.tag) = 'tag-10')
+  AND EXISTS (SELECT 1 FROM product_tags t WHERE p.id = t.product_id AND lower(t.tag) = 'tag-4000');
+
+-- facets/tags?categoryId=7 (5,000 products)
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT lower(t.tag), count(DISTINCT p.id)
+FROM products p
+         JOIN product_tags t ON p.id = t.product_id
+WHERE p.category_id = 7 AND p.status <> 'DELETED' AND p.status <> 'ARCHIVED'
+GROUP BY lower(t.tag)
+ORDER BY 2 DESC, 1
+LIMIT 20;
+
+-- ─── Without them (the V1 schema) ────────────────────────────────────────
+
+BEGIN;
+ALTER TABLE product_tags DROP CONSTRAINT product_tags_pkey;
+DROP INDEX product_tags_lower_product_id_idx;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT p.id, p.sku, p.name, p.price
+FROM products p
+WHERE p.status <> 'DELETED' AND p.status <> 'ARCHIVED'
+  AND EXISTS (SELECT 1 FROM product_tags t WHERE p.id = t.product_id AND lower(t.tag) = 'tag-10')
+  AND EXISTS (SELECT 1 FROM product_tags t WHERE p.id = t.product_id AND lower(t.tag) = 'tag-4000')
+ORDER BY p.id
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT lower(t.tag), count(DISTINCT p.id)
+FROM products p
+         JOIN product_tags t ON p.id = t.product_id
+WHERE p.category_id = 7 AND p.status <> 'DELETED' AND p.status <> 'ARCHIVED'
+GROUP BY lower(t.tag)
+ORDER BY 2 DESC, 1
+LIMIT 20;
+ROLLBACK;
+
+DROP SCHEMA tag_bench CASCADE;
@@ -0,0 +1,27 @@
+package com.example.productcatalog.cache;
+
+/**
+ * Marks the reads of the current thread as not made for a client, such as
+ * the warm-up's, so the cache decorators leave them out of the access counts
+ * ({@link ProductAccessTracker}, {@link HotKeyTracker}) that decide which
+ * keys are hot, kept longest and refreshed ahead.
+ */
+public final class AccessTracking {
+
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    private AccessTracking() {
+    }
+
+    public static void suppress() {
+        SUPPRESSED.set(Boolean.TRUE);
+    }
+
+    public static boolean isSuppressed() {
+        return Boolean.TRUE.equals(SUPPRESSED.get());
+    }
+
+    public static void clear() {
+        SUPPRESSED.remove();
+    }
+}
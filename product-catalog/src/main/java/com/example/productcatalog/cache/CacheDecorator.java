@@ -0,0 +1,14 @@
+package com.example.productcatalog.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps every cache handed out by the application {@code CacheManager}.
+ * Decorators are applied in {@link Ordered} order, lowest first, so the
+ * highest-order decorator is the outermost layer seen by callers.
+ */
+public interface CacheDecorator extends Ordered {
+
+    Cache decorate(Cache cache);
+}
@@ -0,0 +1,241 @@
+package com.example.productcatalog.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared state behind every {@link ResilientCache}: one {@link CircuitBreaker}
+ * for the Redis connection, the local fallback caches, and the invalidations
+ * that could not be sent to Redis.
+ *
+ * <p>Queued invalidations are replayed as the trial call of a half-open
+ * circuit, before anything is read from Redis again, and the circuit only
+ * closes once none are left. An eviction that fails while the circuit is
+ * closed opens it, so a stale Redis entry is never served in the meantime.
+ * When more than {@code maxPendingKeys} keys of one cache are queued, they
+ * are replaced by clearing that cache.
+ */
+@Slf4j
+public class CacheFailover implements MeterBinder {
+
+    private final CircuitBreaker breaker;
+    private final int localMaxEntries;
+    private final Duration localTtl;
+    private final int maxPendingKeys;
+    private final Map<String, Cache> remotes = new ConcurrentHashMap<>();
+    private final Map<String, LocalFallbackCache> locals = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<String, Set<Object>> pendingKeys = new HashMap<>();
+    private final Set<String> pendingClears = new HashSet<>();
+    private int pendingCount;
+
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong fallbackHits = new AtomicLong();
+    private final AtomicLong fallbackMisses = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    public CacheFailover(CircuitBreaker breaker, int localMaxEntries, Duration localTtl, int maxPendingKeys) {
+        this.breaker = breaker;
+        this.localMaxEntries = localMaxEntries;
+        this.localTtl = localTtl;
+        this.maxPendingKeys = maxPendingKeys;
+    }
+
+    public Cache decorate(Cache remote) {
+        remotes.put(remote.getName(), remote);
+        LocalFallbackCache local = locals.computeIfAbsent(remote.getName(),
+                name -> new LocalFallbackCache(name, localMaxEntries, localTtl));
+        return new ResilientCache(remote, local, this);
+    }
+
+    /** Whether Redis may be called; a trial first replays the queued invalidations. */
+    CircuitBreaker.Permission acquire() {
+        CircuitBreaker.Permission permission = breaker.tryAcquire();
+        if (permission == CircuitBreaker.Permission.TRIAL && !replay()) {
+            return CircuitBreaker.Permission.REJECTED;
+        }
+        return permission;
+    }
+
+    void succeeded(CircuitBreaker.Permission permission) {
+        if (permission != CircuitBreaker.Permission.TRIAL) {
+            breaker.onSuccess(permission);
+            return;
+        }
+        while (true) {
+            synchronized (this) {
+                // Queuing also takes this lock, so nothing is queued unseen between the check and the close
+                if (pendingCount == 0) {
+                    if (breaker.onSuccess(permission)) {
+                        locals.values().forEach(LocalFallbackCache::clear);
+                        log.info("Redis reachable again, cache circuit closed");
+                    }
+                    return;
+                }
+            }
+            // Queued while the trial ran
+            if (!replay()) {
+                return;
+            }
+        }
+    }
+
+    void failed(RuntimeException e) {
+        failures.incrementAndGet();
+        if (breaker.onFailure()) {
+            log.warn("Redis cache circuit opened, serving from local caches: {}", e.getMessage());
+        }
+    }
+
+    // A lost invalidation would leave a stale entry in Redis, so one failure is enough
+    void invalidationFailed(RuntimeException e) {
+        failures.incrementAndGet();
+        if (breaker.trip()) {
+            log.warn("Redis cache circuit opened after a failed invalidation: {}", e.getMessage());
+        }
+    }
+
+    void recordFallback(boolean hit) {
+        (hit ? fallbackHits : fallbackMisses).incrementAndGet();
+    }
+
+    void evictLater(String cacheName, Object key) {
+        synchronized (this) {
+            if (!pendingClears.contains(cacheName)) {
+                Set<Object> keys = pendingKeys.computeIfAbsent(cacheName, name -> new HashSet<>());
+                if (keys.add(key)) {
+                    pendingCount++;
+                }
+                if (keys.size() > maxPendingKeys) {
+                    queueClear(cacheName);
+                }
+            }
+        }
+        replayIfClosed();
+    }
+
+    void clearLater(String cacheName) {
+        synchronized (this) {
+            queueClear(cacheName);
+        }
+        replayIfClosed();
+    }
+
+    // Queued by a caller that was rejected just before the circuit closed
+    private void replayIfClosed() {
+        if (breaker.getState() == CircuitBreaker.State.CLOSED) {
+            replay();
+        }
+    }
+
+    private void queueClear(String cacheName) {
+        Set<Object> keys = pendingKeys.remove(cacheName);
+        if (keys != null) {
+            pendingCount -= keys.size();
+        }
+        if (pendingClears.add(cacheName)) {
+            pendingCount++;
+        }
+    }
+
+    /**
+     * Sends the queued invalidations to Redis. On failure everything taken is
+     * queued again (replaying an eviction twice is harmless) and the circuit
+     * opens.
+     */
+    private boolean replay() {
+        Set<String> clears;
+        Map<String, Set<Object>> keys;
+        synchronized (this) {
+            if (pendingCount == 0) {
+                return true;
+            }
+            clears = new HashSet<>(pendingClears);
+            keys = new HashMap<>(pendingKeys);
+            pendingClears.clear();
+            pendingKeys.clear();
+            pendingCount = 0;
+        }
+        try {
+            for (String cacheName : clears) {
+                remotes.get(cacheName).clear();
+                replayed.incrementAndGet();
+            }
+            for (Map.Entry<String, Set<Object>> entry : keys.entrySet()) {
+                if (clears.contains(entry.getKey())) {
+                    continue;
+                }
+                Cache remote = remotes.get(entry.getKey());
+                for (Object key : entry.getValue()) {
+                    remote.evict(key);
+                    replayed.incrementAndGet();
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                clears.forEach(this::queueClear);
+                keys.forEach((cacheName, cacheKeys) -> {
+                    if (!pendingClears.contains(cacheName)) {
+                        Set<Object> pending = pendingKeys.computeIfAbsent(cacheName, name -> new HashSet<>());
+                        for (Object key : cacheKeys) {
+                            if (pending.add(key)) {
+                                pendingCount++;
+                            }
+                        }
+                    }
+                });
+            }
+            invalidationFailed(e);
+            return false;
+        }
+    }
+
+    public CircuitBreaker.State getState() {
+        return breaker.getState();
+    }
+
+    public synchronized int getPendingInvalidations() {
+        return pendingCount;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.cache.redis.circuit-state", breaker, b -> b.getState().ordinal())
+                .description("Redis cache circuit: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+        FunctionCounter.builder("app.cache.redis.circuit-opened", breaker, CircuitBreaker::getTimesOpened)
+                .description("Times the Redis cache circuit opened")
+                .register(registry);
+        FunctionCounter.builder("app.cache.redis.failures", failures, AtomicLong::get)
+                .description("Redis cache calls that failed or timed out")
+                .register(registry);
+        FunctionCounter.builder("app.cache.fallback", fallbackHits, AtomicLong::get)
+                .description("Reads answered by the local fallback cache while Redis was unavailable")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("app.cache.fallback", fallbackMisses, AtomicLong::get)
+                .description("Reads answered by the local fallback cache while Redis was unavailable")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("app.cache.invalidations.pending", this, CacheFailover::getPendingInvalidations)
+                .description("Evictions and clears waiting for Redis to come back")
+                .register(registry);
+        FunctionCounter.builder("app.cache.invalidations.replayed", replayed, AtomicLong::get)
+                .description("Queued evictions and clears sent to Redis after it came back")
+                .register(registry);
+    }
+}
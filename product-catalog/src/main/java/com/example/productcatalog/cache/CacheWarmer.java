@@ -0,0 +1,220 @@
+package com.example.productcatalog.cache;
+
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.web.dto.ProductDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the hot products into the {@code products} and {@code productBySku}
+ * caches, so that a deploy or a cache flush is not followed by a burst of
+ * misses on Postgres.
+ *
+ * <p>The hot set is the featured products followed by the most read ones
+ * ({@link ProductAccessTracker}). It is read in batches and each batch is
+ * written to Redis in one pipeline, at no more than {@code rate} products a
+ * second. A run starts in the background at startup, and again once the
+ * product caches have been cleared and {@code flushDelay} has passed without
+ * another clear; a clear during a run abandons it.
+ *
+ * <p>A write may evict a product between the batch read and the cache write.
+ * Every eviction bumps a generation counter, and a batch written while it
+ * moved is deleted again rather than left stale.
+ */
+@Slf4j
+public class CacheWarmer implements MeterBinder {
+
+    static final String BY_ID = "products";
+    static final String BY_SKU = "productBySku";
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ProductAccessTracker accessTracker;
+    private final CacheManager cacheManager;
+    private final PipelinedCacheWriter writer;
+    private final int featuredLimit;
+    private final int hotLimit;
+    private final int batchSize;
+    private final int rate;
+    private final Duration flushDelay;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong clears = new AtomicLong();
+    private final AtomicLong runs = new AtomicLong();
+    private ScheduledFuture<?> scheduled;
+
+    private volatile int target;
+    private volatile int loaded;
+    private volatile long durationNanos;
+
+    public CacheWarmer(ProductService productService, ProductRepository productRepository,
+            ProductAccessTracker accessTracker, CacheManager cacheManager, PipelinedCacheWriter writer,
+            int featuredLimit, int hotLimit, int batchSize, int rate, Duration flushDelay) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.accessTracker = accessTracker;
+        this.cacheManager = cacheManager;
+        this.writer = writer;
+        this.featuredLimit = featuredLimit;
+        this.hotLimit = hotLimit;
+        this.batchSize = batchSize;
+        this.rate = rate;
+        this.flushDelay = flushDelay;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        schedule(Duration.ZERO, "startup");
+    }
+
+    /** Announced before every eviction from a product cache. */
+    public void onEvict() {
+        generation.incrementAndGet();
+    }
+
+    /** Announced before a product cache is cleared. */
+    public void onClear() {
+        generation.incrementAndGet();
+        clears.incrementAndGet();
+        schedule(flushDelay, "flush");
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private synchronized void schedule(Duration delay, String reason) {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = executor.schedule(() -> warm(reason), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void warm(String reason) {
+        long clearsAtStart = clears.get();
+        long start = System.nanoTime();
+        try {
+            List<Long> ids = hotSet();
+            target = ids.size();
+            loaded = 0;
+            log.info("Cache warm-up ({}) of {} products started", reason, ids.size());
+            Cache byId = rawCache(BY_ID);
+            Cache bySku = rawCache(BY_SKU);
+            long nanosPerBatch = rate > 0 ? TimeUnit.SECONDS.toNanos(batchSize) / rate : 0;
+            int reported = 0;
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                if (clears.get() != clearsAtStart) {
+                    log.info("Cache warm-up ({}) abandoned after {} products: caches cleared again", reason, loaded);
+                    return;
+                }
+                long batchStart = System.nanoTime();
+                loaded += load(ids.subList(from, Math.min(from + batchSize, ids.size())), byId, bySku);
+                int percent = ids.isEmpty() ? 100 : 100 * Math.min(from + batchSize, ids.size()) / ids.size();
+                if (percent / 25 > reported / 25) {
+                    reported = percent;
+                    log.info("Cache warm-up ({}): {}% ({} products)", reason, percent, loaded);
+                }
+                pace(nanosPerBatch - (System.nanoTime() - batchStart));
+            }
+            runs.incrementAndGet();
+            log.info("Cache warm-up ({}) loaded {} products in {} ms", reason, loaded,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up ({}) stopped after {} products: {}", reason, loaded, e.getMessage());
+        } finally {
+            durationNanos = System.nanoTime() - start;
+        }
+    }
+
+    private List<Long> hotSet() {
+        Set<Long> ids = new LinkedHashSet<>(productRepository.findFeaturedIds(Limit.of(featuredLimit)));
+        ids.addAll(accessTracker.topIds(hotLimit));
+        return new ArrayList<>(ids);
+    }
+
+    // Returns the number of products left in the caches
+    private int load(List<Long> ids, Cache byId, Cache bySku) {
+        long generationBefore = generation.get();
+        List<ProductDTO> products = productService.getProductsByIds(ids);
+        Map<Object, ProductDTO> idEntries = new HashMap<>();
+        Map<Object, ProductDTO> skuEntries = new HashMap<>();
+        for (ProductDTO product : products) {
+            idEntries.put(product.getId(), product);
+            skuEntries.put(product.getSku(), product);
+        }
+        writer.putAll(byId, idEntries);
+        writer.putAll(bySku, skuEntries);
+        if (generation.get() != generationBefore) {
+            // A write may have evicted one of these after they were read
+            writer.evictAll(byId, idEntries.keySet());
+            writer.evictAll(bySku, skuEntries.keySet());
+            return 0;
+        }
+        return products.size();
+    }
+
+    // The undecorated cache: warm-up writes are neither accesses nor subject to the circuit breaker
+    private Cache rawCache(String name) {
+        CacheManager target = cacheManager instanceof DecoratingCacheManager decorating
+                ? decorating.getTargetCacheManager()
+                : cacheManager;
+        Cache cache = target.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("No cache named " + name);
+        }
+        return cache;
+    }
+
+    private static void pace(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.cache.warming.target", this, warmer -> warmer.target)
+                .description("Products in the hot set of the current or last cache warm-up")
+                .register(registry);
+        Gauge.builder("app.cache.warming.loaded", this, warmer -> warmer.loaded)
+                .description("Products loaded so far by the current or last cache warm-up")
+                .register(registry);
+        FunctionCounter.builder("app.cache.warming.runs", runs, AtomicLong::get)
+                .description("Cache warm-ups completed")
+                .register(registry);
+        TimeGauge.builder("app.cache.warming.duration", this, TimeUnit.NANOSECONDS, warmer -> warmer.durationNanos)
+                .description("Time taken by the last cache warm-up")
+                .register(registry);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.productcatalog.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker.
+ *
+ * <p>After {@code failureThreshold} failures in a row the circuit opens and
+ * callers are turned away without trying. Once {@code openDuration} has
+ * passed, a single caller is let through as a trial; only a successful trial
+ * closes the circuit again, a failed one reopens it.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public enum Permission {
+        /** The circuit is open; do not call the backend. */
+        REJECTED,
+        /** The circuit is closed. */
+        PERMITTED,
+        /** The one trial call of a half-open circuit; its outcome decides the state. */
+        TRIAL
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong timesOpened = new AtomicLong();
+
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public Permission tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return Permission.PERMITTED;
+        }
+        if (current == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return Permission.TRIAL;
+        }
+        return Permission.REJECTED;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @return whether this closed the circuit, which only a trial can do
+     */
+    public boolean onSuccess(Permission permission) {
+        consecutiveFailures.set(0);
+        return permission == Permission.TRIAL && state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @return whether this opened the circuit
+     */
+    public boolean onFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            return trip();
+        }
+        return false;
+    }
+
+    /**
+     * Opens the circuit regardless of the failure count.
+     *
+     * @return whether it was not open already
+     */
+    public boolean trip() {
+        // Written before the state, so whoever sees OPEN also sees when
+        openedAt = nanoClock.getAsLong();
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.OPEN) != State.OPEN) {
+            timesOpened.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public long getTimesOpened() {
+        return timesOpened.get();
+    }
+}
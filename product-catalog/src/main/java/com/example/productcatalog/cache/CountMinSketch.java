@@ -0,0 +1,73 @@
+package com.example.productcatalog.cache;
+
+/**
+ * Approximate frequency counts in fixed memory: {@code depth} rows of
+ * {@code width} counters, each key hashed to one counter per row. A key's
+ * estimate is its smallest counter, which can overcount (collisions) but
+ * never undercounts. Increments are conservative, raising only the counters
+ * at the current minimum, which keeps collisions from inflating each other.
+ *
+ * <p>{@link #halve()} ages the counts so they follow recent traffic.
+ * Not thread-safe; callers synchronize.
+ */
+class CountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L };
+
+    private final int[][] counters;
+    private final int mask;
+
+    CountMinSketch(int width) {
+        int size = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.counters = new int[DEPTH][size];
+        this.mask = size - 1;
+    }
+
+    /** Counts one occurrence of the key and returns its new estimate. */
+    int increment(Object key) {
+        int hash = spread(key.hashCode());
+        int[] slots = new int[DEPTH];
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            slots[row] = index(hash, row);
+            min = Math.min(min, counters[row][slots[row]]);
+        }
+        if (min == Integer.MAX_VALUE) {
+            return min;
+        }
+        for (int row = 0; row < DEPTH; row++) {
+            if (counters[row][slots[row]] == min) {
+                counters[row][slots[row]] = min + 1;
+            }
+        }
+        return min + 1;
+    }
+
+    int estimate(Object key) {
+        int hash = spread(key.hashCode());
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    void halve() {
+        for (int[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+    }
+
+    private int index(int hash, int row) {
+        long mixed = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (mixed >>> 32) & mask;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
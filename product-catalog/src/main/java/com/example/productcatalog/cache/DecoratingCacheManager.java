@@ -0,0 +1,53 @@
+package com.example.productcatalog.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CacheManager} that applies the registered {@link CacheDecorator}s to
+ * the caches of the underlying manager (Redis in production).
+ */
+public class DecoratingCacheManager implements CacheManager {
+
+    private final CacheManager target;
+    private final List<CacheDecorator> decorators;
+    private final Map<String, Cache> decorated = new ConcurrentHashMap<>();
+
+    public DecoratingCacheManager(CacheManager target, List<CacheDecorator> decorators) {
+        this.target = target;
+        this.decorators = decorators;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = decorated.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache raw = target.getCache(name);
+        if (raw == null) {
+            return null;
+        }
+        return decorated.computeIfAbsent(name, key -> {
+            Cache result = raw;
+            for (CacheDecorator decorator : decorators) {
+                result = decorator.decorate(result);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+
+    public CacheManager getTargetCacheManager() {
+        return target;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.productcatalog.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Hot-key handling for the caches that have an {@link EntryLoader}:
+ * sampled read frequencies per key ({@link HotKeyTracker}), TTLs that follow
+ * them, and refresh-ahead of hot entries.
+ *
+ * <p>Hot keys get {@code maxTtl}, keys not read recently {@code minTtl} and
+ * the rest the configured TTL, each with up to {@code jitter} spread so
+ * entries written together do not expire together. A hot entry read within
+ * the last {@code refreshAhead} fraction of its TTL is reloaded in the
+ * background while the old value is still served.
+ */
+@Slf4j
+public class HotKeyMonitor implements MeterBinder {
+
+    /** Reloads a cache entry from its source; {@code null} if it no longer exists. */
+    @FunctionalInterface
+    public interface EntryLoader {
+        Object load(Object key, Object current);
+    }
+
+    private final Map<String, EntryLoader> loaders;
+    private final Map<String, HotKeyTracker> trackers = new ConcurrentHashMap<>();
+    private final int sampleRate;
+    private final int topK;
+    private final int sketchWidth;
+    private final Duration minTtl;
+    private final Duration maxTtl;
+    private final double jitter;
+    private final double refreshAhead;
+    private final LongSupplier nanoClock;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong refreshed = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong hotTtls = new AtomicLong();
+    private final AtomicLong defaultTtls = new AtomicLong();
+    private final AtomicLong coldTtls = new AtomicLong();
+
+    public HotKeyMonitor(Map<String, EntryLoader> loaders, int sampleRate, int topK, int sketchWidth,
+            Duration minTtl, Duration maxTtl, double jitter, double refreshAhead, int refreshThreads) {
+        this(loaders, sampleRate, topK, sketchWidth, minTtl, maxTtl, jitter, refreshAhead, refreshThreads,
+                System::nanoTime);
+    }
+
+    HotKeyMonitor(Map<String, EntryLoader> loaders, int sampleRate, int topK, int sketchWidth,
+            Duration minTtl, Duration maxTtl, double jitter, double refreshAhead, int refreshThreads,
+            LongSupplier nanoClock) {
+        this.loaders = Map.copyOf(loaders);
+        this.sampleRate = sampleRate;
+        this.topK = topK;
+        this.sketchWidth = sketchWidth;
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+        this.jitter = jitter;
+        this.refreshAhead = refreshAhead;
+        this.nanoClock = nanoClock;
+        // Bounded and lossy: a refresh that cannot be queued is left to the next read
+        this.executor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(topK), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-ahead");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /** Wraps the cache if it has a loader; other caches are returned as they are. */
+    public Cache decorate(Cache cache) {
+        return loaders.containsKey(cache.getName())
+                ? new RefreshAheadCache(cache, tracker(cache.getName()), this)
+                : cache;
+    }
+
+    /**
+     * The TTL for a cache's entries: {@code configured} adapted to how often
+     * each key is read. Persistent entries stay persistent.
+     */
+    public RedisCacheWriter.TtlFunction ttlFunction(String cacheName, RedisCacheWriter.TtlFunction configured) {
+        HotKeyTracker tracker = tracker(cacheName);
+        return (key, value) -> {
+            Duration ttl = configured.getTimeToLive(key, value);
+            if (ttl.isZero() || ttl.isNegative()) {
+                return ttl;
+            }
+            if (tracker.isHot(key)) {
+                hotTtls.incrementAndGet();
+                ttl = ttl.compareTo(maxTtl) < 0 ? maxTtl : ttl;
+            } else if (!tracker.isSeen(key)) {
+                coldTtls.incrementAndGet();
+                ttl = ttl.compareTo(minTtl) > 0 ? minTtl : ttl;
+            } else {
+                defaultTtls.incrementAndGet();
+            }
+            long spread = (long) (ttl.toMillis() * jitter);
+            if (spread > 0) {
+                ttl = ttl.plusMillis(ThreadLocalRandom.current().nextLong(-spread, spread + 1));
+            }
+            tracker.expiresAt(key, nanoClock.getAsLong() + ttl.toNanos());
+            return ttl;
+        };
+    }
+
+    public Map<String, HotKeyTracker> getTrackers() {
+        return Map.copyOf(trackers);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.hot-keys.decay-interval:1m}")
+    public void decay() {
+        trackers.values().forEach(HotKeyTracker::decay);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private HotKeyTracker tracker(String cacheName) {
+        return trackers.computeIfAbsent(cacheName, name -> new HotKeyTracker(sampleRate, topK, sketchWidth));
+    }
+
+    /** Whether a read of the key should trigger a refresh: hot and near the end of its TTL. */
+    boolean isDue(HotKeyTracker tracker, Object key) {
+        if (!tracker.isHot(key)) {
+            return false;
+        }
+        Long expiresAt = tracker.expiresAt(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        long window = (long) (maxTtl.toNanos() * refreshAhead);
+        return expiresAt - nanoClock.getAsLong() < window;
+    }
+
+    /**
+     * Reloads the entry in the background. {@code stillValid} is checked
+     * after the reload and again after the write, so an eviction that races
+     * the refresh is not overwritten with the value it evicted.
+     */
+    void refresh(Cache cache, HotKeyTracker tracker, Object key, Object current, BooleanSupplier stillValid) {
+        String id = cache.getName() + '\u0000' + key;
+        if (!inFlight.add(id)) {
+            return;
+        }
+        Long expiresAt = tracker.expiresAt(key);
+        try {
+            executor.execute(() -> {
+                try {
+                    Object value = loaders.get(cache.getName()).load(key, current);
+                    if (!stillValid.getAsBoolean()) {
+                        return;
+                    }
+                    if (value == null) {
+                        cache.evict(key);
+                        return;
+                    }
+                    cache.put(key, value);
+                    if (!stillValid.getAsBoolean()) {
+                        cache.evict(key);
+                        return;
+                    }
+                    refreshed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    refreshFailures.incrementAndGet();
+                    log.debug("Refresh-ahead of {} in {} failed: {}", key, cache.getName(), e.getMessage());
+                } finally {
+                    // Not rewritten in Redis by this instance: stop refreshing until it is
+                    if (Objects.equals(tracker.expiresAt(key), expiresAt)) {
+                        tracker.forgetExpiry(key);
+                    }
+                    inFlight.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("app.cache.refresh-ahead", refreshed, AtomicLong::get)
+                .tag("result", "refreshed")
+                .description("Hot cache entries reloaded before they expired")
+                .register(registry);
+        FunctionCounter.builder("app.cache.refresh-ahead", refreshFailures, AtomicLong::get)
+                .tag("result", "failed")
+                .description("Hot cache entries whose reload failed")
+                .register(registry);
+        FunctionCounter.builder("app.cache.ttl.assigned", hotTtls, AtomicLong::get)
+                .tag("tier", "hot")
+                .description("Cache entries written with the hot-key TTL")
+                .register(registry);
+        FunctionCounter.builder("app.cache.ttl.assigned", defaultTtls, AtomicLong::get)
+                .tag("tier", "default")
+                .description("Cache entries written with the configured TTL")
+                .register(registry);
+        FunctionCounter.builder("app.cache.ttl.assigned", coldTtls, AtomicLong::get)
+                .tag("tier", "cold")
+                .description("Cache entries written with the cold-key TTL")
+                .register(registry);
+    }
+}
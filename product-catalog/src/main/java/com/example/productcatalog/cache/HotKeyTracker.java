@@ -0,0 +1,98 @@
+package com.example.productcatalog.cache;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampled read frequencies for the keys of one cache. One read in
+ * {@code sampleRate} is counted in a {@link CountMinSketch}; the
+ * {@code topK} keys with the highest estimates are the hot keys. For hot
+ * keys the tracker also remembers when their Redis entry expires, as set by
+ * this instance, so they can be refreshed before that.
+ */
+public class HotKeyTracker {
+
+    /** A hot key with its estimated reads since counts were last halved. */
+    public record HotKey(Object key, long estimatedReads) {
+    }
+
+    private final int sampleRate;
+    private final int topK;
+    private final CountMinSketch sketch;
+    private final Map<Object, Integer> hot = new HashMap<>();
+    private final Map<Object, Long> expiresAt = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(int sampleRate, int topK, int sketchWidth) {
+        this.sampleRate = Math.max(1, sampleRate);
+        this.topK = topK;
+        this.sketch = new CountMinSketch(sketchWidth);
+    }
+
+    public void record(Object key) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        synchronized (this) {
+            int estimate = sketch.increment(key);
+            if (hot.containsKey(key) || hot.size() < topK) {
+                hot.put(key, estimate);
+                return;
+            }
+            Map.Entry<Object, Integer> coldest = null;
+            for (Map.Entry<Object, Integer> entry : hot.entrySet()) {
+                if (coldest == null || entry.getValue() < coldest.getValue()) {
+                    coldest = entry;
+                }
+            }
+            if (coldest != null && estimate > coldest.getValue()) {
+                hot.remove(coldest.getKey());
+                expiresAt.remove(coldest.getKey());
+                hot.put(key, estimate);
+            }
+        }
+    }
+
+    public synchronized boolean isHot(Object key) {
+        return hot.containsKey(key);
+    }
+
+    /** Whether the key has been read at all since counts were last halved (as far as sampling saw). */
+    public synchronized boolean isSeen(Object key) {
+        return sketch.estimate(key) > 0;
+    }
+
+    /** Halves every count, so keys that stop being read cool down. */
+    public synchronized void decay() {
+        sketch.halve();
+        hot.replaceAll((key, estimate) -> estimate >>> 1);
+        hot.values().removeIf(estimate -> estimate == 0);
+        expiresAt.keySet().retainAll(hot.keySet());
+    }
+
+    public void expiresAt(Object key, long nanoTime) {
+        if (isHot(key)) {
+            expiresAt.put(key, nanoTime);
+        }
+    }
+
+    public void forgetExpiry(Object key) {
+        expiresAt.remove(key);
+    }
+
+    /** When this instance last set the key's entry to expire, or {@code null} if unknown. */
+    public Long expiresAt(Object key) {
+        return expiresAt.get(key);
+    }
+
+    public synchronized List<HotKey> topKeys(int limit) {
+        return hot.entrySet().stream()
+                .sorted(Map.Entry.<Object, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> new HotKey(entry.getKey(), (long) entry.getValue() * sampleRate))
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.productcatalog.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/hotkeys}: the most read keys of each cache, with their
+ * estimated reads since the counts were last halved.
+ * {@code /actuator/hotkeys/{cache}} narrows it to one cache.
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HotKeyMonitor monitor;
+
+    public HotKeysEndpoint(HotKeyMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public Map<String, List<HotKeyTracker.HotKey>> hotKeys(@Nullable Integer limit) {
+        Map<String, List<HotKeyTracker.HotKey>> hotKeys = new TreeMap<>();
+        monitor.getTrackers().forEach((cache, tracker) -> hotKeys.put(cache, tracker.topKeys(limit(limit))));
+        return hotKeys;
+    }
+
+    @ReadOperation
+    public List<HotKeyTracker.HotKey> cacheHotKeys(@Selector String cache, @Nullable Integer limit) {
+        HotKeyTracker tracker = monitor.getTrackers().get(cache);
+        return tracker != null ? tracker.topKeys(limit(limit)) : null;
+    }
+
+    private static int limit(Integer limit) {
+        return limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.productcatalog.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+
+/**
+ * Small in-process cache used while Redis is unreachable: least recently
+ * used entries beyond {@code maxEntries} are dropped, and every entry expires
+ * after {@code ttl}. The short TTL bounds how stale an entry can be, since
+ * writes on other instances do not reach it.
+ */
+public class LocalFallbackCache extends AbstractValueAdaptingCache {
+
+    private record Entry(Object value, long expiresAt) {
+    }
+
+    private final String name;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Object, Entry> entries;
+
+    public LocalFallbackCache(String name, int maxEntries, Duration ttl) {
+        this(name, maxEntries, ttl, System::nanoTime);
+    }
+
+    LocalFallbackCache(String name, int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        super(true);
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    protected synchronized Object lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        // Loaded outside the lock; concurrent misses may each load once
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public synchronized void put(Object key, Object value) {
+        entries.put(key, new Entry(toStoreValue(value), nanoClock.getAsLong() + ttlNanos));
+    }
+
+    @Override
+    public synchronized ValueWrapper putIfAbsent(Object key, Object value) {
+        Object existing = lookup(key);
+        if (existing != null) {
+            return toValueWrapper(existing);
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public synchronized void evict(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized boolean evictIfPresent(Object key) {
+        return entries.remove(key) != null;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized boolean invalidate() {
+        boolean notEmpty = !entries.isEmpty();
+        entries.clear();
+        return notEmpty;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.productcatalog.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes many entries into a cache at once. For a {@link RedisCache} the
+ * commands go out in one pipeline, one round trip instead of one per entry,
+ * with the same key prefix, serializers and TTL as {@link RedisCache#put}.
+ * Other caches are written entry by entry.
+ */
+public class PipelinedCacheWriter {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    public PipelinedCacheWriter(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    public void putAll(Cache cache, Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (!(cache instanceof RedisCache redisCache)) {
+            entries.forEach(cache::put);
+            return;
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                for (Map.Entry<?, ?> entry : entries.entrySet()) {
+                    Duration ttl = config.getTtlFunction().getTimeToLive(entry.getKey(), entry.getValue());
+                    connection.stringCommands().set(cacheKey(redisCache, entry.getKey()),
+                            ByteUtils.getBytes(config.getValueSerializationPair().write(entry.getValue())),
+                            ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                            RedisStringCommands.SetOption.upsert());
+                }
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+    public void evictAll(Cache cache, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!(cache instanceof RedisCache redisCache)) {
+            keys.forEach(cache::evict);
+            return;
+        }
+        byte[][] cacheKeys = keys.stream().map(key -> cacheKey(redisCache, key)).toArray(byte[][]::new);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(cacheKeys);
+        }
+    }
+
+    // As RedisCache.createCacheKey, which is not public
+    private static byte[] cacheKey(RedisCache cache, Object key) {
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        String converted = key instanceof String text ? text
+                : config.getConversionService().convert(key, String.class);
+        String cacheKey = config.usePrefix() ? config.getKeyPrefixFor(cache.getName()) + converted : converted;
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(cacheKey));
+    }
+}
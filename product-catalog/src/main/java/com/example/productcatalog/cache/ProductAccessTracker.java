@@ -0,0 +1,110 @@
+package com.example.productcatalog.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sampled read counts per product, shared through a Redis sorted set so that
+ * a freshly started instance knows which products are hot.
+ *
+ * <p>One read in {@code sampleRate} is counted locally. Every publish
+ * interval the set's scores are halved and the local counts added, so the
+ * ranking follows recent traffic, and the set is trimmed to
+ * {@code maxTracked} products.
+ */
+@Slf4j
+public class ProductAccessTracker {
+
+    private final StringRedisTemplate redis;
+    private final String key;
+    private final int sampleRate;
+    private final int maxTracked;
+    private final Map<Long, LongAdder> counts = new ConcurrentHashMap<>();
+
+    public ProductAccessTracker(StringRedisTemplate redis, String key, int sampleRate, int maxTracked) {
+        this.redis = redis;
+        this.key = key;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.maxTracked = maxTracked;
+    }
+
+    public void record(Long productId) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        LongAdder count = counts.get(productId);
+        if (count == null) {
+            if (counts.size() >= maxTracked) {
+                return;
+            }
+            count = counts.computeIfAbsent(productId, id -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.warming.publish-interval:1m}")
+    public void publish() {
+        if (counts.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> drained = new HashMap<>();
+        for (Long id : List.copyOf(counts.keySet())) {
+            LongAdder count = counts.remove(id);
+            if (count != null) {
+                drained.put(id, count.sum());
+            }
+        }
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                connection.zSetCommands().zUnionStore(rawKey, Aggregate.SUM, Weights.of(0.5), rawKey);
+                drained.forEach((id, count) -> connection.zSetCommands().zIncrBy(rawKey, count,
+                        id.toString().getBytes(StandardCharsets.UTF_8)));
+                connection.zSetCommands().zRemRange(rawKey, 0, -(maxTracked + 1L));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.debug("Product access counts not published: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The most read products, hottest first: the shared ranking, or this
+     * instance's unpublished counts if Redis cannot be read.
+     */
+    public List<Long> topIds(int limit) {
+        try {
+            Set<String> ids = redis.opsForZSet().reverseRange(key, 0, limit - 1L);
+            if (ids != null && !ids.isEmpty()) {
+                List<Long> top = new ArrayList<>(ids.size());
+                for (String id : ids) {
+                    top.add(Long.valueOf(id));
+                }
+                return top;
+            }
+        } catch (RuntimeException e) {
+            log.debug("Shared product ranking unavailable: {}", e.getMessage());
+        }
+        return counts.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, LongAdder> entry) -> entry.getValue().sum())
+                        .reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.productcatalog.cache;
+
+import com.example.productcatalog.repository.projection.ProductField;
+import jakarta.persistence.Tuple;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Evicts written products from the {@code products} (by id) and
+ * {@code productBySku} caches, for writes that bypass {@code @CacheEvict}:
+ * merge patches, bulk and write-behind updates, reservations and archiving.
+ */
+@Component
+public class ProductCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    public ProductCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void evict(Long id, String sku) {
+        Cache byId = cacheManager.getCache("products");
+        Cache bySku = cacheManager.getCache("productBySku");
+        if (byId != null) {
+            byId.evict(id);
+        }
+        if (bySku != null) {
+            bySku.evict(sku);
+        }
+    }
+
+    /** Evicts each of the products, given how to read a product's id and SKU. */
+    public <T> void evict(Collection<T> products, Function<T, Long> id, Function<T, String> sku) {
+        Cache byId = cacheManager.getCache("products");
+        Cache bySku = cacheManager.getCache("productBySku");
+        for (T product : products) {
+            if (byId != null) {
+                byId.evict(id.apply(product));
+            }
+            if (bySku != null) {
+                bySku.evict(sku.apply(product));
+            }
+        }
+    }
+
+    /** Evicts the products of rows selected with the {@code ID} and {@code SKU} columns. */
+    public void evictRows(Collection<Tuple> rows) {
+        evict(rows, row -> row.get(ProductField.ID.name(), Long.class),
+                row -> row.get(ProductField.SKU.name(), String.class));
+    }
+
+    /**
+     * Evicts one product once the current transaction commits, so a read in
+     * between cannot cache the old row again; nothing is evicted on rollback.
+     * Without a transaction the product is evicted right away.
+     */
+    public void evictAfterCommit(Long id, String sku) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(id, sku);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(id, sku);
+            }
+        });
+    }
+}
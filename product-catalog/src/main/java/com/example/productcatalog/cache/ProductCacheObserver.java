@@ -0,0 +1,88 @@
+package com.example.productcatalog.cache;
+
+import com.example.productcatalog.web.dto.ProductDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Reports the reads and invalidations of a product cache to the
+ * {@link CacheWarmer}: every product read or cached counts as an access,
+ * every eviction or clear is announced before it reaches the cache. Reads
+ * under {@link AccessTracking#suppress()} are not counted.
+ */
+public class ProductCacheObserver extends DelegatingCache {
+
+    private final ProductAccessTracker accessTracker;
+    private final ObjectProvider<CacheWarmer> warmer;
+
+    public ProductCacheObserver(Cache delegate, ProductAccessTracker accessTracker,
+            ObjectProvider<CacheWarmer> warmer) {
+        super(delegate);
+        this.accessTracker = accessTracker;
+        this.warmer = warmer;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = super.get(key);
+        if (value != null) {
+            record(value.get());
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = super.get(key, type);
+        record(value);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        T value = super.get(key, valueLoader);
+        record(value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        record(value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        warmer.ifAvailable(CacheWarmer::onEvict);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        warmer.ifAvailable(CacheWarmer::onEvict);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        warmer.ifAvailable(CacheWarmer::onClear);
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        warmer.ifAvailable(CacheWarmer::onClear);
+        return super.invalidate();
+    }
+
+    private void record(Object value) {
+        if (AccessTracking.isSuppressed()) {
+            return;
+        }
+        if (value instanceof ProductDTO product && product.getId() != null) {
+            accessTracker.record(product.getId());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.productcatalog.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the reads of each key ({@link HotKeyTracker}) and, on a hit for a
+ * hot key close to expiring, has the {@link HotKeyMonitor} reload it in the
+ * background. Evictions bump a generation, and a refresh that overlapped one
+ * is discarded. Reads under {@link AccessTracking#suppress()} are neither
+ * counted nor trigger a refresh.
+ */
+public class RefreshAheadCache extends DelegatingCache {
+
+    private final HotKeyTracker tracker;
+    private final HotKeyMonitor monitor;
+    private final AtomicLong generation = new AtomicLong();
+
+    public RefreshAheadCache(Cache delegate, HotKeyTracker tracker, HotKeyMonitor monitor) {
+        super(delegate);
+        this.tracker = tracker;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = super.get(key);
+        read(key, value != null ? value.get() : null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = super.get(key, type);
+        read(key, value);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        T value = super.get(key, valueLoader);
+        read(key, value);
+        return value;
+    }
+
+    @Override
+    public void evict(Object key) {
+        generation.incrementAndGet();
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        generation.incrementAndGet();
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        generation.incrementAndGet();
+        return super.invalidate();
+    }
+
+    private void read(Object key, Object value) {
+        if (AccessTracking.isSuppressed()) {
+            return;
+        }
+        tracker.record(key);
+        if (value != null && monitor.isDue(tracker, key)) {
+            long before = generation.get();
+            monitor.refresh(getDelegate(), tracker, key, value, () -> generation.get() == before);
+        }
+    }
+}
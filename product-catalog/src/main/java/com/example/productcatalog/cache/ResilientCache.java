@@ -0,0 +1,158 @@
+package com.example.productcatalog.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps a Redis outage from stalling the callers of one cache. Every call
+ * goes through the {@link CacheFailover}'s circuit breaker. While the circuit
+ * is open, and for any call that fails or times out, reads and writes use the
+ * local fallback cache instead, so a miss falls through to the database.
+ * Evictions and clears are applied locally and queued for Redis.
+ */
+public class ResilientCache extends DelegatingCache {
+
+    private final LocalFallbackCache local;
+    private final CacheFailover failover;
+
+    public ResilientCache(Cache delegate, LocalFallbackCache local, CacheFailover failover) {
+        super(delegate);
+        this.local = local;
+        this.failover = failover;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CircuitBreaker.Permission permission = failover.acquire();
+        if (permission != CircuitBreaker.Permission.REJECTED) {
+            try {
+                ValueWrapper value = super.get(key);
+                failover.succeeded(permission);
+                return value;
+            } catch (RuntimeException e) {
+                failover.failed(e);
+            }
+        }
+        ValueWrapper value = local.get(key);
+        failover.recordFallback(value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CircuitBreaker.Permission permission = failover.acquire();
+        if (permission != CircuitBreaker.Permission.REJECTED) {
+            try {
+                T value = super.get(key, type);
+                failover.succeeded(permission);
+                return value;
+            } catch (RuntimeException e) {
+                failover.failed(e);
+            }
+        }
+        T value = local.get(key, type);
+        failover.recordFallback(value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CircuitBreaker.Permission permission = failover.acquire();
+        if (permission != CircuitBreaker.Permission.REJECTED) {
+            try {
+                T value = super.get(key, valueLoader);
+                failover.succeeded(permission);
+                return value;
+            } catch (ValueRetrievalException e) {
+                // The loader failed, not Redis
+                failover.succeeded(permission);
+                throw e;
+            } catch (RuntimeException e) {
+                failover.failed(e);
+            }
+        }
+        failover.recordFallback(local.get(key) != null);
+        return local.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        CircuitBreaker.Permission permission = failover.acquire();
+        if (permission != CircuitBreaker.Permission.REJECTED) {
+            try {
+                super.put(key, value);
+                failover.succeeded(permission);
+                return;
+            } catch (RuntimeException e) {
+                failover.failed(e);
+            }
+        }
+        local.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        CircuitBreaker.Permission permission = failover.acquire();
+        if (permission != CircuitBreaker.Permission.REJECTED) {
+            try {
+                ValueWrapper existing = super.putIfAbsent(key, value);
+                failover.succeeded(permission);
+                return existing;
+            } catch (RuntimeException e) {
+                failover.failed(e);
+            }
+        }
+        return local.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        invalidateRemote(() -> {
+            super.evict(key);
+            return true;
+        }, () -> failover.evictLater(getName(), key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean localPresent = local.evictIfPresent(key);
+        boolean remotePresent = invalidateRemote(() -> super.evictIfPresent(key),
+                () -> failover.evictLater(getName(), key));
+        return localPresent || remotePresent;
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        invalidateRemote(() -> {
+            super.clear();
+            return true;
+        }, () -> failover.clearLater(getName()));
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean localPresent = local.invalidate();
+        boolean remotePresent = invalidateRemote(super::invalidate, () -> failover.clearLater(getName()));
+        return localPresent || remotePresent;
+    }
+
+    // Returns Redis's answer, or false once the invalidation has been queued instead
+    private boolean invalidateRemote(BooleanSupplier remote, Runnable queue) {
+        CircuitBreaker.Permission permission = failover.acquire();
+        if (permission != CircuitBreaker.Permission.REJECTED) {
+            try {
+                boolean result = remote.getAsBoolean();
+                failover.succeeded(permission);
+                return result;
+            } catch (RuntimeException e) {
+                failover.invalidationFailed(e);
+            }
+        }
+        queue.run();
+        return false;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.productcatalog.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit.
+ *
+ * <p>Each completed call reports its latency. A call slower than the
+ * latency threshold, or one that failed, shrinks the limit by the backoff
+ * ratio; a fast call grows it by one once at least half the limit is in use.
+ * When the backend slows down the limit therefore drops quickly, and excess
+ * requests are rejected up front instead of queueing until clients time out.
+ *
+ * <p>Only a call that started after the last decrease can shrink the limit
+ * again. The calls already in flight when the backend slowed down all come
+ * back slow together; they are one congestion signal, not one each, and
+ * counting them separately would collapse the limit to its minimum.
+ */
+public class AdaptiveLimit implements MeterBinder {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    // Guarded by this
+    private long lastDecreaseAt;
+    private volatile Counter rejectedCounter;
+
+    public AdaptiveLimit(String name, int initialLimit, int minLimit, int maxLimit,
+            Duration latencyThreshold, double backoffRatio) {
+        this(name, initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveLimit(String name, int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+            double backoffRatio, LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                    "Limit " + name + " requires 1 <= min <= initial <= max, got " + minLimit + "/" + initialLimit + "/" + maxLimit);
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.lastDecreaseAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Claims a slot without waiting.
+     *
+     * @return {@code false} if the limit is reached and the call should be shed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                Counter counter = rejectedCounter;
+                if (counter != null) {
+                    counter.increment();
+                }
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot claimed by {@link #tryAcquire()} and feeds the sample
+     * into the limit.
+     *
+     * @param latencyNanos observed latency of the call
+     * @param failed       whether the call failed in a way that signals overload
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        long now = nanoClock.getAsLong();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                // Started before the last decrease: already accounted for
+                if (now - latencyNanos - lastDecreaseAt >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseAt = now;
+                }
+            } else if (current * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.load-shedding.limit", this, AdaptiveLimit::getLimit)
+                .tag("budget", name)
+                .register(registry);
+        Gauge.builder("app.load-shedding.in-flight", this, AdaptiveLimit::getInFlight)
+                .tag("budget", name)
+                .register(registry);
+        rejectedCounter = Counter.builder("app.load-shedding.rejected")
+                .description("Requests rejected with 503 because the budget was exhausted")
+                .tag("budget", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.productcatalog.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fair bulkhead in front of a shared backend (database, Redis).
+ *
+ * <p>Callers beyond {@code maxConcurrent} wait in FIFO order for up to
+ * {@code acquireTimeout}. The time spent waiting is recorded, so overload
+ * shows up as a measurable queue rather than as blocked request threads.
+ * This matters most with virtual threads, where thousands of requests can
+ * be in flight cheaply but the backend still has a fixed capacity.
+ */
+public class ConcurrencyLimiter implements MeterBinder {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private volatile Timer queueTimer;
+    private volatile Counter rejectedCounter;
+
+    public ConcurrencyLimiter(String name, int maxConcurrent, Duration acquireTimeout) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1 for limiter " + name);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Waits up to the configured timeout for a permit.
+     *
+     * @return {@code true} if a permit was acquired and must be released
+     */
+    public boolean acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        queued.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+        Timer timer = queueTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired && rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.concurrency.limit", this, ConcurrencyLimiter::getMaxConcurrent)
+                .tag("limiter", name)
+                .register(registry);
+        Gauge.builder("app.concurrency.in-flight", this, ConcurrencyLimiter::getInFlight)
+                .tag("limiter", name)
+                .register(registry);
+        Gauge.builder("app.concurrency.queued", this, ConcurrencyLimiter::getQueued)
+                .tag("limiter", name)
+                .register(registry);
+        rejectedCounter = Counter.builder("app.concurrency.rejected")
+                .description("Callers that timed out waiting for a permit")
+                .tag("limiter", name)
+                .register(registry);
+        queueTimer = Timer.builder("app.concurrency.queue-time")
+                .description("Time spent waiting for a permit")
+                .tag("limiter", name)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
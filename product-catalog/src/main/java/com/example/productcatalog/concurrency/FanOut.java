@@ -0,0 +1,155 @@
+package com.example.productcatalog.concurrency;
+
+import com.example.productcatalog.datasource.ReadYourWritesContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sections of an aggregate response at the same time
+ * on a bounded pool, each with its own deadline.
+ *
+ * <p>A section that fails or misses its deadline yields {@code null} and is
+ * reported by {@link Section#isFailed()}, so the caller can answer with the
+ * other sections. A late section keeps its pool thread (and any connection)
+ * until it finishes; the pool size bounds how many can pile up. When the
+ * pool and its queue are full, a section is refused and fails at once:
+ * running it on the calling thread would block the caller past the deadline
+ * for as long as the section takes.
+ */
+@Slf4j
+public class FanOut implements MeterBinder {
+
+    private final String name;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+
+    private volatile MeterRegistry registry;
+
+    public FanOut(String name, int threads, int queueCapacity, Duration timeout) {
+        this.name = name;
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-section-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /** Starts loading a section; collect it with {@link Section#join()}. */
+    public <T> Section<T> start(String section, Supplier<T> loader) {
+        long start = System.nanoTime();
+        // Sections read on behalf of the request: keep its replica routing
+        boolean primaryRequired = ReadYourWritesContext.isPrimaryRequired();
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                if (primaryRequired) {
+                    ReadYourWritesContext.requirePrimary();
+                }
+                try {
+                    return loader.get();
+                } finally {
+                    if (primaryRequired) {
+                        ReadYourWritesContext.clear();
+                    }
+                }
+            }, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, failure) -> record(section, start, failure));
+        return new Section<>(section, future);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private void record(String section, long start, Throwable failure) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        Timer.builder("app.fan-out.section")
+                .description("Time for a section of an aggregate response to load or give up")
+                .tag("name", name)
+                .tag("section", section)
+                .tag("outcome", outcome(failure))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        Throwable cause = unwrap(failure);
+        if (cause instanceof TimeoutException) {
+            return "timeout";
+        }
+        return cause instanceof RejectedExecutionException ? "rejected" : "failure";
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    public static final class Section<T> {
+
+        private final String name;
+        private final CompletableFuture<T> future;
+        private volatile boolean failed;
+
+        private Section(String name, CompletableFuture<T> future) {
+            this.name = name;
+            this.future = future;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Waits for the section, at most until its deadline; {@code null} if it failed or timed out. */
+        public T join() {
+            try {
+                return future.join();
+            } catch (CompletionException | CancellationException e) {
+                failed = true;
+                Throwable cause = unwrap(e);
+                if (cause instanceof TimeoutException) {
+                    log.warn("Section {} timed out", name);
+                } else if (cause instanceof RejectedExecutionException) {
+                    log.warn("Section {} refused: the pool and its queue are full", name);
+                } else {
+                    log.warn("Section {} failed: {}", name, cause.toString());
+                }
+                return null;
+            }
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.productcatalog.concurrency;
+
+import com.example.productcatalog.cache.DelegatingCache;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Runs cache reads and writes under a {@link ConcurrencyLimiter}. A caller
+ * that cannot get a permit in time treats the cache as a miss (reads) or
+ * skips populating it (writes) instead of piling up on Redis. Evictions are
+ * never limited, so invalidation is not lost under load.
+ */
+public class LimitedCache extends DelegatingCache {
+
+    private final ConcurrencyLimiter limiter;
+
+    public LimitedCache(Cache delegate, ConcurrencyLimiter limiter) {
+        super(delegate);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (!acquire()) {
+            return null;
+        }
+        try {
+            return super.get(key);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        if (!acquire()) {
+            return null;
+        }
+        try {
+            return super.get(key, type);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (!acquire()) {
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+        try {
+            return super.get(key, valueLoader);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!acquire()) {
+            return;
+        }
+        try {
+            super.put(key, value);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (!acquire()) {
+            return null;
+        }
+        try {
+            return super.putIfAbsent(key, value);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.cache.CacheDecorator;
+import com.example.productcatalog.cache.CacheFailover;
+import com.example.productcatalog.cache.CircuitBreaker;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+
+/**
+ * Redis fault tolerance for the caches, enabled with
+ * {@code app.cache.resilience.enabled=true}. Command and connect timeouts
+ * ({@code spring.data.redis.timeout}, {@code connect-timeout}) bound each
+ * call; a circuit breaker then stops calling Redis after repeated failures
+ * and serves from small local caches until a trial call succeeds. Without
+ * it, a Redis error fails the request that hit it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.resilience.enabled", havingValue = "true")
+public class CacheResilienceConfig {
+
+    @Bean
+    public CacheFailover cacheFailover(
+            @Value("${app.cache.resilience.failure-threshold:5}") int failureThreshold,
+            @Value("${app.cache.resilience.open-duration:5s}") Duration openDuration,
+            @Value("${app.cache.resilience.local.max-entries:10000}") int localMaxEntries,
+            @Value("${app.cache.resilience.local.ttl:30s}") Duration localTtl,
+            @Value("${app.cache.resilience.max-pending-invalidations:10000}") int maxPendingInvalidations) {
+        return new CacheFailover(new CircuitBreaker(failureThreshold, openDuration), localMaxEntries, localTtl,
+                maxPendingInvalidations);
+    }
+
+    @Bean
+    public CacheDecorator resilientCacheDecorator(CacheFailover cacheFailover) {
+        return new CacheDecorator() {
+            @Override
+            public Cache decorate(Cache cache) {
+                return cacheFailover.decorate(cache);
+            }
+
+            @Override
+            public int getOrder() {
+                // Just outside the concurrency limit, whose rejections are plain misses, not Redis failures
+                return Ordered.HIGHEST_PRECEDENCE + 1;
+            }
+        };
+    }
+
+    // Fail at once while disconnected instead of buffering commands until they time out.
+    // Replaces Boot's client options, so repeats its connect timeout and timeout options.
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer rejectCommandsWhileDisconnected(RedisProperties properties) {
+        return builder -> {
+            ClientOptions.Builder options = ClientOptions.builder()
+                    .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                    .timeoutOptions(TimeoutOptions.enabled());
+            if (properties.getConnectTimeout() != null) {
+                options.socketOptions(SocketOptions.builder().connectTimeout(properties.getConnectTimeout()).build());
+            }
+            builder.clientOptions(options.build());
+        };
+    }
+
+    // Clears with SCAN batches rather than one KEYS call, so each command fits the timeout
+    @Bean
+    public RedisCacheManagerBuilderCustomizer scanningRedisCacheWriter(RedisConnectionFactory connectionFactory) {
+        return builder -> builder.cacheWriter(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)));
+    }
+}
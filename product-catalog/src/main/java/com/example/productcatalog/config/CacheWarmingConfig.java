@@ -0,0 +1,79 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.cache.CacheDecorator;
+import com.example.productcatalog.cache.CacheWarmer;
+import com.example.productcatalog.cache.PipelinedCacheWriter;
+import com.example.productcatalog.cache.ProductAccessTracker;
+import com.example.productcatalog.cache.ProductCacheObserver;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.service.ProductService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Product cache pre-warming, enabled with {@code app.cache.warming.enabled=true}.
+ * The featured and most read products are loaded into the product caches at
+ * startup and after a flush. Without it, the caches fill from misses.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.warming.enabled", havingValue = "true")
+public class CacheWarmingConfig {
+
+    private static final Set<String> PRODUCT_CACHES = Set.of("products", "productBySku");
+
+    @Bean
+    public ProductAccessTracker productAccessTracker(StringRedisTemplate redisTemplate,
+            @Value("${app.cache.warming.hot-set-key:product-catalog:hot-products}") String key,
+            @Value("${app.cache.warming.access-sample-rate:10}") int sampleRate,
+            @Value("${app.cache.warming.hot-limit:2000}") int hotLimit) {
+        return new ProductAccessTracker(redisTemplate, key, sampleRate, hotLimit);
+    }
+
+    @Bean
+    public PipelinedCacheWriter pipelinedCacheWriter(RedisConnectionFactory connectionFactory) {
+        return new PipelinedCacheWriter(connectionFactory);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public CacheWarmer cacheWarmer(ProductService productService, ProductRepository productRepository,
+            ProductAccessTracker productAccessTracker, CacheManager cacheManager,
+            PipelinedCacheWriter pipelinedCacheWriter,
+            @Value("${app.cache.warming.featured-limit:500}") int featuredLimit,
+            @Value("${app.cache.warming.hot-limit:2000}") int hotLimit,
+            @Value("${app.cache.warming.batch-size:200}") int batchSize,
+            @Value("${app.cache.warming.rate:1000}") int rate,
+            @Value("${app.cache.warming.flush-delay:5s}") Duration flushDelay) {
+        return new CacheWarmer(productService, productRepository, productAccessTracker, cacheManager,
+                pipelinedCacheWriter, featuredLimit, hotLimit, batchSize, rate, flushDelay);
+    }
+
+    // Looks the warmer up lazily: it needs the CacheManager this decorates
+    @Bean
+    public CacheDecorator productCacheObserverDecorator(ProductAccessTracker productAccessTracker,
+            ObjectProvider<CacheWarmer> cacheWarmer) {
+        return new CacheDecorator() {
+            @Override
+            public Cache decorate(Cache cache) {
+                return PRODUCT_CACHES.contains(cache.getName())
+                        ? new ProductCacheObserver(cache, productAccessTracker, cacheWarmer)
+                        : cache;
+            }
+
+            @Override
+            public int getOrder() {
+                // Outside the circuit breaker, so reads served locally during an outage still count
+                return 0;
+            }
+        };
+    }
+}
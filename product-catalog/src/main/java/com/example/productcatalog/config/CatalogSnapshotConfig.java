@@ -0,0 +1,27 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.search.CatalogSnapshotStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * On-disk snapshot of the in-memory catalog indexes, enabled with
+ * {@code app.catalog-index.snapshot.enabled=true}. Without it, every startup
+ * loads the indexes by scanning {@code products}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.catalog-index.snapshot.enabled", havingValue = "true")
+public class CatalogSnapshotConfig {
+
+    @Bean
+    public CatalogSnapshotStore catalogSnapshotStore(
+            @Value("${app.catalog-index.snapshot.dir:./data/catalog-snapshot}") Path directory,
+            @Value("${app.catalog-index.snapshot.max-age:24h}") Duration maxAge) {
+        return new CatalogSnapshotStore(directory, maxAge);
+    }
+}
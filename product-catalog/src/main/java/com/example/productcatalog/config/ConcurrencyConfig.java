@@ -0,0 +1,82 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.cache.CacheDecorator;
+import com.example.productcatalog.concurrency.ConcurrencyLimiter;
+import com.example.productcatalog.concurrency.LimitedCache;
+import com.example.productcatalog.concurrency.LimitedDataSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Explicit bulkheads for the database and Redis, enabled with
+ * {@code app.concurrency.enabled=true}. Intended for virtual-thread mode
+ * ({@code spring.threads.virtual.enabled=true} on JDK 21+), where request
+ * threads are no longer the thing that bounds concurrency.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true")
+public class ConcurrencyConfig {
+
+    // The name of Spring Boot's data source, and of the @Primary one sharding and replicas define instead
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public ConcurrencyLimiter dbConcurrencyLimiter(
+            @Value("${app.concurrency.db.max-concurrent:10}") int maxConcurrent,
+            @Value("${app.concurrency.db.acquire-timeout:30s}") Duration acquireTimeout) {
+        return new ConcurrencyLimiter("db", maxConcurrent, acquireTimeout);
+    }
+
+    @Bean
+    public ConcurrencyLimiter redisConcurrencyLimiter(
+            @Value("${app.concurrency.redis.max-concurrent:64}") int maxConcurrent,
+            @Value("${app.concurrency.redis.acquire-timeout:50ms}") Duration acquireTimeout) {
+        return new ConcurrencyLimiter("redis", maxConcurrent, acquireTimeout);
+    }
+
+    @Bean
+    public CacheDecorator limitedCacheDecorator(ConcurrencyLimiter redisConcurrencyLimiter) {
+        return new CacheDecorator() {
+            @Override
+            public Cache decorate(Cache cache) {
+                return new LimitedCache(cache, redisConcurrencyLimiter);
+            }
+
+            @Override
+            public int getOrder() {
+                // Innermost: the permit covers only the actual Redis round trip
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+        };
+    }
+
+    /**
+     * Wraps the application data source only. Under sharding and read
+     * replicas it delegates to routing and pool beans that are data sources
+     * too; wrapping those would take a second permit per connection and
+     * change the bean types their configurations inject.
+     */
+    @Bean
+    public static BeanPostProcessor limitedDataSourcePostProcessor(BeanFactory beanFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (APPLICATION_DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof LimitedDataSource)) {
+                    return new LimitedDataSource(dataSource,
+                            beanFactory.getBean("dbConcurrencyLimiter", ConcurrencyLimiter.class));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.search.ProductFilterIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Columnar bitmap index for structured {@code /products/filter} queries,
+ * enabled with {@code app.filter-index.enabled=true}. Without it, or until
+ * the index has been built, filters run as SQL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.filter-index.enabled", havingValue = "true")
+public class FilterIndexConfig {
+
+    @Bean
+    public ProductFilterIndex productFilterIndex() {
+        return new ProductFilterIndex();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.datasource.ShardIdSequences;
+import com.example.productcatalog.datasource.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Lets a pod start without running Flyway, with {@code app.startup.migrate=false}:
+ * pods added by the autoscaler (the {@code scale-out} profile) find the schema
+ * already migrated and would otherwise queue on Flyway's lock to check it.
+ * Decided at runtime rather than through {@code spring.flyway.enabled}, which an
+ * AOT-processed build fixes when it is compiled.
+ *
+ * <p>With sharding enabled every shard is migrated with the same configuration,
+ * and its product id sequence is then aligned to the shard.
+ */
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.startup.migrate:true}") boolean migrate,
+            ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        return flyway -> {
+            ShardRoutingDataSource sharded = shardRoutingDataSource.getIfAvailable();
+            List<DataSource> shards = sharded != null ? sharded.getShards() : List.of();
+            if (migrate) {
+                if (shards.isEmpty()) {
+                    flyway.migrate();
+                }
+                for (int i = 0; i < shards.size(); i++) {
+                    Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shards.get(i)).load()
+                            .migrate();
+                }
+            } else {
+                log.info("Skipping Flyway migration (app.startup.migrate=false)");
+            }
+            for (int i = 0; i < shards.size(); i++) {
+                ShardIdSequences.align(shards.get(i), i, shards.size());
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.concurrency.FanOut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * The pool behind {@code GET /api/v1/home}. Each request runs up to five
+ * sections on it at once, so {@code app.home.threads} over five is roughly
+ * how many home requests fan out in parallel before sections queue; each
+ * running section may hold a database connection.
+ */
+@Configuration
+public class HomeConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public FanOut homeFanOut(@Value("${app.home.threads:10}") int threads,
+            @Value("${app.home.queue-capacity:50}") int queueCapacity,
+            @Value("${app.home.section-timeout:2s}") Duration sectionTimeout) {
+        return new FanOut("home", threads, queueCapacity, sectionTimeout);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.cache.CacheDecorator;
+import com.example.productcatalog.cache.HotKeyMonitor;
+import com.example.productcatalog.cache.HotKeysEndpoint;
+import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.web.dto.ProductDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hot-key detection for the product caches, enabled with
+ * {@code app.cache.hot-keys.enabled=true}: TTLs adapted to read frequency,
+ * refresh-ahead of hot entries and {@code /actuator/hotkeys}. Without it,
+ * every entry gets {@code spring.cache.redis.time-to-live}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.hot-keys.enabled", havingValue = "true")
+public class HotKeyConfig {
+
+    private static final List<String> PRODUCT_CACHES = List.of("products", "productBySku");
+
+    // Both caches hold ProductDTOs, so either entry is reloaded by product id.
+    // Looks the service up lazily: its proxy needs the CacheManager this monitor decorates.
+    @Bean(destroyMethod = "shutdown")
+    public HotKeyMonitor hotKeyMonitor(ObjectProvider<ProductService> productService,
+            @Value("${app.cache.hot-keys.sample-rate:10}") int sampleRate,
+            @Value("${app.cache.hot-keys.top-k:100}") int topK,
+            @Value("${app.cache.hot-keys.sketch-width:8192}") int sketchWidth,
+            @Value("${app.cache.hot-keys.min-ttl:2m}") Duration minTtl,
+            @Value("${app.cache.hot-keys.max-ttl:1h}") Duration maxTtl,
+            @Value("${app.cache.hot-keys.ttl-jitter:0.1}") double jitter,
+            @Value("${app.cache.hot-keys.refresh-ahead:0.2}") double refreshAhead,
+            @Value("${app.cache.hot-keys.refresh-threads:2}") int refreshThreads) {
+        HotKeyMonitor.EntryLoader byProductId = (key, current) -> current instanceof ProductDTO product
+                ? productService.getObject().getProductsByIds(List.of(product.getId())).stream().findFirst()
+                        .orElse(null)
+                : null;
+        return new HotKeyMonitor(Map.of("products", byProductId, "productBySku", byProductId), sampleRate, topK,
+                sketchWidth, minTtl, maxTtl, jitter, refreshAhead, refreshThreads);
+    }
+
+    @Bean
+    public CacheDecorator refreshAheadCacheDecorator(HotKeyMonitor hotKeyMonitor) {
+        return new CacheDecorator() {
+            @Override
+            public Cache decorate(Cache cache) {
+                return hotKeyMonitor.decorate(cache);
+            }
+
+            @Override
+            public int getOrder() {
+                // Refreshes write through the circuit breaker and concurrency limit, but are not
+                // counted by the cache warmer's access tracking outside this
+                return -1;
+            }
+        };
+    }
+
+    @Bean
+    public RedisCacheManagerBuilderCustomizer adaptiveTtlCustomizer(HotKeyMonitor hotKeyMonitor) {
+        return builder -> {
+            for (String name : PRODUCT_CACHES) {
+                RedisCacheConfiguration config = builder.getCacheConfigurationFor(name)
+                        .orElseGet(builder::cacheDefaults);
+                builder.withCacheConfiguration(name,
+                        config.entryTtl(hotKeyMonitor.ttlFunction(name, config.getTtlFunction())));
+            }
+        };
+    }
+
+    @Bean
+    public HotKeysEndpoint hotKeysEndpoint(HotKeyMonitor hotKeyMonitor) {
+        return new HotKeysEndpoint(hotKeyMonitor);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.concurrency.AdaptiveLimit;
+import com.example.productcatalog.web.filter.LoadSheddingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Adaptive load shedding in front of the controllers. Each budget is
+ * configured under {@code app.load-shedding.<budget>}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.load-shedding.enabled", havingValue = "true")
+public class LoadSheddingConfig {
+
+    @Bean
+    public AdaptiveLimit readAdaptiveLimit(Environment environment) {
+        return adaptiveLimit("read", environment, 100, 20, 500, Duration.ofMillis(250));
+    }
+
+    @Bean
+    public AdaptiveLimit searchAdaptiveLimit(Environment environment) {
+        return adaptiveLimit("search", environment, 20, 4, 100, Duration.ofSeconds(1));
+    }
+
+    @Bean
+    public AdaptiveLimit writeAdaptiveLimit(Environment environment) {
+        return adaptiveLimit("write", environment, 20, 4, 100, Duration.ofSeconds(1));
+    }
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            AdaptiveLimit readAdaptiveLimit, AdaptiveLimit searchAdaptiveLimit, AdaptiveLimit writeAdaptiveLimit,
+            @Value("${app.load-shedding.retry-after-seconds:1}") long retryAfterSeconds,
+            ObjectMapper objectMapper) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(new LoadSheddingFilter(
+                readAdaptiveLimit, searchAdaptiveLimit, writeAdaptiveLimit, retryAfterSeconds, objectMapper));
+        // Right after CORS, whose headers a browser needs to read the 503, and before the
+        // other filters so shed requests cost almost nothing
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static AdaptiveLimit adaptiveLimit(String budget, Environment environment, int initial, int min, int max,
+            Duration latencyThreshold) {
+        String prefix = "app.load-shedding." + budget + ".";
+        return new AdaptiveLimit(budget,
+                environment.getProperty(prefix + "initial-limit", Integer.class, initial),
+                environment.getProperty(prefix + "min-limit", Integer.class, min),
+                environment.getProperty(prefix + "max-limit", Integer.class, max),
+                environment.getProperty(prefix + "latency-threshold", Duration.class, latencyThreshold),
+                environment.getProperty(prefix + "backoff-ratio", Double.class, 0.9));
+    }
+}
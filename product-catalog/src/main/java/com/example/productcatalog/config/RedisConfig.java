@@ -1,12 +1,34 @@
 package com.example.productcatalog.config;
 
+import com.example.productcatalog.cache.CacheDecorator;
+import com.example.productcatalog.cache.DecoratingCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 @EnableCaching
 public class RedisConfig {
-    // Default configuration provided by Spring Boot is sufficient for basic use
-    // cases.
-    // Can be customized here if needed (e.g., TTL).
+
+    // The cache manager itself is Spring Boot's default (Redis in prod, none in
+    // tests). Cross-cutting behaviour such as concurrency limits is layered on
+    // by CacheDecorator beans rather than by replacing the manager.
+    @Bean
+    public static BeanPostProcessor cacheDecoratorPostProcessor(ObjectProvider<CacheDecorator> decorators) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof CacheManager cacheManager) || bean instanceof DecoratingCacheManager) {
+                    return bean;
+                }
+                List<CacheDecorator> ordered = decorators.orderedStream().toList();
+                return ordered.isEmpty() ? bean : new DecoratingCacheManager(cacheManager, ordered);
+            }
+        };
+    }
 }
@@ -0,0 +1,122 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.datasource.ReplicaDataSource;
+import com.example.productcatalog.datasource.ReplicaHealthChecker;
+import com.example.productcatalog.datasource.ReplicaPool;
+import com.example.productcatalog.datasource.ReplicaRoutingDataSource;
+import com.example.productcatalog.web.filter.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes {@code @Transactional(readOnly = true)} work to read replicas,
+ * enabled with {@code app.datasource.replicas.enabled=true}.
+ *
+ * <p>The application {@link DataSource} is a {@link ReplicaRoutingDataSource},
+ * a lazy connection proxy over the primary pool. The physical connection is
+ * only fetched at the first statement, after the transaction manager has
+ * flagged it read-only, so the proxy can hand read-only transactions to the
+ * {@link ReplicaDataSource}. It also owns the pools and closes them.
+ * Everything else, including writes and non-transactional access such as
+ * Flyway, goes to the primary.
+ *
+ * <p>Replicas share the primary's credentials unless
+ * {@code app.datasource.replicas.username/password} are set. For local
+ * testing, point {@code app.datasource.replicas.urls} at the primary's own
+ * URL: the same database is then exposed as two pools and the lag check
+ * reports zero.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public List<ReplicaPool> replicaPools(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry) {
+        String urls = environment.getProperty("app.datasource.replicas.urls");
+        if (!StringUtils.hasText(urls)) {
+            throw new IllegalStateException(
+                    "app.datasource.replicas.enabled is true but app.datasource.replicas.urls is empty");
+        }
+        String username = environment.getProperty("app.datasource.replicas.username", properties.determineUsername());
+        String password = environment.getProperty("app.datasource.replicas.password", properties.determinePassword());
+        int maximumPoolSize = environment.getProperty("app.datasource.replicas.maximum-pool-size", Integer.class, 5);
+
+        List<ReplicaPool> pools = new ArrayList<>();
+        String[] replicaUrls = StringUtils.commaDelimitedListToStringArray(urls);
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls[i].trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            // Same tuning as the primary (timeouts, schema), then the replica overrides
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(new ReplicaPool(replica.getPoolName(), replica));
+        }
+        log.info("Routing read-only transactions across {} replica pool(s)", pools.size());
+        return pools;
+    }
+
+    // The routing data source owns the primary and replica pools and closes them
+    @Bean(destroyMethod = "close")
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+            List<ReplicaPool> replicaPools, MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (!StringUtils.hasText(primary.getPoolName())) {
+            primary.setPoolName("primary");
+        }
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        ReplicaDataSource replicas = new ReplicaDataSource(primary, replicaPools);
+        replicas.bindTo(meterRegistry);
+
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(List<ReplicaPool> replicaPools,
+            @Value("${app.datasource.replicas.max-lag:5s}") Duration maxLag) {
+        ReplicaHealthChecker checker = new ReplicaHealthChecker(replicaPools, maxLag);
+        // Bring healthy replicas into rotation before the first request
+        checker.checkAll();
+        return checker;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${app.datasource.replicas.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        // After load shedding, before anything that may read
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.inventory.ReservationLedger;
+import com.example.productcatalog.inventory.ReservationStore;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.service.impl.ReservationServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Stock reservations for checkout ({@code /api/v1/reservations}), enabled
+ * with {@code app.reservations.enabled=true}. The counters live in memory,
+ * so only one instance may serve reservations.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reservations.enabled", havingValue = "true")
+public class ReservationConfig {
+
+    @Bean
+    public ReservationLedger reservationLedger() {
+        return new ReservationLedger();
+    }
+
+    @Bean
+    public ReservationStore reservationStore(JdbcTemplate jdbcTemplate, ChangeLogService changeLogService,
+            DashboardService dashboardService, ProductCacheEvictor productCacheEvictor,
+            PlatformTransactionManager transactionManager) {
+        return new ReservationStore(jdbcTemplate, changeLogService, dashboardService, productCacheEvictor,
+                transactionManager);
+    }
+
+    @Bean
+    public ReservationServiceImpl reservationService(ReservationLedger reservationLedger,
+            ReservationStore reservationStore, ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.reservations.default-ttl:10m}") Duration defaultTtl,
+            @Value("${app.reservations.max-ttl:30m}") Duration maxTtl,
+            @Value("${app.reservations.stripes:16}") int stripes) {
+        return new ReservationServiceImpl(reservationLedger, reservationStore, productRepository,
+                transactionManager, defaultTtl, maxTtl, stripes);
+    }
+}
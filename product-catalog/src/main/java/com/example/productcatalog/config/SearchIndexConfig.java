@@ -0,0 +1,21 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.search.ProductSearchIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-memory full-text search for {@code /products/filter?search=}, enabled
+ * with {@code app.search.index.enabled=true}. Without it, or until the index
+ * has been built, search runs as SQL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.search.index.enabled", havingValue = "true")
+public class SearchIndexConfig {
+
+    @Bean
+    public ProductSearchIndex productSearchIndex() {
+        return new ProductSearchIndex();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.datasource.CategoryReplicator;
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hash-shards the {@code products} table and its tag, image, change-log and
+ * dashboard-counter rows across several PostgreSQL databases, enabled with
+ * {@code app.sharding.enabled=true}.
+ *
+ * <p>Shard 0, the home shard, is {@code spring.datasource}; the others are
+ * listed in {@code app.sharding.urls} and share its credentials unless
+ * {@code app.sharding.username/password} are set. Every shard gets the full
+ * schema from Flyway. Categories are written to the home shard and copied to
+ * the others by {@link CategoryReplicator}.
+ *
+ * <p>The application {@link DataSource} is a {@link LazyConnectionDataSourceProxy}
+ * over a {@link ShardRoutingDataSource}, so a transaction picks its shard at
+ * its first statement from what the service set in
+ * {@link com.example.productcatalog.datasource.ShardContext}. The in-memory
+ * indexes, write-behind, reservations and read replicas read or write a single
+ * database and cannot be combined with sharding yet; startup fails if one is
+ * enabled.
+ *
+ * <p>The shard count is fixed by the data: ids are assigned modulo the count,
+ * so changing {@code app.sharding.urls} on a populated catalog needs the rows
+ * to be moved first (startup refuses otherwise).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final List<String> INCOMPATIBLE = List.of(
+            "app.datasource.replicas.enabled",
+            "app.search.index.enabled",
+            "app.filter-index.enabled",
+            "app.suggest.enabled",
+            "app.catalog-index.snapshot.enabled",
+            "app.write-behind.enabled",
+            "app.reservations.enabled");
+
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry) {
+        List<String> enabled = INCOMPATIBLE.stream()
+                .filter(name -> environment.getProperty(name, Boolean.class, false))
+                .toList();
+        if (!enabled.isEmpty()) {
+            throw new IllegalStateException("app.sharding.enabled cannot be combined with " + enabled);
+        }
+        String urls = environment.getProperty("app.sharding.urls");
+        if (!StringUtils.hasText(urls)) {
+            throw new IllegalStateException("app.sharding.enabled is true but app.sharding.urls is empty");
+        }
+        String username = environment.getProperty("app.sharding.username", properties.determineUsername());
+        String password = environment.getProperty("app.sharding.password", properties.determinePassword());
+        Integer maximumPoolSize = environment.getProperty("app.sharding.maximum-pool-size", Integer.class);
+
+        List<DataSource> shards = new ArrayList<>();
+        HikariDataSource home = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        shards.add(home);
+        for (String url : StringUtils.commaDelimitedListToStringArray(urls)) {
+            shards.add(properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            HikariDataSource shard = (HikariDataSource) shards.get(i);
+            // Same tuning as a single database, then the shard overrides
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(shard));
+            shard.setPoolName("shard-" + i);
+            if (maximumPoolSize != null) {
+                shard.setMaximumPoolSize(maximumPoolSize);
+            }
+            shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        log.info("Sharding products across {} database(s)", shards.size());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ProductShards productShards(ShardRoutingDataSource shardRoutingDataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.sharding.query-threads:16}") int queryThreads,
+            @Value("${app.sharding.query-timeout:5s}") Duration queryTimeout) {
+        return new ProductShards(shardRoutingDataSource.getShards().size(), transactionManager, queryThreads,
+                queryTimeout);
+    }
+
+    @Bean
+    public CategoryReplicator categoryReplicator(ShardRoutingDataSource shardRoutingDataSource) {
+        return new CategoryReplicator(shardRoutingDataSource.getShards());
+    }
+}
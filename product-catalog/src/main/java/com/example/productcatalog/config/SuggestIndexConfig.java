@@ -0,0 +1,22 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.search.ProductSuggestIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-memory typeahead for {@code /products/suggest}, enabled with
+ * {@code app.suggest.enabled=true}. Without it, or until the index has been
+ * built, suggestions come from a prefix query.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.suggest.enabled", havingValue = "true")
+public class SuggestIndexConfig {
+
+    @Bean
+    public ProductSuggestIndex productSuggestIndex(@Value("${app.suggest.top-k:10}") int topK) {
+        return new ProductSuggestIndex(topK);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.warmup.WarmupRunner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * JIT warm-up of the read paths before the instance reports ready, enabled
+ * with {@code app.warmup.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class WarmupConfig {
+
+    @Bean
+    public WarmupRunner warmupRunner(ProductService productService, ObjectMapper objectMapper,
+            @Value("${app.warmup.max-duration:60s}") Duration maxDuration,
+            @Value("${app.warmup.threads:4}") int threads,
+            @Value("${app.warmup.round-size:500}") int roundSize,
+            @Value("${app.warmup.sample-size:100}") int sampleSize,
+            @Value("${app.warmup.stable-rounds:3}") int stableRounds,
+            @Value("${app.warmup.tolerance:0.1}") double tolerance) {
+        return new WarmupRunner(productService, objectMapper, maxDuration, threads, roundSize, sampleSize,
+                stableRounds, tolerance);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.productcatalog.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile and CBOR request and response bodies, selected with {@code Accept} and
+ * {@code Content-Type} (see {@link com.example.productcatalog.web.support.WireFormat}).
+ * Built from Spring Boot's Jackson builder so they share the JSON mapper's
+ * modules and {@code spring.jackson.*} settings. They replace Spring MVC's
+ * default converters of the same type in place, after JSON, which therefore
+ * stays the default.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    // The builder bean is prototype-scoped: each injection point gets its own
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
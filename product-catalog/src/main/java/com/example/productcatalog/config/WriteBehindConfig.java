@@ -0,0 +1,78 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.cache.CacheDecorator;
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.writebehind.PendingStockCache;
+import com.example.productcatalog.writebehind.StockUpdateJournal;
+import com.example.productcatalog.writebehind.StockUpdateWriter;
+import com.example.productcatalog.writebehind.StockWriteBehindBuffer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Write-behind pipeline for {@code PATCH /products/{id}/stock}, enabled with
+ * {@code app.write-behind.enabled=true}. Without it, stock updates are
+ * written synchronously like any other product update.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    private static final Set<String> PRODUCT_CACHES = Set.of("products", "productBySku");
+
+    @Bean(destroyMethod = "close")
+    public StockUpdateJournal stockUpdateJournal(
+            @Value("${app.write-behind.journal-dir:./data/write-behind}") Path directory,
+            @Value("${app.write-behind.fsync:true}") boolean fsync) throws IOException {
+        return new StockUpdateJournal(directory, fsync);
+    }
+
+    @Bean
+    public StockUpdateWriter stockUpdateWriter(JdbcTemplate jdbcTemplate, ProductRepository productRepository,
+            ChangeLogService changeLogService, DashboardService dashboardService, ProductCacheEvictor productCacheEvictor,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.write-behind.chunk-size:500}") int chunkSize) {
+        return new StockUpdateWriter(jdbcTemplate, productRepository, changeLogService, dashboardService,
+                productCacheEvictor, transactionManager, chunkSize);
+    }
+
+    @Bean(destroyMethod = "close")
+    public StockWriteBehindBuffer stockWriteBehindBuffer(StockUpdateJournal stockUpdateJournal,
+            StockUpdateWriter stockUpdateWriter,
+            @Value("${app.write-behind.max-pending:1000}") int maxPending) {
+        return new StockWriteBehindBuffer(stockUpdateJournal, stockUpdateWriter, maxPending);
+    }
+
+    // Looks the buffer up lazily: the buffer's writer needs the CacheManager this decorates
+    @Bean
+    public CacheDecorator pendingStockCacheDecorator(ObjectProvider<StockWriteBehindBuffer> stockWriteBehindBuffer) {
+        return new CacheDecorator() {
+            @Override
+            public Cache decorate(Cache cache) {
+                return PRODUCT_CACHES.contains(cache.getName())
+                        ? new PendingStockCache(cache, stockWriteBehindBuffer)
+                        : cache;
+            }
+
+            @Override
+            public int getOrder() {
+                // Outermost: applied to whatever the inner layers return
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+        };
+    }
+}
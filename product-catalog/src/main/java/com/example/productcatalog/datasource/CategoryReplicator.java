@@ -0,0 +1,128 @@
+package com.example.productcatalog.datasource;
+
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.event.CatalogChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Copies the {@code categories} table from the home shard, where categories
+ * are written, to every other shard, so products there can reference and
+ * join them. The whole table is copied at startup, then each committed
+ * category change. A copy that fails is logged and repaired by the next
+ * startup.
+ */
+@Slf4j
+public class CategoryReplicator {
+
+    private final JdbcTemplate home;
+    private final List<NamedParameterJdbcTemplate> replicas;
+
+    public CategoryReplicator(List<DataSource> shards) {
+        this.home = new JdbcTemplate(shards.get(0));
+        this.replicas = shards.subList(1, shards.size()).stream().map(NamedParameterJdbcTemplate::new).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replicateAll() {
+        List<Map<String, Object>> rows = home.queryForList("SELECT * FROM categories");
+        copy(parentsFirst(rows));
+        Set<Object> ids = rows.stream().map(row -> row.get("id")).collect(Collectors.toSet());
+        for (NamedParameterJdbcTemplate replica : replicas) {
+            List<Object> stale = replica.getJdbcTemplate().queryForList("SELECT id FROM categories", Object.class)
+                    .stream().filter(id -> !ids.contains(id)).toList();
+            try {
+                delete(replica, stale);
+            } catch (RuntimeException e) {
+                // Still referenced by products on that shard
+                log.warn("Categories {} deleted on the home shard kept on another: {}", stale, e.getMessage());
+            }
+        }
+        log.info("Copied {} categories to {} shard(s)", rows.size(), replicas.size());
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.entityType() != CatalogChange.EntityType.CATEGORY) {
+            return;
+        }
+        try {
+            if (event.operation() == CatalogChange.Operation.DELETED) {
+                replicas.forEach(replica -> delete(replica, new ArrayList<>(event.ids())));
+            } else {
+                copy(home.queryForList("SELECT * FROM categories WHERE id IN (" + placeholders(event.ids()) + ")",
+                        event.ids().toArray()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Categories {} not copied to every shard: {}", event.ids(), e.getMessage());
+        }
+    }
+
+    private void copy(List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO categories (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(column -> ":" + column).collect(Collectors.joining(", "))
+                + ") ON CONFLICT (id) DO UPDATE SET "
+                + columns.stream().filter(column -> !column.equals("id"))
+                        .map(column -> column + " = EXCLUDED." + column).collect(Collectors.joining(", "));
+        MapSqlParameterSource[] batch = rows.stream().map(MapSqlParameterSource::new)
+                .toArray(MapSqlParameterSource[]::new);
+        for (NamedParameterJdbcTemplate replica : replicas) {
+            replica.batchUpdate(sql, batch);
+        }
+    }
+
+    private static void delete(NamedParameterJdbcTemplate replica, List<Object> ids) {
+        if (!ids.isEmpty()) {
+            replica.update("DELETE FROM categories WHERE id IN (:ids)", Map.of("ids", ids));
+        }
+    }
+
+    // A category references its parent, so parents are inserted first
+    static List<Map<String, Object>> parentsFirst(List<Map<String, Object>> rows) {
+        Map<Object, Map<String, Object>> pending = new LinkedHashMap<>();
+        rows.forEach(row -> pending.put(row.get("id"), row));
+        List<Map<String, Object>> ordered = new ArrayList<>(rows.size());
+        Set<Object> placed = new HashSet<>();
+        while (!pending.isEmpty()) {
+            int before = ordered.size();
+            pending.values().removeIf(row -> {
+                Object parent = row.get("parent_id");
+                if (parent == null || placed.contains(parent) || !pending.containsKey(parent)) {
+                    ordered.add(row);
+                    placed.add(row.get("id"));
+                    return true;
+                }
+                return false;
+            });
+            if (ordered.size() == before) {
+                // A cycle; insert the rest as they are and let the database decide
+                ordered.addAll(pending.values());
+                break;
+            }
+        }
+        return ordered;
+    }
+
+    private static String placeholders(Collection<?> values) {
+        return values.stream().map(value -> "?").collect(Collectors.joining(", "));
+    }
+}
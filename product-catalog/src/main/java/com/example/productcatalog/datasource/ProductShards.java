@@ -0,0 +1,175 @@
+package com.example.productcatalog.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Where each product lives when products are hash-sharded across databases.
+ *
+ * <p>A new product goes to the shard its SKU hashes to, and takes its id from
+ * that shard's sequence, which only hands out ids congruent to the shard
+ * number modulo the shard count (see {@link ShardIdSequences}). Either key
+ * therefore finds the product's shard without a lookup table. SKUs cannot
+ * change, so a product never moves.
+ *
+ * <p>Queries across all products run on every shard in parallel, each in its
+ * own read-only transaction, and the caller merges the results.
+ */
+public class ProductShards implements MeterBinder {
+
+    private final int count;
+    private final TransactionTemplate readOnly;
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    private volatile Timer scatterTimer;
+
+    public ProductShards(int count, PlatformTransactionManager transactionManager, int threads, Duration timeout) {
+        this.count = count;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int shardOf(long id) {
+        return shardOf(id, count);
+    }
+
+    public int shardOf(String sku) {
+        return shardOf(sku, count);
+    }
+
+    // Stable across JVMs and releases, unlike a hash the platform is free to change
+    static int shardOf(String sku, int count) {
+        CRC32C crc = new CRC32C();
+        crc.update(sku.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % count);
+    }
+
+    static int shardOf(long id, int count) {
+        return (int) Math.floorMod(id, (long) count);
+    }
+
+    public <T> T onShardOf(long id, Supplier<T> work) {
+        return ShardContext.callOn(shardOf(id), work);
+    }
+
+    public <T> T onShardOf(String sku, Supplier<T> work) {
+        return ShardContext.callOn(shardOf(sku), work);
+    }
+
+    /** Splits ids by shard, in shard order; ids keep their order within a shard. */
+    public Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> groups = new TreeMap<>();
+        for (Long id : ids) {
+            groups.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        return groups;
+    }
+
+    /**
+     * Runs the query on every shard in parallel, each in its own read-only
+     * transaction, and returns the results in shard order. Fails if any shard
+     * fails or does not answer within the timeout: a partial answer would
+     * look complete to the caller.
+     */
+    public <T> List<T> onEveryShard(Supplier<T> query) {
+        List<Integer> shards = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            shards.add(shard);
+        }
+        return onShards(shards, shard -> query.get());
+    }
+
+    /** As {@link #onEveryShard}, but only on the given shards, with the shard number passed in. */
+    public <T> List<T> onShards(Collection<Integer> shards, IntFunction<T> query) {
+        long start = System.nanoTime();
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (int shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> ShardContext.callOn(shard, () -> readOnly.execute(status -> query.apply(shard))), executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            List<T> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new QueryTimeoutException("Not every shard answered within " + timeout);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for the shards", e);
+        } finally {
+            Timer timer = scatterTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Runs the work on each shard in turn on the calling thread, without a
+     * transaction of its own, for batch jobs that manage their transactions.
+     */
+    public <T> List<T> onEveryShardInTurn(Supplier<T> work) {
+        List<T> results = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            results.add(ShardContext.callOn(shard, work));
+        }
+        return results;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        scatterTimer = Timer.builder("app.sharding.scatter")
+                .description("Time for a query to be answered by every shard it was sent to")
+                .register(registry);
+    }
+}
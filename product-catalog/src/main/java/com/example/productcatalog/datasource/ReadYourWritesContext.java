@@ -0,0 +1,46 @@
+package com.example.productcatalog.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current request as needing the primary for reads, because the
+ * same client wrote recently and a replica may not have replayed it yet, or
+ * because what it reads is about to be shared (see {@link #onPrimary}).
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * Runs the loader with its reads on the primary, then restores the
+     * previous state. The routing is decided at a transaction's first
+     * statement, so this also works inside a read-only transaction that has
+     * not read anything yet.
+     */
+    public static <T> T onPrimary(Supplier<T> loader) {
+        if (isPrimaryRequired()) {
+            return loader.get();
+        }
+        requirePrimary();
+        try {
+            return loader.get();
+        } finally {
+            clear();
+        }
+    }
+}
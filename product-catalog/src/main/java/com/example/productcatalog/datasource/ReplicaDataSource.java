@@ -0,0 +1,78 @@
+package com.example.productcatalog.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only side of the routing: hands out connections round-robin from the
+ * healthy replicas and falls back to the primary when none is healthy or the
+ * request is inside a read-your-writes window.
+ *
+ * <p>Used as the {@code readOnlyDataSource} of a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * which picks it for connections flagged read-only by
+ * {@code @Transactional(readOnly = true)}.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile Counter primaryFallbacks;
+
+    public ReplicaDataSource(DataSource primary, List<ReplicaPool> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return select().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return select().getConnection(username, password);
+    }
+
+    private DataSource select() {
+        if (!ReadYourWritesContext.isPrimaryRequired()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                ReplicaPool pool = replicas.get((start + i) % size);
+                if (pool.isHealthy()) {
+                    return pool.getDataSource();
+                }
+            }
+        }
+        Counter counter = primaryFallbacks;
+        if (counter != null) {
+            counter.increment();
+        }
+        return primary;
+    }
+
+    /** Closes the replica pools; the primary belongs to the caller. */
+    @Override
+    public void close() {
+        replicas.forEach(ReplicaPool::close);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        primaryFallbacks = Counter.builder("app.datasource.replica.primary-fallbacks")
+                .description("Read-only connections served by the primary (no healthy replica or read-your-writes)")
+                .register(registry);
+        replicas.forEach(pool -> pool.bindTo(registry));
+    }
+}
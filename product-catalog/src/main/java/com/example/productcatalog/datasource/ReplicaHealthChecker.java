@@ -0,0 +1,63 @@
+package com.example.productcatalog.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Probes each replica and takes it out of rotation when it is unreachable
+ * or its replay lag exceeds the configured maximum.
+ */
+@Slf4j
+public class ReplicaHealthChecker {
+
+    // Zero when caught up (or not a standby at all, e.g. a second pool on the
+    // primary in local testing); otherwise time since the last replayed commit
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE CAST(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000 AS BIGINT) END";
+
+    private final List<ReplicaPool> replicas;
+    private final Duration maxLag;
+
+    public ReplicaHealthChecker(List<ReplicaPool> replicas, Duration maxLag) {
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:5s}")
+    public void checkAll() {
+        replicas.forEach(this::check);
+    }
+
+    private void check(ReplicaPool pool) {
+        try (Connection connection = pool.getDataSource().getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            long lagMillis = resultSet.getLong(1);
+            if (lagMillis <= maxLag.toMillis()) {
+                if (!pool.isHealthy()) {
+                    log.info("Replica {} is healthy (lag {} ms), routing reads to it", pool.getName(), lagMillis);
+                }
+                pool.markHealthy(lagMillis);
+            } else {
+                if (pool.isHealthy()) {
+                    log.warn("Replica {} lag {} ms exceeds {} ms, removing from rotation",
+                            pool.getName(), lagMillis, maxLag.toMillis());
+                }
+                pool.markUnhealthy(lagMillis);
+            }
+        } catch (Exception e) {
+            if (pool.isHealthy()) {
+                log.warn("Replica {} failed health check, removing from rotation: {}", pool.getName(), e.getMessage());
+            }
+            pool.markUnhealthy(-1);
+        }
+    }
+}
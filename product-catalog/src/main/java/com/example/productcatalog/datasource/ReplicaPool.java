@@ -0,0 +1,67 @@
+package com.example.productcatalog.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * One read replica connection pool plus the health state maintained by
+ * {@link ReplicaHealthChecker}. A pool only receives reads while healthy.
+ */
+public class ReplicaPool implements MeterBinder, AutoCloseable {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+
+    // Unhealthy until the first successful check so a cold replica is not used blindly
+    private volatile boolean healthy;
+    private volatile long lagMillis = -1;
+
+    public ReplicaPool(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    void markHealthy(long lagMillis) {
+        this.lagMillis = lagMillis;
+        this.healthy = true;
+    }
+
+    void markUnhealthy(long lagMillis) {
+        this.lagMillis = lagMillis;
+        this.healthy = false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.datasource.replica.healthy", this, pool -> pool.isHealthy() ? 1 : 0)
+                .tag("pool", name)
+                .register(registry);
+        Gauge.builder("app.datasource.replica.lag", this, ReplicaPool::getLagMillis)
+                .tag("pool", name)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.productcatalog.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * The application data source when read replicas are enabled: connections
+ * come from the primary pool, except those of read-only transactions, which
+ * come from the {@link ReplicaDataSource}.
+ *
+ * <p>Owns the primary and replica pools, so closing it with the context
+ * closes every pool.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final ReplicaDataSource replicas;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, ReplicaDataSource replicas) {
+        super(primary);
+        setReadOnlyDataSource(replicas);
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.close();
+        primary.close();
+    }
+}
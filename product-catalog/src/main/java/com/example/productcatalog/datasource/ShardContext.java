@@ -0,0 +1,36 @@
+package com.example.productcatalog.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's next physical connection comes from. A
+ * transaction's connection is fetched at its first statement, so the shard
+ * must be set before that; later statements stay on the same connection.
+ * Unset means the home shard (0).
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    /** Runs the work with connections from the given shard, then restores the previous one. */
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                SHARD.set(previous);
+            } else {
+                SHARD.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.productcatalog.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Makes each shard's {@code products} id sequence hand out only ids
+ * congruent to the shard number modulo the shard count (shard 1 of 3:
+ * 1, 4, 7, ...), so an id alone names its shard.
+ */
+@Slf4j
+public final class ShardIdSequences {
+
+    private static final String SEQUENCE = "products_id_seq";
+
+    private ShardIdSequences() {
+    }
+
+    /**
+     * Aligns the sequence of one shard. Idempotent; refuses to start on a
+     * shard holding products whose id points at another shard, such as a
+     * database that held the whole catalog before sharding was enabled.
+     */
+    public static void align(DataSource dataSource, int shard, int count) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Long misplaced = jdbc.queryForObject("SELECT count(*) FROM products WHERE id % ? <> ?", Long.class,
+                count, shard);
+        if (misplaced != null && misplaced > 0) {
+            throw new IllegalStateException("Shard " + shard + " holds " + misplaced + " product(s) whose id belongs"
+                    + " to another shard; move them before enabling sharding with " + count + " shards");
+        }
+        Map<String, Object> sequence = jdbc.queryForMap(
+                "SELECT s.increment_by, q.last_value, q.is_called FROM pg_sequences s, " + SEQUENCE + " q"
+                        + " WHERE s.schemaname = current_schema() AND s.sequencename = ?", SEQUENCE);
+        long increment = ((Number) sequence.get("increment_by")).longValue();
+        long lastValue = ((Number) sequence.get("last_value")).longValue();
+        boolean called = (Boolean) sequence.get("is_called");
+        long next = called ? lastValue + increment : lastValue;
+        if (increment == count && Math.floorMod(next, count) == shard) {
+            return;
+        }
+        Long maxId = jdbc.queryForObject("SELECT max(id) FROM products", Long.class);
+        long floor = Math.max(Math.max(called ? lastValue : lastValue - 1, maxId != null ? maxId : 0), 0) + 1;
+        long aligned = floor + Math.floorMod(shard - floor, count);
+        jdbc.execute("ALTER SEQUENCE " + SEQUENCE + " INCREMENT BY " + count);
+        jdbc.queryForObject("SELECT setval('" + SEQUENCE + "', ?, false)", Long.class, aligned);
+        log.info("Shard {}: product ids continue at {} in steps of {}", shard, aligned, count);
+    }
+}
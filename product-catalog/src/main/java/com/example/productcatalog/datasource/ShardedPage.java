@@ -0,0 +1,148 @@
+package com.example.productcatalog.datasource;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Pagination over sharded data. Page {@code n} of size {@code s} is made of
+ * the first {@code (n + 1) * s} rows of every shard in the same order: each
+ * shard answers {@link #perShard(Pageable)}, the answers are merge-sorted on
+ * the sort keys captured with each row, and the requested slice is cut out.
+ * Ties are broken by {@code id} so that shards and pages agree on one order.
+ */
+public final class ShardedPage {
+
+    private static final String ID = "id";
+
+    /** A row and the values of the sort properties it was ordered by. */
+    public record Row<T>(List<Object> sortKeys, T value) {
+    }
+
+    private ShardedPage() {
+    }
+
+    /** The sort every shard uses: the requested one, then id. */
+    public static Sort sort(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        return sort.getOrderFor(ID) != null ? sort : sort.and(Sort.by(ID));
+    }
+
+    /** What each shard must return: the rows up to the end of the requested page, from the start. */
+    public static Pageable perShard(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return Pageable.unpaged(sort(pageable));
+        }
+        return PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), sort(pageable));
+    }
+
+    /** The values of the sort properties of an entity or DTO; nested paths such as {@code category.name} work. */
+    public static List<Object> sortKeys(Object row, Pageable pageable) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        List<Object> keys = new ArrayList<>();
+        for (Sort.Order order : sort(pageable)) {
+            keys.add(wrapper.isReadableProperty(order.getProperty())
+                    ? wrapper.getPropertyValue(order.getProperty())
+                    : null);
+        }
+        return keys;
+    }
+
+    public static <T> Row<T> row(T value, List<Object> sortKeys) {
+        return new Row<>(sortKeys, value);
+    }
+
+    /** Merges the shards' answers to {@link #perShard(Pageable)} into the requested page. */
+    public static <T> Page<T> merge(List<Page<Row<T>>> shardPages, Pageable pageable) {
+        Comparator<Row<T>> order = comparator(sort(pageable));
+        long total = 0;
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        for (Page<Row<T>> page : shardPages) {
+            total += page.getTotalElements();
+            if (page.hasContent()) {
+                heads.add(new Cursor<>(page.getContent()));
+            }
+        }
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<T> content = new ArrayList<>(Math.min(size, 1024));
+        while (!heads.isEmpty() && content.size() < size) {
+            Cursor<T> cursor = heads.poll();
+            Row<T> row = cursor.next();
+            if (skip > 0) {
+                skip--;
+            } else {
+                content.add(row.value());
+            }
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static <T> Comparator<Row<T>> comparator(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return (a, b) -> {
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                Object x = a.sortKeys().get(i);
+                Object y = b.sortKeys().get(i);
+                int result;
+                if (x == null || y == null) {
+                    result = x == y ? 0 : nullsFirst(order) == (x == null) ? -1 : 1;
+                } else {
+                    result = order.isIgnoreCase() && x instanceof String s && y instanceof String t
+                            ? s.compareToIgnoreCase(t)
+                            : ((Comparable) x).compareTo(y);
+                    result = order.isAscending() ? result : -result;
+                }
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    // PostgreSQL puts nulls last in ascending order and first in descending order
+    private static boolean nullsFirst(Sort.Order order) {
+        return switch (order.getNullHandling()) {
+            case NULLS_FIRST -> true;
+            case NULLS_LAST -> false;
+            case NATIVE -> order.isDescending();
+        };
+    }
+
+    private static final class Cursor<T> {
+
+        private final List<Row<T>> rows;
+        private int position;
+
+        Cursor(List<Row<T>> rows) {
+            this.rows = rows;
+        }
+
+        Row<T> head() {
+            return rows.get(position);
+        }
+
+        Row<T> next() {
+            return rows.get(position++);
+        }
+
+        boolean hasNext() {
+            return position < rows.size();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.productcatalog.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * One slot of a dashboard counter. The counter's value is the sum of its
+ * slots; rows are only ever changed by adding to {@code amount}.
+ */
+@Entity
+@Table(name = "catalog_counters")
+@IdClass(CatalogCounter.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogCounter {
+
+    @Id
+    @Column(name = "counter_key")
+    private String counterKey;
+
+    @Id
+    private int slot;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String counterKey;
+        private int slot;
+    }
+}
@@ -18,6 +18,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -27,6 +28,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "products")
+// UPDATEs set only the dirty columns, so narrow changes write narrow rows
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -65,6 +68,11 @@ public class Product {
     @Builder.Default
     private Integer quantity = 0;
 
+    // Held by unexpired reservations; written only by the reservation flush
+    @Column(name = "reserved_quantity", insertable = false, updatable = false)
+    @Builder.Default
+    private Integer reservedQuantity = 0;
+
     @Column(name = "low_stock_threshold")
     @Builder.Default
     private Integer lowStockThreshold = 5;
@@ -103,4 +111,11 @@ public class Product {
 
     @Version
     private Long version;
+
+    /**
+     * On-hand quantity not held by a reservation; what can still be sold.
+     */
+    public int getAvailableQuantity() {
+        return (quantity != null ? quantity : 0) - (reservedQuantity != null ? reservedQuantity : 0);
+    }
 }
@@ -0,0 +1,14 @@
+package com.example.productcatalog.event;
+
+import com.example.productcatalog.domain.CatalogChange;
+
+import java.util.Collection;
+
+/**
+ * Published alongside every change-log write, so in-process read models can
+ * refresh the touched entities once the transaction commits. Listen with
+ * {@code @TransactionalEventListener} to only see committed changes.
+ */
+public record CatalogChangeEvent(CatalogChange.EntityType entityType, Collection<Long> ids,
+        CatalogChange.Operation operation) {
+}
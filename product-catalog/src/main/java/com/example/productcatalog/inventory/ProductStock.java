@@ -0,0 +1,87 @@
+package com.example.productcatalog.inventory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stock of one product: the units that can still be reserved, and
+ * the reserved and sold amounts not yet flushed to {@code products}.
+ */
+public final class ProductStock {
+
+    private final long productId;
+    private final String sku;
+    private final StripedStockCounter available;
+    private final AtomicLong unflushedReserved = new AtomicLong();
+    private final AtomicLong unflushedSold = new AtomicLong();
+    private volatile boolean sellable;
+    // On-hand quantity as last read from or written to products; only touched under the flush lock
+    private long knownQuantity;
+
+    public ProductStock(long productId, String sku, int quantity, int reserved, boolean sellable, int stripes) {
+        this.productId = productId;
+        this.sku = sku;
+        this.available = new StripedStockCounter(stripes, quantity - reserved);
+        this.sellable = sellable;
+        this.knownQuantity = quantity;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public boolean isSellable() {
+        return sellable;
+    }
+
+    /**
+     * Units that can still be reserved.
+     */
+    public long getAvailable() {
+        return available.sum();
+    }
+
+    StripedStockCounter available() {
+        return available;
+    }
+
+    AtomicLong unflushedReserved() {
+        return unflushedReserved;
+    }
+
+    AtomicLong unflushedSold() {
+        return unflushedSold;
+    }
+
+    /**
+     * Applies the on-hand quantity and status read from {@code products}:
+     * whatever other writers changed since the last read is added to the
+     * available units. Callers hold the flush lock.
+     */
+    public void refresh(int quantity, boolean sellable) {
+        long delta = quantity - knownQuantity;
+        if (delta != 0) {
+            available.adjust(delta);
+            knownQuantity = quantity;
+        }
+        this.sellable = sellable;
+    }
+
+    /**
+     * Stops new reservations of a product that no longer exists.
+     */
+    public void markRemoved() {
+        this.sellable = false;
+    }
+
+    /**
+     * Records that a flush changed the on-hand quantity, so {@link #refresh}
+     * does not count it as someone else's change. Callers hold the flush lock.
+     */
+    public void flushed(long sold) {
+        knownQuantity -= sold;
+    }
+}
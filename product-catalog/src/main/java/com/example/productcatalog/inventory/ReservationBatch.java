@@ -0,0 +1,19 @@
+package com.example.productcatalog.inventory;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reservation changes drained from {@link ReservationLedger} for one flush:
+ * hold rows to insert and delete, and per product the change of
+ * {@code reserved_quantity} and the units sold off {@code quantity}.
+ */
+public record ReservationBatch(List<StockHold> created, List<UUID> ended, List<Delta> deltas) {
+
+    public record Delta(ProductStock stock, long reserved, long sold) {
+    }
+
+    public boolean isEmpty() {
+        return created.isEmpty() && ended.isEmpty() && deltas.isEmpty();
+    }
+}
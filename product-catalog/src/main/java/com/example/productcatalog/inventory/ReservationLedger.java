@@ -0,0 +1,205 @@
+package com.example.productcatalog.inventory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory reservation state: per-product stock and the active holds.
+ *
+ * <p>Reserve, confirm and release only touch lock-free structures: the
+ * product's {@link StripedStockCounter}, concurrent maps and queues, and
+ * per-product delta counters. Every change is also queued for the next
+ * {@link #drain}, which hands a flush what to persist. A hold belongs to
+ * whichever of confirm, release and expiry removes it from the active map
+ * first, so it is settled exactly once.
+ *
+ * <p>The stock of a hold's product must be loaded before the hold is
+ * confirmed, released or expired.
+ */
+public class ReservationLedger {
+
+    private final Map<Long, ProductStock> stocks = new ConcurrentHashMap<>();
+    private final Map<UUID, StockHold> active = new ConcurrentHashMap<>();
+    // Kept for a while after confirmation so a retried confirm gets the same answer
+    private final Map<UUID, StockHold> confirmed = new ConcurrentHashMap<>();
+    private final Queue<StockHold> created = new ConcurrentLinkedQueue<>();
+    private final Queue<UUID> ended = new ConcurrentLinkedQueue<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public ProductStock getStock(long productId) {
+        return stocks.get(productId);
+    }
+
+    /**
+     * Adds a loaded stock unless one is already there.
+     *
+     * @return the stock now in the ledger
+     */
+    public ProductStock addStock(ProductStock stock) {
+        ProductStock existing = stocks.putIfAbsent(stock.getProductId(), stock);
+        return existing != null ? existing : stock;
+    }
+
+    public Collection<ProductStock> getStocks() {
+        return stocks.values();
+    }
+
+    /**
+     * Puts back a hold read from {@code stock_reservations} at startup.
+     */
+    public void restore(StockHold hold) {
+        active.put(hold.id(), hold);
+    }
+
+    public StockHold getActive(UUID id) {
+        return active.get(id);
+    }
+
+    public StockHold getConfirmed(UUID id) {
+        return confirmed.get(id);
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Holds {@code quantity} units of the product for {@code ttl}.
+     *
+     * @return the hold, or {@code null} if not enough units are available
+     */
+    public StockHold reserve(ProductStock stock, int quantity, LocalDateTime now, Duration ttl) {
+        if (!stock.available().tryAcquire(quantity)) {
+            return null;
+        }
+        StockHold hold = new StockHold(UUID.randomUUID(), stock.getProductId(), quantity, now.plus(ttl), now);
+        active.put(hold.id(), hold);
+        created.add(hold);
+        stock.unflushedReserved().addAndGet(quantity);
+        dirty.add(stock.getProductId());
+        return hold;
+    }
+
+    /**
+     * Turns a hold into a sale: its units leave {@code quantity} and
+     * {@code reserved_quantity}. An expired hold is released instead.
+     *
+     * @return the confirmed hold, or {@code null} if it is unknown or expired
+     */
+    public StockHold confirm(UUID id, LocalDateTime now) {
+        StockHold hold = active.remove(id);
+        if (hold == null) {
+            return null;
+        }
+        ProductStock stock = stockOf(hold);
+        if (hold.isExpired(now)) {
+            settle(hold, stock, true);
+            return null;
+        }
+        confirmed.put(id, hold);
+        stock.unflushedSold().addAndGet(hold.quantity());
+        settle(hold, stock, false);
+        return hold;
+    }
+
+    /**
+     * Returns a hold's units to the available stock.
+     *
+     * @return the released hold, or {@code null} if it is unknown or already settled
+     */
+    public StockHold release(UUID id) {
+        StockHold hold = active.remove(id);
+        if (hold != null) {
+            settle(hold, stockOf(hold), true);
+        }
+        return hold;
+    }
+
+    /**
+     * Drops a hold whose product no longer exists; its row went with the
+     * product.
+     */
+    public void discard(UUID id) {
+        active.remove(id);
+    }
+
+    public List<StockHold> getExpired(LocalDateTime now) {
+        return active.values().stream().filter(hold -> hold.isExpired(now)).toList();
+    }
+
+    public void forgetConfirmedBefore(LocalDateTime cutoff) {
+        confirmed.values().removeIf(hold -> hold.createdAt().isBefore(cutoff));
+    }
+
+    /**
+     * Takes everything changed since the last drain. Ended holds are taken
+     * before created ones, so a hold whose end is in the batch always has its
+     * insert in this batch or an earlier one.
+     */
+    public ReservationBatch drain() {
+        List<UUID> endedIds = new ArrayList<>();
+        for (UUID id; (id = ended.poll()) != null; ) {
+            endedIds.add(id);
+        }
+        Set<UUID> endedSet = new HashSet<>(endedIds);
+        List<StockHold> createdHolds = new ArrayList<>();
+        for (StockHold hold; (hold = created.poll()) != null; ) {
+            // Created and ended within one batch: nothing to persist
+            if (!endedSet.remove(hold.id())) {
+                createdHolds.add(hold);
+            }
+        }
+        List<ReservationBatch.Delta> deltas = new ArrayList<>();
+        for (Long productId : List.copyOf(dirty)) {
+            dirty.remove(productId);
+            ProductStock stock = stocks.get(productId);
+            long reserved = stock.unflushedReserved().getAndSet(0);
+            long sold = stock.unflushedSold().getAndSet(0);
+            if (reserved != 0 || sold != 0) {
+                deltas.add(new ReservationBatch.Delta(stock, reserved, sold));
+            }
+        }
+        return new ReservationBatch(createdHolds, List.copyOf(endedSet), deltas);
+    }
+
+    /**
+     * Puts a batch whose flush failed back, to be retried with the next one.
+     */
+    public void requeue(ReservationBatch batch) {
+        // Deletes of rows never inserted are harmless; inserts go back before their ends
+        ended.addAll(batch.ended());
+        created.addAll(batch.created());
+        for (ReservationBatch.Delta delta : batch.deltas()) {
+            delta.stock().unflushedReserved().addAndGet(delta.reserved());
+            delta.stock().unflushedSold().addAndGet(delta.sold());
+            dirty.add(delta.stock().getProductId());
+        }
+    }
+
+    private void settle(StockHold hold, ProductStock stock, boolean returnUnits) {
+        if (returnUnits) {
+            stock.available().release(hold.quantity());
+        }
+        stock.unflushedReserved().addAndGet(-hold.quantity());
+        ended.add(hold.id());
+        dirty.add(stock.getProductId());
+    }
+
+    private ProductStock stockOf(StockHold hold) {
+        ProductStock stock = stocks.get(hold.productId());
+        if (stock == null) {
+            throw new IllegalStateException("Stock of product " + hold.productId() + " is not loaded");
+        }
+        return stock;
+    }
+}
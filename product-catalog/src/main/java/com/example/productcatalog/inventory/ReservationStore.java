@@ -0,0 +1,125 @@
+package com.example.productcatalog.inventory;
+
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Database side of reservations. {@link #write} persists a
+ * {@link ReservationBatch} in one transaction: JDBC batches of hold inserts
+ * and deletes, and one single-row {@code UPDATE} per product in id order,
+ * plus the change-log entries and dashboard counter changes of a regular
+ * update. The products' cache entries are evicted after commit.
+ */
+@Slf4j
+public class ReservationStore {
+
+    private static final String INSERT_SQL = "INSERT INTO stock_reservations "
+            + "(id, product_id, quantity, expires_at, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM stock_reservations WHERE id = ?";
+    private static final String UPDATE_SQL = "UPDATE products SET reserved_quantity = reserved_quantity + ?, "
+            + "quantity = quantity - ?, version = version + 1, updated_at = ? WHERE id = ?";
+    private static final String SELECT_HOLDS_SQL = "SELECT id, product_id, quantity, expires_at, created_at "
+            + "FROM stock_reservations";
+    // Products that claim reserved stock or have holds, where the two disagree
+    private static final String SELECT_DRIFTED_SQL = "SELECT c.id FROM "
+            + "(SELECT id FROM products WHERE reserved_quantity <> 0 UNION SELECT product_id FROM stock_reservations) c "
+            + "JOIN products p ON p.id = c.id "
+            + "WHERE p.reserved_quantity <> COALESCE((SELECT SUM(r.quantity) FROM stock_reservations r "
+            + "WHERE r.product_id = p.id), 0) ORDER BY c.id";
+    private static final String REPAIR_SQL = "UPDATE products SET reserved_quantity = COALESCE((SELECT SUM(r.quantity) "
+            + "FROM stock_reservations r WHERE r.product_id = products.id), 0), version = version + 1, updated_at = ? "
+            + "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeLogService changeLogService;
+    private final DashboardService dashboardService;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservationStore(JdbcTemplate jdbcTemplate, ChangeLogService changeLogService,
+            DashboardService dashboardService, ProductCacheEvictor productCacheEvictor,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeLogService = changeLogService;
+        this.dashboardService = dashboardService;
+        this.productCacheEvictor = productCacheEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void write(ReservationBatch batch) {
+        // Same lock order as bulk and write-behind updates
+        List<ReservationBatch.Delta> deltas = new ArrayList<>(batch.deltas());
+        deltas.sort(Comparator.comparingLong(delta -> delta.stock().getProductId()));
+        List<Long> ids = deltas.stream().map(delta -> delta.stock().getProductId()).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batch.created().isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch.created(), batch.created().size(), (statement, hold) -> {
+                    statement.setObject(1, hold.id());
+                    statement.setLong(2, hold.productId());
+                    statement.setInt(3, hold.quantity());
+                    statement.setObject(4, hold.expiresAt());
+                    statement.setObject(5, hold.createdAt());
+                });
+            }
+            if (!batch.ended().isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, batch.ended(), batch.ended().size(),
+                        (statement, id) -> statement.setObject(1, id));
+            }
+            if (!deltas.isEmpty()) {
+                Map<String, Long> countedBefore = dashboardService.countProducts(ids);
+                // Truncated to what the database stores, so the change-log insert can match on it
+                LocalDateTime stamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+                jdbcTemplate.batchUpdate(UPDATE_SQL, deltas, deltas.size(), (statement, delta) -> {
+                    statement.setLong(1, delta.reserved());
+                    statement.setLong(2, delta.sold());
+                    statement.setObject(3, stamp);
+                    statement.setLong(4, delta.stock().getProductId());
+                });
+                changeLogService.recordProducts(ids, CatalogChange.Operation.UPDATED, stamp);
+                dashboardService.recordChange(countedBefore, dashboardService.countProducts(ids));
+            }
+        });
+        productCacheEvictor.evict(deltas, delta -> delta.stock().getProductId(), delta -> delta.stock().getSku());
+    }
+
+    /**
+     * Brings {@code reserved_quantity} back in line with the hold rows, which
+     * a crash between a hold's insert and its product's update can leave
+     * apart, and returns the holds.
+     */
+    public List<StockHold> recover() {
+        return transactionTemplate.execute(status -> {
+            List<Long> drifted = jdbcTemplate.queryForList(SELECT_DRIFTED_SQL, Long.class);
+            if (!drifted.isEmpty()) {
+                Map<String, Long> countedBefore = dashboardService.countProducts(drifted);
+                LocalDateTime stamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+                jdbcTemplate.batchUpdate(REPAIR_SQL, drifted, drifted.size(), (statement, id) -> {
+                    statement.setObject(1, stamp);
+                    statement.setLong(2, id);
+                });
+                changeLogService.recordProducts(drifted, CatalogChange.Operation.UPDATED, stamp);
+                dashboardService.recordChange(countedBefore, dashboardService.countProducts(drifted));
+                log.warn("Corrected reserved_quantity of {} product(s) from their reservations", drifted.size());
+            }
+            return jdbcTemplate.query(SELECT_HOLDS_SQL, (row, rowNum) -> new StockHold(
+                    row.getObject("id", UUID.class), row.getLong("product_id"), row.getInt("quantity"),
+                    row.getObject("expires_at", LocalDateTime.class),
+                    row.getObject("created_at", LocalDateTime.class)));
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.productcatalog.inventory;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A reservation of {@code quantity} units of a product until
+ * {@code expiresAt}.
+ */
+public record StockHold(UUID id, long productId, int quantity, LocalDateTime expiresAt, LocalDateTime createdAt) {
+
+    public boolean isExpired(LocalDateTime now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.productcatalog.inventory;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free count of the units of one product that can still be reserved,
+ * spread over cache-line-padded stripes so concurrent reservers of the same
+ * product mostly CAS different memory.
+ *
+ * <p>A reserver takes from its thread's home stripe; when that one runs dry
+ * it takes from the first other stripe that has enough, and when no single
+ * stripe has enough it gathers units across stripes, handing them back if the
+ * total falls short. The total can never go below zero through
+ * {@link #tryAcquire}. The price is that close to sell-out a reservation may
+ * fail while another reserver briefly holds gathered units it is about to
+ * return.
+ *
+ * <p>Stock removed by {@link #adjust} beyond what is unreserved is kept as a
+ * debt on stripe 0, which {@link #release} and later increases pay off
+ * first, so released units are not reservable again while the product is
+ * short.
+ */
+public final class StripedStockCounter {
+
+    // 16 ints = 64 bytes: one stripe per cache line
+    private static final int PAD = 16;
+    private static final int DEBT_STRIPE = 0;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    public StripedStockCounter(int stripes, int initial) {
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicIntegerArray(this.stripes * PAD);
+        adjust(initial);
+    }
+
+    /**
+     * Takes {@code amount} units if that many are available.
+     */
+    public boolean tryAcquire(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        int home = homeStripe();
+        for (int i = 0; i < stripes; i++) {
+            if (takeWhole((home + i) % stripes, amount)) {
+                return true;
+            }
+        }
+        return gather(home, amount);
+    }
+
+    /**
+     * Returns units taken by {@link #tryAcquire}.
+     */
+    public void release(int amount) {
+        if (amount > 0) {
+            add(homeStripe(), amount);
+        }
+    }
+
+    /**
+     * Applies a change of the on-hand stock: spread evenly when positive,
+     * taken from wherever it is when negative.
+     */
+    public void adjust(long delta) {
+        if (delta > 0) {
+            long share = delta / stripes;
+            long rest = delta % stripes;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                long amount = share + (stripe < rest ? 1 : 0);
+                if (amount > 0) {
+                    add(stripe, Math.toIntExact(amount));
+                }
+            }
+        } else if (delta < 0) {
+            long missing = -delta;
+            for (int stripe = 0; stripe < stripes && missing > 0; stripe++) {
+                missing -= takeUpTo(stripe, (int) Math.min(missing, Integer.MAX_VALUE));
+            }
+            if (missing > 0) {
+                cells.addAndGet(DEBT_STRIPE * PAD, -Math.toIntExact(missing));
+            }
+        }
+    }
+
+    /**
+     * Units available right now; negative while stock is below what is
+     * reserved. Not a snapshot while reservers are active.
+     */
+    public long sum() {
+        long total = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            total += cells.get(stripe * PAD);
+        }
+        return total;
+    }
+
+    private int homeStripe() {
+        return (int) (Thread.currentThread().getId() % stripes);
+    }
+
+    private boolean takeWhole(int stripe, int amount) {
+        int index = stripe * PAD;
+        int current;
+        do {
+            current = cells.get(index);
+            if (current < amount) {
+                return false;
+            }
+        } while (!cells.compareAndSet(index, current, current - amount));
+        return true;
+    }
+
+    private int takeUpTo(int stripe, int amount) {
+        int index = stripe * PAD;
+        int current;
+        int taken;
+        do {
+            current = cells.get(index);
+            taken = Math.min(current, amount);
+            if (taken <= 0) {
+                return 0;
+            }
+        } while (!cells.compareAndSet(index, current, current - taken));
+        return taken;
+    }
+
+    private boolean gather(int home, int amount) {
+        int taken = 0;
+        for (int i = 0; i < stripes && taken < amount; i++) {
+            taken += takeUpTo((home + i) % stripes, amount - taken);
+        }
+        if (taken == amount) {
+            return true;
+        }
+        if (taken > 0) {
+            add(home, taken);
+        }
+        return false;
+    }
+
+    // Pays off debt on the debt stripe before the rest lands on the target stripe
+    private void add(int stripe, int amount) {
+        int debtIndex = DEBT_STRIPE * PAD;
+        int current;
+        while ((current = cells.get(debtIndex)) < 0) {
+            int paid = Math.min(-current, amount);
+            if (cells.compareAndSet(debtIndex, current, current + paid)) {
+                amount -= paid;
+                if (amount == 0) {
+                    return;
+                }
+            }
+        }
+        cells.addAndGet(stripe * PAD, amount);
+    }
+}
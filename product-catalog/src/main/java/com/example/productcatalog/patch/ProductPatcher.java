@@ -0,0 +1,199 @@
+package com.example.productcatalog.patch;
+
+import com.example.productcatalog.domain.Category;
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.web.dto.ProductPatchRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Applies a {@link ProductPatchRequest} to a loaded product, setting only the
+ * fields whose value differs. With the entity's dynamic update, Hibernate
+ * then writes just those columns, and a patch that matches the stored
+ * product leaves it clean: no {@code UPDATE}, no version bump.
+ *
+ * <p>{@code tags} and {@code images} are diffed in place, so only removed
+ * and added elements become row deletes and inserts instead of the whole
+ * collection being deleted and re-inserted.
+ *
+ * <p>{@link #record} counts the columns and collection rows written against
+ * what a full-row update and collection replacement would have written.
+ */
+@Component
+public class ProductPatcher implements MeterBinder {
+
+    private static final List<Field<?>> FIELDS = List.of(
+            new Field<>("name", "name", ProductPatchRequest::getName, Product::getName, Product::setName, true),
+            new Field<>("description", "description", ProductPatchRequest::getDescription,
+                    Product::getDescription, Product::setDescription, false),
+            new Field<>("shortDescription", "short_description", ProductPatchRequest::getShortDescription,
+                    Product::getShortDescription, Product::setShortDescription, false),
+            new Field<>("price", "price", ProductPatchRequest::getPrice, Product::getPrice, Product::setPrice, true),
+            new Field<>("compareAtPrice", "compare_at_price", ProductPatchRequest::getCompareAtPrice,
+                    Product::getCompareAtPrice, Product::setCompareAtPrice, false),
+            new Field<>("costPrice", "cost_price", ProductPatchRequest::getCostPrice, Product::getCostPrice,
+                    Product::setCostPrice, false),
+            new Field<>("status", "status", ProductPatchRequest::getStatus, Product::getStatus, Product::setStatus, true),
+            new Field<>("quantity", "quantity", ProductPatchRequest::getQuantity, Product::getQuantity,
+                    Product::setQuantity, true),
+            new Field<>("lowStockThreshold", "low_stock_threshold", ProductPatchRequest::getLowStockThreshold,
+                    Product::getLowStockThreshold, Product::setLowStockThreshold, false),
+            new Field<>("brand", "brand", ProductPatchRequest::getBrand, Product::getBrand, Product::setBrand, false),
+            new Field<>("weightGrams", "weight_grams", ProductPatchRequest::getWeightGrams, Product::getWeightGrams,
+                    Product::setWeightGrams, false),
+            new Field<>("featured", "featured", ProductPatchRequest::getFeatured, Product::isFeatured,
+                    Product::setFeatured, true));
+
+    private static final String COLUMNS_DESCRIPTION = "Product columns written, or skipped compared with a full-row update";
+    private static final String ROWS_DESCRIPTION = "Tag and image rows written, or skipped compared with replacing the collections";
+
+    // What a full-row UPDATE sets: the fields above plus sku, category_id, updated_at and version
+    static final int FULL_ROW_COLUMNS = FIELDS.size() + 4;
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * Sets the patched fields that differ on the (managed) product.
+     *
+     * @param categories loads a category by id; only called when the category changes
+     * @throws BadRequestException if the patch changes the SKU or clears a required field
+     */
+    public Changes apply(Product product, ProductPatchRequest patch, Function<Long, Category> categories) {
+        if (patch.has("sku") && !Objects.equals(patch.getSku(), product.getSku())) {
+            throw new BadRequestException("SKU cannot be changed");
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        for (Field<?> field : FIELDS) {
+            if (field.apply(product, patch)) {
+                columns.add(field.column());
+            }
+        }
+        if (patch.has("categoryId")) {
+            Long current = product.getCategory() != null ? product.getCategory().getId() : null;
+            if (!Objects.equals(current, patch.getCategoryId())) {
+                product.setCategory(patch.getCategoryId() != null ? categories.apply(patch.getCategoryId()) : null);
+                columns.add("category_id");
+            }
+        }
+
+        int collectionRows = 0;
+        int replacedCollectionRows = 0;
+        if (patch.has("tags")) {
+            replacedCollectionRows += replacementRows(product.getTags(), patch.getTags());
+            collectionRows += sync("tags", product.getTags(), patch.getTags());
+        }
+        if (patch.has("images")) {
+            replacedCollectionRows += replacementRows(product.getImages(), patch.getImages());
+            collectionRows += sync("images", product.getImages(), patch.getImages());
+        }
+        return new Changes(columns, collectionRows, replacedCollectionRows);
+    }
+
+    /** Counts a finished patch: whether it was written and the write amplification it avoided. */
+    public void record(Changes changes) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        counter(meterRegistry, "app.product.patch", "Product merge patches, by whether they changed anything",
+                "outcome", changes.isEmpty() ? "unchanged" : "applied").increment();
+        int columns = changes.columnsWritten();
+        counter(meterRegistry, "app.product.patch.columns", COLUMNS_DESCRIPTION, "result", "written")
+                .increment(columns);
+        counter(meterRegistry, "app.product.patch.columns", COLUMNS_DESCRIPTION, "result", "skipped")
+                .increment(FULL_ROW_COLUMNS - columns);
+        counter(meterRegistry, "app.product.patch.collection-rows", ROWS_DESCRIPTION, "result", "written")
+                .increment(changes.collectionRows());
+        counter(meterRegistry, "app.product.patch.collection-rows", ROWS_DESCRIPTION, "result", "skipped")
+                .increment(changes.replacedCollectionRows() - changes.collectionRows());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String description, String tag, String value) {
+        return Counter.builder(name).description(description).tag(tag, value).register(registry);
+    }
+
+    /**
+     * Removes and adds elements until {@code current} equals {@code target}
+     * ({@code null} meaning empty); returns the rows deleted plus inserted.
+     */
+    private static int sync(String field, Set<String> current, Set<String> target) {
+        Set<String> wanted = target != null ? target : Collections.emptySet();
+        if (wanted.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException(field + " cannot contain null");
+        }
+        int before = current.size();
+        current.removeIf(element -> !wanted.contains(element));
+        int rows = before - current.size();
+        for (String element : wanted) {
+            if (current.add(element)) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    // Replacing the collection deletes every row and inserts every wanted element
+    private static int replacementRows(Set<String> current, Set<String> target) {
+        return current.size() + (target != null ? target.size() : 0);
+    }
+
+    private static boolean same(Object patched, Object current) {
+        // 10.5 and 10.50 are the same price; the column's scale decides what is stored
+        if (patched instanceof BigDecimal a && current instanceof BigDecimal b) {
+            return a.compareTo(b) == 0;
+        }
+        return Objects.equals(patched, current);
+    }
+
+    /**
+     * What a patch changed: the scalar columns set, and the collection rows
+     * written versus those a replacement of the patched collections writes.
+     */
+    public record Changes(Set<String> columns, int collectionRows, int replacedCollectionRows) {
+
+        public boolean isEmpty() {
+            return columns.isEmpty() && collectionRows == 0;
+        }
+
+        /** Columns in the {@code UPDATE}, including updated_at and version once anything changed. */
+        public int columnsWritten() {
+            return isEmpty() ? 0 : columns.size() + 2;
+        }
+    }
+
+    private record Field<T>(String name, String column, Function<ProductPatchRequest, T> patched,
+            Function<Product, T> current, BiConsumer<Product, T> setter, boolean required) {
+
+        boolean apply(Product product, ProductPatchRequest patch) {
+            if (!patch.has(name)) {
+                return false;
+            }
+            T value = patched.apply(patch);
+            if (value == null && required) {
+                throw new BadRequestException(name + " cannot be null");
+            }
+            if (same(value, current.apply(product))) {
+                return false;
+            }
+            setter.accept(product, value);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.productcatalog.repository;
+
+import com.example.productcatalog.domain.CatalogChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    // Primary key range scan: cheap no matter how far behind the consumer is
+    List<CatalogChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+
+    /**
+     * Set-based variant of a per-entity save for bulk operations: one
+     * {@code INSERT ... SELECT} for those of the given products whose
+     * {@code updated_at} is the bulk update's stamp, i.e. the rows it changed.
+     */
+    @Modifying
+    @Query("INSERT INTO CatalogChange (entityType, entityId, operation, changedAt) "
+            + "SELECT :entityType, p.id, :operation, p.updatedAt FROM Product p "
+            + "WHERE p.id IN :ids AND p.updatedAt = :updatedAt")
+    int insertProductChanges(@Param("entityType") CatalogChange.EntityType entityType,
+            @Param("ids") Collection<Long> ids, @Param("operation") CatalogChange.Operation operation,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * One entry for each of the given products that still exists, for
+     * removals: run it before the rows are deleted.
+     */
+    @Modifying
+    @Query("INSERT INTO CatalogChange (entityType, entityId, operation, changedAt) "
+            + "SELECT :entityType, p.id, :operation, :changedAt FROM Product p WHERE p.id IN :ids")
+    int insertChangesForProducts(@Param("entityType") CatalogChange.EntityType entityType,
+            @Param("ids") Collection<Long> ids, @Param("operation") CatalogChange.Operation operation,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    /**
+     * Start, in epoch milliseconds, of the oldest other transaction that has
+     * written something and is still open, or {@code null} if there is none.
+     * An uncommitted change-log entry belongs to such a transaction.
+     */
+    @Query(value = "SELECT CAST(EXTRACT(EPOCH FROM MIN(xact_start)) * 1000 AS BIGINT) FROM pg_stat_activity "
+            + "WHERE backend_xid IS NOT NULL AND pid <> pg_backend_pid()", nativeQuery = true)
+    Long findOldestWritingTransactionStart();
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM CatalogChange c")
+    long findLatestSeq();
+
+    // Primary key range scan over the newest entries only
+    long countBySeqGreaterThan(long seq);
+
+    /**
+     * Deletes entries older than the cutoff that a newer entry for the same
+     * entity supersedes. The latest entry per entity is always kept, so a
+     * consumer starting from zero still sees every live entity.
+     */
+    @Modifying
+    @Query("DELETE FROM CatalogChange c WHERE c.changedAt < :cutoff AND EXISTS ("
+            + "SELECT 1 FROM CatalogChange n WHERE n.entityType = c.entityType "
+            + "AND n.entityId = c.entityId AND n.seq > c.seq)")
+    int deleteSupersededBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,29 @@
+package com.example.productcatalog.repository;
+
+import com.example.productcatalog.domain.CatalogCounter;
+import com.example.productcatalog.repository.projection.CounterTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CatalogCounterRepository extends JpaRepository<CatalogCounter, CatalogCounter.Key> {
+
+    /**
+     * Adds {@code delta} to one slot of a counter, creating the slot on first
+     * use. Holds the slot's row lock until the transaction ends.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO catalog_counters (counter_key, slot, amount) VALUES (:key, :slot, :delta) "
+            + "ON CONFLICT (counter_key, slot) DO UPDATE SET amount = catalog_counters.amount + EXCLUDED.amount",
+            nativeQuery = true)
+    void increment(@Param("key") String key, @Param("slot") int slot, @Param("delta") long delta);
+
+    // One row per counter and slot: the size of the result does not depend on the catalog
+    @Query("SELECT c.counterKey AS counterKey, SUM(c.amount) AS amount FROM CatalogCounter c GROUP BY c.counterKey")
+    List<CounterTotal> findTotals();
+}
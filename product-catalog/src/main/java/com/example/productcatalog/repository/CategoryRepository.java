@@ -1,9 +1,20 @@
 package com.example.productcatalog.repository;
 
 import com.example.productcatalog.domain.Category;
+import com.example.productcatalog.repository.projection.CatalogFingerprint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @Query("SELECT c.version FROM Category c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(c) AS rowCount, COALESCE(SUM(c.version), 0) AS versionSum, MAX(c.updatedAt) AS lastUpdated FROM Category c")
+    CatalogFingerprint findCatalogFingerprint();
 }
@@ -1,22 +1,108 @@
 package com.example.productcatalog.repository;
 
 import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.repository.projection.ProductCounterGroup;
+import com.example.productcatalog.repository.projection.ProductKey;
+import com.example.productcatalog.repository.projection.ProductRevision;
+import com.example.productcatalog.repository.projection.ProductStockLevel;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>,
-        org.springframework.data.jpa.repository.JpaSpecificationExecutor<Product> {
+        org.springframework.data.jpa.repository.JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
+
+    String LOW_STOCK = "CASE WHEN COALESCE(p.quantity, 0) - p.reservedQuantity <= COALESCE(p.lowStockThreshold, 5) "
+            + "THEN true ELSE false END";
+    String COUNTER_GROUPS = "SELECT p.status AS status, c.id AS categoryId, p.featured AS featured, "
+            + LOW_STOCK + " AS lowStock, COUNT(p) AS productCount FROM Product p LEFT JOIN p.category c ";
+    String BY_COUNTER_GROUP = " GROUP BY p.status, c.id, p.featured, " + LOW_STOCK;
+
     Optional<Product> findBySku(String sku);
 
     boolean existsBySku(String sku);
 
     Page<Product> findByFeaturedTrue(Pageable pageable);
 
-    @org.springframework.data.jpa.repository.Query("SELECT p FROM Product p WHERE p.quantity <= COALESCE(p.lowStockThreshold, 5)")
+    // Cache warming: featured products, most recently updated first
+    @org.springframework.data.jpa.repository.Query("SELECT p.id FROM Product p WHERE p.featured = true ORDER BY p.updatedAt DESC")
+    List<Long> findFeaturedIds(Limit limit);
+
+    @org.springframework.data.jpa.repository.Query("SELECT p FROM Product p WHERE COALESCE(p.quantity, 0) - p.reservedQuantity <= COALESCE(p.lowStockThreshold, 5)")
     Page<Product> findLowStockProducts(Pageable pageable);
+
+    // Version lookups for conditional GETs — read two columns instead of the
+    // entity and its EAGER collections
+    @org.springframework.data.jpa.repository.Query("SELECT p.id AS id, p.version AS version, c.version AS categoryVersion FROM Product p LEFT JOIN p.category c WHERE p.id = :id")
+    Optional<ProductRevision> findRevisionById(@Param("id") Long id);
+
+    @org.springframework.data.jpa.repository.Query("SELECT p.id AS id, p.version AS version, c.version AS categoryVersion FROM Product p LEFT JOIN p.category c WHERE p.sku = :sku")
+    Optional<ProductRevision> findRevisionBySku(@Param("sku") String sku);
+
+    // Loads for in-memory indexes: one query per batch including the EAGER
+    // element collections instead of two extra selects per product
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "tags", "images" })
+    @org.springframework.data.jpa.repository.Query("SELECT p FROM Product p WHERE p.id > :afterId AND p.id <= :upToId")
+    List<Product> findForIndexing(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "tags", "images" })
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    // Dashboard counter inputs: the whole catalog for reconciliation, or the
+    // products of one bulk-update chunk
+    @org.springframework.data.jpa.repository.Query(COUNTER_GROUPS + BY_COUNTER_GROUP)
+    List<ProductCounterGroup> countCounterGroups();
+
+    @org.springframework.data.jpa.repository.Query(COUNTER_GROUPS + "WHERE p.id IN :ids" + BY_COUNTER_GROUP)
+    List<ProductCounterGroup> countCounterGroupsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(MAX(p.id), 0) FROM Product p")
+    long findMaxId();
+
+    @org.springframework.data.jpa.repository.Query("SELECT p.id AS id, p.sku AS sku, p.quantity AS quantity, p.reservedQuantity AS reservedQuantity, p.status AS status FROM Product p WHERE p.id IN :ids")
+    List<ProductStockLevel> findStockLevelsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Archive mover. SKIP LOCKED: rows being edited right now are left for the
+    // next run, and concurrent movers on other instances take disjoint chunks.
+    @org.springframework.data.jpa.repository.Query(value = "SELECT id, sku FROM products "
+            + "WHERE status IN ('ARCHIVED', 'DELETED') AND updated_at < :cutoff "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ProductKey> lockArchivedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Copies the products, with their tags and images as arrays, into
+     * {@code products_archive}.
+     */
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "INSERT INTO products_archive (id, sku, name, description, "
+            + "short_description, price, compare_at_price, cost_price, status, quantity, low_stock_threshold, brand, "
+            + "weight_grams, category_id, featured, created_at, updated_at, version, tags, images) "
+            + "SELECT p.id, p.sku, p.name, p.description, p.short_description, p.price, p.compare_at_price, "
+            + "p.cost_price, p.status, p.quantity, p.low_stock_threshold, p.brand, p.weight_grams, p.category_id, "
+            + "p.featured, p.created_at, p.updated_at, p.version, "
+            + "ARRAY(SELECT t.tag FROM product_tags t WHERE t.product_id = p.id), "
+            + "ARRAY(SELECT i.image_url FROM product_images i WHERE i.product_id = p.id) "
+            + "FROM products p WHERE p.id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "DELETE FROM product_tags WHERE product_id IN (:ids)", nativeQuery = true)
+    int deleteTagsByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "DELETE FROM product_images WHERE product_id IN (:ids)", nativeQuery = true)
+    int deleteImagesByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "DELETE FROM products WHERE id IN (:ids)", nativeQuery = true)
+    int deleteRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
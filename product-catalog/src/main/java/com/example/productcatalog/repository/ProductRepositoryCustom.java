@@ -0,0 +1,63 @@
+package com.example.productcatalog.repository;
+
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.repository.projection.ProductField;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Criteria-API queries that Spring Data derivation cannot express.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Runs the specification as a tuple query selecting only the given
+     * columns. Unselected columns and the element collections are never read;
+     * each tuple element is aliased with {@link ProductField#name()}.
+     */
+    Page<Tuple> findColumns(Specification<Product> spec, Set<ProductField> columns, Pageable pageable);
+
+    /**
+     * Same as {@link #findColumns(Specification, Set, Pageable)} but returns at
+     * most {@code limit} rows without a count query, for keyset iteration.
+     */
+    List<Tuple> findColumns(Specification<Product> spec, Set<ProductField> columns, Sort sort, int limit);
+
+    /**
+     * Counts the products matching the specification per lower-cased tag,
+     * most frequent first. Tuple elements are aliased {@code tag} and
+     * {@code count}.
+     */
+    List<Tuple> countTags(Specification<Product> spec, int limit);
+
+    /**
+     * Applies the assignments to the given products in one
+     * {@code UPDATE ... WHERE id IN (...)}, bumping {@code version} and
+     * setting {@code updated_at} to the given stamp so ETags and optimistic
+     * locks see the change. The guard, if any, is added to the WHERE clause; it
+     * may only use the row's own columns (it is given no query).
+     *
+     * @return the number of rows updated
+     */
+    int updateAll(Collection<Long> ids, Specification<Product> guard, Assignments assignments,
+            LocalDateTime updatedAt);
+
+    /**
+     * SET clauses of a bulk update, built against the update's root.
+     */
+    @FunctionalInterface
+    interface Assignments {
+        void apply(CriteriaUpdate<Product> update, Root<Product> root, CriteriaBuilder cb);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.productcatalog.repository;
+
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.repository.projection.ProductField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> findColumns(Specification<Product> spec, Set<ProductField> columns, Pageable pageable) {
+        TypedQuery<Tuple> typedQuery = columnQuery(spec, columns, pageable.getSort());
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<Tuple> findColumns(Specification<Product> spec, Set<ProductField> columns, Sort sort, int limit) {
+        return columnQuery(spec, columns, sort).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Tuple> countTags(Specification<Product> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Join<Product, String> tags = root.join("tags");
+
+        Expression<String> tag = cb.lower(tags);
+        // Distinct products: "Sale" and "sale" on one product count once
+        Expression<Long> count = cb.countDistinct(root);
+        query.multiselect(tag.alias("tag"), count.alias("count"));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(tag).orderBy(cb.desc(count), cb.asc(tag));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public int updateAll(Collection<Long> ids, Specification<Product> guard, Assignments assignments,
+            LocalDateTime updatedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> root = update.from(Product.class);
+
+        assignments.apply(update, root, cb);
+        update.set(root.<Long>get("version"), cb.sum(root.get("version"), 1L));
+        update.set(root.<LocalDateTime>get("updatedAt"), updatedAt);
+
+        Predicate predicate = root.get("id").in(ids);
+        // Guards (bulk selections included) only look at the row's own columns, so no query is needed
+        Predicate guardPredicate = guard != null ? guard.toPredicate(root, null, cb) : null;
+        update.where(guardPredicate != null ? cb.and(predicate, guardPredicate) : predicate);
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private TypedQuery<Tuple> columnQuery(Specification<Product> spec, Set<ProductField> columns, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (ProductField column : columns) {
+            selections.add(select(column, root, query, cb).alias(column.name()));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private Selection<?> select(ProductField column, Root<Product> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (column == ProductField.IMAGE_URL) {
+            Subquery<String> firstImage = query.subquery(String.class);
+            Root<Product> correlated = firstImage.correlate(root);
+            Join<Product, String> images = correlated.join("images");
+            return firstImage.select(cb.least(images));
+        }
+        Path<?> path = root;
+        for (String attribute : column.getAttributePath().split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
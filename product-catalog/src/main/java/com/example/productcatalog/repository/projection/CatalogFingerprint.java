@@ -0,0 +1,20 @@
+package com.example.productcatalog.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate over a whole table that changes whenever any row is inserted,
+ * updated or deleted. Used as the generation behind weak list ETags.
+ */
+public interface CatalogFingerprint {
+
+    Long getRowCount();
+
+    Long getVersionSum();
+
+    LocalDateTime getLastUpdated();
+
+    default String toToken() {
+        return getRowCount() + "." + getVersionSum() + "." + getLastUpdated();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.productcatalog.repository.projection;
+
+/**
+ * A dashboard counter summed over its slots.
+ */
+public interface CounterTotal {
+
+    String getCounterKey();
+
+    Long getAmount();
+}
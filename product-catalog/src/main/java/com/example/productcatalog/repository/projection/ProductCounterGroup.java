@@ -0,0 +1,18 @@
+package com.example.productcatalog.repository.projection;
+
+/**
+ * Number of products sharing every dimension a dashboard counter is keyed
+ * by. Reconciliation and bulk updates fold these into counter values.
+ */
+public interface ProductCounterGroup {
+
+    String getStatus();
+
+    Long getCategoryId();
+
+    Boolean getFeatured();
+
+    Boolean getLowStock();
+
+    Long getProductCount();
+}
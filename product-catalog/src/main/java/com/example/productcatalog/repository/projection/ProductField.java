@@ -0,0 +1,113 @@
+package com.example.productcatalog.repository.projection;
+
+import com.example.productcatalog.exception.BadRequestException;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Product fields that list endpoints can return through {@code fields=} or a
+ * named {@code view=}. Each column-backed field maps to an entity attribute
+ * path; derived fields list the columns they are computed from.
+ */
+public enum ProductField {
+
+    ID("id", "id"),
+    SKU("sku", "sku"),
+    NAME("name", "name"),
+    SHORT_DESCRIPTION("shortDescription", "shortDescription"),
+    PRICE("price", "price"),
+    COMPARE_AT_PRICE("compareAtPrice", "compareAtPrice"),
+    STATUS("status", "status"),
+    QUANTITY("quantity", "quantity"),
+    RESERVED_QUANTITY("reservedQuantity", "reservedQuantity"),
+    LOW_STOCK_THRESHOLD("lowStockThreshold", "lowStockThreshold"),
+    BRAND("brand", "brand"),
+    CATEGORY_ID("categoryId", "category.id"),
+    FEATURED("featured", "featured"),
+    // First image by URL order, selected with a correlated subquery so the
+    // product_images collection is never hydrated
+    IMAGE_URL("imageUrl", null),
+    CREATED_AT("createdAt", "createdAt"),
+    UPDATED_AT("updatedAt", "updatedAt"),
+    AVAILABLE_QUANTITY("availableQuantity", null, QUANTITY, RESERVED_QUANTITY),
+    IN_STOCK("inStock", null, QUANTITY, RESERVED_QUANTITY),
+    LOW_STOCK("lowStock", null, QUANTITY, RESERVED_QUANTITY, LOW_STOCK_THRESHOLD);
+
+    /** The list-view projection: everything a product grid or table row renders. */
+    public static final Set<ProductField> SUMMARY = Collections.unmodifiableSet(
+            EnumSet.of(ID, SKU, NAME, PRICE, STATUS, QUANTITY, IMAGE_URL));
+
+    private final String jsonName;
+    private final String attributePath;
+    private final List<ProductField> dependencies;
+
+    ProductField(String jsonName, String attributePath, ProductField... dependencies) {
+        this.jsonName = jsonName;
+        this.attributePath = attributePath;
+        this.dependencies = List.of(dependencies);
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public String getAttributePath() {
+        return attributePath;
+    }
+
+    public boolean isDerived() {
+        return !dependencies.isEmpty();
+    }
+
+    /**
+     * Resolves the requested projection. Returns {@code null} for the full
+     * view, which keeps the existing entity-backed {@code ProductDTO} path.
+     *
+     * @param fields comma-separated JSON field names; takes precedence over view
+     * @param view   {@code summary} or {@code full} (the default)
+     */
+    public static Set<ProductField> resolve(String fields, String view) {
+        if (StringUtils.hasText(fields)) {
+            Set<ProductField> requested = EnumSet.of(ID);
+            for (String name : StringUtils.commaDelimitedListToStringArray(fields)) {
+                requested.add(fromJsonName(name.trim()));
+            }
+            return requested;
+        }
+        if (!StringUtils.hasText(view) || "full".equalsIgnoreCase(view)) {
+            return null;
+        }
+        if ("summary".equalsIgnoreCase(view)) {
+            return SUMMARY;
+        }
+        throw new BadRequestException("Unknown view '" + view + "'. Supported views: summary, full");
+    }
+
+    /**
+     * Columns that must be selected to produce the requested fields.
+     */
+    public static Set<ProductField> columnsFor(Set<ProductField> requested) {
+        Set<ProductField> columns = EnumSet.of(ID);
+        for (ProductField field : requested) {
+            if (field.isDerived()) {
+                columns.addAll(field.dependencies);
+            } else {
+                columns.add(field);
+            }
+        }
+        return columns;
+    }
+
+    private static ProductField fromJsonName(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.jsonName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unknown product field '" + name + "'. Supported fields: "
+                        + Arrays.stream(values()).map(ProductField::getJsonName).toList()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.productcatalog.repository.projection;
+
+/**
+ * The two keys products are cached under.
+ */
+public interface ProductKey {
+
+    Long getId();
+
+    String getSku();
+}
@@ -0,0 +1,15 @@
+package com.example.productcatalog.repository.projection;
+
+/**
+ * Version pair used to build product ETags without loading the entity.
+ * The category version is included because {@code ProductDTO} exposes the
+ * category name, so renaming a category changes the product representation.
+ */
+public interface ProductRevision {
+
+    Long getId();
+
+    Long getVersion();
+
+    Long getCategoryVersion();
+}
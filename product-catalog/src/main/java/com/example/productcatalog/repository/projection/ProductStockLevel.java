@@ -0,0 +1,17 @@
+package com.example.productcatalog.repository.projection;
+
+/**
+ * What the reservation service needs to know about a product's stock.
+ */
+public interface ProductStockLevel {
+
+    Long getId();
+
+    String getSku();
+
+    Integer getQuantity();
+
+    Integer getReservedQuantity();
+
+    String getStatus();
+}
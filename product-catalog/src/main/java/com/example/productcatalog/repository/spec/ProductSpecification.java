@@ -1,16 +1,25 @@
 package com.example.productcatalog.repository.spec;
 
 import com.example.productcatalog.domain.Product;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class ProductSpecification {
 
+    private static final List<String> HIDDEN_STATUSES = List.of("DELETED", "ARCHIVED");
+
     public static Specification<Product> filterProducts(
             String search,
             Long categoryId,
@@ -20,6 +29,27 @@ public class ProductSpecification {
             String status,
             Boolean inStock,
             Boolean featured) {
+        return filterProducts(search, categoryId, brand, minPrice, maxPrice, status, inStock, featured, null, null);
+    }
+
+    /**
+     * As above, plus tag filters. Tags must already be lower-cased; they are
+     * matched against {@code lower(tag)}.
+     *
+     * @param anyTags products carrying at least one of these tags
+     * @param allTags products carrying every one of these tags
+     */
+    public static Specification<Product> filterProducts(
+            String search,
+            Long categoryId,
+            String brand,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String status,
+            Boolean inStock,
+            Boolean featured,
+            Collection<String> anyTags,
+            Collection<String> allTags) {
 
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -54,26 +84,74 @@ public class ProductSpecification {
 
             if (StringUtils.hasText(status)) {
                 predicates.add(criteriaBuilder.equal(root.get("status"), status));
-            } else {
-                // Default to NOT ARCHIVED/DELETED if status not specified?
-                // User requirement: "Get all products" usually implies active ones, but
-                // "filter" might want specific status.
-                // If status is not provided, we should probably exclude DELETED products at
-                // least.
-                // Let's assume standard behavior excludes DELETED.
-                predicates.add(criteriaBuilder.notEqual(root.get("status"), "DELETED"));
-                predicates.add(criteriaBuilder.notEqual(root.get("status"), "ARCHIVED"));
+            }
+            // Without a status, ARCHIVED and DELETED products are excluded. A live
+            // status gets the same exclusion too, redundantly, so that the
+            // live-only partial indexes apply to it.
+            if (!StringUtils.hasText(status) || !HIDDEN_STATUSES.contains(status)) {
+                predicates.add(isLive(root, criteriaBuilder));
             }
 
+            // Stock held by reservations is not in stock
             if (inStock != null && inStock) {
-                predicates.add(criteriaBuilder.greaterThan(root.get("quantity"), 0));
+                predicates.add(criteriaBuilder.greaterThan(
+                        criteriaBuilder.diff(root.<Integer>get("quantity"), root.<Integer>get("reservedQuantity")), 0));
             }
 
             if (featured != null) {
                 predicates.add(criteriaBuilder.equal(root.get("featured"), featured));
             }
 
+            // One correlated EXISTS per condition, each answered from idx_product_tags_tag
+            if (anyTags != null && !anyTags.isEmpty()) {
+                predicates.add(criteriaBuilder.exists(hasTag(root, query, criteriaBuilder, anyTags)));
+            }
+
+            if (allTags != null) {
+                for (String tag : allTags) {
+                    predicates.add(criteriaBuilder.exists(hasTag(root, query, criteriaBuilder, List.of(tag))));
+                }
+            }
+
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * {@code status <> 'DELETED' AND status <> 'ARCHIVED'}, the predicate of
+     * the {@code idx_product_hot_*} partial indexes. The statuses are SQL
+     * literals rather than bind parameters: the planner can only match a
+     * partial index predicate against constants it sees when planning.
+     */
+    public static Predicate isLive(Root<Product> root, CriteriaBuilder criteriaBuilder) {
+        Expression<String> productStatus = root.get("status");
+        return criteriaBuilder.and(HIDDEN_STATUSES.stream()
+                .map(hidden -> criteriaBuilder.notEqual(productStatus, criteriaBuilder.literal(hidden)))
+                .toArray(Predicate[]::new));
+    }
+
+    private static Subquery<Integer> hasTag(Root<Product> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder,
+            Collection<String> tags) {
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Join<Product, String> tag = subquery.correlate(root).join("tags");
+        Expression<String> key = criteriaBuilder.lower(tag);
+        return subquery.select(criteriaBuilder.literal(1))
+                .where(tags.size() == 1 ? criteriaBuilder.equal(key, tags.iterator().next()) : key.in(tags));
+    }
+
+    /**
+     * ACTIVE products whose name or SKU starts with the prefix, case-insensitively.
+     * The SQL fallback for typeahead when the suggest index is unavailable.
+     */
+    public static Specification<Product> suggest(String prefix) {
+        String escaped = prefix.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.equal(root.get("status"), "ACTIVE"),
+                criteriaBuilder.or(
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), escaped + "%", '\\'),
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("sku")), escaped + "%", '\\')));
+    }
 }
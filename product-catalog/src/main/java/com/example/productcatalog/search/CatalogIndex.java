@@ -0,0 +1,22 @@
+package com.example.productcatalog.search;
+
+import java.util.Collection;
+
+/**
+ * An in-memory read model of the product catalog, kept current by
+ * {@link CatalogIndexMaintainer}: fully built at startup, then updated from
+ * committed change events and the change feed.
+ */
+public interface CatalogIndex {
+
+    /** Drops all content; queries must fall back until {@link #markReady()}. */
+    void clear();
+
+    /** Adds or replaces the given products. */
+    void indexAll(Collection<IndexedProduct> products);
+
+    void removeAll(Collection<Long> ids);
+
+    /** Called once the initial build has completed. */
+    void markReady();
+}
@@ -0,0 +1,308 @@
+package com.example.productcatalog.search;
+
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.event.CatalogChangeEvent;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.web.dto.CatalogChangeDTO;
+import com.example.productcatalog.web.dto.ChangeFeedDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps every {@link CatalogIndex} bean in step with the database.
+ *
+ * <p>At startup the catalog is loaded in id-range batches on a background
+ * thread; queries fall back to SQL until that completes. Afterwards, local
+ * writes are applied right after commit through {@link CatalogChangeEvent},
+ * and the change feed is polled so writes made by other instances arrive
+ * within one poll interval. Both paths re-read the touched products, so
+ * applying a change twice is harmless.
+ *
+ * <p>With a {@link CatalogSnapshotStore}, startup loads the last snapshot
+ * instead and replays only the change feed since it; the database is scanned
+ * only when there is no usable snapshot, and that scan writes a new one.
+ * Re-read products are staged in the store and merged into the snapshot every
+ * {@code app.catalog-index.snapshot.write-interval}.
+ *
+ * <p>Does nothing when no index is enabled.
+ */
+@Slf4j
+@Component
+public class CatalogIndexMaintainer {
+
+    private final ObjectProvider<CatalogIndex> indexes;
+    private final ProductRepository productRepository;
+    private final ChangeLogService changeLogService;
+    private final ObjectProvider<CatalogSnapshotStore> snapshots;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int batchSize;
+
+    private volatile String feedToken;
+
+    public CatalogIndexMaintainer(ObjectProvider<CatalogIndex> indexes, ProductRepository productRepository,
+            ChangeLogService changeLogService, ObjectProvider<CatalogSnapshotStore> snapshots,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.catalog-index.batch-size:1000}") int batchSize) {
+        this.indexes = indexes;
+        this.productRepository = productRepository;
+        this.changeLogService = changeLogService;
+        this.snapshots = snapshots;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Change events arrive after commit while the writer's resources are still bound
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (indexes.stream().findAny().isPresent()) {
+            Thread builder = new Thread(this::rebuild, "catalog-index-build");
+            builder.setDaemon(true);
+            builder.start();
+        }
+    }
+
+    /**
+     * Loads the whole catalog into every index, from the snapshot when there
+     * is a usable one and from the database otherwise. Changes committed
+     * since are replayed from the change feed afterwards.
+     */
+    public void rebuild() {
+        List<CatalogIndex> targets = indexes.orderedStream().toList();
+        CatalogSnapshotStore snapshot = snapshots.getIfAvailable();
+        long start = System.nanoTime();
+        try {
+            // Taken before the load so nothing committed during it is missed
+            String token = changeLogService.getLatestToken();
+            targets.forEach(CatalogIndex::clear);
+
+            AtomicLong loaded = new AtomicLong();
+            String snapshotToken = snapshot != null ? loadSnapshot(snapshot, targets, token, loaded) : null;
+            if (snapshotToken == null) {
+                loaded.set(loadDatabase(snapshot, targets, token));
+            }
+
+            feedToken = snapshotToken != null ? snapshotToken : token;
+            pollChanges();
+            targets.forEach(CatalogIndex::markReady);
+            log.info("Built {} catalog index(es) with {} products from the {} in {} ms", targets.size(), loaded.get(),
+                    snapshotToken != null ? "snapshot" : "database", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Catalog index build failed; queries keep using SQL", e);
+        }
+    }
+
+    // Returns the snapshot's token, or null when the database has to be scanned instead
+    private String loadSnapshot(CatalogSnapshotStore snapshot, List<CatalogIndex> targets, String latestToken,
+            AtomicLong loaded) {
+        try {
+            String snapshotToken = snapshot.load(batchSize, batch -> {
+                targets.forEach(index -> index.indexAll(batch));
+                loaded.addAndGet(batch.size());
+            });
+            if (snapshotToken != null && !isAtOrBefore(snapshotToken, latestToken)) {
+                // Written against another database, or one restored from an older backup
+                log.warn("Ignoring catalog snapshot at token {}, ahead of the change feed at {}", snapshotToken,
+                        latestToken);
+                snapshotToken = null;
+            }
+            if (snapshotToken == null && loaded.get() > 0) {
+                targets.forEach(CatalogIndex::clear);
+            }
+            return snapshotToken;
+        } catch (IOException e) {
+            log.warn("Catalog snapshot unreadable, loading from the database: {}", e.getMessage());
+            targets.forEach(CatalogIndex::clear);
+            return null;
+        }
+    }
+
+    private long loadDatabase(CatalogSnapshotStore snapshot, List<CatalogIndex> targets, String token) {
+        CatalogSnapshotFile.Writer writer = snapshot != null ? createSnapshot(snapshot, token) : null;
+        try {
+            long maxId = productRepository.findMaxId();
+            long loaded = 0;
+            for (long afterId = 0; afterId < maxId; afterId += batchSize) {
+                long from = afterId;
+                List<IndexedProduct> batch = readOnlyTransaction.execute(status -> toIndexed(
+                        productRepository.findForIndexing(from, from + batchSize)));
+                if (batch != null && !batch.isEmpty()) {
+                    targets.forEach(index -> index.indexAll(batch));
+                    loaded += batch.size();
+                    writer = writeSnapshot(writer, batch);
+                }
+            }
+            if (writer != null) {
+                try {
+                    writer.commit();
+                } catch (IOException e) {
+                    log.warn("Catalog snapshot not written: {}", e.getMessage());
+                }
+            }
+            return loaded;
+        } finally {
+            closeQuietly(writer);
+        }
+    }
+
+    private static CatalogSnapshotFile.Writer createSnapshot(CatalogSnapshotStore snapshot, String token) {
+        try {
+            return snapshot.create(token);
+        } catch (IOException e) {
+            log.warn("Catalog snapshot not written: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // A failed snapshot write must not fail the build; returns null once the write is abandoned
+    private static CatalogSnapshotFile.Writer writeSnapshot(CatalogSnapshotFile.Writer writer,
+            List<IndexedProduct> batch) {
+        if (writer == null) {
+            return null;
+        }
+        try {
+            // Batches are consecutive id ranges, but the rows within one are unordered
+            List<IndexedProduct> sorted = new ArrayList<>(batch);
+            sorted.sort(Comparator.comparingLong(IndexedProduct::id));
+            for (IndexedProduct product : sorted) {
+                writer.write(product);
+            }
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Catalog snapshot not written: {}", e.getMessage());
+            closeQuietly(writer);
+            return null;
+        }
+    }
+
+    private static void closeQuietly(CatalogSnapshotFile.Writer writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.debug("Could not discard partial catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    // Feed tokens are sequence numbers
+    private static boolean isAtOrBefore(String token, String other) {
+        try {
+            return Long.parseLong(token) <= Long.parseLong(other);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Merges the products re-read since the last write into the snapshot.
+     * The token is read first, so every change up to it has been staged.
+     * Also runs at shutdown, so a restart replays as little as possible.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-index.snapshot.write-interval:10m}")
+    @EventListener(ContextClosedEvent.class)
+    public void writeSnapshot() {
+        CatalogSnapshotStore snapshot = snapshots.getIfAvailable();
+        String token = feedToken;
+        if (snapshot == null || token == null) {
+            return;
+        }
+        try {
+            snapshot.merge(token);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Catalog snapshot write failed, retrying next interval: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.entityType() != CatalogChange.EntityType.PRODUCT || feedToken == null) {
+            return;
+        }
+        try {
+            refresh(event.ids());
+        } catch (RuntimeException e) {
+            // The write itself has committed; the next feed poll applies it
+            log.warn("Catalog index refresh for {} failed: {}", event.ids(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog-index.poll-interval:1s}")
+    public synchronized void pollChanges() {
+        if (feedToken == null) {
+            return;
+        }
+        try {
+            ChangeFeedDTO feed;
+            do {
+                feed = changeLogService.getChanges(feedToken, batchSize);
+                Set<Long> productIds = new LinkedHashSet<>();
+                for (CatalogChangeDTO change : feed.getChanges()) {
+                    if (CatalogChange.EntityType.PRODUCT.name().equals(change.getEntityType())) {
+                        productIds.add(change.getEntityId());
+                    }
+                }
+                refresh(productIds);
+                feedToken = feed.getNextToken();
+            } while (feed.isHasMore());
+        } catch (RuntimeException e) {
+            log.warn("Catalog index change poll failed, retrying next interval: {}", e.getMessage());
+        }
+    }
+
+    private void refresh(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<IndexedProduct> products = readOnlyTransaction.execute(status -> toIndexed(
+                productRepository.findByIdIn(ids)));
+        Set<Long> missing = new HashSet<>(ids);
+        if (products != null) {
+            products.forEach(product -> missing.remove(product.id()));
+        }
+        indexes.orderedStream().forEach(index -> {
+            if (products != null && !products.isEmpty()) {
+                index.indexAll(products);
+            }
+            if (!missing.isEmpty()) {
+                index.removeAll(missing);
+            }
+        });
+        CatalogSnapshotStore snapshot = snapshots.getIfAvailable();
+        if (snapshot != null) {
+            snapshot.stage(products != null ? products : List.of(), missing);
+        }
+    }
+
+    private static List<IndexedProduct> toIndexed(List<Product> products) {
+        List<IndexedProduct> indexed = new ArrayList<>(products.size());
+        for (Product product : products) {
+            indexed.add(IndexedProduct.from(product));
+        }
+        return indexed;
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.productcatalog.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * On-disk layout of a catalog snapshot:
+ *
+ * <pre>
+ *   header   int magic, int format version, long created-at (epoch ms), string change feed token
+ *   records  (int length, payload)*  one {@link IndexedProduct} each, ascending by id
+ *   footer   int -1, long record count, long CRC32 of everything before it
+ * </pre>
+ *
+ * Strings are an int byte length ({@code -1} for null) followed by UTF-8.
+ * A file with another magic or version, or whose checksum does not match,
+ * is not loaded. Reading memory-maps the file one window at a time, so a
+ * snapshot may exceed 2 GB and is paged in by the OS rather than copied onto
+ * the heap.
+ */
+final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x50435331;
+    static final int FORMAT_VERSION = 1;
+
+    private static final int END_OF_RECORDS = -1;
+    private static final long NO_LONG = Long.MIN_VALUE;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /** Writes a snapshot to a temporary file and moves it over the target on commit. */
+    static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temp;
+        private final FileOutputStream file;
+        private final BufferedOutputStream buffered;
+        private final CRC32 crc = new CRC32();
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream(512);
+        private final DataOutputStream recordOut = new DataOutputStream(record);
+        private long count;
+        private long lastId = Long.MIN_VALUE;
+        private boolean committed;
+
+        Writer(Path target, String token, long createdAtMillis) throws IOException {
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.file = new FileOutputStream(temp.toFile());
+            this.buffered = new BufferedOutputStream(file, 1 << 16);
+            this.out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(createdAtMillis);
+            writeString(out, token);
+        }
+
+        void write(IndexedProduct product) throws IOException {
+            checkOrder(product.id());
+            record.reset();
+            encode(product, recordOut);
+            out.writeInt(record.size());
+            record.writeTo(out);
+            count++;
+        }
+
+        /** Copies a record read from another snapshot without decoding it. */
+        void writeRaw(ByteBuffer payload) throws IOException {
+            checkOrder(idOf(payload));
+            byte[] bytes = new byte[payload.remaining()];
+            payload.duplicate().get(bytes);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            count++;
+        }
+
+        void commit() throws IOException {
+            out.writeInt(END_OF_RECORDS);
+            out.writeLong(count);
+            out.flush();
+            buffered.write(ByteBuffer.allocate(Long.BYTES).putLong(crc.getValue()).array());
+            buffered.flush();
+            file.getChannel().force(true);
+            out.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        // Discards the temporary file unless committed
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void checkOrder(long id) {
+            if (id <= lastId) {
+                throw new IllegalArgumentException("Snapshot records must ascend by id: " + id + " after " + lastId);
+            }
+            lastId = id;
+        }
+    }
+
+    /** Reads a snapshot front to back through memory-mapped windows. */
+    static final class Reader implements Closeable {
+
+        private final FileChannel channel;
+        private final long size;
+        private final int windowSize;
+        private final CRC32 crc = new CRC32();
+        private final int version;
+        private final long createdAtMillis;
+        private final String token;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+        private long count;
+
+        Reader(Path path, int windowSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.windowSize = windowSize;
+            try {
+                if (take(Integer.BYTES).getInt() != MAGIC) {
+                    throw new IOException("Not a catalog snapshot: " + path);
+                }
+                this.version = take(Integer.BYTES).getInt();
+                this.createdAtMillis = version == FORMAT_VERSION ? take(Long.BYTES).getLong() : 0;
+                this.token = version == FORMAT_VERSION ? readString() : null;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /** Whether the file was written in the format this build reads. */
+        boolean isCurrentFormat() {
+            return version == FORMAT_VERSION;
+        }
+
+        long getCreatedAtMillis() {
+            return createdAtMillis;
+        }
+
+        String getToken() {
+            return token;
+        }
+
+        /**
+         * The next record's payload, positioned at its id, or {@code null}
+         * once the footer has been read and verified.
+         *
+         * @throws IOException if the file is truncated or its checksum does not match
+         */
+        ByteBuffer next() throws IOException {
+            int length = take(Integer.BYTES).getInt();
+            if (length == END_OF_RECORDS) {
+                verifyFooter();
+                return null;
+            }
+            if (length < Long.BYTES) {
+                throw new IOException("Corrupt snapshot record length " + length + " at " + position);
+            }
+            count++;
+            return take(length);
+        }
+
+        private void verifyFooter() throws IOException {
+            long recorded = take(Long.BYTES).getLong();
+            long expectedCrc = crc.getValue();
+            long storedCrc = take(Long.BYTES, false).getLong();
+            if (recorded != count || storedCrc != expectedCrc || position != size) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+        }
+
+        private String readString() throws IOException {
+            int length = take(Integer.BYTES).getInt();
+            if (length < 0) {
+                return null;
+            }
+            ByteBuffer bytes = take(length);
+            return StandardCharsets.UTF_8.decode(bytes).toString();
+        }
+
+        private ByteBuffer take(int length) throws IOException {
+            return take(length, true);
+        }
+
+        private ByteBuffer take(int length, boolean checksummed) throws IOException {
+            if (position + length > size) {
+                throw new IOException("Snapshot truncated at " + position);
+            }
+            if (window == null || position + length > windowStart + window.capacity()) {
+                // Remap from the current position; a record never straddles two windows
+                long mapped = Math.min(size - position, Math.max(windowSize, length));
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, mapped);
+                windowStart = position;
+            }
+            ByteBuffer slice = window.slice((int) (position - windowStart), length);
+            if (checksummed) {
+                crc.update(slice.duplicate());
+            }
+            position += length;
+            return slice;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    static long idOf(ByteBuffer payload) {
+        return payload.getLong(payload.position());
+    }
+
+    static void encode(IndexedProduct product, DataOutputStream out) throws IOException {
+        out.writeLong(product.id());
+        writeString(out, product.sku());
+        writeString(out, product.name());
+        writeString(out, product.shortDescription());
+        writeString(out, product.description());
+        writeString(out, product.brand());
+        Set<String> tags = product.tags() != null ? product.tags() : Set.of();
+        out.writeInt(tags.size());
+        for (String tag : tags) {
+            writeString(out, tag);
+        }
+        out.writeLong(product.categoryId() != null ? product.categoryId() : NO_LONG);
+        if (product.price() != null) {
+            byte[] unscaled = product.price().unscaledValue().toByteArray();
+            out.writeInt(unscaled.length);
+            out.write(unscaled);
+            out.writeInt(product.price().scale());
+        } else {
+            out.writeInt(-1);
+        }
+        writeString(out, product.status());
+        out.writeInt(product.availableQuantity());
+        out.writeBoolean(product.featured());
+        if (product.createdAt() != null) {
+            out.writeLong(product.createdAt().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(product.createdAt().getNano());
+        } else {
+            out.writeLong(NO_LONG);
+        }
+    }
+
+    static IndexedProduct decode(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        long id = in.getLong();
+        String sku = readString(in);
+        String name = readString(in);
+        String shortDescription = readString(in);
+        String description = readString(in);
+        String brand = readString(in);
+        int tagCount = in.getInt();
+        List<String> tags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(readString(in));
+        }
+        long categoryId = in.getLong();
+        BigDecimal price = null;
+        int unscaledLength = in.getInt();
+        if (unscaledLength >= 0) {
+            byte[] unscaled = new byte[unscaledLength];
+            in.get(unscaled);
+            price = new BigDecimal(new BigInteger(unscaled), in.getInt());
+        }
+        String status = readString(in);
+        int availableQuantity = in.getInt();
+        boolean featured = in.get() != 0;
+        long createdAtSeconds = in.getLong();
+        LocalDateTime createdAt = createdAtSeconds != NO_LONG
+                ? LocalDateTime.ofEpochSecond(createdAtSeconds, in.getInt(), ZoneOffset.UTC)
+                : null;
+        return new IndexedProduct(id, sku, name, shortDescription, description, brand, Set.copyOf(tags),
+                categoryId != NO_LONG ? categoryId : null, price, status, availableQuantity, featured, createdAt);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        // Mapped buffers have no backing array
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
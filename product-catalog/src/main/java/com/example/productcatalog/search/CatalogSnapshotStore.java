@@ -0,0 +1,208 @@
+package com.example.productcatalog.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * A local snapshot of the indexed catalog, so that a restart can load the
+ * in-memory indexes from disk and replay only the change feed since the
+ * snapshot's token, instead of scanning {@code products} on the primary.
+ *
+ * <p>The first snapshot is written during the full load. After that, every
+ * product the {@link CatalogIndexMaintainer} re-reads is staged here and
+ * merged into a new file periodically. The merge streams the previous
+ * snapshot and copies unchanged records as they are, so the database is never
+ * scanned again. A snapshot that cannot be written is simply older; one that
+ * is corrupt, in an old format or older than {@code maxAge} is ignored and
+ * the catalog is loaded from the database.
+ */
+@Slf4j
+public class CatalogSnapshotStore {
+
+    static final String FILE_NAME = "catalog.snapshot";
+
+    private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final Path file;
+    private final Duration maxAge;
+    private final int windowSize;
+    private final Clock clock;
+    private final Object mergeLock = new Object();
+
+    // Product id to its latest state, or null once removed; guarded by this
+    private Map<Long, IndexedProduct> staged = new HashMap<>();
+
+    public CatalogSnapshotStore(Path directory, Duration maxAge) {
+        this(directory, maxAge, DEFAULT_WINDOW_SIZE, Clock.systemUTC());
+    }
+
+    CatalogSnapshotStore(Path directory, Duration maxAge, int windowSize, Clock clock) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create catalog snapshot directory " + directory, e);
+        }
+        this.file = directory.resolve(FILE_NAME);
+        this.maxAge = maxAge;
+        this.windowSize = windowSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Streams the snapshot's products to {@code consumer} in batches.
+     *
+     * @return the change feed token the snapshot is current to, or
+     *         {@code null} if there is no usable snapshot
+     * @throws IOException if the snapshot turns out to be corrupt; batches
+     *                     already handed to the consumer must be discarded
+     */
+    public String load(int batchSize, Consumer<List<IndexedProduct>> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (CatalogSnapshotFile.Reader reader = new CatalogSnapshotFile.Reader(file, windowSize)) {
+            if (!reader.isCurrentFormat()) {
+                log.info("Ignoring catalog snapshot in an older format");
+                return null;
+            }
+            Duration age = Duration.ofMillis(clock.millis() - reader.getCreatedAtMillis());
+            if (age.compareTo(maxAge) > 0) {
+                log.info("Ignoring catalog snapshot written {} ago (max-age {})", age, maxAge);
+                return null;
+            }
+            List<IndexedProduct> batch = new ArrayList<>(batchSize);
+            ByteBuffer payload;
+            while ((payload = reader.next()) != null) {
+                batch.add(decode(payload));
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+            return reader.getToken();
+        }
+    }
+
+    // The checksum is only verified at the end, so a damaged record may fail to decode first
+    private static IndexedProduct decode(ByteBuffer payload) throws IOException {
+        try {
+            return CatalogSnapshotFile.decode(payload);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt catalog snapshot record", e);
+        }
+    }
+
+    /**
+     * Starts a complete snapshot; products must be written in ascending id
+     * order. Committing it replaces the current snapshot.
+     */
+    CatalogSnapshotFile.Writer create(String token) throws IOException {
+        return new CatalogSnapshotFile.Writer(file, token, clock.millis());
+    }
+
+    /** Records re-read products and removed ids for the next {@link #merge}. */
+    public synchronized void stage(Collection<IndexedProduct> products, Collection<Long> removedIds) {
+        for (IndexedProduct product : products) {
+            staged.put(product.id(), product);
+        }
+        for (Long id : removedIds) {
+            staged.put(id, null);
+        }
+    }
+
+    /**
+     * Writes a new snapshot: the current one with the staged changes applied,
+     * stamped with {@code token}. Every change up to the token must have been
+     * staged already.
+     *
+     * @return whether a new snapshot was written
+     */
+    public boolean merge(String token) throws IOException {
+        synchronized (mergeLock) {
+            Map<Long, IndexedProduct> changes = drain();
+            if (changes.isEmpty() || !Files.exists(file)) {
+                // Without a base the changes are useless; the next full load writes one
+                return false;
+            }
+            try {
+                long written = merge(new TreeMap<>(changes), token);
+                log.debug("Catalog snapshot rewritten with {} changes, {} products", changes.size(), written);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                requeue(changes);
+                throw e;
+            }
+        }
+    }
+
+    private long merge(TreeMap<Long, IndexedProduct> changes, String token) throws IOException {
+        try (CatalogSnapshotFile.Reader reader = new CatalogSnapshotFile.Reader(file, windowSize);
+                CatalogSnapshotFile.Writer writer = create(token)) {
+            if (!reader.isCurrentFormat()) {
+                throw new IOException("Catalog snapshot is in an older format");
+            }
+            Iterator<Map.Entry<Long, IndexedProduct>> pending = changes.entrySet().iterator();
+            Map.Entry<Long, IndexedProduct> change = pending.hasNext() ? pending.next() : null;
+            ByteBuffer payload;
+            while ((payload = reader.next()) != null) {
+                long id = CatalogSnapshotFile.idOf(payload);
+                while (change != null && change.getKey() < id) {
+                    writeIfPresent(writer, change.getValue());
+                    change = pending.hasNext() ? pending.next() : null;
+                }
+                if (change != null && change.getKey() == id) {
+                    writeIfPresent(writer, change.getValue());
+                    change = pending.hasNext() ? pending.next() : null;
+                } else {
+                    writer.writeRaw(payload);
+                }
+            }
+            while (change != null) {
+                writeIfPresent(writer, change.getValue());
+                change = pending.hasNext() ? pending.next() : null;
+            }
+            writer.commit();
+            return writer.getCount();
+        }
+    }
+
+    private static void writeIfPresent(CatalogSnapshotFile.Writer writer, IndexedProduct product) throws IOException {
+        if (product != null) {
+            writer.write(product);
+        }
+    }
+
+    private synchronized Map<Long, IndexedProduct> drain() {
+        Map<Long, IndexedProduct> drained = staged;
+        staged = new HashMap<>();
+        return drained;
+    }
+
+    // Changes staged since the drain are newer and win
+    private synchronized void requeue(Map<Long, IndexedProduct> changes) {
+        // Not putIfAbsent: a null (removed) value counts as present
+        changes.forEach((id, product) -> {
+            if (!staged.containsKey(id)) {
+                staged.put(id, product);
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.productcatalog.search;
+
+import com.example.productcatalog.domain.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * The product fields an in-memory index needs, detached from the entity so
+ * indexing never touches a lazy association. {@code inStock} filters use
+ * {@code availableQuantity}, the stock not held by reservations.
+ */
+public record IndexedProduct(long id, String sku, String name, String shortDescription, String description,
+        String brand, Set<String> tags, Long categoryId, BigDecimal price, String status, int availableQuantity,
+        boolean featured, LocalDateTime createdAt) {
+
+    public static IndexedProduct from(Product product) {
+        return new IndexedProduct(product.getId(), product.getSku(), product.getName(),
+                product.getShortDescription(), product.getDescription(), product.getBrand(),
+                Set.copyOf(product.getTags()),
+                // The proxy knows its id without being initialized
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getPrice(), product.getStatus(),
+                product.getAvailableQuantity(),
+                product.isFeatured(), product.getCreatedAt());
+    }
+}
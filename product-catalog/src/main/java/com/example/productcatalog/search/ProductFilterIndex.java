@@ -0,0 +1,627 @@
+package com.example.productcatalog.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.RoaringBitmapWriter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory snapshot of the structured product fields, answering
+ * {@code /products/filter} requests that have no search text.
+ *
+ * <p>Status, category, brand, featured, in-stock and unpriced are Roaring
+ * bitmaps over product ids. Price, creation time, status, brand and category
+ * live in primitive arrays indexed by a slot that {@link Slots} assigns to
+ * each id. Ids are not dense (under sharding they step by the shard count,
+ * and archived products leave holes), so the columns are sized by the
+ * number of products rather than by the largest id. A query ANDs the
+ * relevant bitmaps, scans the price column for the survivors, and orders
+ * them either straight from the bitmap (id order) or with a bounded heap
+ * over the sort columns, so only one page of ids leaves the index. The
+ * caller hydrates that page.
+ *
+ * <p>Filter semantics match
+ * {@link com.example.productcatalog.repository.spec.ProductSpecification}.
+ * Ids beyond {@code int} range cannot be stored; once one is seen the index
+ * stops answering and callers use SQL.
+ */
+@Slf4j
+public class ProductFilterIndex implements CatalogIndex, MeterBinder {
+
+    private static final Set<String> SORTABLE = Set.of("id", "price", "createdAt");
+    private static final List<String> HIDDEN_STATUSES = List.of("ARCHIVED", "DELETED");
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long NO_CATEGORY = Long.MIN_VALUE;
+    // Sort after every real value ascending and before them descending, as in PostgreSQL
+    private static final long NO_PRICE = Long.MAX_VALUE;
+    private static final long NO_TIMESTAMP = Long.MAX_VALUE;
+
+    /** Interns a low-cardinality string column and keeps one bitmap per value. */
+    private static final class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<RoaringBitmap> bitmaps = new ArrayList<>();
+
+        int codeOf(String value) {
+            return codes.computeIfAbsent(value, key -> {
+                bitmaps.add(new RoaringBitmap());
+                return bitmaps.size() - 1;
+            });
+        }
+
+        RoaringBitmap bitmap(String value) {
+            Integer code = codes.get(value);
+            return code != null ? bitmaps.get(code) : EMPTY;
+        }
+    }
+
+    /**
+     * Maps product ids to column slots: an open-addressing hash table with
+     * linear probing, backward-shift deletion, and a free list so a removed
+     * product's slot goes to the next product added.
+     */
+    private static final class Slots {
+        private static final int NONE = -1;
+
+        private int[] keys;
+        private int[] values;
+        private int size;
+        private int assigned;
+        private int[] released = new int[0];
+        private int releasedCount;
+
+        Slots(int capacity) {
+            keys = new int[Integer.highestOneBit(Math.max(capacity, 8) - 1) << 2];
+            values = new int[keys.length];
+            Arrays.fill(keys, NONE);
+        }
+
+        /** The slot of the id, or {@code -1} when the id is not held. */
+        int get(int id) {
+            int mask = keys.length - 1;
+            for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == id) {
+                    return values[i];
+                }
+                if (keys[i] == NONE) {
+                    return NONE;
+                }
+            }
+        }
+
+        /** The slot of the id, assigning one if the id is new. */
+        int assign(int id) {
+            int slot = get(id);
+            if (slot != NONE) {
+                return slot;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            slot = releasedCount > 0 ? released[--releasedCount] : assigned++;
+            insert(id, slot);
+            size++;
+            return slot;
+        }
+
+        /** Frees the id's slot for reuse and returns it, or {@code -1} when the id is not held. */
+        int release(int id) {
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (keys[i] != id) {
+                if (keys[i] == NONE) {
+                    return NONE;
+                }
+                i = (i + 1) & mask;
+            }
+            int slot = values[i];
+            // Moves later entries of the probe chain back into the gap, so lookups need no tombstones
+            int gap = i;
+            for (int j = (gap + 1) & mask; keys[j] != NONE; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = NONE;
+            size--;
+            if (releasedCount == released.length) {
+                released = Arrays.copyOf(released, Math.max(16, releasedCount * 2));
+            }
+            released[releasedCount++] = slot;
+            return slot;
+        }
+
+        long sizeInBytes() {
+            return (long) (keys.length * 2 + released.length) * Integer.BYTES;
+        }
+
+        private void insert(int id, int slot) {
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (keys[i] != NONE) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = id;
+            values[i] = slot;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, NONE);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != NONE) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(int id) {
+            // Ids stepping by the shard count would otherwise cluster in every n-th bucket
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowOrder {
+        int compare(int a, int b);
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Dictionary statuses = new Dictionary();
+    private final Dictionary brands = new Dictionary();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final RoaringBitmap featured = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final RoaringBitmap unpriced = new RoaringBitmap();
+
+    private Slots slots;
+    private int[] productIds;
+    private long[] priceCents;
+    private long[] createdAtMicros;
+    private int[] statusCodes;
+    private int[] brandCodes;
+    private long[] categoryIds;
+
+    private volatile boolean ready;
+    private volatile boolean overflowed;
+
+    public ProductFilterIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public boolean isReady() {
+        return ready && !overflowed;
+    }
+
+    @Override
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            // Converts long id ranges into run containers once the bulk load is done
+            allBitmaps().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        long products = size();
+        long bytes = sizeInBytes();
+        log.info("Filter index holds {} products in {} KB (~{} MB per million products)", products, bytes / 1024,
+                products > 0 ? bytes * 1_000_000 / products / (1024 * 1024) : 0);
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            overflowed = false;
+            live.clear();
+            statuses.codes.clear();
+            statuses.bitmaps.clear();
+            brands.codes.clear();
+            brands.bitmaps.clear();
+            byCategory.clear();
+            featured.clear();
+            inStock.clear();
+            unpriced.clear();
+            allocate(INITIAL_CAPACITY);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexAll(Collection<IndexedProduct> products) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedProduct product : products) {
+                if (product.id() > Integer.MAX_VALUE) {
+                    if (!overflowed) {
+                        log.warn("Product id {} exceeds the filter index range; filters fall back to SQL",
+                                product.id());
+                    }
+                    overflowed = true;
+                    continue;
+                }
+                int row = (int) product.id();
+                removeInternal(row);
+                addInternal(row, product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                if (id <= Integer.MAX_VALUE) {
+                    removeInternal(id.intValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Heap footprint of the columns, slot table and bitmaps, in bytes.
+     */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long columns = (long) priceCents.length * (Long.BYTES * 3 + Integer.BYTES * 3) + slots.sizeInBytes();
+            long bitmaps = 0;
+            for (RoaringBitmap bitmap : allBitmaps()) {
+                bitmaps += bitmap.getLongSizeInBytes();
+            }
+            return columns + bitmaps;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean supports(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()));
+    }
+
+    /**
+     * Evaluates the structured part of the query and returns one page of
+     * product ids. Returns {@code null} when the caller should use SQL: the
+     * index is not ready, the query has search text or tag filters, or the
+     * sort is not supported. Tags are left to the indexed SQL path; at tens
+     * of tags per product their bitmaps would outweigh the rest of the index.
+     */
+    public Page<Long> filter(ProductQuery query, Pageable pageable) {
+        if (!isReady() || StringUtils.hasText(query.text()) || query.hasTagFilter()
+                || !supports(pageable.getSort())) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = evaluate(query);
+            int total = matches.getCardinality();
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), total) : total;
+            return new PageImpl<>(page(matches, pageable.getSort(), from, to), pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ─── Query evaluation (callers hold the read lock) ────────────────────
+
+    private RoaringBitmap evaluate(ProductQuery query) {
+        RoaringBitmap result;
+        if (StringUtils.hasText(query.status())) {
+            result = statuses.bitmap(query.status()).clone();
+        } else {
+            result = live.clone();
+            for (String hidden : HIDDEN_STATUSES) {
+                result.andNot(statuses.bitmap(hidden));
+            }
+        }
+        if (query.categoryId() != null) {
+            result.and(byCategory.getOrDefault(query.categoryId(), EMPTY));
+        }
+        if (StringUtils.hasText(query.brand())) {
+            result.and(brands.bitmap(query.brand().toLowerCase(Locale.ROOT)));
+        }
+        if (Boolean.TRUE.equals(query.featured())) {
+            result.and(featured);
+        } else if (Boolean.FALSE.equals(query.featured())) {
+            result.andNot(featured);
+        }
+        if (Boolean.TRUE.equals(query.inStock())) {
+            result.and(inStock);
+        }
+        if (query.minPrice() == null && query.maxPrice() == null) {
+            return result;
+        }
+
+        // A price bound never matches a product without a price, as in SQL
+        result.andNot(unpriced);
+        long min = query.minPrice() != null ? toCents(query.minPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+        long max = query.maxPrice() != null ? toCents(query.maxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+        RoaringBitmapWriter<RoaringBitmap> inRange = RoaringBitmapWriter.writer().get();
+        IntIterator rows = result.getIntIterator();
+        while (rows.hasNext()) {
+            int row = rows.next();
+            long price = priceCents[slots.get(row)];
+            if (price >= min && price <= max) {
+                inRange.add(row);
+            }
+        }
+        return inRange.get();
+    }
+
+    private List<Long> page(RoaringBitmap matches, Sort sort, int from, int to) {
+        List<Long> ids = new ArrayList<>(to - from);
+        if (from >= to) {
+            return ids;
+        }
+        Sort.Order first = sort.iterator().hasNext() ? sort.iterator().next() : null;
+        if (first == null || ("id".equals(first.getProperty()) && first.isAscending())) {
+            // Bitmap order is id order
+            PeekableIntIterator rows = matches.getIntIterator();
+            rows.advanceIfNeeded(matches.select(from));
+            for (int i = from; i < to; i++) {
+                ids.add((long) rows.next());
+            }
+            return ids;
+        }
+        if ("id".equals(first.getProperty())) {
+            IntIterator rows = matches.getReverseIntIterator();
+            for (int i = 0; i < to; i++) {
+                int row = rows.next();
+                if (i >= from) {
+                    ids.add((long) row);
+                }
+            }
+            return ids;
+        }
+        int[] top = topSlots(matches, order(sort), to);
+        for (int i = from; i < to; i++) {
+            ids.add((long) productIds[top[i]]);
+        }
+        return ids;
+    }
+
+    /**
+     * The slots of the first {@code limit} rows under the given order,
+     * sorted, using a max-heap of size {@code limit} so the full match set is
+     * never sorted.
+     */
+    private int[] topSlots(RoaringBitmap matches, RowOrder order, int limit) {
+        int[] heap = new int[limit];
+        int size = 0;
+        IntIterator rows = matches.getIntIterator();
+        while (rows.hasNext()) {
+            int row = slots.get(rows.next());
+            if (size < limit) {
+                heap[size] = row;
+                siftUp(heap, size++, order);
+            } else if (order.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, size, order);
+            }
+        }
+        // Popping the max repeatedly fills the array from the back in ascending order
+        for (int end = size - 1; end > 0; end--) {
+            int max = heap[0];
+            heap[0] = heap[end];
+            heap[end] = max;
+            siftDown(heap, end, order);
+        }
+        return size == limit ? heap : Arrays.copyOf(heap, size);
+    }
+
+    private static void siftUp(int[] heap, int index, RowOrder order) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(row, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private static void siftDown(int[] heap, int size, RowOrder order) {
+        int index = 0;
+        int row = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(heap[child], row) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private RowOrder order(Sort sort) {
+        RowOrder combined = null;
+        for (Sort.Order sortOrder : sort) {
+            RowOrder next = switch (sortOrder.getProperty()) {
+                case "price" -> (a, b) -> Long.compare(priceCents[a], priceCents[b]);
+                case "createdAt" -> (a, b) -> Long.compare(createdAtMicros[a], createdAtMicros[b]);
+                default -> (a, b) -> Integer.compare(productIds[a], productIds[b]);
+            };
+            RowOrder directed = sortOrder.isDescending() ? (a, b) -> next.compare(b, a) : next;
+            RowOrder previous = combined;
+            combined = previous == null ? directed : (a, b) -> {
+                int result = previous.compare(a, b);
+                return result != 0 ? result : directed.compare(a, b);
+            };
+        }
+        RowOrder sorted = combined;
+        return (a, b) -> {
+            int result = sorted.compare(a, b);
+            return result != 0 ? result : Integer.compare(productIds[a], productIds[b]);
+        };
+    }
+
+    // ─── Maintenance (callers hold the write lock) ────────────────────────
+
+    private void addInternal(int row, IndexedProduct product) {
+        int slot = slots.assign(row);
+        ensureCapacity(slot + 1);
+        productIds[slot] = row;
+        priceCents[slot] = product.price() != null ? toCents(product.price(), RoundingMode.HALF_UP) : NO_PRICE;
+        createdAtMicros[slot] = product.createdAt() != null ? toMicros(product.createdAt()) : NO_TIMESTAMP;
+        statusCodes[slot] = product.status() != null ? statuses.codeOf(product.status()) : -1;
+        brandCodes[slot] = product.brand() != null ? brands.codeOf(product.brand().toLowerCase(Locale.ROOT)) : -1;
+        categoryIds[slot] = product.categoryId() != null ? product.categoryId() : NO_CATEGORY;
+
+        live.add(row);
+        if (statusCodes[slot] >= 0) {
+            statuses.bitmaps.get(statusCodes[slot]).add(row);
+        }
+        if (brandCodes[slot] >= 0) {
+            brands.bitmaps.get(brandCodes[slot]).add(row);
+        }
+        if (product.categoryId() != null) {
+            byCategory.computeIfAbsent(product.categoryId(), key -> new RoaringBitmap()).add(row);
+        }
+        if (product.featured()) {
+            featured.add(row);
+        }
+        if (product.availableQuantity() > 0) {
+            inStock.add(row);
+        }
+        if (product.price() == null) {
+            unpriced.add(row);
+        }
+    }
+
+    private void removeInternal(int row) {
+        if (!live.contains(row)) {
+            return;
+        }
+        live.remove(row);
+        // The released slot keeps its values until it is assigned again
+        int slot = slots.release(row);
+        if (statusCodes[slot] >= 0) {
+            statuses.bitmaps.get(statusCodes[slot]).remove(row);
+        }
+        if (brandCodes[slot] >= 0) {
+            brands.bitmaps.get(brandCodes[slot]).remove(row);
+        }
+        if (categoryIds[slot] != NO_CATEGORY) {
+            RoaringBitmap category = byCategory.get(categoryIds[slot]);
+            if (category != null) {
+                category.remove(row);
+                if (category.isEmpty()) {
+                    byCategory.remove(categoryIds[slot]);
+                }
+            }
+        }
+        featured.remove(row);
+        inStock.remove(row);
+        unpriced.remove(row);
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= priceCents.length) {
+            return;
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(rows, priceCents.length * 3L / 2));
+        productIds = Arrays.copyOf(productIds, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        createdAtMicros = Arrays.copyOf(createdAtMicros, capacity);
+        statusCodes = Arrays.copyOf(statusCodes, capacity);
+        brandCodes = Arrays.copyOf(brandCodes, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+    }
+
+    private void allocate(int capacity) {
+        slots = new Slots(capacity);
+        productIds = new int[capacity];
+        priceCents = new long[capacity];
+        createdAtMicros = new long[capacity];
+        statusCodes = new int[capacity];
+        brandCodes = new int[capacity];
+        categoryIds = new long[capacity];
+    }
+
+    private List<RoaringBitmap> allBitmaps() {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(List.of(live, featured, inStock, unpriced));
+        bitmaps.addAll(statuses.bitmaps);
+        bitmaps.addAll(brands.bitmaps);
+        bitmaps.addAll(byCategory.values());
+        return bitmaps;
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode rounding) {
+        return amount.movePointRight(2).setScale(0, rounding).longValue();
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.filter.index.products", this, ProductFilterIndex::size)
+                .description("Products held in the columnar filter index")
+                .register(registry);
+        Gauge.builder("app.filter.index.size", this, ProductFilterIndex::sizeInBytes)
+                .description("Heap used by the filter index columns and bitmaps")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
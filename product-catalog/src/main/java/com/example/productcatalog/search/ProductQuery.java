@@ -0,0 +1,23 @@
+package com.example.productcatalog.search;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Free text plus the structured filters of {@code GET /products/filter},
+ * with the same semantics as
+ * {@link com.example.productcatalog.repository.spec.ProductSpecification}.
+ * Tags are lower-cased.
+ */
+public record ProductQuery(String text, Long categoryId, String brand, BigDecimal minPrice, BigDecimal maxPrice,
+        String status, Boolean inStock, Boolean featured, Set<String> anyTags, Set<String> allTags) {
+
+    public ProductQuery(String text, Long categoryId, String brand, BigDecimal minPrice, BigDecimal maxPrice,
+            String status, Boolean inStock, Boolean featured) {
+        this(text, categoryId, brand, minPrice, maxPrice, status, inStock, featured, null, null);
+    }
+
+    public boolean hasTagFilter() {
+        return (anyTags != null && !anyTags.isEmpty()) || (allTags != null && !allTags.isEmpty());
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.productcatalog.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, short description,
+ * description, brand and tags, ranked with BM25.
+ *
+ * <p>Terms live in a sorted map so that every query token also matches as a
+ * prefix ({@code "iph"} finds {@code "iphone"}); exact term matches score
+ * higher than prefix expansions. All query tokens must match. Structured
+ * filters are applied by intersecting the text matches with per-status,
+ * per-category, per-brand and featured posting sets; price and stock are
+ * checked against the stored document.
+ *
+ * <p>Field matches are weighted (name 3, brand and tags 2, short description
+ * 1.5, description 1) and summed into one term frequency per document.
+ */
+public class ProductSearchIndex implements CatalogIndex, MeterBinder {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float PREFIX_BOOST = 0.8f;
+    // Bounds the work for very short prefixes such as "a"
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float BRAND_WEIGHT = 2f;
+    private static final float TAG_WEIGHT = 2f;
+    private static final float SHORT_DESCRIPTION_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final Set<String> SORTABLE = Set.of("id", "name", "price", "createdAt");
+    private static final Set<String> HIDDEN_STATUSES = Set.of("ARCHIVED", "DELETED");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> byStatus = new HashMap<>();
+    private final Map<Long, Set<Long>> byCategory = new HashMap<>();
+    private final Map<String, Set<Long>> byBrand = new HashMap<>();
+    private final Set<Long> featured = new HashSet<>();
+    private double totalLength;
+
+    private volatile boolean ready;
+
+    private record Document(long id, String nameKey, float length, Set<String> terms, String status,
+            Long categoryId, String brandKey, BigDecimal price, int availableQuantity, boolean featured,
+            LocalDateTime createdAt) {
+    }
+
+    private record Hit(Document document, float score) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postings.clear();
+            documents.clear();
+            byStatus.clear();
+            byCategory.clear();
+            byBrand.clear();
+            featured.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexAll(Collection<IndexedProduct> products) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedProduct product : products) {
+                removeInternal(product.id());
+                addInternal(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::removeInternal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index can produce this ordering itself. Relevance order is
+     * used when the request is unsorted.
+     */
+    public boolean supports(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()));
+    }
+
+    /**
+     * Runs a text query with filters and returns one page of product ids.
+     * Returns {@code null} when the caller should use SQL instead: the index
+     * is not ready, the query has no indexable tokens, filters by tag, or the
+     * sort is not supported.
+     */
+    public Page<Long> search(ProductQuery query, Pageable pageable) {
+        List<String> tokens = Tokenizer.tokenize(query.text());
+        if (!ready || tokens.isEmpty() || query.hasTagFilter() || !supports(pageable.getSort())) {
+            return null;
+        }
+        List<Hit> hits;
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = matchAll(tokens);
+            hits = filter(scores, query);
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(comparator(pageable.getSort()));
+
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), hits.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), hits.size()) : hits.size();
+        List<Long> ids = new ArrayList<>(to - from);
+        for (Hit hit : hits.subList(from, to)) {
+            ids.add(hit.document().id());
+        }
+        return new PageImpl<>(ids, pageable, hits.size());
+    }
+
+    // ─── Query evaluation ─────────────────────────────────────────────────
+
+    private Map<Long, Float> matchAll(List<String> tokens) {
+        Map<Long, Float> scores = null;
+        for (String token : tokens) {
+            Map<Long, Float> tokenScores = matchToken(token, scores);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                // Intersection: keep documents that matched every token so far
+                Map<Long, Float> intersected = new HashMap<>();
+                for (Map.Entry<Long, Float> entry : tokenScores.entrySet()) {
+                    Float previous = scores.get(entry.getKey());
+                    if (previous != null) {
+                        intersected.put(entry.getKey(), previous + entry.getValue());
+                    }
+                }
+                scores = intersected;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Float> matchToken(String token, Map<Long, Float> candidates) {
+        Map<Long, Float> scores = new HashMap<>();
+        int documentCount = documents.size();
+        double averageLength = documentCount > 0 ? totalLength / documentCount : 1;
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> term : postings
+                .subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            Map<Long, Float> termPostings = term.getValue();
+            double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+            float boost = term.getKey().equals(token) ? 1f : PREFIX_BOOST;
+            for (Map.Entry<Long, Float> posting : termPostings.entrySet()) {
+                Long id = posting.getKey();
+                if (candidates != null && !candidates.containsKey(id)) {
+                    continue;
+                }
+                float tf = posting.getValue();
+                double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                float score = (float) (boost * idf * tf * (K1 + 1) / (tf + norm));
+                scores.merge(id, score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private List<Hit> filter(Map<Long, Float> scores, ProductQuery query) {
+        List<Set<Long>> required = new ArrayList<>();
+        if (StringUtils.hasText(query.status())) {
+            required.add(byStatus.getOrDefault(query.status(), Set.of()));
+        }
+        if (query.categoryId() != null) {
+            required.add(byCategory.getOrDefault(query.categoryId(), Set.of()));
+        }
+        if (StringUtils.hasText(query.brand())) {
+            required.add(byBrand.getOrDefault(query.brand().toLowerCase(Locale.ROOT), Set.of()));
+        }
+        if (Boolean.TRUE.equals(query.featured())) {
+            required.add(featured);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            Long id = entry.getKey();
+            if (!containedInAll(required, id)) {
+                continue;
+            }
+            Document document = documents.get(id);
+            if (matchesAttributes(document, query)) {
+                hits.add(new Hit(document, entry.getValue()));
+            }
+        }
+        return hits;
+    }
+
+    private static boolean containedInAll(List<Set<Long>> sets, Long id) {
+        for (Set<Long> set : sets) {
+            if (!set.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAttributes(Document document, ProductQuery query) {
+        if (!StringUtils.hasText(query.status()) && HIDDEN_STATUSES.contains(document.status())) {
+            return false;
+        }
+        if (Boolean.FALSE.equals(query.featured()) && document.featured()) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(query.inStock()) && document.availableQuantity() <= 0) {
+            return false;
+        }
+        if (query.minPrice() != null && (document.price() == null || document.price().compareTo(query.minPrice()) < 0)) {
+            return false;
+        }
+        return query.maxPrice() == null || (document.price() != null && document.price().compareTo(query.maxPrice()) <= 0);
+    }
+
+    private static Comparator<Hit> comparator(Sort sort) {
+        Comparator<Hit> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Hit> next = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing((Hit hit) -> hit.document().nameKey(),
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "price" -> Comparator.comparing((Hit hit) -> hit.document().price(),
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "createdAt" -> Comparator.comparing((Hit hit) -> hit.document().createdAt(),
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> Comparator.comparingLong((Hit hit) -> hit.document().id());
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Hit> relevance = Comparator.comparingDouble(Hit::score).reversed();
+        Comparator<Hit> byId = Comparator.comparingLong(hit -> hit.document().id());
+        return comparator == null ? relevance.thenComparing(byId) : comparator.thenComparing(byId);
+    }
+
+    // ─── Maintenance (callers hold the write lock) ────────────────────────
+
+    private void addInternal(IndexedProduct product) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = addTerms(frequencies, product.name(), NAME_WEIGHT)
+                + addTerms(frequencies, product.brand(), BRAND_WEIGHT)
+                + addTerms(frequencies, product.shortDescription(), SHORT_DESCRIPTION_WEIGHT)
+                + addTerms(frequencies, product.description(), DESCRIPTION_WEIGHT);
+        if (product.tags() != null) {
+            for (String tag : product.tags()) {
+                length += addTerms(frequencies, tag, TAG_WEIGHT);
+            }
+        }
+
+        long id = product.id();
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, tf));
+        String brandKey = product.brand() != null ? product.brand().toLowerCase(Locale.ROOT) : null;
+        Document document = new Document(id,
+                product.name() != null ? product.name().toLowerCase(Locale.ROOT) : null,
+                Math.max(length, 1f), Set.copyOf(frequencies.keySet()), product.status(), product.categoryId(),
+                brandKey, product.price(), product.availableQuantity(), product.featured(), product.createdAt());
+        documents.put(id, document);
+        totalLength += document.length();
+
+        if (document.status() != null) {
+            byStatus.computeIfAbsent(document.status(), key -> new HashSet<>()).add(id);
+        }
+        if (document.categoryId() != null) {
+            byCategory.computeIfAbsent(document.categoryId(), key -> new HashSet<>()).add(id);
+        }
+        if (brandKey != null) {
+            byBrand.computeIfAbsent(brandKey, key -> new HashSet<>()).add(id);
+        }
+        if (document.featured()) {
+            featured.add(id);
+        }
+    }
+
+    private static float addTerms(Map<String, Float> frequencies, String text, float weight) {
+        List<String> tokens = Tokenizer.tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void removeInternal(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length();
+        for (String term : document.terms()) {
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        removeFrom(byStatus, document.status(), id);
+        removeFrom(byCategory, document.categoryId(), id);
+        removeFrom(byBrand, document.brandKey(), id);
+        featured.remove(id);
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Long>> facet, K key, long id) {
+        if (key == null) {
+            return;
+        }
+        Set<Long> ids = facet.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                facet.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.search.index.documents", this, ProductSearchIndex::size)
+                .description("Products held in the in-memory search index")
+                .register(registry);
+        Gauge.builder("app.search.index.terms", this, index -> {
+            index.lock.readLock().lock();
+            try {
+                return index.postings.size();
+            } finally {
+                index.lock.readLock().unlock();
+            }
+        }).register(registry);
+    }
+}
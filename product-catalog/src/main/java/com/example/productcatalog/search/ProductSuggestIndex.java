@@ -0,0 +1,360 @@
+package com.example.productcatalog.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead over product names, SKUs and brands.
+ *
+ * <p>A character trie where every node caches its top-K suggestions by
+ * weight, so a lookup is one walk down the prefix plus a copy of at most K
+ * entries, independent of catalog size. A node's top-K is always drawn from
+ * its own entries and its children's top-K, which lets an insert or removal
+ * repair just the nodes on the affected key's path.
+ *
+ * <p>Names are indexed from each of their first few word starts, so
+ * {@code "pro"} finds "iPhone 15 Pro". Only ACTIVE products are suggested.
+ * A product's weight is 1, plus a boost when featured, plus its recorded
+ * detail-page views; a brand's weight is the sum of its products' weights.
+ * Views are buffered and applied in batches by {@link #applyViews()}.
+ */
+public class ProductSuggestIndex implements CatalogIndex, MeterBinder {
+
+    public enum Type {
+        PRODUCT, BRAND
+    }
+
+    /**
+     * One suggestion. {@code productId} and {@code sku} are null for brands.
+     */
+    public record Suggestion(Type type, String text, Long productId, String sku, long weight) {
+    }
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_NAME_POSITIONS = 6;
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final long FEATURED_BOOST = 10;
+    private static final Comparator<Suggestion> BY_WEIGHT = Comparator.comparingLong(Suggestion::weight).reversed()
+            .thenComparing(Suggestion::text);
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        final List<Suggestion> entries = new ArrayList<>(1);
+        List<Suggestion> top = List.of();
+    }
+
+    private record Entry(IndexedProduct product, long views, Suggestion suggestion, Set<String> keys) {
+    }
+
+    private final int topK;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, Entry> products = new HashMap<>();
+    private final Map<String, Long> brandWeights = new HashMap<>();
+    private final Map<String, String> brandDisplayNames = new HashMap<>();
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private int nodeCount = 1;
+
+    private volatile boolean ready;
+
+    public ProductSuggestIndex(int topK) {
+        this.topK = topK;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            root.children.clear();
+            root.entries.clear();
+            root.top = List.of();
+            products.clear();
+            brandWeights.clear();
+            brandDisplayNames.clear();
+            nodeCount = 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexAll(Collection<IndexedProduct> batch) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedProduct product : batch) {
+                Entry previous = removeInternal(product.id());
+                addInternal(product, previous != null ? previous.views() : 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::removeInternal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} suggestions for the prefix, best first, or
+     * {@code null} while the index is still being built.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (!ready) {
+            return null;
+        }
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<Suggestion> top = node.top;
+            return List.copyOf(top.subList(0, Math.min(limit, top.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts a product view towards its popularity. Cheap and lock-free; the
+     * trie is re-weighted on the next {@link #applyViews()}.
+     */
+    public void recordView(Long productId) {
+        if (ready) {
+            pendingViews.computeIfAbsent(productId, id -> new LongAdder()).increment();
+        }
+    }
+
+    public void applyViews() {
+        if (pendingViews.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> views = new HashMap<>();
+        for (Long id : List.copyOf(pendingViews.keySet())) {
+            LongAdder adder = pendingViews.remove(id);
+            if (adder != null) {
+                views.put(id, adder.sum());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            views.forEach((id, count) -> {
+                Entry entry = removeInternal(id);
+                if (entry != null) {
+                    addInternal(entry.product(), entry.views() + count);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ─── Maintenance (callers hold the write lock) ────────────────────────
+
+    private void addInternal(IndexedProduct product, long views) {
+        if (!"ACTIVE".equals(product.status())) {
+            // Keep the view count so a product that comes back keeps its rank
+            products.put(product.id(), new Entry(product, views, null, Set.of()));
+            return;
+        }
+        long weight = 1 + views + (product.featured() ? FEATURED_BOOST : 0);
+        Suggestion suggestion = new Suggestion(Type.PRODUCT, product.name(), product.id(), product.sku(), weight);
+        Set<String> keys = productKeys(product);
+        for (String key : keys) {
+            insert(key, suggestion);
+        }
+        products.put(product.id(), new Entry(product, views, suggestion, keys));
+        adjustBrand(product.brand(), weight);
+    }
+
+    private Entry removeInternal(long id) {
+        Entry entry = products.remove(id);
+        if (entry == null || entry.suggestion() == null) {
+            return entry;
+        }
+        for (String key : entry.keys()) {
+            delete(key, entry.suggestion());
+        }
+        adjustBrand(entry.product().brand(), -entry.suggestion().weight());
+        return entry;
+    }
+
+    private void adjustBrand(String brand, long delta) {
+        String key = normalize(brand);
+        if (key.isEmpty()) {
+            return;
+        }
+        Long previous = brandWeights.get(key);
+        if (previous != null) {
+            delete(key, new Suggestion(Type.BRAND, brandDisplayNames.get(key), null, null, previous));
+        }
+        long weight = (previous != null ? previous : 0) + delta;
+        if (weight > 0) {
+            brandWeights.put(key, weight);
+            brandDisplayNames.putIfAbsent(key, brand.trim());
+            insert(key, new Suggestion(Type.BRAND, brandDisplayNames.get(key), null, null, weight));
+        } else {
+            brandWeights.remove(key);
+            brandDisplayNames.remove(key);
+        }
+    }
+
+    private static Set<String> productKeys(IndexedProduct product) {
+        Set<String> keys = new LinkedHashSet<>();
+        String name = normalize(product.name());
+        if (!name.isEmpty()) {
+            keys.add(name);
+            int positions = 1;
+            for (int i = name.indexOf(' '); i >= 0 && positions < MAX_NAME_POSITIONS; i = name.indexOf(' ', i + 1)) {
+                keys.add(name.substring(i + 1));
+                positions++;
+            }
+        }
+        String sku = normalize(product.sku());
+        if (!sku.isEmpty()) {
+            keys.add(sku);
+        }
+        return keys;
+    }
+
+    private void insert(String key, Suggestion suggestion) {
+        List<Node> path = path(key, true);
+        path.get(path.size() - 1).entries.add(suggestion);
+        repair(path);
+    }
+
+    private void delete(String key, Suggestion suggestion) {
+        List<Node> path = path(key, false);
+        if (path == null) {
+            return;
+        }
+        path.get(path.size() - 1).entries.remove(suggestion);
+        // Prune nodes that no longer lead anywhere, deepest first
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (!node.entries.isEmpty() || !node.children.isEmpty()) {
+                break;
+            }
+            path.get(i - 1).children.remove(key.charAt(i - 1));
+            path.remove(i);
+            nodeCount--;
+        }
+        repair(path);
+    }
+
+    private List<Node> path(String key, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = new Node();
+                node.children.put(key.charAt(i), child);
+                nodeCount++;
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    /**
+     * Recomputes top-K bottom-up along the path from each node's own entries
+     * and its children's top-K.
+     */
+    private void repair(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Suggestion> candidates = new ArrayList<>(node.entries);
+            for (Node child : node.children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(BY_WEIGHT);
+            // A product reachable through several keys (name, word start, SKU) is listed once
+            Map<Object, Suggestion> distinct = new LinkedHashMap<>();
+            for (Suggestion candidate : candidates) {
+                Object identity = candidate.type() == Type.PRODUCT ? candidate.productId() : candidate.text();
+                distinct.putIfAbsent(identity, candidate);
+                if (distinct.size() == topK) {
+                    break;
+                }
+            }
+            node.top = List.copyOf(distinct.values());
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String key = WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.suggest.index.nodes", this, index -> {
+            index.lock.readLock().lock();
+            try {
+                return index.nodeCount;
+            } finally {
+                index.lock.readLock().unlock();
+            }
+        }).description("Trie nodes in the typeahead index").register(registry);
+        Gauge.builder("app.suggest.index.products", this, index -> {
+            index.lock.readLock().lock();
+            try {
+                return index.products.size();
+            } finally {
+                index.lock.readLock().unlock();
+            }
+        }).register(registry);
+    }
+}
@@ -14,4 +14,8 @@ public interface CategoryService {
     CategoryDTO updateCategory(Long id, CategoryDTO categoryDTO);
 
     void deleteCategory(Long id);
+
+    String getCategoryRevision(Long id);
+
+    String getCatalogRevision();
 }
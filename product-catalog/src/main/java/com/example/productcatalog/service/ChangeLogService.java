@@ -0,0 +1,46 @@
+package com.example.productcatalog.service;
+
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.web.dto.ChangeFeedDTO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface ChangeLogService {
+
+    /**
+     * Appends a change entry. Must be called inside the transaction that
+     * performs the change, so the entry commits or rolls back with it.
+     */
+    void record(CatalogChange.EntityType entityType, Long entityId, CatalogChange.Operation operation);
+
+    /**
+     * Appends one entry for each of the given products that a bulk update
+     * stamped with {@code updatedAt}, with a single set-based insert. Same
+     * transaction requirement as {@link #record}.
+     */
+    void recordProducts(Collection<Long> productIds, CatalogChange.Operation operation, LocalDateTime updatedAt);
+
+    /**
+     * Appends one entry for each of the given products, with a single
+     * set-based insert. For removals, call it before deleting the rows. Same
+     * transaction requirement as {@link #record}.
+     */
+    void recordProducts(Collection<Long> productIds, CatalogChange.Operation operation);
+
+    ChangeFeedDTO getChanges(String sinceToken, int limit);
+
+    /**
+     * Token of the newest entry; polling from it returns only later changes.
+     */
+    String getLatestToken();
+
+    /**
+     * Changes whenever an entry commits, so it can validate anything built
+     * from the tables the log covers. Costs two index lookups however large
+     * the log or the catalog is.
+     */
+    String getRevision();
+
+    int compact();
+}
@@ -0,0 +1,47 @@
+package com.example.productcatalog.service;
+
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.web.dto.DashboardDTO;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface DashboardService {
+
+    /**
+     * Keys of the counters the product currently counts towards. Capture
+     * them before changing the product and pass them to
+     * {@link #recordChange(Set, Set)} afterwards.
+     */
+    Set<String> counterKeys(Product product);
+
+    /**
+     * Moves one product from the {@code before} counters to the
+     * {@code after} counters. Must be called inside the transaction that
+     * writes the product, so the counters commit or roll back with it.
+     */
+    void recordChange(Set<String> before, Set<String> after);
+
+    /**
+     * Per-counter totals of the given products, for bulk updates: count
+     * before and after the update and pass both to
+     * {@link #recordChange(Map, Map)}.
+     */
+    Map<String, Long> countProducts(Collection<Long> productIds);
+
+    /**
+     * Applies the difference between two {@link #countProducts} results.
+     * Same transaction requirement as {@link #recordChange(Set, Set)}.
+     */
+    void recordChange(Map<String, Long> before, Map<String, Long> after);
+
+    DashboardDTO getDashboard();
+
+    /**
+     * Recounts the catalog and corrects counters that have drifted.
+     *
+     * @return the number of counters that were corrected
+     */
+    int reconcile();
+}
@@ -0,0 +1,13 @@
+package com.example.productcatalog.service;
+
+import com.example.productcatalog.web.dto.HomeDTO;
+
+public interface HomeService {
+
+    /**
+     * Loads the dashboard counters, categories and the featured, low-stock
+     * and most recent products concurrently. Sections that fail or time out
+     * are left out and listed in {@link HomeDTO#getUnavailableSections()}.
+     */
+    HomeDTO getHome(int featuredSize, int lowStockSize, int recentSize);
+}
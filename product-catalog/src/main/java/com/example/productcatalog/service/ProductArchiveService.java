@@ -0,0 +1,12 @@
+package com.example.productcatalog.service;
+
+public interface ProductArchiveService {
+
+    /**
+     * Moves products that have been ARCHIVED or DELETED for longer than the
+     * retention period from {@code products} to {@code products_archive}.
+     *
+     * @return the number of products moved
+     */
+    int archiveExpired();
+}
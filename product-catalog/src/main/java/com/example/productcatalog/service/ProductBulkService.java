@@ -0,0 +1,12 @@
+package com.example.productcatalog.service;
+
+import com.example.productcatalog.web.dto.BulkProductUpdateRequest;
+import com.example.productcatalog.web.dto.BulkStatusRequest;
+import com.example.productcatalog.web.dto.BulkUpdateResult;
+
+public interface ProductBulkService {
+
+    BulkUpdateResult updateStatus(BulkStatusRequest request);
+
+    BulkUpdateResult updateFields(BulkProductUpdateRequest request);
+}
@@ -1,24 +1,57 @@
 package com.example.productcatalog.service;
 
+import com.example.productcatalog.repository.projection.ProductField;
 import com.example.productcatalog.web.dto.CreateProductRequest;
 import com.example.productcatalog.web.dto.ProductDTO;
+import com.example.productcatalog.web.dto.ProductPatchRequest;
+import com.example.productcatalog.web.dto.ProductSummaryDTO;
+import com.example.productcatalog.web.dto.TagCountDTO;
 import com.example.productcatalog.web.dto.UpdateProductRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 public interface ProductService {
     ProductDTO createProduct(CreateProductRequest request);
 
     ProductDTO updateProduct(Long id, UpdateProductRequest request);
 
+    /**
+     * Applies a JSON Merge Patch, writing only the columns and tag/image rows
+     * that change. A patch that changes nothing is not written and returns
+     * the product as stored.
+     */
+    ProductDTO patchProduct(Long id, ProductPatchRequest patch);
+
     ProductDTO getProductById(Long id);
 
     ProductDTO getProductBySku(String sku);
 
+    /**
+     * The products with the given ids, mapped and read (on the primary) as
+     * {@link #getProductById} caches them; ids that do not exist are skipped.
+     */
+    List<ProductDTO> getProductsByIds(Collection<Long> ids);
+
     Page<ProductDTO> getAllProducts(Pageable pageable);
 
     Page<ProductDTO> searchProducts(String search, Long categoryId, String brand, java.math.BigDecimal minPrice,
-            java.math.BigDecimal maxPrice, String status, Boolean inStock, Boolean featured, Pageable pageable);
+            java.math.BigDecimal maxPrice, String status, Boolean inStock, Boolean featured,
+            Collection<String> anyTags, Collection<String> allTags, Pageable pageable);
+
+    Page<ProductSummaryDTO> getAllProductSummaries(Set<ProductField> fields, Pageable pageable);
+
+    Page<ProductSummaryDTO> searchProductSummaries(String search, Long categoryId, String brand,
+            java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice, String status, Boolean inStock,
+            Boolean featured, Collection<String> anyTags, Collection<String> allTags, Set<ProductField> fields,
+            Pageable pageable);
+
+    List<TagCountDTO> getTagCounts(String search, Long categoryId, String brand, java.math.BigDecimal minPrice,
+            java.math.BigDecimal maxPrice, String status, Boolean inStock, Boolean featured,
+            Collection<String> anyTags, Collection<String> allTags, int limit);
 
     void deleteProduct(Long id);
 
@@ -27,4 +60,16 @@ public interface ProductService {
     Page<ProductDTO> getLowStockProducts(Pageable pageable);
 
     ProductDTO updateProductStatus(Long id, String status);
+
+    /**
+     * Synchronous quantity and/or status correction; {@code null} leaves a
+     * field unchanged.
+     */
+    ProductDTO updateStock(Long id, Integer quantity, String status);
+
+    String getProductRevision(Long id);
+
+    String getProductRevisionBySku(String sku);
+
+    String getCatalogRevision();
 }
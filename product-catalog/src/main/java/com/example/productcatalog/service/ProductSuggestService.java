@@ -0,0 +1,12 @@
+package com.example.productcatalog.service;
+
+import com.example.productcatalog.web.dto.SuggestionDTO;
+
+import java.util.List;
+
+public interface ProductSuggestService {
+
+    List<SuggestionDTO> suggest(String prefix, int limit);
+
+    void recordView(Long productId);
+}
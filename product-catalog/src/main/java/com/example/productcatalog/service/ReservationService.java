@@ -0,0 +1,43 @@
+package com.example.productcatalog.service;
+
+import com.example.productcatalog.web.dto.ReservationDTO;
+
+import java.time.Duration;
+import java.util.UUID;
+
+public interface ReservationService {
+
+    /**
+     * Holds stock of an ACTIVE product.
+     *
+     * @param ttl how long the hold lasts; the configured default if {@code null}
+     */
+    ReservationDTO reserve(Long productId, int quantity, Duration ttl);
+
+    /**
+     * Turns a hold into a sale. Returns once the sale is committed; repeating
+     * it for a confirmed hold returns the same result.
+     */
+    ReservationDTO confirm(UUID reservationId);
+
+    /**
+     * Gives a hold's stock back before it expires.
+     */
+    ReservationDTO release(UUID reservationId);
+
+    ReservationDTO getReservation(UUID reservationId);
+
+    /**
+     * Persists the reservation changes made since the last flush.
+     *
+     * @return the number of products whose stock columns were updated
+     */
+    int flush();
+
+    /**
+     * Releases holds past their expiry.
+     *
+     * @return the number of holds released
+     */
+    int expireHolds();
+}
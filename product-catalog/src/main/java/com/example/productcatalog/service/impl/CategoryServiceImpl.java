@@ -1,9 +1,11 @@
 package com.example.productcatalog.service.impl;
 
+import com.example.productcatalog.domain.CatalogChange;
 import com.example.productcatalog.domain.Category;
 import com.example.productcatalog.exception.ResourceNotFoundException;
 import com.example.productcatalog.repository.CategoryRepository;
 import com.example.productcatalog.service.CategoryService;
+import com.example.productcatalog.service.ChangeLogService;
 import com.example.productcatalog.web.dto.CategoryDTO;
 import com.example.productcatalog.web.mapper.CategoryMapper;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +21,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final ChangeLogService changeLogService;
 
     @Override
     @Transactional(readOnly = true)
@@ -47,6 +50,7 @@ public class CategoryServiceImpl implements CategoryService {
             category.setParent(parent);
         }
         Category savedCategory = categoryRepository.save(category);
+        changeLogService.record(CatalogChange.EntityType.CATEGORY, savedCategory.getId(), CatalogChange.Operation.CREATED);
         return categoryMapper.toDTO(savedCategory);
     }
 
@@ -71,6 +75,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        changeLogService.record(CatalogChange.EntityType.CATEGORY, id, CatalogChange.Operation.UPDATED);
         return categoryMapper.toDTO(updatedCategory);
     }
 
@@ -81,5 +86,20 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ResourceNotFoundException("Category not found with id: " + id);
         }
         categoryRepository.deleteById(id);
+        changeLogService.record(CatalogChange.EntityType.CATEGORY, id, CatalogChange.Operation.DELETED);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCategoryRevision(Long id) {
+        return categoryRepository.findVersionById(id)
+                .map(String::valueOf)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCatalogRevision() {
+        return categoryRepository.findCatalogFingerprint().toToken();
     }
 }
@@ -0,0 +1,195 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.event.CatalogChangeEvent;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.repository.CatalogChangeRepository;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.web.dto.CatalogChangeDTO;
+import com.example.productcatalog.web.dto.ChangeFeedDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Service
+public class ChangeLogServiceImpl implements ChangeLogService {
+
+    // Entries committing this many sequence values behind the newest one still change the revision
+    static final int REVISION_TAIL = 1000;
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+    private final Duration settleWindow;
+    private final Duration retention;
+
+    public ChangeLogServiceImpl(CatalogChangeRepository catalogChangeRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.changes.max-batch-size:1000}") int maxBatchSize,
+            @Value("${app.changes.settle-window:5s}") Duration settleWindow,
+            @Value("${app.changes.retention:7d}") Duration retention) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+        this.settleWindow = settleWindow;
+        this.retention = retention;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CatalogChange.EntityType entityType, Long entityId, CatalogChange.Operation operation) {
+        catalogChangeRepository.save(CatalogChange.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .operation(operation)
+                .build());
+        eventPublisher.publishEvent(new CatalogChangeEvent(entityType, List.of(entityId), operation));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProducts(Collection<Long> productIds, CatalogChange.Operation operation,
+            LocalDateTime updatedAt) {
+        if (!productIds.isEmpty()) {
+            catalogChangeRepository.insertProductChanges(CatalogChange.EntityType.PRODUCT, productIds, operation,
+                    updatedAt);
+            eventPublisher.publishEvent(new CatalogChangeEvent(CatalogChange.EntityType.PRODUCT,
+                    List.copyOf(productIds), operation));
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProducts(Collection<Long> productIds, CatalogChange.Operation operation) {
+        if (!productIds.isEmpty()) {
+            catalogChangeRepository.insertChangesForProducts(CatalogChange.EntityType.PRODUCT, productIds, operation,
+                    LocalDateTime.now());
+            eventPublisher.publishEvent(new CatalogChangeEvent(CatalogChange.EntityType.PRODUCT,
+                    List.copyOf(productIds), operation));
+        }
+    }
+
+    // Not read-only, so it runs on the primary: whether a gap is still in flight
+    // is only known there, and a replica may not have replayed a committed entry yet
+    @Override
+    @Transactional
+    public ChangeFeedDTO getChanges(String sinceToken, int limit) {
+        long since = parseToken(sinceToken);
+        int batchSize = Math.max(1, Math.min(limit, maxBatchSize));
+        // One extra row tells us whether another batch is waiting
+        List<CatalogChange> entries = catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(since,
+                Limit.of(batchSize + 1));
+
+        // Sequence values are handed out at insert but become visible at commit,
+        // so a gap may be a transaction that has not committed yet. Stop in front
+        // of it. A gap is only skipped, as a rollback or a compacted entry, once
+        // it is older than the settle window and no writing transaction that
+        // started before the entry after it is still open.
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settleWindow);
+        List<CatalogChangeDTO> changes = new ArrayList<>();
+        long next = since;
+        boolean blockedByGap = false;
+        Long oldestOpenWrite = null;
+        boolean oldestOpenWriteLoaded = false;
+        for (CatalogChange entry : entries) {
+            if (changes.size() == batchSize) {
+                break;
+            }
+            if (entry.getSeq() != next + 1) {
+                boolean settled = !entry.getChangedAt().isAfter(settledBefore);
+                if (settled && !oldestOpenWriteLoaded) {
+                    oldestOpenWrite = catalogChangeRepository.findOldestWritingTransactionStart();
+                    oldestOpenWriteLoaded = true;
+                }
+                if (!settled || mayOwnGap(oldestOpenWrite, entry)) {
+                    blockedByGap = true;
+                    break;
+                }
+            }
+            changes.add(toDTO(entry));
+            next = entry.getSeq();
+        }
+        return ChangeFeedDTO.builder()
+                .changes(changes)
+                .nextToken(String.valueOf(next))
+                .hasMore(!blockedByGap && entries.size() > batchSize)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getLatestToken() {
+        return String.valueOf(catalogChangeRepository.findLatestSeq());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getRevision() {
+        // The newest seq alone misses an entry that commits after a later one;
+        // it does raise the number of committed entries near the head
+        long latest = catalogChangeRepository.findLatestSeq();
+        return latest + "." + catalogChangeRepository.countBySeqGreaterThan(latest - REVISION_TAIL);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${app.changes.compaction-cron:0 30 3 * * *}")
+    public int compact() {
+        int deleted = catalogChangeRepository.deleteSupersededBefore(LocalDateTime.now().minus(retention));
+        log.info("Compacted catalog change log: removed {} superseded entries", deleted);
+        return deleted;
+    }
+
+    /**
+     * Whether the open transaction that started at {@code oldestOpenWrite} may
+     * hold a sequence value below {@code successor}'s: it took it before the
+     * successor was written, so it started before then. The settle window
+     * absorbs clock skew between the application and the database.
+     */
+    private boolean mayOwnGap(Long oldestOpenWrite, CatalogChange successor) {
+        if (oldestOpenWrite == null) {
+            return false;
+        }
+        long writtenAt = successor.getChangedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return oldestOpenWrite <= writtenAt + settleWindow.toMillis();
+    }
+
+    private static long parseToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return 0;
+        }
+        try {
+            long since = Long.parseLong(token.trim());
+            if (since < 0) {
+                throw new NumberFormatException();
+            }
+            return since;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid change feed token '" + token + "'");
+        }
+    }
+
+    private static CatalogChangeDTO toDTO(CatalogChange entry) {
+        return CatalogChangeDTO.builder()
+                .seq(entry.getSeq())
+                .entityType(entry.getEntityType().name())
+                .entityId(entry.getEntityId())
+                .operation(entry.getOperation().name())
+                .changedAt(entry.getChangedAt())
+                .build();
+    }
+}
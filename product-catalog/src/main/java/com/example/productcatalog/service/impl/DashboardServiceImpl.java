@@ -0,0 +1,224 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.repository.CatalogCounterRepository;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.CounterTotal;
+import com.example.productcatalog.repository.projection.ProductCounterGroup;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.web.dto.DashboardDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dashboard counters kept in {@code catalog_counters} and maintained by the
+ * product write paths in the same transaction as the write, so reading the
+ * dashboard costs one small aggregate over the counters table whatever the
+ * size of the catalog.
+ *
+ * <p>Every counter is split into slots. Writers add to a random slot in
+ * {@code 1..app.dashboard.counter-slots}, so concurrent writes to popular
+ * counters such as {@code status:ACTIVE} rarely wait on the same row lock,
+ * and touch counters in key order, so they cannot deadlock on each other.
+ *
+ * <p>Writes that bypass these paths (manual SQL, a bulk update racing
+ * another write) make the counters drift. {@link #reconcile} recounts the
+ * catalog and the counters in one REPEATABLE READ snapshot; both tables are
+ * written together, so their difference at that snapshot is exactly the
+ * drift, and is added to slot 0 without blocking writers. Two instances
+ * reconciling at once conflict on slot 0 and one of them fails with a
+ * serialization error rather than correcting twice.
+ *
+ * <p>With sharded products each shard keeps the counters of its own
+ * products, and the dashboard adds up the shards' totals. Reconciliation
+ * runs on the home shard only.
+ */
+@Slf4j
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    static final String STATUS_PREFIX = "status:";
+    static final String CATEGORY_PREFIX = "category:";
+    static final String NO_CATEGORY = "none";
+    static final String FEATURED = "featured";
+    static final String LOW_STOCK = "low_stock";
+
+    private static final int RECONCILE_SLOT = 0;
+    private static final int DEFAULT_LOW_STOCK_THRESHOLD = 5;
+
+    private final CatalogCounterRepository catalogCounterRepository;
+    private final ProductRepository productRepository;
+    private final ObjectProvider<ProductShards> shards;
+    private final int counterSlots;
+
+    public DashboardServiceImpl(CatalogCounterRepository catalogCounterRepository,
+            ProductRepository productRepository, ObjectProvider<ProductShards> shards,
+            @Value("${app.dashboard.counter-slots:8}") int counterSlots) {
+        this.catalogCounterRepository = catalogCounterRepository;
+        this.productRepository = productRepository;
+        this.shards = shards;
+        this.counterSlots = Math.max(1, counterSlots);
+    }
+
+    @Override
+    public Set<String> counterKeys(Product product) {
+        int threshold = product.getLowStockThreshold() != null ? product.getLowStockThreshold()
+                : DEFAULT_LOW_STOCK_THRESHOLD;
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        return counterKeys(product.getStatus(), categoryId, product.isFeatured(),
+                product.getAvailableQuantity() <= threshold);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Set<String> before, Set<String> after) {
+        Map<String, Long> deltas = new TreeMap<>();
+        before.forEach(key -> deltas.merge(key, -1L, Long::sum));
+        after.forEach(key -> deltas.merge(key, 1L, Long::sum));
+        apply(deltas, writerSlot());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, Long> countProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return tally(productRepository.countCounterGroupsByIdIn(productIds));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Map<String, Long> before, Map<String, Long> after) {
+        apply(difference(before, after), writerSlot());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardDTO getDashboard() {
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byCategory = new TreeMap<>();
+        long featured = 0;
+        long lowStock = 0;
+        ProductShards productShards = shards.getIfAvailable();
+        List<Map<String, Long>> shardTotals = productShards != null
+                ? productShards.onEveryShard(this::findTotals)
+                : List.of(findTotals());
+        Map<String, Long> totals = new HashMap<>();
+        shardTotals.forEach(shardTotal -> shardTotal.forEach((key, amount) -> totals.merge(key, amount, Long::sum)));
+        for (Map.Entry<String, Long> total : totals.entrySet()) {
+            String key = total.getKey();
+            long amount = total.getValue();
+            if (amount == 0) {
+                continue;
+            }
+            if (key.startsWith(STATUS_PREFIX)) {
+                byStatus.put(key.substring(STATUS_PREFIX.length()), amount);
+            } else if (key.startsWith(CATEGORY_PREFIX)) {
+                byCategory.put(key.substring(CATEGORY_PREFIX.length()), amount);
+            } else if (FEATURED.equals(key)) {
+                featured = amount;
+            } else if (LOW_STOCK.equals(key)) {
+                lowStock = amount;
+            }
+        }
+        return DashboardDTO.builder()
+                .totalProducts(byStatus.values().stream().mapToLong(Long::longValue).sum())
+                .liveProducts(byCategory.values().stream().mapToLong(Long::longValue).sum())
+                .productsByStatus(byStatus)
+                .productsByCategory(byCategory)
+                .featuredProducts(featured)
+                .lowStockProducts(lowStock)
+                .build();
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @Scheduled(cron = "${app.dashboard.reconcile-cron:0 */15 * * * *}")
+    public int reconcile() {
+        Map<String, Long> actual = tally(productRepository.countCounterGroups());
+        Map<String, Long> counted = findTotals();
+        Map<String, Long> drift = difference(counted, actual);
+        apply(drift, RECONCILE_SLOT);
+        if (drift.isEmpty()) {
+            log.debug("Dashboard counters reconciled: no drift");
+        } else {
+            log.warn("Dashboard counters reconciled: corrected {} counter(s) {}", drift.size(), drift);
+        }
+        return drift.size();
+    }
+
+    private Map<String, Long> findTotals() {
+        Map<String, Long> totals = new HashMap<>();
+        for (CounterTotal total : catalogCounterRepository.findTotals()) {
+            totals.put(total.getCounterKey(), total.getAmount() != null ? total.getAmount() : 0);
+        }
+        return totals;
+    }
+
+    static Set<String> counterKeys(String status, Long categoryId, boolean featured, boolean lowStock) {
+        Set<String> keys = new HashSet<>();
+        keys.add(STATUS_PREFIX + status);
+        // Mirrors the default exclusion of ProductSpecification
+        if (!"ARCHIVED".equals(status) && !"DELETED".equals(status)) {
+            keys.add(CATEGORY_PREFIX + (categoryId != null ? categoryId.toString() : NO_CATEGORY));
+            if (featured) {
+                keys.add(FEATURED);
+            }
+            if (lowStock) {
+                keys.add(LOW_STOCK);
+            }
+        }
+        return keys;
+    }
+
+    private static Map<String, Long> tally(Collection<ProductCounterGroup> groups) {
+        Map<String, Long> totals = new HashMap<>();
+        for (ProductCounterGroup group : groups) {
+            Set<String> keys = counterKeys(group.getStatus(), group.getCategoryId(),
+                    Boolean.TRUE.equals(group.getFeatured()), Boolean.TRUE.equals(group.getLowStock()));
+            keys.forEach(key -> totals.merge(key, group.getProductCount(), Long::sum));
+        }
+        return totals;
+    }
+
+    /**
+     * {@code after - before} per counter, zero entries dropped, in key order.
+     */
+    private static Map<String, Long> difference(Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> deltas = new TreeMap<>();
+        after.forEach((key, amount) -> deltas.merge(key, amount, Long::sum));
+        before.forEach((key, amount) -> deltas.merge(key, -amount, Long::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    // Deltas arrive in key order (TreeMap), which is the lock order
+    private void apply(Map<String, Long> deltas, int slot) {
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                catalogCounterRepository.increment(key, slot, delta);
+            }
+        });
+    }
+
+    private int writerSlot() {
+        return 1 + ThreadLocalRandom.current().nextInt(counterSlots);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.concurrency.FanOut;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.service.CategoryService;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.service.HomeService;
+import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.web.dto.CategoryDTO;
+import com.example.productcatalog.web.dto.DashboardDTO;
+import com.example.productcatalog.web.dto.HomeDTO;
+import com.example.productcatalog.web.dto.ProductDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Builds the home response from the existing services, one section per
+ * service call, all started before any is awaited. Each section runs in its
+ * own read-only transaction on the {@link FanOut} pool, so the response
+ * takes about as long as its slowest section rather than the sum of them.
+ */
+@Service
+@RequiredArgsConstructor
+public class HomeServiceImpl implements HomeService {
+
+    private static final int MAX_SECTION_SIZE = 50;
+
+    private final DashboardService dashboardService;
+    private final CategoryService categoryService;
+    private final ProductService productService;
+    private final FanOut homeFanOut;
+
+    @Override
+    public HomeDTO getHome(int featuredSize, int lowStockSize, int recentSize) {
+        checkSize("featuredSize", featuredSize);
+        checkSize("lowStockSize", lowStockSize);
+        checkSize("recentSize", recentSize);
+
+        FanOut.Section<DashboardDTO> dashboard = homeFanOut.start("dashboard", dashboardService::getDashboard);
+        FanOut.Section<List<CategoryDTO>> categories = homeFanOut.start("categories",
+                categoryService::getAllCategories);
+        FanOut.Section<Page<ProductDTO>> featured = homeFanOut.start("featuredProducts",
+                () -> productService.getFeaturedProducts(PageRequest.of(0, featuredSize)));
+        FanOut.Section<Page<ProductDTO>> lowStock = homeFanOut.start("lowStockProducts",
+                () -> productService.getLowStockProducts(PageRequest.of(0, lowStockSize)));
+        FanOut.Section<Page<ProductDTO>> recent = homeFanOut.start("recentProducts",
+                () -> productService.searchProducts(null, null, null, null, null, null, null, null, null, null,
+                        PageRequest.of(0, recentSize, Sort.by(Sort.Direction.DESC, "createdAt"))));
+
+        HomeDTO home = HomeDTO.builder()
+                .dashboard(dashboard.join())
+                .categories(categories.join())
+                .featuredProducts(featured.join())
+                .lowStockProducts(lowStock.join())
+                .recentProducts(recent.join())
+                .build();
+        home.setUnavailableSections(List.of(dashboard, categories, featured, lowStock, recent).stream()
+                .filter(FanOut.Section::isFailed)
+                .map(FanOut.Section::getName)
+                .toList());
+        return home;
+    }
+
+    private static void checkSize(String name, int size) {
+        if (size < 1 || size > MAX_SECTION_SIZE) {
+            throw new BadRequestException(name + " must be between 1 and " + MAX_SECTION_SIZE);
+        }
+    }
+}
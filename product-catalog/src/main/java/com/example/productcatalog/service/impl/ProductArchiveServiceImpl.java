@@ -0,0 +1,121 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.ProductKey;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.service.ProductArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves long-archived products out of the live {@code products} table.
+ *
+ * <p>Soft-deleted products stay in {@code products} for the retention period
+ * so they can still be looked up and restored with a status change. After
+ * that they are copied to {@code products_archive}, tags and images
+ * included, and deleted from the live tables. Each chunk is one short
+ * transaction that also records a DELETED change-log entry per product, so
+ * in-memory indexes on every instance drop them, and takes them off the
+ * dashboard counters. Sharded products are archived one shard after the
+ * other, each into its own {@code products_archive}.
+ *
+ * <p>Moved products cannot be restored through the API, so the mover only
+ * runs with {@code app.archive.enabled=true}.
+ */
+@Slf4j
+@Service
+public class ProductArchiveServiceImpl implements ProductArchiveService {
+
+    private final ProductRepository productRepository;
+    private final ChangeLogService changeLogService;
+    private final DashboardService dashboardService;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ProductShards> shards;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int chunkSize;
+
+    public ProductArchiveServiceImpl(ProductRepository productRepository, ChangeLogService changeLogService,
+            DashboardService dashboardService, ProductCacheEvictor productCacheEvictor,
+            PlatformTransactionManager transactionManager, ObjectProvider<ProductShards> shards,
+            @Value("${app.archive.enabled:false}") boolean enabled,
+            @Value("${app.archive.retention:30d}") Duration retention,
+            @Value("${app.archive.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.changeLogService = changeLogService;
+        this.dashboardService = dashboardService;
+        this.productCacheEvictor = productCacheEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Scheduled(cron = "${app.archive.cron:0 0 4 * * *}")
+    public int archiveExpired() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        ProductShards productShards = shards.getIfAvailable();
+        if (productShards == null) {
+            return archiveBefore(cutoff);
+        }
+        return productShards.onEveryShardInTurn(() -> archiveBefore(cutoff)).stream()
+                .mapToInt(Integer::intValue).sum();
+    }
+
+    private int archiveBefore(LocalDateTime cutoff) {
+        int moved = 0;
+        int chunks = 0;
+        while (true) {
+            List<ProductKey> chunk = transactionTemplate.execute(status -> moveChunk(cutoff));
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            productCacheEvictor.evict(chunk, ProductKey::getId, ProductKey::getSku);
+            moved += chunk.size();
+            chunks++;
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        log.info("Moved {} archived products to products_archive in {} chunk(s)", moved, chunks);
+        return moved;
+    }
+
+    private List<ProductKey> moveChunk(LocalDateTime cutoff) {
+        List<ProductKey> keys = productRepository.lockArchivedBefore(cutoff, chunkSize);
+        if (keys.isEmpty()) {
+            return keys;
+        }
+        List<Long> ids = keys.stream().map(ProductKey::getId).toList();
+        Map<String, Long> countedBefore = dashboardService.countProducts(ids);
+        // Written while the rows still exist; consumers find them gone
+        changeLogService.recordProducts(ids, CatalogChange.Operation.DELETED);
+
+        productRepository.copyToArchive(ids);
+        productRepository.deleteTagsByProductIdIn(ids);
+        productRepository.deleteImagesByProductIdIn(ids);
+        productRepository.deleteRowsByIdIn(ids);
+        dashboardService.recordChange(countedBefore, Map.of());
+        return keys;
+    }
+}
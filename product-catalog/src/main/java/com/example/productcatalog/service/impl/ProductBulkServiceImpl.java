@@ -0,0 +1,264 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.domain.Category;
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.exception.ResourceNotFoundException;
+import com.example.productcatalog.repository.CategoryRepository;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.ProductRepositoryCustom;
+import com.example.productcatalog.repository.projection.ProductField;
+import com.example.productcatalog.repository.spec.ProductSpecification;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.service.ProductBulkService;
+import com.example.productcatalog.web.dto.BulkProductSelection;
+import com.example.productcatalog.web.dto.BulkProductUpdateRequest;
+import com.example.productcatalog.web.dto.BulkStatusRequest;
+import com.example.productcatalog.web.dto.BulkUpdateResult;
+import com.example.productcatalog.writebehind.StockWriteBehindBuffer;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk product updates executed as set-based SQL.
+ *
+ * <p>Matching products are walked in id order in chunks. Each chunk is one
+ * {@code UPDATE ... WHERE id IN (...)} plus one change-log insert in its own
+ * short transaction, after which only that chunk's {@code products} and
+ * {@code productBySku} cache entries are evicted. The {@code UPDATE} repeats
+ * the selection, so a product edited out of it after its chunk was read is
+ * skipped rather than overwritten. A failure part-way leaves the committed
+ * chunks in place; the result counts what was applied.
+ *
+ * <p>When the update can move products between dashboard counters (status,
+ * featured, category, low-stock threshold), the chunk's counter totals are
+ * taken before and after the {@code UPDATE} and the difference is applied in
+ * the same transaction.
+ *
+ * <p>A status update supersedes the status buffered by write-behind for the
+ * products it wrote, once the chunk commits, as a single-product write
+ * does; otherwise the next flush would put the older status back.
+ *
+ * <p>Sharded products are updated one shard after the other; the result adds
+ * up the shards.
+ */
+@Slf4j
+@Service
+public class ProductBulkServiceImpl implements ProductBulkService {
+
+    private static final Set<ProductField> KEY_COLUMNS = EnumSet.of(ProductField.ID, ProductField.SKU);
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ChangeLogService changeLogService;
+    private final DashboardService dashboardService;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ProductShards> shards;
+    private final ObjectProvider<StockWriteBehindBuffer> stockWriteBehind;
+    private final int chunkSize;
+
+    public ProductBulkServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
+            ChangeLogService changeLogService, DashboardService dashboardService, ProductCacheEvictor productCacheEvictor,
+            PlatformTransactionManager transactionManager, ObjectProvider<ProductShards> shards,
+            ObjectProvider<StockWriteBehindBuffer> stockWriteBehind, @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.changeLogService = changeLogService;
+        this.dashboardService = dashboardService;
+        this.productCacheEvictor = productCacheEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.stockWriteBehind = stockWriteBehind;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BulkUpdateResult updateStatus(BulkStatusRequest request) {
+        Specification<Product> matching = toSpecification(request);
+        String status = request.getStatus();
+        return execute(matching, null, true, true,
+                (update, root, cb) -> update.set(root.<String>get("status"), status));
+    }
+
+    @Override
+    public BulkUpdateResult updateFields(BulkProductUpdateRequest request) {
+        Specification<Product> matching = toSpecification(request);
+        List<ProductRepositoryCustom.Assignments> assignments = new ArrayList<>();
+        Specification<Product> guard = null;
+        boolean affectsCounters = request.getFeatured() != null || request.getCategoryId() != null
+                || request.getLowStockThreshold() != null;
+
+        if (request.getFeatured() != null) {
+            boolean featured = request.getFeatured();
+            assignments.add((update, root, cb) -> update.set(root.<Boolean>get("featured"), featured));
+        }
+        if (request.getCategoryId() != null) {
+            Category category = categoryRepository.findById(request.getCategoryId())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Category not found with id: " + request.getCategoryId()));
+            assignments.add((update, root, cb) -> update.set(root.<Category>get("category"), category));
+        }
+        if (request.getLowStockThreshold() != null) {
+            int threshold = request.getLowStockThreshold();
+            assignments.add((update, root, cb) -> update.set(root.<Integer>get("lowStockThreshold"), threshold));
+        }
+        if (request.getPriceAdjustment() != null) {
+            BulkProductUpdateRequest.PriceAdjustment adjustment = request.getPriceAdjustment();
+            if (adjustment.getType() == BulkProductUpdateRequest.PriceAdjustment.Type.SET
+                    && adjustment.getValue().signum() <= 0) {
+                throw new BadRequestException("A SET price adjustment must be greater than zero");
+            }
+            assignments.add((update, root, cb) -> update.set(root.<BigDecimal>get("price"),
+                    adjustedPrice(adjustment, root.get("price"), cb)));
+            // Prices must stay positive; rows that would not are left untouched
+            guard = (root, query, cb) -> cb.greaterThan(adjustedPrice(adjustment, root.get("price"), cb),
+                    BigDecimal.ZERO);
+        }
+        if (assignments.isEmpty()) {
+            throw new BadRequestException(
+                    "No changes given. Provide at least one of featured, categoryId, lowStockThreshold, priceAdjustment");
+        }
+        return execute(matching, guard, affectsCounters, false, (update, root, cb) -> assignments.forEach(a -> a.apply(update, root, cb)));
+    }
+
+    private BulkUpdateResult execute(Specification<Product> matching, Specification<Product> guard,
+            boolean affectsCounters, boolean setsStatus, ProductRepositoryCustom.Assignments assignments) {
+        // The selection is applied again in the UPDATE: a product that stopped
+        // matching after its chunk was read is left alone
+        Specification<Product> where = guard != null ? matching.and(guard) : matching;
+        ProductShards productShards = shards.getIfAvailable();
+        if (productShards == null) {
+            return executeOnShard(matching, where, affectsCounters, setsStatus, assignments);
+        }
+        BulkUpdateResult total = BulkUpdateResult.builder().build();
+        for (BulkUpdateResult result : productShards.onEveryShardInTurn(
+                () -> executeOnShard(matching, where, affectsCounters, setsStatus, assignments))) {
+            total.setMatched(total.getMatched() + result.getMatched());
+            total.setUpdated(total.getUpdated() + result.getUpdated());
+            total.setChunks(total.getChunks() + result.getChunks());
+        }
+        return total;
+    }
+
+    private BulkUpdateResult executeOnShard(Specification<Product> matching, Specification<Product> where,
+            boolean affectsCounters, boolean setsStatus, ProductRepositoryCustom.Assignments assignments) {
+        Sort byId = Sort.by("id");
+        long matched = 0;
+        long updated = 0;
+        int chunks = 0;
+        long lastId = 0;
+
+        while (true) {
+            long after = lastId;
+            Specification<Product> page = matching.and((root, query, cb) -> cb.greaterThan(root.get("id"), after));
+            List<Tuple> rows = productRepository.findColumns(page, KEY_COLUMNS, byId, chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (Tuple row : rows) {
+                ids.add(row.get(ProductField.ID.name(), Long.class));
+            }
+
+            // Truncated to what the database stores, so the change-log insert can match on it
+            LocalDateTime stamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            Integer count = transactionTemplate.execute(status -> {
+                Map<String, Long> countedBefore = affectsCounters ? dashboardService.countProducts(ids) : null;
+                int rowsUpdated = productRepository.updateAll(ids, where, assignments, stamp);
+                changeLogService.recordProducts(ids, CatalogChange.Operation.UPDATED, stamp);
+                if (countedBefore != null && rowsUpdated > 0) {
+                    dashboardService.recordChange(countedBefore, dashboardService.countProducts(ids));
+                }
+                if (setsStatus && rowsUpdated > 0) {
+                    supersedePendingStatus(ids, stamp);
+                }
+                return rowsUpdated;
+            });
+            productCacheEvictor.evictRows(rows);
+
+            matched += rows.size();
+            updated += count != null ? count : 0;
+            chunks++;
+            lastId = ids.get(ids.size() - 1);
+            if (rows.size() < chunkSize) {
+                break;
+            }
+        }
+        log.info("Bulk update matched {} products, updated {} in {} chunk(s)", matched, updated, chunks);
+        return BulkUpdateResult.builder().matched(matched).updated(updated).chunks(chunks).build();
+    }
+
+    /**
+     * Drops the buffered status of the chunk's products this update wrote,
+     * once the chunk commits. Only products with a buffered update are looked
+     * up; the written ones carry the chunk's {@code updatedAt} stamp.
+     */
+    private void supersedePendingStatus(List<Long> ids, LocalDateTime stamp) {
+        StockWriteBehindBuffer buffer = stockWriteBehind.getIfAvailable();
+        if (buffer == null) {
+            return;
+        }
+        List<Long> buffered = ids.stream().filter(id -> buffer.pendingSequence(id) != null).toList();
+        if (buffered.isEmpty()) {
+            return;
+        }
+        Specification<Product> written = (root, query, cb) -> cb.and(root.get("id").in(buffered),
+                cb.equal(root.get("updatedAt"), stamp));
+        for (Tuple row : productRepository.findColumns(written, EnumSet.of(ProductField.ID), Sort.unsorted(),
+                buffered.size())) {
+            buffer.supersedeAfterCommit(row.get(ProductField.ID.name(), Long.class), false, true);
+        }
+    }
+
+    private static Specification<Product> toSpecification(BulkProductSelection selection) {
+        boolean hasIds = selection.getIds() != null && !selection.getIds().isEmpty();
+        if (hasIds == (selection.getFilter() != null)) {
+            throw new BadRequestException("Provide either ids or filter");
+        }
+        if (hasIds) {
+            Set<Long> ids = new LinkedHashSet<>(selection.getIds());
+            return (root, query, cb) -> root.get("id").in(ids);
+        }
+        BulkProductSelection.Filter filter = selection.getFilter();
+        return ProductSpecification.filterProducts(filter.getSearch(), filter.getCategoryId(), filter.getBrand(),
+                filter.getMinPrice(), filter.getMaxPrice(), filter.getStatus(), filter.getInStock(),
+                filter.getFeatured());
+    }
+
+    private static Expression<BigDecimal> adjustedPrice(BulkProductUpdateRequest.PriceAdjustment adjustment,
+            Expression<BigDecimal> price, CriteriaBuilder cb) {
+        BigDecimal value = adjustment.getValue();
+        return switch (adjustment.getType()) {
+            // price * (100 + p) / 100 keeps every bound value at two decimals, the
+            // column's scale; the DECIMAL(19, 2) column rounds the result
+            case PERCENT -> cb.quot(cb.prod(price, ONE_HUNDRED.add(value)), ONE_HUNDRED).as(BigDecimal.class);
+            case AMOUNT -> cb.sum(price, value);
+            case SET -> cb.literal(value);
+        };
+    }
+}
@@ -1,34 +1,84 @@
 package com.example.productcatalog.service.impl;
 
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.datasource.ReadYourWritesContext;
+import com.example.productcatalog.datasource.ShardedPage;
+import com.example.productcatalog.domain.CatalogChange;
 import com.example.productcatalog.domain.Category;
 import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.exception.BadRequestException;
 import com.example.productcatalog.exception.DuplicateResourceException;
 import com.example.productcatalog.exception.ResourceNotFoundException;
+import com.example.productcatalog.patch.ProductPatcher;
 import com.example.productcatalog.repository.CategoryRepository;
 import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.ProductField;
+import com.example.productcatalog.repository.projection.ProductRevision;
+import com.example.productcatalog.search.ProductFilterIndex;
+import com.example.productcatalog.search.ProductQuery;
+import com.example.productcatalog.search.ProductSearchIndex;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
 import com.example.productcatalog.service.ProductService;
 import com.example.productcatalog.web.dto.CreateProductRequest;
 import com.example.productcatalog.web.dto.ProductDTO;
+import com.example.productcatalog.web.dto.ProductPatchRequest;
+import com.example.productcatalog.web.dto.ProductSummaryDTO;
+import com.example.productcatalog.web.dto.TagCountDTO;
 import com.example.productcatalog.web.dto.UpdateProductRequest;
 import com.example.productcatalog.web.mapper.ProductMapper;
+import com.example.productcatalog.writebehind.StockWriteBehindBuffer;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    // Each all-of tag is one EXISTS probe
+    private static final int MAX_TAG_FILTERS = 20;
+    private static final int MAX_TAG_FACET_SIZE = 100;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
+    private final ChangeLogService changeLogService;
+    private final DashboardService dashboardService;
+    private final ProductPatcher productPatcher;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final ObjectProvider<ProductSearchIndex> searchIndex;
+    private final ObjectProvider<ProductFilterIndex> filterIndex;
+    private final ObjectProvider<StockWriteBehindBuffer> stockWriteBehind;
+    private final ObjectProvider<ProductShards> shards;
 
     @Override
     @Transactional
     @org.springframework.cache.annotation.CacheEvict(value = { "products", "productBySku" }, allEntries = true)
     public ProductDTO createProduct(CreateProductRequest request) {
+        return onShardOf(request.getSku(), () -> create(request));
+    }
+
+    private ProductDTO create(CreateProductRequest request) {
         if (productRepository.existsBySku(request.getSku())) {
             throw new DuplicateResourceException("Product with SKU " + request.getSku() + " already exists");
         }
@@ -48,6 +98,8 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product savedProduct = productRepository.save(product);
+        changeLogService.record(CatalogChange.EntityType.PRODUCT, savedProduct.getId(), CatalogChange.Operation.CREATED);
+        dashboardService.recordChange(Set.of(), dashboardService.counterKeys(savedProduct));
         return productMapper.toDTO(savedProduct);
     }
 
@@ -55,8 +107,13 @@ public class ProductServiceImpl implements ProductService {
     @Transactional
     @org.springframework.cache.annotation.CacheEvict(value = { "products", "productBySku" }, allEntries = true)
     public ProductDTO updateProduct(Long id, UpdateProductRequest request) {
+        return onShardOf(id, () -> update(id, request));
+    }
+
+    private ProductDTO update(Long id, UpdateProductRequest request) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Set<String> countedBefore = dashboardService.counterKeys(product);
 
         // Update fields
         productMapper.updateProductFromRequest(request, product);
@@ -69,81 +126,424 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product updatedProduct = productRepository.save(product);
+        changeLogService.record(CatalogChange.EntityType.PRODUCT, id, CatalogChange.Operation.UPDATED);
+        dashboardService.recordChange(countedBefore, dashboardService.counterKeys(updatedProduct));
+        supersedePendingStock(id, request.getQuantity() != null, request.getStatus() != null);
         return productMapper.toDTO(updatedProduct);
     }
 
+    /**
+     * Unlike {@link #updateProduct}, only the product's own cache entries are
+     * evicted, after commit, and only when the patch changed something.
+     */
+    @Override
+    @Transactional
+    public ProductDTO patchProduct(Long id, ProductPatchRequest patch) {
+        return onShardOf(id, () -> applyPatch(id, patch));
+    }
+
+    private ProductDTO applyPatch(Long id, ProductPatchRequest patch) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Set<String> countedBefore = dashboardService.counterKeys(product);
+
+        ProductPatcher.Changes changes = productPatcher.apply(product, patch, this::findCategory);
+        boolean stockPatched = patch.has("quantity") || patch.has("status");
+        // Dropping a buffered stock update changes what readers see even if the row does not change
+        if (changes.isEmpty() && !(stockPatched && hasPendingStock(id))) {
+            productPatcher.record(changes);
+            return withPendingStock(productMapper.toDTO(product));
+        }
+
+        Product savedProduct = productRepository.save(product);
+        changeLogService.record(CatalogChange.EntityType.PRODUCT, id, CatalogChange.Operation.UPDATED);
+        dashboardService.recordChange(countedBefore, dashboardService.counterKeys(savedProduct));
+        supersedePendingStock(id, patch.has("quantity"), patch.has("status"));
+        productCacheEvictor.evictAfterCommit(id, savedProduct.getSku());
+        productPatcher.record(changes);
+        return productMapper.toDTO(savedProduct);
+    }
+
+    // The result is cached for every client, so it is read on the primary:
+    // a lagging replica would put the row from before the last write back
     @Override
     @Transactional(readOnly = true)
     @org.springframework.cache.annotation.Cacheable(value = "products", key = "#id")
     public ProductDTO getProductById(Long id) {
-        return productRepository.findById(id)
+        return ReadYourWritesContext.onPrimary(() -> onShardOf(id, () -> productRepository.findById(id)
                 .map(productMapper::toDTO)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+                .map(this::withPendingStock)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id))));
     }
 
     @Override
     @Transactional(readOnly = true)
     @org.springframework.cache.annotation.Cacheable(value = "productBySku", key = "#sku")
     public ProductDTO getProductBySku(String sku) {
-        return productRepository.findBySku(sku)
+        return ReadYourWritesContext.onPrimary(() -> onShardOf(sku, () -> productRepository.findBySku(sku)
                 .map(productMapper::toDTO)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + sku));
+                .map(this::withPendingStock)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + sku))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsByIds(Collection<Long> ids) {
+        ProductShards productShards = shards.getIfAvailable();
+        if (productShards == null) {
+            // Loads cache entries (warming, hot-key refresh), so read on the primary like getProductById
+            return ReadYourWritesContext.onPrimary(() -> productRepository.findByIdIn(ids)).stream()
+                    .map(productMapper::toDTO)
+                    .map(this::withPendingStock)
+                    .toList();
+        }
+        Map<Integer, List<Long>> byShard = productShards.groupByShard(ids);
+        return productShards.onShards(byShard.keySet(), shard -> productRepository.findByIdIn(byShard.get(shard))
+                .stream().map(productMapper::toDTO).toList())
+                .stream().flatMap(List::stream).map(this::withPendingStock).toList();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(productMapper::toDTO);
+        return findProducts(pageable, productRepository::findAll);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> searchProducts(String search, Long categoryId, String brand, java.math.BigDecimal minPrice,
-            java.math.BigDecimal maxPrice, String status, Boolean inStock, Boolean featured, Pageable pageable) {
+            java.math.BigDecimal maxPrice, String status, Boolean inStock, Boolean featured,
+            Collection<String> anyTags, Collection<String> allTags, Pageable pageable) {
+        Set<String> anyTagKeys = tagKeys(anyTags);
+        Set<String> allTagKeys = tagKeys(allTags);
+        Page<Long> hits = queryIndex(new ProductQuery(search, categoryId, brand, minPrice, maxPrice, status, inStock,
+                featured, anyTagKeys, allTagKeys), pageable);
+        if (hits != null) {
+            List<ProductDTO> products = inHitOrder(hits, productRepository.findByIdIn(hits.getContent()),
+                    Product::getId).stream().map(productMapper::toDTO).toList();
+            return new PageImpl<>(products, pageable, hits.getTotalElements());
+        }
         org.springframework.data.jpa.domain.Specification<Product> spec = com.example.productcatalog.repository.spec.ProductSpecification
-                .filterProducts(search, categoryId, brand, minPrice, maxPrice, status, inStock, featured);
-        return productRepository.findAll(spec, pageable)
-                .map(productMapper::toDTO);
+                .filterProducts(search, categoryId, brand, minPrice, maxPrice, status, inStock, featured,
+                        anyTagKeys, allTagKeys);
+        return findProducts(pageable, page -> productRepository.findAll(spec, page));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> getAllProductSummaries(Set<ProductField> fields, Pageable pageable) {
+        return findSummaries(null, fields, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> searchProductSummaries(String search, Long categoryId, String brand,
+            java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice, String status, Boolean inStock,
+            Boolean featured, Collection<String> anyTags, Collection<String> allTags, Set<ProductField> fields,
+            Pageable pageable) {
+        Set<String> anyTagKeys = tagKeys(anyTags);
+        Set<String> allTagKeys = tagKeys(allTags);
+        Page<Long> hits = queryIndex(new ProductQuery(search, categoryId, brand, minPrice, maxPrice, status, inStock,
+                featured, anyTagKeys, allTagKeys), pageable);
+        if (hits != null) {
+            List<Long> ids = hits.getContent();
+            List<Tuple> rows = productRepository.findColumns((root, query, cb) -> root.get("id").in(ids),
+                    ProductField.columnsFor(fields), Sort.unsorted(), ids.size());
+            List<ProductSummaryDTO> summaries = inHitOrder(hits, rows,
+                    row -> row.get(ProductField.ID.name(), Long.class)).stream()
+                    .map(row -> productMapper.toSummary(row, fields)).toList();
+            return new PageImpl<>(summaries, pageable, hits.getTotalElements());
+        }
+        org.springframework.data.jpa.domain.Specification<Product> spec = com.example.productcatalog.repository.spec.ProductSpecification
+                .filterProducts(search, categoryId, brand, minPrice, maxPrice, status, inStock, featured,
+                        anyTagKeys, allTagKeys);
+        return findSummaries(spec, fields, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TagCountDTO> getTagCounts(String search, Long categoryId, String brand, java.math.BigDecimal minPrice,
+            java.math.BigDecimal maxPrice, String status, Boolean inStock, Boolean featured,
+            Collection<String> anyTags, Collection<String> allTags, int limit) {
+        if (limit < 1 || limit > MAX_TAG_FACET_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_TAG_FACET_SIZE);
+        }
+        org.springframework.data.jpa.domain.Specification<Product> spec = com.example.productcatalog.repository.spec.ProductSpecification
+                .filterProducts(search, categoryId, brand, minPrice, maxPrice, status, inStock, featured,
+                        tagKeys(anyTags), tagKeys(allTags));
+        ProductShards productShards = shards.getIfAvailable();
+        if (productShards == null) {
+            return countTags(spec, limit);
+        }
+        // Each shard's top tags, summed: a tag just outside one shard's list is
+        // undercounted by that shard's share, so shards return some extra
+        int perShard = limit + limit / 2 + 10;
+        Map<String, Long> counts = new HashMap<>();
+        productShards.onEveryShard(() -> countTags(spec, perShard))
+                .forEach(shardCounts -> shardCounts.forEach(
+                        tagCount -> counts.merge(tagCount.getTag(), tagCount.getCount(), Long::sum)));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new TagCountDTO(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private List<TagCountDTO> countTags(org.springframework.data.jpa.domain.Specification<Product> spec, int limit) {
+        return productRepository.countTags(spec, limit).stream()
+                .map(row -> new TagCountDTO(row.get("tag", String.class), row.get("count", Long.class)))
+                .toList();
     }
 
     @Override
     @Transactional
     @org.springframework.cache.annotation.CacheEvict(value = { "products", "productBySku" }, allEntries = true)
     public void deleteProduct(Long id) {
+        onShardOf(id, () -> {
+            delete(id);
+            return null;
+        });
+    }
+
+    private void delete(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Set<String> countedBefore = dashboardService.counterKeys(product);
 
         // Soft-delete: set status to ARCHIVED so it is excluded from all filter
         // queries.
         // ProductSpecification already filters out ARCHIVED and DELETED products.
         product.setStatus("ARCHIVED");
         productRepository.save(product);
+        changeLogService.record(CatalogChange.EntityType.PRODUCT, id, CatalogChange.Operation.DELETED);
+        dashboardService.recordChange(countedBefore, dashboardService.counterKeys(product));
+        supersedePendingStock(id, false, true);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> getFeaturedProducts(Pageable pageable) {
-        return productRepository.findByFeaturedTrue(pageable)
-                .map(productMapper::toDTO);
+        return findProducts(pageable, productRepository::findByFeaturedTrue);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> getLowStockProducts(Pageable pageable) {
-        return productRepository.findLowStockProducts(pageable)
-                .map(productMapper::toDTO);
+        return findProducts(pageable, productRepository::findLowStockProducts);
     }
 
     @Override
     @Transactional
     @org.springframework.cache.annotation.CacheEvict(value = { "products", "productBySku" }, allEntries = true)
     public ProductDTO updateProductStatus(Long id, String status) {
+        return onShardOf(id, () -> changeStatus(id, status));
+    }
+
+    private ProductDTO changeStatus(Long id, String status) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Set<String> countedBefore = dashboardService.counterKeys(product);
 
         product.setStatus(status);
         Product savedProduct = productRepository.save(product);
+        changeLogService.record(CatalogChange.EntityType.PRODUCT, id, CatalogChange.Operation.UPDATED);
+        dashboardService.recordChange(countedBefore, dashboardService.counterKeys(savedProduct));
+        supersedePendingStock(id, false, true);
         return productMapper.toDTO(savedProduct);
     }
+
+    @Override
+    @Transactional
+    @org.springframework.cache.annotation.CacheEvict(value = { "products", "productBySku" }, allEntries = true)
+    public ProductDTO updateStock(Long id, Integer quantity, String status) {
+        if (quantity == null && status == null) {
+            throw new BadRequestException("Provide quantity, status or both");
+        }
+        return onShardOf(id, () -> changeStock(id, quantity, status));
+    }
+
+    private ProductDTO changeStock(Long id, Integer quantity, String status) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Set<String> countedBefore = dashboardService.counterKeys(product);
+
+        if (quantity != null) {
+            product.setQuantity(quantity);
+        }
+        if (status != null) {
+            product.setStatus(status);
+        }
+        Product savedProduct = productRepository.save(product);
+        changeLogService.record(CatalogChange.EntityType.PRODUCT, id, CatalogChange.Operation.UPDATED);
+        dashboardService.recordChange(countedBefore, dashboardService.counterKeys(savedProduct));
+        supersedePendingStock(id, quantity != null, status != null);
+        return productMapper.toDTO(savedProduct);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getProductRevision(Long id) {
+        return onShardOf(id, () -> productRepository.findRevisionById(id)
+                .map(this::toRevision)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getProductRevisionBySku(String sku) {
+        return onShardOf(sku, () -> productRepository.findRevisionBySku(sku)
+                .map(this::toRevision)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + sku)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCatalogRevision() {
+        // Every product and category write records a change, and product DTOs
+        // embed the category name, so the change log covers what list pages show.
+        // Category changes are logged on the default shard, which is one of them.
+        ProductShards productShards = shards.getIfAvailable();
+        return productShards == null ? changeLogService.getRevision()
+                : String.join("_", productShards.onEveryShard(changeLogService::getRevision));
+    }
+
+    /**
+     * Runs the product page query, on every shard when products are sharded:
+     * each shard returns its rows up to the end of the page, mapped to DTOs
+     * inside its own transaction, and the answers are merge-sorted.
+     */
+    private Page<ProductDTO> findProducts(Pageable pageable, Function<Pageable, Page<Product>> query) {
+        ProductShards productShards = shards.getIfAvailable();
+        if (productShards == null) {
+            return query.apply(pageable).map(productMapper::toDTO);
+        }
+        Pageable perShard = ShardedPage.perShard(pageable);
+        return ShardedPage.merge(productShards.onEveryShard(() -> query.apply(perShard)
+                .map(product -> ShardedPage.row(productMapper.toDTO(product),
+                        ShardedPage.sortKeys(product, pageable)))), pageable);
+    }
+
+    /**
+     * As {@link #findProducts} for column projections. On shards, the sort
+     * columns are selected as well so rows can be merged on them; sorting by
+     * something that is not a column, such as the category name, is refused.
+     */
+    private Page<ProductSummaryDTO> findSummaries(org.springframework.data.jpa.domain.Specification<Product> spec,
+            Set<ProductField> fields, Pageable pageable) {
+        Set<ProductField> columns = ProductField.columnsFor(fields);
+        ProductShards productShards = shards.getIfAvailable();
+        if (productShards == null) {
+            return productRepository.findColumns(spec, columns, pageable)
+                    .map(tuple -> productMapper.toSummary(tuple, fields));
+        }
+        Map<String, ProductField> byPath = java.util.Arrays.stream(ProductField.values())
+                .filter(field -> field.getAttributePath() != null)
+                .collect(Collectors.toMap(ProductField::getAttributePath, Function.identity()));
+        List<ProductField> sortColumns = new ArrayList<>();
+        for (Sort.Order order : ShardedPage.sort(pageable)) {
+            ProductField column = byPath.get(order.getProperty());
+            if (column == null) {
+                throw new BadRequestException("Cannot sort by " + order.getProperty());
+            }
+            sortColumns.add(column);
+        }
+        columns.addAll(sortColumns);
+        Pageable perShard = ShardedPage.perShard(pageable);
+        return ShardedPage.merge(productShards.onEveryShard(() -> productRepository.findColumns(spec, columns, perShard)
+                .map(tuple -> ShardedPage.row(productMapper.toSummary(tuple, fields),
+                        sortColumns.stream().map(column -> tuple.get(column.name())).toList()))), pageable);
+    }
+
+    private Category findCategory(Long id) {
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+    }
+
+    /** Runs the work on the shard holding the product, or directly when products are not sharded. */
+    private <T> T onShardOf(Long id, Supplier<T> work) {
+        ProductShards productShards = shards.getIfAvailable();
+        return productShards != null ? productShards.onShardOf(id, work) : work.get();
+    }
+
+    private <T> T onShardOf(String sku, Supplier<T> work) {
+        ProductShards productShards = shards.getIfAvailable();
+        return productShards != null ? productShards.onShardOf(sku, work) : work.get();
+    }
+
+    /**
+     * Answers the query from an in-memory index when one is enabled and built:
+     * the search index for free text, the filter index for structured-only
+     * queries. {@code null} means use the SQL path.
+     */
+    private Page<Long> queryIndex(ProductQuery query, Pageable pageable) {
+        if (org.springframework.util.StringUtils.hasText(query.text())) {
+            ProductSearchIndex index = searchIndex.getIfAvailable();
+            return index != null ? index.search(query, pageable) : null;
+        }
+        ProductFilterIndex index = filterIndex.getIfAvailable();
+        return index != null ? index.filter(query, pageable) : null;
+    }
+
+    /**
+     * Trimmed, lower-cased and de-duplicated tag filter values; the tag
+     * index is on {@code lower(tag)}.
+     */
+    private static Set<String> tagKeys(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return null;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (org.springframework.util.StringUtils.hasText(tag)) {
+                keys.add(tag.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        if (keys.size() > MAX_TAG_FILTERS) {
+            throw new BadRequestException("At most " + MAX_TAG_FILTERS + " tags can be given per tag filter");
+        }
+        return keys.isEmpty() ? null : keys;
+    }
+
+    private static <T> List<T> inHitOrder(Page<Long> hits, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(idOf.apply(row), row));
+        List<T> ordered = new ArrayList<>(rows.size());
+        for (Long id : hits.getContent()) {
+            // A product removed since the index answered is simply skipped
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    private String toRevision(ProductRevision revision) {
+        String committed = revision.getVersion() + "." + (revision.getCategoryVersion() != null ? revision.getCategoryVersion() : 0);
+        // Buffered stock updates change the representation before the version moves
+        StockWriteBehindBuffer buffer = stockWriteBehind.getIfAvailable();
+        Long pending = buffer != null ? buffer.pendingSequence(revision.getId()) : null;
+        return pending != null ? committed + ".w" + pending : committed;
+    }
+
+    /**
+     * Cache misses read the database; apply buffered stock updates so they
+     * are visible there as well as on cache hits.
+     */
+    private ProductDTO withPendingStock(ProductDTO product) {
+        StockWriteBehindBuffer buffer = stockWriteBehind.getIfAvailable();
+        return buffer != null ? buffer.overlay(product) : product;
+    }
+
+    private boolean hasPendingStock(Long id) {
+        StockWriteBehindBuffer buffer = stockWriteBehind.getIfAvailable();
+        return buffer != null && buffer.pendingSequence(id) != null;
+    }
+
+    private void supersedePendingStock(Long id, boolean quantity, boolean status) {
+        StockWriteBehindBuffer buffer = stockWriteBehind.getIfAvailable();
+        if (buffer != null) {
+            buffer.supersedeAfterCommit(id, quantity, status);
+        }
+    }
 }
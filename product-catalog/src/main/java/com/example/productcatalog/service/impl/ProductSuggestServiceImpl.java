@@ -0,0 +1,114 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.ProductField;
+import com.example.productcatalog.repository.spec.ProductSpecification;
+import com.example.productcatalog.search.ProductSuggestIndex;
+import com.example.productcatalog.service.ProductSuggestService;
+import com.example.productcatalog.web.dto.SuggestionDTO;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Typeahead suggestions. Served from {@link ProductSuggestIndex} when it is
+ * enabled and built; otherwise a name/SKU prefix query that reads three
+ * columns, without popularity ranking or brand suggestions. With sharded
+ * products the prefix query runs on every shard and the lists are merged.
+ */
+@Service
+public class ProductSuggestServiceImpl implements ProductSuggestService {
+
+    private static final Set<ProductField> SUGGEST_COLUMNS = EnumSet.of(ProductField.ID, ProductField.SKU,
+            ProductField.NAME);
+
+    private final ProductRepository productRepository;
+    private final ObjectProvider<ProductSuggestIndex> suggestIndex;
+    private final ObjectProvider<ProductShards> shards;
+    private final int maxLimit;
+
+    public ProductSuggestServiceImpl(ProductRepository productRepository,
+            ObjectProvider<ProductSuggestIndex> suggestIndex, ObjectProvider<ProductShards> shards,
+            @Value("${app.suggest.top-k:10}") int maxLimit) {
+        this.productRepository = productRepository;
+        this.suggestIndex = suggestIndex;
+        this.shards = shards;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException("limit must be between 1 and " + maxLimit);
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+
+        ProductSuggestIndex index = suggestIndex.getIfAvailable();
+        List<ProductSuggestIndex.Suggestion> hits = index != null ? index.suggest(prefix, limit) : null;
+        if (hits != null) {
+            List<SuggestionDTO> suggestions = new ArrayList<>(hits.size());
+            for (ProductSuggestIndex.Suggestion hit : hits) {
+                suggestions.add(SuggestionDTO.builder()
+                        .type(hit.type().name())
+                        .text(hit.text())
+                        .productId(hit.productId())
+                        .sku(hit.sku())
+                        .build());
+            }
+            return suggestions;
+        }
+
+        ProductShards productShards = shards.getIfAvailable();
+        if (productShards == null) {
+            return findProducts(prefix, limit);
+        }
+        return productShards.onEveryShard(() -> findProducts(prefix, limit)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(SuggestionDTO::getText).thenComparing(SuggestionDTO::getProductId))
+                .limit(limit)
+                .toList();
+    }
+
+    private List<SuggestionDTO> findProducts(String prefix, int limit) {
+        List<Tuple> rows = productRepository.findColumns(ProductSpecification.suggest(prefix.trim()),
+                SUGGEST_COLUMNS, Sort.by("name", "id"), limit);
+        List<SuggestionDTO> suggestions = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            suggestions.add(SuggestionDTO.builder()
+                    .type(ProductSuggestIndex.Type.PRODUCT.name())
+                    .text(row.get(ProductField.NAME.name(), String.class))
+                    .productId(row.get(ProductField.ID.name(), Long.class))
+                    .sku(row.get(ProductField.SKU.name(), String.class))
+                    .build());
+        }
+        return suggestions;
+    }
+
+    @Override
+    public void recordView(Long productId) {
+        suggestIndex.ifAvailable(index -> index.recordView(productId));
+    }
+
+    /**
+     * Folds buffered product views into the suggestion weights.
+     */
+    @Scheduled(fixedDelayString = "${app.suggest.view-flush-interval:30s}")
+    public void applyViews() {
+        suggestIndex.ifAvailable(ProductSuggestIndex::applyViews);
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.event.CatalogChangeEvent;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.exception.InsufficientStockException;
+import com.example.productcatalog.exception.ResourceNotFoundException;
+import com.example.productcatalog.inventory.ProductStock;
+import com.example.productcatalog.inventory.ReservationBatch;
+import com.example.productcatalog.inventory.ReservationLedger;
+import com.example.productcatalog.inventory.ReservationStore;
+import com.example.productcatalog.inventory.StockHold;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.ProductStockLevel;
+import com.example.productcatalog.service.ReservationService;
+import com.example.productcatalog.web.dto.ReservationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Checkout holds on stock, kept in memory by a {@link ReservationLedger} and
+ * persisted by batched flushes through a {@link ReservationStore}.
+ *
+ * <p>Reserve and release never wait on the database once a product's stock
+ * is loaded: they act on its striped counter and are flushed every
+ * {@code app.reservations.flush-interval}. Confirm flushes before it returns,
+ * so an acknowledged sale is committed; concurrent confirms share a flush.
+ * A reserve or release lost in a crash only ever errs towards more stock
+ * being available: at startup the hold rows are reloaded and
+ * {@code reserved_quantity} is recomputed from them.
+ *
+ * <p>Quantity changes made by product edits and other paths are picked up
+ * right after commit through {@link CatalogChangeEvent}, and from the
+ * database every {@code app.reservations.refresh-interval} for writes made
+ * elsewhere. Reservations themselves must all go through one instance: the
+ * in-memory counters do not see holds taken by another.
+ */
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+
+    private static final String ACTIVE = "ACTIVE";
+    private static final String CONFIRMED = "CONFIRMED";
+    private static final String RELEASED = "RELEASED";
+    private static final int REFRESH_BATCH_SIZE = 1000;
+    // Long enough to answer a confirm retried after any client timeout
+    private static final Duration CONFIRMED_RETENTION = Duration.ofHours(1);
+
+    private final ReservationLedger ledger;
+    private final ReservationStore store;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate primaryRead;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final int stripes;
+    // Serializes flushes, stock loads and refreshes; reserve and release never take it
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ReservationServiceImpl(ReservationLedger ledger, ReservationStore store,
+            ProductRepository productRepository, PlatformTransactionManager transactionManager,
+            Duration defaultTtl, Duration maxTtl, int stripes) {
+        this.ledger = ledger;
+        this.store = store;
+        this.productRepository = productRepository;
+        // Not read-only: stock must come from the primary, never a lagging replica
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        // Change events arrive after commit while the writer's resources are still bound
+        this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.stripes = stripes;
+        recover();
+    }
+
+    @Override
+    public ReservationDTO reserve(Long productId, int quantity, Duration ttl) {
+        Duration holdFor = ttl != null ? ttl : defaultTtl;
+        if (quantity <= 0) {
+            throw new BadRequestException("quantity must be positive");
+        }
+        if (holdFor.isNegative() || holdFor.isZero() || holdFor.compareTo(maxTtl) > 0) {
+            throw new BadRequestException("ttlSeconds must be between 1 and " + maxTtl.toSeconds());
+        }
+        ProductStock stock = stock(productId);
+        if (!stock.isSellable()) {
+            throw new BadRequestException("Product " + productId + " is not ACTIVE and cannot be reserved");
+        }
+        StockHold hold = ledger.reserve(stock, quantity, LocalDateTime.now(), holdFor);
+        if (hold == null) {
+            throw new InsufficientStockException("Only " + Math.max(0, stock.getAvailable())
+                    + " unit(s) of product " + productId + " available, " + quantity + " requested");
+        }
+        return toDTO(hold, ACTIVE, stock);
+    }
+
+    @Override
+    public ReservationDTO confirm(UUID reservationId) {
+        StockHold hold = ledger.getConfirmed(reservationId);
+        if (hold == null) {
+            StockHold active = ledger.getActive(reservationId);
+            if (active == null) {
+                throw notFound(reservationId);
+            }
+            stock(active.productId());
+            hold = ledger.confirm(reservationId, LocalDateTime.now());
+            if (hold == null) {
+                // Expired, or settled by a concurrent call
+                hold = ledger.getConfirmed(reservationId);
+                if (hold == null) {
+                    throw notFound(reservationId);
+                }
+            }
+        }
+        // Any flush that took this confirm has finished once the lock is ours
+        flushNow();
+        return toDTO(hold, CONFIRMED, ledger.getStock(hold.productId()));
+    }
+
+    @Override
+    public ReservationDTO release(UUID reservationId) {
+        StockHold active = ledger.getActive(reservationId);
+        if (active == null) {
+            throw notFound(reservationId);
+        }
+        ProductStock stock = stock(active.productId());
+        StockHold hold = ledger.release(reservationId);
+        if (hold == null) {
+            throw notFound(reservationId);
+        }
+        return toDTO(hold, RELEASED, stock);
+    }
+
+    @Override
+    public ReservationDTO getReservation(UUID reservationId) {
+        StockHold active = ledger.getActive(reservationId);
+        if (active != null && !active.isExpired(LocalDateTime.now())) {
+            return toDTO(active, ACTIVE, ledger.getStock(active.productId()));
+        }
+        StockHold confirmed = ledger.getConfirmed(reservationId);
+        if (confirmed != null) {
+            return toDTO(confirmed, CONFIRMED, ledger.getStock(confirmed.productId()));
+        }
+        throw notFound(reservationId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.reservations.flush-interval:200ms}")
+    public int flush() {
+        try {
+            return flushNow();
+        } catch (RuntimeException e) {
+            log.warn("Reservation flush failed, retrying next interval: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.reservations.sweep-interval:1s}")
+    public int expireHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = 0;
+        for (StockHold hold : ledger.getExpired(now)) {
+            try {
+                stock(hold.productId());
+            } catch (ResourceNotFoundException e) {
+                ledger.discard(hold.id());
+                continue;
+            }
+            if (ledger.release(hold.id()) != null) {
+                released++;
+            }
+        }
+        ledger.forgetConfirmedBefore(now.minus(CONFIRMED_RETENTION));
+        if (released > 0) {
+            log.debug("Released {} expired reservation(s)", released);
+        }
+        return released;
+    }
+
+    /**
+     * Picks up quantity and status changes of loaded products written by
+     * other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.refresh-interval:5s}")
+    public void refreshStocks() {
+        try {
+            refresh(ledger.getStocks().stream().map(ProductStock::getProductId).toList());
+        } catch (RuntimeException e) {
+            log.warn("Reservation stock refresh failed, retrying next interval: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        // Our own flushes: the in-memory stock already reflects them
+        if (event.entityType() != CatalogChange.EntityType.PRODUCT || flushLock.isHeldByCurrentThread()) {
+            return;
+        }
+        try {
+            refresh(event.ids());
+        } catch (RuntimeException e) {
+            // The write itself has committed; the next periodic refresh applies it
+            log.warn("Reservation stock refresh for {} failed: {}", event.ids(), e.getMessage());
+        }
+    }
+
+    private int flushNow() {
+        flushLock.lock();
+        try {
+            ReservationBatch batch = ledger.drain();
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                store.write(batch);
+            } catch (RuntimeException e) {
+                ledger.requeue(batch);
+                throw e;
+            }
+            batch.deltas().forEach(delta -> delta.stock().flushed(delta.sold()));
+            return batch.deltas().size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * The product's in-memory stock, loaded from the primary on first use.
+     */
+    private ProductStock stock(Long productId) {
+        ProductStock stock = ledger.getStock(productId);
+        if (stock != null) {
+            return stock;
+        }
+        flushLock.lock();
+        try {
+            stock = ledger.getStock(productId);
+            if (stock != null) {
+                return stock;
+            }
+            ProductStockLevel level = readStockLevels(List.of(productId)).stream().findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+            return ledger.addStock(new ProductStock(productId, level.getSku(), quantity(level),
+                    level.getReservedQuantity(), ACTIVE.equals(level.getStatus()), stripes));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void refresh(Collection<Long> productIds) {
+        List<Long> loaded = productIds.stream().filter(id -> ledger.getStock(id) != null).toList();
+        for (int from = 0; from < loaded.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> chunk = loaded.subList(from, Math.min(from + REFRESH_BATCH_SIZE, loaded.size()));
+            flushLock.lock();
+            try {
+                Set<Long> missing = new HashSet<>(chunk);
+                for (ProductStockLevel level : readStockLevels(chunk)) {
+                    missing.remove(level.getId());
+                    ledger.getStock(level.getId()).refresh(quantity(level), ACTIVE.equals(level.getStatus()));
+                }
+                missing.forEach(id -> ledger.getStock(id).markRemoved());
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private List<ProductStockLevel> readStockLevels(Collection<Long> productIds) {
+        List<ProductStockLevel> levels = primaryRead.execute(status -> productRepository
+                .findStockLevelsByIdIn(productIds));
+        return levels != null ? levels : List.of();
+    }
+
+    private void recover() {
+        List<StockHold> holds = store.recover();
+        if (holds != null && !holds.isEmpty()) {
+            holds.forEach(ledger::restore);
+            log.info("Restored {} stock reservation(s)", holds.size());
+        }
+    }
+
+    private static int quantity(ProductStockLevel level) {
+        return level.getQuantity() != null ? level.getQuantity() : 0;
+    }
+
+    private static ResourceNotFoundException notFound(UUID reservationId) {
+        return new ResourceNotFoundException("Reservation not found or expired with id: " + reservationId);
+    }
+
+    private static ReservationDTO toDTO(StockHold hold, String status, ProductStock stock) {
+        return ReservationDTO.builder()
+                .id(hold.id())
+                .productId(hold.productId())
+                .quantity(hold.quantity())
+                .status(status)
+                .expiresAt(hold.expiresAt())
+                .createdAt(hold.createdAt())
+                .availableQuantity(stock != null ? Math.max(0, stock.getAvailable()) : 0)
+                .build();
+    }
+}
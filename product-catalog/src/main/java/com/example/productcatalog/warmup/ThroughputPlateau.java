@@ -0,0 +1,54 @@
+package com.example.productcatalog.warmup;
+
+/**
+ * Decides when warm-up throughput has stopped improving: the last
+ * {@code window} rounds must all lie within {@code tolerance} (a fraction of
+ * the fastest of them) of each other. While the JIT is still compiling, each
+ * round is noticeably faster than the one before and the window never
+ * settles.
+ */
+public class ThroughputPlateau {
+
+    private final double[] recent;
+    private final double tolerance;
+    private int rounds;
+
+    public ThroughputPlateau(int window, double tolerance) {
+        if (window < 2 || tolerance <= 0) {
+            throw new IllegalArgumentException("Plateau needs a window of at least 2 and a positive tolerance");
+        }
+        this.recent = new double[window];
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Adds one round.
+     *
+     * @param calls        calls completed in the round
+     * @param elapsedNanos wall-clock time the round took
+     * @return whether throughput has plateaued
+     */
+    public boolean record(long calls, long elapsedNanos) {
+        recent[rounds % recent.length] = calls * 1e9 / Math.max(1, elapsedNanos);
+        rounds++;
+        if (rounds < recent.length) {
+            return false;
+        }
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (double throughput : recent) {
+            min = Math.min(min, throughput);
+            max = Math.max(max, throughput);
+        }
+        return max - min <= max * tolerance;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    /** Calls per second in the latest round. */
+    public double getLatest() {
+        return rounds == 0 ? 0 : recent[(rounds - 1) % recent.length];
+    }
+}
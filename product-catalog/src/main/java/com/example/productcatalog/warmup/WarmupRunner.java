@@ -0,0 +1,224 @@
+package com.example.productcatalog.warmup;
+
+import com.example.productcatalog.cache.AccessTracking;
+import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.repository.projection.ProductField;
+import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.web.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the hot read paths until the JIT has compiled them, before the
+ * instance reports ready.
+ *
+ * <p>Spring Boot only moves readiness to {@code ACCEPTING_TRAFFIC} after every
+ * {@link ApplicationReadyEvent} listener has returned, so running here keeps
+ * {@code /actuator/health/readiness} out of service until warm-up ends. The
+ * calls are id and SKU lookups, the common {@code /filter} shapes and the
+ * summary view for a sample of real products, each followed by JSON
+ * serialization of the response body. They go through the service layer, so
+ * they use the product mapper, criteria queries, the Redis cache codec and
+ * Jackson, but record no suggestion views, feed no latency into the
+ * load-shedding limits and, under {@link AccessTracking}, count toward no
+ * hot keys, so the synthetic reads neither earn long TTLs and refresh-ahead
+ * nor get warmed by other instances. Nothing is written except cache entries.
+ *
+ * <p>Calls run in rounds on a few threads until {@link ThroughputPlateau}
+ * reports that throughput has stopped improving, or until the maximum
+ * duration has passed.
+ */
+@Slf4j
+public class WarmupRunner implements MeterBinder {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final Duration maxDuration;
+    private final int threads;
+    private final int roundSize;
+    private final int sampleSize;
+    private final int stableRounds;
+    private final double tolerance;
+
+    private volatile long durationNanos;
+    private volatile long completedCalls;
+
+    public WarmupRunner(ProductService productService, ObjectMapper objectMapper, Duration maxDuration, int threads,
+            int roundSize, int sampleSize, int stableRounds, double tolerance) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.maxDuration = maxDuration;
+        this.threads = threads;
+        this.roundSize = roundSize;
+        this.sampleSize = sampleSize;
+        this.stableRounds = stableRounds;
+        this.tolerance = tolerance;
+    }
+
+    // After the other startup listeners, so indexes have started building
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        AccessTracking.suppress();
+        try {
+            run(start + maxDuration.toNanos());
+        } catch (RuntimeException e) {
+            log.warn("Warm-up stopped early: {}", e.getMessage());
+        } finally {
+            AccessTracking.clear();
+            durationNanos = System.nanoTime() - start;
+        }
+    }
+
+    private void run(long deadline) {
+        List<ProductDTO> sample = productService.getAllProducts(PageRequest.of(0, sampleSize)).getContent();
+        if (sample.isEmpty()) {
+            log.info("Warm-up skipped: the catalog is empty");
+            return;
+        }
+        List<Callable<Object>> calls = calls(sample);
+        ThroughputPlateau plateau = new ThroughputPlateau(stableRounds, tolerance);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            boolean plateaued = false;
+            while (!plateaued && System.nanoTime() < deadline) {
+                long roundStart = System.nanoTime();
+                int failed = runRound(executor, calls, plateau.getRounds());
+                if (failed == roundSize) {
+                    throw new IllegalStateException("every call of round " + (plateau.getRounds() + 1) + " failed");
+                }
+                completedCalls += roundSize - failed;
+                plateaued = plateau.record(roundSize - failed, System.nanoTime() - roundStart);
+            }
+            log.info("Warm-up {} after {} rounds, {} calls: {} calls/s", plateaued ? "plateaued" : "hit max-duration",
+                    plateau.getRounds(), completedCalls, Math.round(plateau.getLatest()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Returns the number of calls that threw
+    private int runRound(ExecutorService executor, List<Callable<Object>> calls, int round) {
+        AtomicInteger failed = new AtomicInteger();
+        List<Callable<Void>> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            workers.add(() -> {
+                AccessTracking.suppress();
+                try {
+                    // Offset by round so every call gets its turn when calls outnumber roundSize
+                    for (int i = first; i < roundSize; i += threads) {
+                        try {
+                            calls.get((round * roundSize + i) % calls.size()).call();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    AccessTracking.clear();
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> worker : executor.invokeAll(workers)) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return failed.get();
+    }
+
+    private List<Callable<Object>> calls(List<ProductDTO> sample) {
+        Pageable page = PageRequest.of(0, 20);
+        Pageable byPrice = PageRequest.of(0, 20, Sort.by("price"));
+        Pageable newest = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+        List<Callable<Object>> calls = new ArrayList<>();
+
+        for (ProductDTO product : sample) {
+            calls.add(() -> serialize(productService.getProductById(product.getId())));
+            calls.add(() -> serialize(productService.getProductBySku(product.getSku())));
+        }
+
+        calls.add(() -> serialize(productService.getAllProducts(page)));
+        calls.add(() -> serialize(productService.searchProducts(null, null, null, null, null, "ACTIVE", null, null,
+                null, null, newest)));
+        calls.add(() -> serialize(productService.searchProducts(null, null, null, null, null, "ACTIVE", true, null,
+                null, null, byPrice)));
+        calls.add(() -> serialize(productService.searchProducts(null, null, null, null, null, null, null, true,
+                null, null, page)));
+        calls.add(() -> serialize(productService.searchProductSummaries(null, null, null, null, null, "ACTIVE",
+                null, null, null, null, ProductField.SUMMARY, page)));
+        calls.add(() -> serialize(productService.getFeaturedProducts(page)));
+
+        BigDecimal medianPrice = sample.stream().map(ProductDTO::getPrice).filter(Objects::nonNull)
+                .sorted().skip(sample.size() / 2).findFirst().orElse(BigDecimal.valueOf(100));
+        calls.add(() -> serialize(productService.searchProducts(null, null, null, BigDecimal.ZERO, medianPrice,
+                "ACTIVE", null, null, null, null, byPrice)));
+
+        sample.stream().map(ProductDTO::getCategoryId).filter(Objects::nonNull).distinct().limit(5)
+                .forEach(categoryId -> calls.add(() -> serialize(productService.searchProducts(null, categoryId,
+                        null, null, null, "ACTIVE", null, null, null, null, byPrice))));
+        sample.stream().map(ProductDTO::getBrand).filter(Objects::nonNull).distinct().limit(5)
+                .forEach(brand -> calls.add(() -> serialize(productService.searchProducts(null, null, brand,
+                        null, null, "ACTIVE", null, null, null, null, page))));
+        sample.stream().map(ProductDTO::getName).filter(Objects::nonNull)
+                .map(name -> name.split("\\s+")[0]).filter(word -> word.length() >= 3).distinct().limit(5)
+                .forEach(word -> calls.add(() -> serialize(productService.searchProducts(word, null, null, null,
+                        null, null, null, null, null, null, page))));
+        sample.stream().map(ProductDTO::getTags).filter(Objects::nonNull).flatMap(tags -> tags.stream()
+                .sorted(Comparator.naturalOrder())).distinct().limit(5)
+                .forEach(tag -> calls.add(() -> serialize(productService.searchProducts(null, null, null, null,
+                        null, "ACTIVE", null, null, List.of(tag), null, page))));
+        return calls;
+    }
+
+    private byte[] serialize(Object body) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(body, "Warm-up"));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("app.warmup.duration", this, TimeUnit.NANOSECONDS, runner -> runner.durationNanos)
+                .description("Time spent warming up before reporting ready")
+                .register(registry);
+        Gauge.builder("app.warmup.calls", this, runner -> runner.completedCalls)
+                .description("Read calls made during warm-up")
+                .register(registry);
+    }
+}
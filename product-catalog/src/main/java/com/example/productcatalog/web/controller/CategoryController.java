@@ -3,6 +3,7 @@ package com.example.productcatalog.web.controller;
 import com.example.productcatalog.common.ApiResponse;
 import com.example.productcatalog.service.CategoryService;
 import com.example.productcatalog.web.dto.CategoryDTO;
+import com.example.productcatalog.web.support.HttpCachePolicy;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,12 +31,18 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final HttpCachePolicy httpCachePolicy;
 
     @Operation(summary = "Get all categories", description = "Returns a flat list of all available product categories.")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getAllCategories() {
+    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getAllCategories(WebRequest webRequest) {
+        String etag = httpCachePolicy.weakEtag("categories", categoryService.getCatalogRevision(), webRequest);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "categories.list");
+        }
         List<CategoryDTO> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(ApiResponse.success(categories, "Categories retrieved successfully"));
+        return httpCachePolicy.ok(etag, "categories.list")
+                .body(ApiResponse.success(categories, "Categories retrieved successfully"));
     }
 
     @Operation(summary = "Get category by ID", description = "Returns a single category by its numeric ID.")
@@ -44,9 +52,18 @@ public class CategoryController {
     })
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<CategoryDTO>> getCategoryById(
-            @Parameter(description = "Numeric ID of the category", required = true, example = "1") @PathVariable Long id) {
+            @Parameter(description = "Numeric ID of the category", required = true, example = "1") @PathVariable Long id,
+            WebRequest webRequest) {
+        // Sub-categories are embedded in the DTO, so the whole table revision is
+        // mixed into the single-resource tag
+        String etag = httpCachePolicy.strongEtag("category", id,
+                categoryService.getCategoryRevision(id) + "-" + categoryService.getCatalogRevision(), webRequest);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "categories.get");
+        }
         CategoryDTO category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(ApiResponse.success(category, "Category retrieved successfully"));
+        return httpCachePolicy.ok(etag, "categories.get")
+                .body(ApiResponse.success(category, "Category retrieved successfully"));
     }
 
     @Operation(summary = "Create a new category", description = "Creates a new product category. Name must be unique.")
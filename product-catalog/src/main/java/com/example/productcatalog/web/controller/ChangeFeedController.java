@@ -0,0 +1,39 @@
+package com.example.productcatalog.web.controller;
+
+import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.web.dto.ChangeFeedDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Changes", description = "Incremental change feed for catalog sync")
+@RestController
+@RequestMapping("/api/v1/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeLogService changeLogService;
+
+    @Operation(summary = "Poll catalog changes", description = "Returns product and category changes committed after the given token, oldest first. "
+            + "Start with no token (or 0), then pass the returned nextToken. Entries carry keys only; re-read the entity for its current state. "
+            + "Superseded entries older than the retention period are compacted, so a consumer that falls behind still sees the latest change of every entity.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch of changes"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid token")
+    })
+    @GetMapping
+    public ResponseEntity<ApiResponse<ChangeFeedDTO>> getChanges(
+            @Parameter(description = "nextToken from the previous poll; omit to start from the beginning", example = "0") @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changes to return (capped by app.changes.max-batch-size)", example = "500") @RequestParam(defaultValue = "500") int limit) {
+        ChangeFeedDTO feed = changeLogService.getChanges(since, limit);
+        return ResponseEntity.ok(ApiResponse.success(feed, "Changes retrieved successfully"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.productcatalog.web.controller;
+
+import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.web.dto.DashboardDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Dashboard", description = "Catalog totals for the admin dashboard")
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @Operation(summary = "Get dashboard counters", description = "Returns product counts per status and, for live (not ARCHIVED or DELETED) products, per category plus featured and low-stock totals. "
+            + "Counters are maintained on every product write, so the cost does not grow with the catalog; a periodic reconciliation corrects any drift.")
+    @GetMapping
+    public ResponseEntity<ApiResponse<DashboardDTO>> getDashboard() {
+        DashboardDTO dashboard = dashboardService.getDashboard();
+        return ResponseEntity.ok(ApiResponse.success(dashboard, "Dashboard retrieved successfully"));
+    }
+}
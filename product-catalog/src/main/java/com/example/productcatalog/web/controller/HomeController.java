@@ -0,0 +1,37 @@
+package com.example.productcatalog.web.controller;
+
+import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.service.HomeService;
+import com.example.productcatalog.web.dto.HomeDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Home", description = "Everything the dashboard and storefront home need in one call")
+@RestController
+@RequestMapping("/api/v1/home")
+@RequiredArgsConstructor
+public class HomeController {
+
+    private final HomeService homeService;
+
+    @Operation(summary = "Get the home page", description = "Returns the dashboard counters, all categories, and the featured, low-stock and most recently created products. "
+            + "The sections are loaded concurrently, each with its own timeout; a section that fails or times out is null and listed in unavailableSections.")
+    @GetMapping
+    public ResponseEntity<ApiResponse<HomeDTO>> getHome(
+            @Parameter(description = "Featured products to return (1-50)", example = "8") @RequestParam(defaultValue = "8") int featuredSize,
+            @Parameter(description = "Low-stock products to return (1-50)", example = "10") @RequestParam(defaultValue = "10") int lowStockSize,
+            @Parameter(description = "Most recent products to return (1-50)", example = "5") @RequestParam(defaultValue = "5") int recentSize) {
+        HomeDTO home = homeService.getHome(featuredSize, lowStockSize, recentSize);
+        String message = home.getUnavailableSections().isEmpty()
+                ? "Home retrieved successfully"
+                : "Home retrieved without " + String.join(", ", home.getUnavailableSections());
+        return ResponseEntity.ok(ApiResponse.success(home, message));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.productcatalog.web.controller;
+
+import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.service.ProductBulkService;
+import com.example.productcatalog.web.dto.BulkProductUpdateRequest;
+import com.example.productcatalog.web.dto.BulkStatusRequest;
+import com.example.productcatalog.web.dto.BulkUpdateResult;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Products", description = "Endpoints for managing the product catalog — CRUD, filtering, featured, and low-stock queries")
+@RestController
+@RequestMapping("/api/v1/products/bulk")
+@RequiredArgsConstructor
+public class ProductBulkController {
+
+    private final ProductBulkService productBulkService;
+
+    @Operation(summary = "Bulk update product status", description = "Sets the status of every product selected by ids or filter, "
+            + "e.g. archiving a discontinued brand. Applied as chunked set-based updates; only the touched cache entries are evicted.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bulk update applied"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Neither or both of ids and filter given, or validation failed")
+    })
+    @PatchMapping("/status")
+    public ResponseEntity<ApiResponse<BulkUpdateResult>> updateStatus(@Valid @RequestBody BulkStatusRequest request) {
+        BulkUpdateResult result = productBulkService.updateStatus(request);
+        return ResponseEntity.ok(ApiResponse.success(result, "Product status updated for " + result.getUpdated() + " products"));
+    }
+
+    @Operation(summary = "Bulk update product fields", description = "Updates featured, category, low-stock threshold and/or price "
+            + "(percent, amount or absolute) of every product selected by ids or filter. Products whose price would become zero or negative are skipped.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bulk update applied"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid selection, no changes given, or validation failed"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Target category not found")
+    })
+    @PatchMapping
+    public ResponseEntity<ApiResponse<BulkUpdateResult>> updateFields(@Valid @RequestBody BulkProductUpdateRequest request) {
+        BulkUpdateResult result = productBulkService.updateFields(request);
+        return ResponseEntity.ok(ApiResponse.success(result, "Products updated: " + result.getUpdated()));
+    }
+}
@@ -1,20 +1,30 @@
 package com.example.productcatalog.web.controller;
 
 import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.repository.projection.ProductField;
 import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.service.ProductSuggestService;
 import com.example.productcatalog.web.dto.CreateProductRequest;
 import com.example.productcatalog.web.dto.ProductDTO;
+import com.example.productcatalog.web.dto.ProductPatchRequest;
+import com.example.productcatalog.web.dto.StockUpdateRequest;
+import com.example.productcatalog.web.dto.TagCountDTO;
 import com.example.productcatalog.web.dto.UpdateProductRequest;
+import com.example.productcatalog.web.support.HttpCachePolicy;
+import com.example.productcatalog.writebehind.StockWriteBehindBuffer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,8 +36,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
 
 @Tag(name = "Products", description = "Endpoints for managing the product catalog — CRUD, filtering, featured, and low-stock queries")
 @RestController
@@ -35,18 +48,38 @@ import java.math.BigDecimal;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String FIELDS_DESCRIPTION = "Comma-separated fields to return, e.g. id,sku,name,price,status,quantity,imageUrl. Only these columns are read from the database.";
+    private static final String ANY_TAGS_DESCRIPTION = "Comma-separated tags; matches products carrying at least one of them (case-insensitive, up to 20)";
+    private static final String ALL_TAGS_DESCRIPTION = "Comma-separated tags; matches products carrying every one of them (case-insensitive, up to 20)";
+    private static final String VIEW_DESCRIPTION = "Named projection: summary (id, sku, name, price, status, quantity, first image) or full (default)";
+
     private final ProductService productService;
+    private final ProductSuggestService productSuggestService;
+    private final HttpCachePolicy httpCachePolicy;
+    private final ObjectProvider<StockWriteBehindBuffer> stockWriteBehind;
 
     // ─── READ ──────────────────────────────────────────────────────────────
 
-    @Operation(summary = "Get all products", description = "Returns a paginated list of all non-archived/deleted products.")
+    @Operation(summary = "Get all products", description = "Returns a paginated list of all non-archived/deleted products. Use fields= or view=summary to return sparse rows.")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products retrieved successfully")
     })
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<ProductDTO>>> getAllProducts(@PageableDefault(size = 20) Pageable pageable) {
-        Page<ProductDTO> products = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
+    public ResponseEntity<ApiResponse<Page<?>>> getAllProducts(
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+            @Parameter(description = VIEW_DESCRIPTION) @RequestParam(required = false) String view,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
+        Set<ProductField> projection = ProductField.resolve(fields, view);
+        String etag = httpCachePolicy.weakEtag("products", productService.getCatalogRevision(), webRequest);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "products.list");
+        }
+        Page<?> products = projection != null
+                ? productService.getAllProductSummaries(projection, pageable)
+                : productService.getAllProducts(pageable);
+        return httpCachePolicy.ok(etag, "products.list")
+                .body(ApiResponse.success(products, "Products retrieved successfully"));
     }
 
     @Operation(summary = "Get product by ID", description = "Returns a single product by its numeric ID.")
@@ -56,9 +89,18 @@ public class ProductController {
     })
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ProductDTO>> getProductById(
-            @Parameter(description = "Numeric ID of the product", required = true, example = "1") @PathVariable Long id) {
+            @Parameter(description = "Numeric ID of the product", required = true, example = "1") @PathVariable Long id,
+            WebRequest webRequest) {
+        String etag = httpCachePolicy.strongEtag("product", id, productService.getProductRevision(id),
+                webRequest);
+        // Detail views rank typeahead suggestions; revalidations count too
+        productSuggestService.recordView(id);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "products.get");
+        }
         ProductDTO product = productService.getProductById(id);
-        return ResponseEntity.ok(ApiResponse.success(product, "Product retrieved successfully"));
+        return httpCachePolicy.ok(etag, "products.get")
+                .body(ApiResponse.success(product, "Product retrieved successfully"));
     }
 
     @Operation(summary = "Get product by SKU", description = "Returns a single product by its unique SKU code.")
@@ -68,43 +110,105 @@ public class ProductController {
     })
     @GetMapping("/sku/{sku}")
     public ResponseEntity<ApiResponse<ProductDTO>> getProductBySku(
-            @Parameter(description = "SKU code (e.g. PROD-001)", required = true, example = "PROD-001") @PathVariable String sku) {
+            @Parameter(description = "SKU code (e.g. PROD-001)", required = true, example = "PROD-001") @PathVariable String sku,
+            WebRequest webRequest) {
+        String etag = httpCachePolicy.strongEtag("product-sku", sku, productService.getProductRevisionBySku(sku),
+                webRequest);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "products.get");
+        }
         ProductDTO product = productService.getProductBySku(sku);
-        return ResponseEntity.ok(ApiResponse.success(product, "Product retrieved successfully"));
+        return httpCachePolicy.ok(etag, "products.get")
+                .body(ApiResponse.success(product, "Product retrieved successfully"));
     }
 
-    @Operation(summary = "Filter / search products", description = "Advanced search with optional filters: keyword search, category, brand, price range, status, stock availability, and featured flag.")
+    @Operation(summary = "Filter / search products", description = "Advanced search with optional filters: keyword search, category, brand, price range, status, stock availability, featured flag, and tags. Use fields= or view=summary to return sparse rows.")
     @GetMapping("/filter")
-    public ResponseEntity<ApiResponse<Page<ProductDTO>>> filterProducts(
+    public ResponseEntity<ApiResponse<Page<?>>> filterProducts(
             @Parameter(description = "Search keyword (matches name or description)") @RequestParam(required = false) String search,
             @Parameter(description = "Filter by category ID") @RequestParam(required = false) Long categoryId,
             @Parameter(description = "Filter by brand name") @RequestParam(required = false) String brand,
             @Parameter(description = "Minimum price (inclusive)") @RequestParam(required = false) BigDecimal minPrice,
             @Parameter(description = "Maximum price (inclusive)") @RequestParam(required = false) BigDecimal maxPrice,
             @Parameter(description = "Filter by status: ACTIVE, DRAFT, INACTIVE, ARCHIVED") @RequestParam(required = false) String status,
-            @Parameter(description = "If true, returns only products with quantity > 0") @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "If true, returns only products with availableQuantity > 0 (stock not held by reservations)") @RequestParam(required = false) Boolean inStock,
             @Parameter(description = "If true, returns only featured products") @RequestParam(required = false) Boolean featured,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @Parameter(description = ANY_TAGS_DESCRIPTION) @RequestParam(required = false) List<String> anyTags,
+            @Parameter(description = ALL_TAGS_DESCRIPTION) @RequestParam(required = false) List<String> allTags,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+            @Parameter(description = VIEW_DESCRIPTION) @RequestParam(required = false) String view,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
+
+        Set<ProductField> projection = ProductField.resolve(fields, view);
+        String etag = httpCachePolicy.weakEtag("products-filter", productService.getCatalogRevision(), webRequest);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "products.filter");
+        }
+        Page<?> products = projection != null
+                ? productService.searchProductSummaries(search, categoryId, brand, minPrice, maxPrice, status,
+                        inStock, featured, anyTags, allTags, projection, pageable)
+                : productService.searchProducts(search, categoryId, brand, minPrice, maxPrice, status,
+                        inStock, featured, anyTags, allTags, pageable);
+        return httpCachePolicy.ok(etag, "products.filter")
+                .body(ApiResponse.success(products, "Filter results retrieved successfully"));
+    }
 
-        Page<ProductDTO> products = productService.searchProducts(search, categoryId, brand, minPrice, maxPrice, status,
-                inStock, featured, pageable);
-        return ResponseEntity.ok(ApiResponse.success(products, "Filter results retrieved successfully"));
+    @Operation(summary = "Tag facet", description = "Counts the products matching the same filters as /filter per tag, most frequent first. Tags are compared case-insensitively and returned lower-cased.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Tag counts retrieved successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid limit or too many tags")
+    })
+    @GetMapping("/facets/tags")
+    public ResponseEntity<ApiResponse<List<TagCountDTO>>> getTagFacet(
+            @Parameter(description = "Search keyword (matches name or description)") @RequestParam(required = false) String search,
+            @Parameter(description = "Filter by category ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Filter by brand name") @RequestParam(required = false) String brand,
+            @Parameter(description = "Minimum price (inclusive)") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price (inclusive)") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Filter by status: ACTIVE, DRAFT, INACTIVE, ARCHIVED") @RequestParam(required = false) String status,
+            @Parameter(description = "If true, counts only products with availableQuantity > 0") @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "If true, counts only featured products") @RequestParam(required = false) Boolean featured,
+            @Parameter(description = ANY_TAGS_DESCRIPTION) @RequestParam(required = false) List<String> anyTags,
+            @Parameter(description = ALL_TAGS_DESCRIPTION) @RequestParam(required = false) List<String> allTags,
+            @Parameter(description = "Maximum number of tags to return (1-100)", example = "20") @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        String etag = httpCachePolicy.weakEtag("products-tag-facet", productService.getCatalogRevision(), webRequest);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "products.facets");
+        }
+        List<TagCountDTO> counts = productService.getTagCounts(search, categoryId, brand, minPrice, maxPrice, status,
+                inStock, featured, anyTags, allTags, limit);
+        return httpCachePolicy.ok(etag, "products.facets")
+                .body(ApiResponse.success(counts, "Tag counts retrieved successfully"));
     }
 
     @Operation(summary = "Get featured products", description = "Returns a paginated list of products marked as featured.")
     @GetMapping("/featured")
     public ResponseEntity<ApiResponse<Page<ProductDTO>>> getFeaturedProducts(
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
+        String etag = httpCachePolicy.weakEtag("products-featured", productService.getCatalogRevision(), webRequest);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "products.featured");
+        }
         Page<ProductDTO> products = productService.getFeaturedProducts(pageable);
-        return ResponseEntity.ok(ApiResponse.success(products, "Featured products retrieved successfully"));
+        return httpCachePolicy.ok(etag, "products.featured")
+                .body(ApiResponse.success(products, "Featured products retrieved successfully"));
     }
 
-    @Operation(summary = "Get low-stock products", description = "Returns products where quantity is at or below the product's lowStockThreshold (default: 5).")
+    @Operation(summary = "Get low-stock products", description = "Returns products whose availableQuantity (quantity minus reserved) is at or below the product's lowStockThreshold (default: 5).")
     @GetMapping("/low-stock")
     public ResponseEntity<ApiResponse<Page<ProductDTO>>> getLowStockProducts(
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
+        String etag = httpCachePolicy.weakEtag("products-low-stock", productService.getCatalogRevision(), webRequest);
+        if (httpCachePolicy.isNotModified(webRequest, etag)) {
+            return httpCachePolicy.notModified(etag, "products.low-stock");
+        }
         Page<ProductDTO> products = productService.getLowStockProducts(pageable);
-        return ResponseEntity.ok(ApiResponse.success(products, "Low stock products retrieved successfully"));
+        return httpCachePolicy.ok(etag, "products.low-stock")
+                .body(ApiResponse.success(products, "Low stock products retrieved successfully"));
     }
 
     // ─── WRITE ─────────────────────────────────────────────────────────────
@@ -135,6 +239,22 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(updatedProduct, "Product updated successfully"));
     }
 
+    @Operation(summary = "Patch a product", description = "JSON Merge Patch (RFC 7396): only the given fields change and null clears a field. "
+            + "tags and images replace the whole set, but only the added and removed elements are written. "
+            + "A patch that changes nothing is not written, keeps the product's version and ETag, and leaves the caches alone.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product patched or already as requested"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "SKU changed, required field set to null, or invalid values"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product or category not found")
+    })
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<ApiResponse<ProductDTO>> patchProduct(
+            @Parameter(description = "Numeric ID of the product to patch", required = true) @PathVariable Long id,
+            @Valid @RequestBody ProductPatchRequest patch) {
+        ProductDTO patchedProduct = productService.patchProduct(id, patch);
+        return ResponseEntity.ok(ApiResponse.success(patchedProduct, "Product patched successfully"));
+    }
+
     @Operation(summary = "Update product status only", description = "Quickly change the status of a product. Valid values: ACTIVE, DRAFT, INACTIVE, ARCHIVED.")
     @PatchMapping("/{id}/status")
     public ResponseEntity<ApiResponse<ProductDTO>> updateProductStatus(
@@ -144,7 +264,33 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(updatedProduct, "Product status updated successfully"));
     }
 
-    @Operation(summary = "Delete a product", description = "Soft-deletes a product by setting its status to ARCHIVED. It will no longer appear in search results.")
+    @Operation(summary = "Correct stock and/or status", description = "Sets the quantity, the status or both. Meant for high-frequency inventory feeds: "
+            + "with app.write-behind.enabled the correction is journaled and acknowledged with 202, then coalesced with other corrections to the same product and written in batches. "
+            + "Reads of the product see it immediately. Otherwise it is written synchronously and the updated product is returned.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stock updated"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Stock update accepted for write-behind"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Neither quantity nor status given, or invalid values"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found (synchronous mode only)")
+    })
+    @PatchMapping("/{id}/stock")
+    public ResponseEntity<ApiResponse<ProductDTO>> updateStock(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long id,
+            @Valid @RequestBody StockUpdateRequest request) {
+        StockWriteBehindBuffer buffer = stockWriteBehind.getIfAvailable();
+        if (buffer == null) {
+            ProductDTO updatedProduct = productService.updateStock(id, request.getQuantity(), request.getStatus());
+            return ResponseEntity.ok(ApiResponse.success(updatedProduct, "Product stock updated successfully"));
+        }
+        if (request.getQuantity() == null && request.getStatus() == null) {
+            throw new BadRequestException("Provide quantity, status or both");
+        }
+        buffer.submit(id, request.getQuantity(), request.getStatus());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(null, "Product stock update accepted"));
+    }
+
+    @Operation(summary = "Delete a product", description = "Soft-deletes a product by setting its status to ARCHIVED. It will no longer appear in search results. With app.archive.enabled, it is moved to the archive table after app.archive.retention (30 days by default) and can no longer be retrieved.")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product archived"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found")
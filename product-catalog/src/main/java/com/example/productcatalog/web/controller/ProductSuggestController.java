@@ -0,0 +1,45 @@
+package com.example.productcatalog.web.controller;
+
+import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.service.ProductSuggestService;
+import com.example.productcatalog.web.dto.SuggestionDTO;
+import com.example.productcatalog.web.support.HttpCachePolicy;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Products", description = "Endpoints for managing the product catalog — CRUD, filtering, featured, and low-stock queries")
+@RestController
+@RequestMapping("/api/v1/products")
+@RequiredArgsConstructor
+public class ProductSuggestController {
+
+    private final ProductSuggestService productSuggestService;
+    private final HttpCachePolicy httpCachePolicy;
+
+    @Operation(summary = "Typeahead suggestions", description = "Returns the most popular active products whose name, a word of their name, or SKU starts with q, "
+            + "plus matching brands. Matching ignores case and accents. Popularity combines product views and the featured flag.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Suggestions, best first"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<SuggestionDTO>>> suggest(
+            @Parameter(description = "What the user has typed so far", required = true, example = "iph") @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions (capped by app.suggest.top-k)", example = "5") @RequestParam(defaultValue = "5") int limit) {
+        List<SuggestionDTO> suggestions = productSuggestService.suggest(q, limit);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, httpCachePolicy.cacheControl("products.suggest"))
+                .body(ApiResponse.success(suggestions, "Suggestions retrieved successfully"));
+    }
+}
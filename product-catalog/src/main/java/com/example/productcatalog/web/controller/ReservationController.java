@@ -0,0 +1,84 @@
+package com.example.productcatalog.web.controller;
+
+import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.service.ReservationService;
+import com.example.productcatalog.web.dto.ReservationDTO;
+import com.example.productcatalog.web.dto.ReserveStockRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Tag(name = "Reservations", description = "Checkout holds on product stock")
+@RestController
+@RequestMapping("/api/v1/reservations")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reservations.enabled", havingValue = "true")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @Operation(summary = "Reserve stock", description = "Holds units of an ACTIVE product until the hold is confirmed, released or expires. "
+            + "Held units are no longer available: the product's availableQuantity, inStock and lowStock reflect them within app.reservations.flush-interval.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Stock reserved"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid quantity or TTL, or product not ACTIVE"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Not enough stock available")
+    })
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReservationDTO>> reserve(@Valid @RequestBody ReserveStockRequest request) {
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : null;
+        ReservationDTO reservation = reservationService.reserve(request.getProductId(), request.getQuantity(), ttl);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(reservation, "Stock reserved successfully"));
+    }
+
+    @Operation(summary = "Get a reservation", description = "Returns an active or recently confirmed reservation.")
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ReservationDTO>> getReservation(
+            @Parameter(description = "Reservation ID", required = true) @PathVariable UUID id) {
+        ReservationDTO reservation = reservationService.getReservation(id);
+        return ResponseEntity.ok(ApiResponse.success(reservation, "Reservation retrieved successfully"));
+    }
+
+    @Operation(summary = "Confirm a reservation", description = "Turns the hold into a sale: its units leave the product's quantity. Returns once the sale is committed; "
+            + "confirming an already confirmed reservation returns the same result.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Reservation confirmed"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Reservation not found, released or expired")
+    })
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ApiResponse<ReservationDTO>> confirm(
+            @Parameter(description = "Reservation ID", required = true) @PathVariable UUID id) {
+        ReservationDTO reservation = reservationService.confirm(id);
+        return ResponseEntity.ok(ApiResponse.success(reservation, "Reservation confirmed successfully"));
+    }
+
+    @Operation(summary = "Release a reservation", description = "Gives the held units back before the hold expires.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Reservation released"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Reservation not found, confirmed or expired")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<ReservationDTO>> release(
+            @Parameter(description = "Reservation ID", required = true) @PathVariable UUID id) {
+        ReservationDTO reservation = reservationService.release(id);
+        return ResponseEntity.ok(ApiResponse.success(reservation, "Reservation released successfully"));
+    }
+}
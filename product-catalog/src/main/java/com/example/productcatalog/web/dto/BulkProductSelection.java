@@ -0,0 +1,58 @@
+package com.example.productcatalog.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Which products a bulk operation applies to: either an explicit id list or
+ * a filter with the same semantics as {@code GET /products/filter}.
+ */
+@Schema(description = "Products to update — provide either ids or filter, not both")
+@Data
+@NoArgsConstructor
+public class BulkProductSelection {
+
+    @Schema(description = "Explicit product IDs", example = "[1, 2, 3]")
+    @Size(max = 10000)
+    private List<Long> ids;
+
+    @Schema(description = "Filter selecting the products; same semantics as GET /products/filter")
+    @Valid
+    private Filter filter;
+
+    @Schema(description = "Product filter for bulk operations")
+    @Data
+    @NoArgsConstructor
+    public static class Filter {
+
+        @Schema(description = "Search term matched against name and description", example = "iphone")
+        private String search;
+
+        @Schema(description = "Category ID", example = "3")
+        private Long categoryId;
+
+        @Schema(description = "Brand (case-insensitive)", example = "Apple")
+        private String brand;
+
+        @Schema(description = "Minimum price (inclusive)", example = "100")
+        private BigDecimal minPrice;
+
+        @Schema(description = "Maximum price (inclusive)", example = "1500")
+        private BigDecimal maxPrice;
+
+        @Schema(description = "Status; when omitted ARCHIVED and DELETED products are excluded", example = "ACTIVE")
+        private String status;
+
+        @Schema(description = "Only products with quantity > 0", example = "true")
+        private Boolean inStock;
+
+        @Schema(description = "Featured flag", example = "false")
+        private Boolean featured;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.productcatalog.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Request body for updating fields of many products at once — at least one change is required")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class BulkProductUpdateRequest extends BulkProductSelection {
+
+    @Schema(description = "Set the featured flag", example = "false")
+    private Boolean featured;
+
+    @Schema(description = "Move the products to this category", example = "3")
+    private Long categoryId;
+
+    @Schema(description = "Set the low-stock alert threshold", example = "10")
+    @Min(0)
+    private Integer lowStockThreshold;
+
+    @Schema(description = "Adjust the selling price")
+    @Valid
+    private PriceAdjustment priceAdjustment;
+
+    @Schema(description = "Price change applied to every selected product. Products whose price would drop to zero or below are skipped.")
+    @Data
+    @NoArgsConstructor
+    public static class PriceAdjustment {
+
+        public enum Type {
+            /** Relative change in percent, e.g. -10 for 10% off. */
+            PERCENT,
+            /** Amount added to the price; negative to lower it. */
+            AMOUNT,
+            /** New absolute price. */
+            SET
+        }
+
+        @Schema(description = "PERCENT | AMOUNT | SET", example = "PERCENT", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull
+        private Type type;
+
+        @Schema(description = "Percent, amount or new price depending on type", example = "-10", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull
+        @Digits(integer = 17, fraction = 2)
+        private BigDecimal value;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.productcatalog.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Request body for changing the status of many products at once")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class BulkStatusRequest extends BulkProductSelection {
+
+    @Schema(description = "New status: ACTIVE | DRAFT | INACTIVE | ARCHIVED", example = "ARCHIVED", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank
+    private String status;
+}
@@ -0,0 +1,22 @@
+package com.example.productcatalog.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk operation. {@code updated} can be lower than
+ * {@code matched} when a guard skipped rows (e.g. a price would become
+ * non-positive), or when a product no longer matched the selection, or was
+ * removed, by the time its chunk was updated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResult {
+    private long matched;
+    private long updated;
+    private int chunks;
+}
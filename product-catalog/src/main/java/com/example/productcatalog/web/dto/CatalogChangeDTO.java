@@ -0,0 +1,20 @@
+package com.example.productcatalog.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeDTO {
+    private Long seq;
+    private String entityType;
+    private Long entityId;
+    private String operation;
+    private LocalDateTime changedAt;
+}
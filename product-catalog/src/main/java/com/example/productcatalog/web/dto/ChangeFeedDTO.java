@@ -0,0 +1,22 @@
+package com.example.productcatalog.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A batch of the change feed. Pass {@code nextToken} as {@code since} on the
+ * next poll; when {@code hasMore} is true, poll again right away.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDTO {
+    private List<CatalogChangeDTO> changes;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,28 @@
+package com.example.productcatalog.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Catalog totals for the admin dashboard. "Live" products are those not
+ * ARCHIVED or DELETED; category, featured and low-stock counts cover live
+ * products only. Products moved to {@code products_archive} are no longer
+ * counted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDTO {
+    private long totalProducts;
+    private long liveProducts;
+    private Map<String, Long> productsByStatus;
+    /** Keyed by category id, {@code none} for products without a category */
+    private Map<String, Long> productsByCategory;
+    private long featuredProducts;
+    private long lowStockProducts;
+}
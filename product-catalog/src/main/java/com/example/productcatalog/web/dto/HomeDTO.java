@@ -0,0 +1,29 @@
+package com.example.productcatalog.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Everything the dashboard and storefront home render, in one response.
+ * A section that could not be loaded in time is {@code null} and named in
+ * {@code unavailableSections}; the client can fetch it from its own
+ * endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HomeDTO {
+    private DashboardDTO dashboard;
+    private List<CategoryDTO> categories;
+    private Page<ProductDTO> featuredProducts;
+    private Page<ProductDTO> lowStockProducts;
+    /** Live products, newest first */
+    private Page<ProductDTO> recentProducts;
+    private List<String> unavailableSections;
+}
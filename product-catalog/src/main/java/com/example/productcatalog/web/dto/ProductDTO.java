@@ -27,6 +27,9 @@ public class ProductDTO implements Serializable {
     private BigDecimal costPrice;
     private String status;
     private Integer quantity;
+    // Held by unexpired reservations; availableQuantity = quantity - reservedQuantity
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
     private Integer lowStockThreshold;
     private String brand;
     private Double weightGrams;
@@ -36,7 +39,7 @@ public class ProductDTO implements Serializable {
     private Set<String> tags;
     // Renamed from 'images' to 'imageUrls' to match frontend type
     private List<String> imageUrls;
-    // Computed fields: derived from quantity and lowStockThreshold
+    // Computed fields: derived from availableQuantity and lowStockThreshold
     private boolean inStock;
     private boolean lowStock;
     private LocalDateTime createdAt;
@@ -0,0 +1,163 @@
+package com.example.productcatalog.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JSON Merge Patch (RFC 7396) of a product. A member that is absent leaves
+ * the field unchanged and an explicit {@code null} clears it, so unlike
+ * {@link UpdateProductRequest} the setters record which members were given.
+ */
+@Schema(description = "JSON Merge Patch of a product: absent fields are left unchanged, null clears a field")
+@Getter
+public class ProductPatchRequest {
+
+    @Getter(AccessLevel.NONE)
+    private final Set<String> present = new HashSet<>();
+
+    @Schema(description = "Must match the current SKU if given; SKUs cannot be changed", example = "ELEC-PHN-IP15")
+    private String sku;
+
+    @Schema(description = "Display name; cannot be null", example = "Apple iPhone 15 Pro Max")
+    private String name;
+
+    @Schema(description = "Full product description", example = "Updated description with new features.")
+    private String description;
+
+    @Schema(description = "Short one-line description", example = "Bigger screen, longer battery life.")
+    private String shortDescription;
+
+    @Schema(description = "Selling price in USD; cannot be null", example = "1099.99")
+    @DecimalMin(value = "0.0", inclusive = false)
+    private BigDecimal price;
+
+    @Schema(description = "Crossed-out 'was' price", example = "1199.99")
+    private BigDecimal compareAtPrice;
+
+    @Schema(description = "Internal cost price", example = "850.00")
+    private BigDecimal costPrice;
+
+    @Schema(description = "Status: ACTIVE | DRAFT | INACTIVE | ARCHIVED; cannot be null", example = "ACTIVE")
+    private String status;
+
+    @Schema(description = "Inventory quantity; cannot be null", example = "50")
+    private Integer quantity;
+
+    @Schema(description = "Low-stock alert threshold", example = "10")
+    private Integer lowStockThreshold;
+
+    @Schema(description = "Brand or manufacturer", example = "Apple")
+    private String brand;
+
+    @Schema(description = "Weight in grams", example = "221.0")
+    private Double weightGrams;
+
+    @Schema(description = "Category ID; null removes the category", example = "3")
+    private Long categoryId;
+
+    @Schema(description = "Featured flag; cannot be null", example = "true")
+    private Boolean featured;
+
+    @Schema(description = "Complete set of tags; null removes all", example = "[\"smartphone\", \"apple\", \"pro-max\"]")
+    private Set<String> tags;
+
+    @Schema(description = "Complete set of image URLs; null removes all", example = "[\"https://cdn.example.com/iphone15-promax.jpg\"]")
+    private Set<String> images;
+
+    /** Whether the patch has the member, possibly as {@code null}. */
+    public boolean has(String field) {
+        return present.contains(field);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return present.isEmpty();
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+        present.add("sku");
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        present.add("name");
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        present.add("description");
+    }
+
+    public void setShortDescription(String shortDescription) {
+        this.shortDescription = shortDescription;
+        present.add("shortDescription");
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+        present.add("price");
+    }
+
+    public void setCompareAtPrice(BigDecimal compareAtPrice) {
+        this.compareAtPrice = compareAtPrice;
+        present.add("compareAtPrice");
+    }
+
+    public void setCostPrice(BigDecimal costPrice) {
+        this.costPrice = costPrice;
+        present.add("costPrice");
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+        present.add("status");
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+        present.add("quantity");
+    }
+
+    public void setLowStockThreshold(Integer lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+        present.add("lowStockThreshold");
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+        present.add("brand");
+    }
+
+    public void setWeightGrams(Double weightGrams) {
+        this.weightGrams = weightGrams;
+        present.add("weightGrams");
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+        present.add("categoryId");
+    }
+
+    public void setFeatured(Boolean featured) {
+        this.featured = featured;
+        present.add("featured");
+    }
+
+    public void setTags(Set<String> tags) {
+        this.tags = tags;
+        present.add("tags");
+    }
+
+    public void setImages(Set<String> images) {
+        this.images = images;
+        present.add("images");
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.productcatalog.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sparse product row for list views. Only the fields requested through
+ * {@code fields=} or {@code view=} are populated; the rest are omitted from
+ * the JSON instead of being serialized as null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSummaryDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private Long id;
+    private String sku;
+    private String name;
+    private String shortDescription;
+    private BigDecimal price;
+    private BigDecimal compareAtPrice;
+    private String status;
+    private Integer quantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+    private Integer lowStockThreshold;
+    private String brand;
+    private Long categoryId;
+    private Boolean featured;
+    private String imageUrl;
+    private Boolean inStock;
+    private Boolean lowStock;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
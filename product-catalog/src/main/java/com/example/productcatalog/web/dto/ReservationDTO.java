@@ -0,0 +1,25 @@
+package com.example.productcatalog.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+    private UUID id;
+    private Long productId;
+    private int quantity;
+    // ACTIVE, CONFIRMED or RELEASED
+    private String status;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    // Units of the product that can still be reserved, right after this operation
+    private long availableQuantity;
+}
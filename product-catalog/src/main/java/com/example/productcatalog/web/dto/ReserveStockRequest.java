@@ -0,0 +1,30 @@
+package com.example.productcatalog.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Hold on stock of one product until it is confirmed, released or expires")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReserveStockRequest {
+
+    @Schema(description = "Product to reserve", example = "1")
+    @NotNull
+    private Long productId;
+
+    @Schema(description = "Units to hold", example = "2")
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    @Schema(description = "Seconds until the hold expires; app.reservations.default-ttl if omitted, at most app.reservations.max-ttl", example = "600")
+    @Min(1)
+    private Long ttlSeconds;
+}
@@ -0,0 +1,25 @@
+package com.example.productcatalog.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Quantity and/or status correction for one product — at least one field is required")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateRequest {
+
+    @Schema(description = "New inventory quantity", example = "42")
+    @Min(0)
+    private Integer quantity;
+
+    @Schema(description = "New status: ACTIVE | DRAFT | INACTIVE | ARCHIVED", example = "ACTIVE")
+    @Pattern(regexp = "[A-Z_]{1,50}", message = "must be an upper-case status such as ACTIVE")
+    private String status;
+}
@@ -0,0 +1,23 @@
+package com.example.productcatalog.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One typeahead entry. Brand suggestions carry only {@code type} and
+ * {@code text}; product suggestions add the id and SKU to link to.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionDTO {
+    private String type;
+    private String text;
+    private Long productId;
+    private String sku;
+}
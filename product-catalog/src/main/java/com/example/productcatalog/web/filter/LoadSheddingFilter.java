@@ -0,0 +1,94 @@
+package com.example.productcatalog.web.filter;
+
+import com.example.productcatalog.concurrency.AdaptiveLimit;
+import com.example.productcatalog.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Sheds API load with a fast 503 once a budget's adaptive limit is reached.
+ *
+ * <p>Requests are split into three budgets so that an expensive class of
+ * traffic cannot starve the others: cheap reads (single lookups, featured,
+ * low-stock, categories — mostly served from cache), {@code /filter}
+ * searches and {@code /facets} counts, and writes.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/";
+
+    private final AdaptiveLimit readLimit;
+    private final AdaptiveLimit searchLimit;
+    private final AdaptiveLimit writeLimit;
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public LoadSheddingFilter(AdaptiveLimit readLimit, AdaptiveLimit searchLimit, AdaptiveLimit writeLimit,
+            long retryAfterSeconds, ObjectMapper objectMapper) {
+        this.readLimit = readLimit;
+        this.searchLimit = searchLimit;
+        this.writeLimit = writeLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Actuator probes and API docs must keep answering while shedding
+        return !request.getRequestURI().startsWith(API_PREFIX)
+                || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveLimit limit = budgetFor(request);
+        if (!limit.tryAcquire()) {
+            reject(request, response, limit);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limit.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private AdaptiveLimit budgetFor(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return writeLimit;
+        }
+        String uri = request.getRequestURI();
+        return uri.contains("/filter") || uri.contains("/facets/") ? searchLimit : readLimit;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, AdaptiveLimit limit)
+            throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message("Server is at capacity for " + limit.getName() + " requests, please retry")
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
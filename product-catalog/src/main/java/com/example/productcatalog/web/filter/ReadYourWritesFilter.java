@@ -0,0 +1,168 @@
+package com.example.productcatalog.web.filter;
+
+import com.example.productcatalog.datasource.ReadYourWritesContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Pins a client's reads to the primary for a short window after that client
+ * wrote, so it always sees its own changes even while a replica is behind.
+ *
+ * <p>The window travels with the client, not with the pod that took the
+ * write: a successful write answers with the {@code primary-reads-until}
+ * cookie and the {@code X-Primary-Reads-Until} header, both holding the end
+ * of the window in epoch milliseconds. A read that sends either back before
+ * then, to any instance, runs on the primary. Browsers return the cookie on
+ * their own; other clients can echo the header. Pods compare the deadline
+ * with their own clock, so the window assumes clocks synced to well under
+ * its length.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "primary-reads-until";
+    public static final String HEADER = "X-Primary-Reads-Until";
+
+    private static final String API_PREFIX = "/api/";
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    public ReadYourWritesFilter(Duration window) {
+        this(window, System::currentTimeMillis);
+    }
+
+    ReadYourWritesFilter(Duration window, LongSupplier clock) {
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isWrite(request)) {
+            if (insideWindow(request)) {
+                ReadYourWritesContext.requirePrimary();
+            }
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ReadYourWritesContext.clear();
+            }
+            return;
+        }
+        // The write itself runs on the primary; reads inside the same request follow it
+        ReadYourWritesContext.requirePrimary();
+        WindowOpeningResponse windowOpening = new WindowOpeningResponse(response);
+        try {
+            chain.doFilter(request, windowOpening);
+        } finally {
+            ReadYourWritesContext.clear();
+            // Responses without a body are still uncommitted here
+            windowOpening.openWindowIfSuccessful();
+        }
+    }
+
+    private boolean insideWindow(HttpServletRequest request) {
+        String until = request.getHeader(HEADER);
+        if (!StringUtils.hasText(until)) {
+            Cookie cookie = WebUtils.getCookie(request, COOKIE);
+            until = cookie != null ? cookie.getValue() : null;
+        }
+        if (!StringUtils.hasText(until)) {
+            return false;
+        }
+        try {
+            long remaining = Long.parseLong(until.trim()) - clock.getAsLong();
+            // A deadline further out than one window was not issued here
+            return remaining > 0 && remaining <= windowMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    /**
+     * Adds the window to a successful write's response just before the body
+     * starts, which is the last moment headers can still be set and the
+     * first at which the status is final.
+     */
+    private final class WindowOpeningResponse extends HttpServletResponseWrapper {
+
+        private boolean decided;
+
+        WindowOpeningResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            openWindowIfSuccessful();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            openWindowIfSuccessful();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            openWindowIfSuccessful();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            decided = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            decided = true;
+            super.sendError(sc, msg);
+        }
+
+        void openWindowIfSuccessful() {
+            if (decided || isCommitted()) {
+                return;
+            }
+            decided = true;
+            if (getStatus() >= 400) {
+                return;
+            }
+            String until = Long.toString(clock.getAsLong() + windowMillis);
+            Cookie cookie = new Cookie(COOKIE, until);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            addCookie(cookie);
+            setHeader(HEADER, until);
+        }
+    }
+}
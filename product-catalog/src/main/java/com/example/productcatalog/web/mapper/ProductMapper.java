@@ -1,8 +1,10 @@
 package com.example.productcatalog.web.mapper;
 
 import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.repository.projection.ProductField;
 import com.example.productcatalog.web.dto.CreateProductRequest;
 import com.example.productcatalog.web.dto.ProductDTO;
+import com.example.productcatalog.web.dto.ProductSummaryDTO;
 import com.example.productcatalog.web.dto.UpdateProductRequest;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
@@ -11,6 +13,11 @@ import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
+import jakarta.persistence.Tuple;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
 @Mapper(componentModel = "spring")
 public interface ProductMapper {
 
@@ -18,15 +25,18 @@ public interface ProductMapper {
     @Mapping(target = "categoryName", source = "category.name")
     // Map entity's 'images' Set to DTO's 'imageUrls' List
     @Mapping(target = "imageUrls", source = "images")
-    // Compute inStock: true if quantity > 0
-    @Mapping(target = "inStock", expression = "java(product.getQuantity() != null && product.getQuantity() > 0)")
-    // Compute lowStock: true if quantity <= lowStockThreshold (using default of 5
-    // if null)
-    @Mapping(target = "lowStock", expression = "java(product.getQuantity() != null && product.getQuantity() <= (product.getLowStockThreshold() != null ? product.getLowStockThreshold() : 5))")
+    // Stock held by reservations is not available
+    @Mapping(target = "availableQuantity", expression = "java(product.getAvailableQuantity())")
+    // Compute inStock: true if availableQuantity > 0
+    @Mapping(target = "inStock", expression = "java(product.getAvailableQuantity() > 0)")
+    // Compute lowStock: true if availableQuantity <= lowStockThreshold (using
+    // default of 5 if null)
+    @Mapping(target = "lowStock", expression = "java(product.getAvailableQuantity() <= (product.getLowStockThreshold() != null ? product.getLowStockThreshold() : 5))")
     ProductDTO toDTO(Product product);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "category", ignore = true) // Handled in service
+    @Mapping(target = "reservedQuantity", ignore = true) // Only changed by reservations
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
@@ -36,8 +46,50 @@ public interface ProductMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "sku", ignore = true) // SKU should not be updated
     @Mapping(target = "category", ignore = true) // Handled in service
+    @Mapping(target = "reservedQuantity", ignore = true) // Only changed by reservations
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
     void updateProductFromRequest(UpdateProductRequest request, @MappingTarget Product product);
+
+    /**
+     * Maps a column tuple from {@code ProductRepository#findColumns} to a sparse
+     * summary. Derived flags use the same rules as {@link #toDTO(Product)}.
+     */
+    default ProductSummaryDTO toSummary(Tuple tuple, Set<ProductField> fields) {
+        ProductSummaryDTO summary = new ProductSummaryDTO();
+        for (ProductField field : fields) {
+            switch (field) {
+                case ID -> summary.setId(tuple.get(field.name(), Long.class));
+                case SKU -> summary.setSku(tuple.get(field.name(), String.class));
+                case NAME -> summary.setName(tuple.get(field.name(), String.class));
+                case SHORT_DESCRIPTION -> summary.setShortDescription(tuple.get(field.name(), String.class));
+                case PRICE -> summary.setPrice(tuple.get(field.name(), BigDecimal.class));
+                case COMPARE_AT_PRICE -> summary.setCompareAtPrice(tuple.get(field.name(), BigDecimal.class));
+                case STATUS -> summary.setStatus(tuple.get(field.name(), String.class));
+                case QUANTITY -> summary.setQuantity(tuple.get(field.name(), Integer.class));
+                case RESERVED_QUANTITY -> summary.setReservedQuantity(tuple.get(field.name(), Integer.class));
+                case AVAILABLE_QUANTITY -> summary.setAvailableQuantity(availableQuantity(tuple));
+                case LOW_STOCK_THRESHOLD -> summary.setLowStockThreshold(tuple.get(field.name(), Integer.class));
+                case BRAND -> summary.setBrand(tuple.get(field.name(), String.class));
+                case CATEGORY_ID -> summary.setCategoryId(tuple.get(field.name(), Long.class));
+                case FEATURED -> summary.setFeatured(tuple.get(field.name(), Boolean.class));
+                case IMAGE_URL -> summary.setImageUrl(tuple.get(field.name(), String.class));
+                case CREATED_AT -> summary.setCreatedAt(tuple.get(field.name(), LocalDateTime.class));
+                case UPDATED_AT -> summary.setUpdatedAt(tuple.get(field.name(), LocalDateTime.class));
+                case IN_STOCK -> summary.setInStock(availableQuantity(tuple) > 0);
+                case LOW_STOCK -> {
+                    Integer threshold = tuple.get(ProductField.LOW_STOCK_THRESHOLD.name(), Integer.class);
+                    summary.setLowStock(availableQuantity(tuple) <= (threshold != null ? threshold : 5));
+                }
+            }
+        }
+        return summary;
+    }
+
+    private static int availableQuantity(Tuple tuple) {
+        Integer quantity = tuple.get(ProductField.QUANTITY.name(), Integer.class);
+        Integer reserved = tuple.get(ProductField.RESERVED_QUANTITY.name(), Integer.class);
+        return (quantity != null ? quantity : 0) - (reserved != null ? reserved : 0);
+    }
 }
@@ -0,0 +1,115 @@
+package com.example.productcatalog.web.support;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds ETags and Cache-Control headers for conditional GETs.
+ *
+ * <p>Controllers compute the ETag from a cheap revision lookup and call
+ * {@link #isNotModified} before fetching or mapping the resource, so a
+ * matching {@code If-None-Match} costs one index lookup and no serialization.
+ *
+ * <p>Each {@link WireFormat} is a separate representation, so non-JSON
+ * responses get their own ETags and every response carries
+ * {@code Vary: Accept}.
+ *
+ * <p>Cache-Control is configured per endpoint through
+ * {@code app.http.cache-control.<endpoint>} and falls back to
+ * {@code app.http.cache-control.default}.
+ */
+@Component
+public class HttpCachePolicy {
+
+    private static final String DEFAULT_CACHE_CONTROL = "no-cache";
+
+    private final Environment environment;
+    private final Map<String, String> cacheControlByEndpoint = new ConcurrentHashMap<>();
+
+    public HttpCachePolicy(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Strong ETag for a single resource, derived from its entity version(s)
+     * and the negotiated format.
+     */
+    public String strongEtag(String resource, Object id, String revision, WebRequest request) {
+        String suffix = WireFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT)).getEtagSuffix();
+        return "\"" + resource + "-" + id + "-" + revision + (suffix != null ? "-" + suffix : "") + "\"";
+    }
+
+    /**
+     * Weak ETag for a list or filter page. The page content depends on the
+     * query parameters as well as on the catalog revision, so both are hashed.
+     */
+    public String weakEtag(String resource, String revision, WebRequest request) {
+        StringBuilder key = new StringBuilder(String.valueOf(revision));
+        // Sorted so that ?page=0&size=20 and ?size=20&page=0 share an ETag
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            key.append('&').append(name).append('=').append(String.join(",", values));
+        });
+        String suffix = WireFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT)).getEtagSuffix();
+        if (suffix != null) {
+            key.append('|').append(suffix);
+        }
+        String hash = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + resource + "-" + hash + "\"";
+    }
+
+    /**
+     * Weak comparison of the request's {@code If-None-Match} against the
+     * current ETag, as required for GET/HEAD by RFC 9110.
+     */
+    public boolean isNotModified(WebRequest request, String etag) {
+        String[] headers = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (headers == null) {
+            return false;
+        }
+        String current = opaqueTag(etag);
+        for (String header : headers) {
+            for (String candidate : header.split(",")) {
+                String trimmed = candidate.trim();
+                if ("*".equals(trimmed) || opaqueTag(trimmed).equals(current)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public <T> ResponseEntity<T> notModified(String etag, String endpoint) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl(endpoint))
+                .build();
+    }
+
+    public ResponseEntity.BodyBuilder ok(String etag, String endpoint) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl(endpoint));
+    }
+
+    public String cacheControl(String endpoint) {
+        return cacheControlByEndpoint.computeIfAbsent(endpoint, name -> environment.getProperty(
+                "app.http.cache-control." + name,
+                environment.getProperty("app.http.cache-control.default", DEFAULT_CACHE_CONTROL)));
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
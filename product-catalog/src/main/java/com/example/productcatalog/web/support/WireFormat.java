@@ -0,0 +1,61 @@
+package com.example.productcatalog.web.support;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Response encodings offered through {@code Accept}. JSON is the default;
+ * Smile and CBOR are binary encodings of the same Jackson model, so every
+ * DTO, error body and {@code @RequestBody} works in all three without extra
+ * mapping code.
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON, null),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile"), "smile"),
+    CBOR(MediaType.parseMediaType("application/cbor"), "cbor");
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+
+    WireFormat(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /** Distinguishes this encoding's ETags from the JSON ones; {@code null} for JSON. */
+    public String getEtagSuffix() {
+        return etagSuffix;
+    }
+
+    /**
+     * The format Spring MVC will pick for an {@code Accept} header: the
+     * highest-quality acceptable type, JSON on ties, wildcards and anything
+     * unparseable.
+     */
+    public static WireFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        WireFormat best = JSON;
+        double bestQuality = 0;
+        try {
+            for (MediaType requested : MediaType.parseMediaTypes(accept)) {
+                double quality = requested.getQualityValue();
+                for (WireFormat format : values()) {
+                    if (quality > bestQuality && requested.includes(format.mediaType)) {
+                        best = format;
+                        bestQuality = quality;
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.productcatalog.writebehind;
+
+import com.example.productcatalog.cache.DelegatingCache;
+import com.example.productcatalog.web.dto.ProductDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Applies buffered stock updates to products read from the product caches,
+ * so a cache hit never returns a quantity or status older than what the
+ * write-behind buffer has accepted.
+ */
+public class PendingStockCache extends DelegatingCache {
+
+    private final ObjectProvider<StockWriteBehindBuffer> buffer;
+
+    public PendingStockCache(Cache delegate, ObjectProvider<StockWriteBehindBuffer> buffer) {
+        super(delegate);
+        this.buffer = buffer;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = super.get(key);
+        if (wrapper != null && wrapper.get() instanceof ProductDTO product) {
+            return new SimpleValueWrapper(overlay(product));
+        }
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = super.get(key, type);
+        if (value instanceof ProductDTO product) {
+            return type.cast(overlay(product));
+        }
+        return value;
+    }
+
+    private ProductDTO overlay(ProductDTO product) {
+        StockWriteBehindBuffer pending = buffer.getIfAvailable();
+        return pending != null ? pending.overlay(product) : product;
+    }
+}
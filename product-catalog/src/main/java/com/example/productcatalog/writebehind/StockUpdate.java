@@ -0,0 +1,29 @@
+package com.example.productcatalog.writebehind;
+
+/**
+ * Pending quantity and/or status of one product; {@code null} fields are
+ * left unchanged. {@code seq} orders updates accepted by this process.
+ */
+public record StockUpdate(long productId, Integer quantity, String status, long seq) {
+
+    /**
+     * This update with the non-null fields of a later one applied on top.
+     */
+    public StockUpdate mergedWith(StockUpdate newer) {
+        return new StockUpdate(productId,
+                newer.quantity != null ? newer.quantity : quantity,
+                newer.status != null ? newer.status : status,
+                Math.max(seq, newer.seq));
+    }
+
+    /**
+     * This update without the given fields, or {@code null} if nothing is
+     * left to write.
+     */
+    public StockUpdate without(boolean dropQuantity, boolean dropStatus) {
+        Integer keptQuantity = dropQuantity ? null : quantity;
+        String keptStatus = dropStatus ? null : status;
+        return keptQuantity == null && keptStatus == null ? null
+                : new StockUpdate(productId, keptQuantity, keptStatus, seq);
+    }
+}
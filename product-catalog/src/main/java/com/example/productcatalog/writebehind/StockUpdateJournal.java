@@ -0,0 +1,210 @@
+package com.example.productcatalog.writebehind;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of accepted stock updates, so that updates still
+ * buffered in memory survive a crash.
+ *
+ * <p>The journal is a series of numbered segment files. Records are appended
+ * to the active segment, one newline-terminated line each, and forced to
+ * disk before they are acknowledged when {@code fsync} is on:
+ * {@code U,productId,quantity,status,crc} for an accepted update (empty for
+ * unchanged) and {@code S,productId,quantity,status,crc} with {@code 1}/{@code 0}
+ * flags for fields superseded by a synchronous write. {@code crc} is the
+ * CRC32 of the line before it, so a torn or corrupted record is dropped on
+ * replay instead of applying a partial value.
+ *
+ * <p>A flush seals the active segment by rotating to a new one; sealed
+ * segments are deleted once their updates are in the database. Segments
+ * found at startup are the ones a crash left behind.
+ */
+@Slf4j
+public class StockUpdateJournal implements Closeable {
+
+    private static final String PREFIX = "stock-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> recoveredSegments;
+
+    private long segmentNumber;
+    private Path activePath;
+    private FileChannel active;
+
+    public StockUpdateJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        this.recoveredSegments = List.copyOf(segments());
+        this.segmentNumber = recoveredSegments.isEmpty() ? 0
+                : segmentNumber(recoveredSegments.get(recoveredSegments.size() - 1));
+        openNext();
+    }
+
+    /**
+     * Segments left by an earlier run, oldest first.
+     */
+    public List<Path> getRecoveredSegments() {
+        return recoveredSegments;
+    }
+
+    public void append(StockUpdate update) throws IOException {
+        write("U," + update.productId() + ","
+                + (update.quantity() != null ? update.quantity() : "") + ","
+                + (update.status() != null ? update.status() : ""));
+    }
+
+    /**
+     * Records that the given fields of the product's earlier updates were
+     * overwritten by a synchronous write, so replay does not restore them.
+     */
+    public void appendSupersede(long productId, boolean quantity, boolean status) throws IOException {
+        write("S," + productId + "," + (quantity ? 1 : 0) + "," + (status ? 1 : 0));
+    }
+
+    /**
+     * Seals the active segment and starts a new one.
+     *
+     * @return the sealed segment
+     */
+    public synchronized Path rotate() throws IOException {
+        Path sealed = activePath;
+        active.close();
+        openNext();
+        return sealed;
+    }
+
+    public void delete(Collection<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                // Left behind, it is replayed at the next start; values are absolute
+                log.warn("Could not delete write-behind journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the records of a segment in append order. A torn last record from
+     * a crash mid-append (no terminating newline) is dropped, as is any record
+     * whose checksum does not match.
+     */
+    public static List<Entry> read(Path segment) throws IOException {
+        String content = Files.readString(segment, StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n') + 1;
+        if (end < content.length()) {
+            log.warn("Dropping torn last record in {}: '{}'", segment, content.substring(end));
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String line : content.substring(0, end).split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                entries.add(parse(line));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping unreadable record in {}: '{}' ({})", segment, line, e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.close();
+        // Nothing pending was written to an empty segment; do not leave it for the next start
+        if (Files.size(activePath) == 0) {
+            Files.deleteIfExists(activePath);
+        }
+    }
+
+    private synchronized void write(String record) throws IOException {
+        String line = record + "," + checksum(record) + "\n";
+        ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            active.write(bytes);
+        }
+        if (fsync) {
+            active.force(false);
+        }
+    }
+
+    private static Entry parse(String line) {
+        String[] fields = line.split(",", -1);
+        // productId,quantity,status: written before records carried a type and checksum
+        if (fields.length == 3) {
+            return new Accepted(update(fields[0], fields[1], fields[2]));
+        }
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("expected 5 fields");
+        }
+        if (!checksum(line.substring(0, line.lastIndexOf(','))).equals(fields[4])) {
+            throw new IllegalArgumentException("checksum mismatch");
+        }
+        return switch (fields[0]) {
+            case "U" -> new Accepted(update(fields[1], fields[2], fields[3]));
+            case "S" -> new Superseded(Long.parseLong(fields[1]), "1".equals(fields[2]), "1".equals(fields[3]));
+            default -> throw new IllegalArgumentException("unknown record type " + fields[0]);
+        };
+    }
+
+    private static StockUpdate update(String productId, String quantity, String status) {
+        return new StockUpdate(Long.parseLong(productId), quantity.isEmpty() ? null : Integer.valueOf(quantity),
+                status.isEmpty() ? null : status, 0);
+    }
+
+    private static String checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private void openNext() throws IOException {
+        segmentNumber++;
+        activePath = directory.resolve(String.format("%s%019d%s", PREFIX, segmentNumber, SUFFIX));
+        active = FileChannel.open(activePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted(Comparator.comparingLong(StockUpdateJournal::segmentNumber)).toList();
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /** A journal record: an accepted update, or fields superseded by a synchronous write. */
+    public sealed interface Entry permits Accepted, Superseded {
+    }
+
+    public record Accepted(StockUpdate update) implements Entry {
+    }
+
+    public record Superseded(long productId, boolean quantity, boolean status) implements Entry {
+    }
+}
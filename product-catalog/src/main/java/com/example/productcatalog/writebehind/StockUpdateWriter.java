@@ -0,0 +1,95 @@
+package com.example.productcatalog.writebehind;
+
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.ProductField;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
+import jakarta.persistence.Tuple;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes coalesced stock updates to the database. Each chunk is one JDBC
+ * batch of single-row {@code UPDATE}s in id order, plus the change-log
+ * entries and dashboard counter changes of a regular update, in one
+ * transaction. The chunk's cache entries are evicted after commit.
+ */
+@Slf4j
+public class StockUpdateWriter {
+
+    private static final Set<ProductField> KEY_COLUMNS = EnumSet.of(ProductField.ID, ProductField.SKU);
+    private static final String UPDATE_SQL = "UPDATE products SET quantity = COALESCE(?, quantity), "
+            + "status = COALESCE(?, status), version = version + 1, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final ChangeLogService changeLogService;
+    private final DashboardService dashboardService;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public StockUpdateWriter(JdbcTemplate jdbcTemplate, ProductRepository productRepository,
+            ChangeLogService changeLogService, DashboardService dashboardService, ProductCacheEvictor productCacheEvictor,
+            PlatformTransactionManager transactionManager, int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.changeLogService = changeLogService;
+        this.dashboardService = dashboardService;
+        this.productCacheEvictor = productCacheEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public void write(List<StockUpdate> updates) {
+        // Same lock order as bulk updates, so the two cannot deadlock
+        List<StockUpdate> ordered = new ArrayList<>(updates);
+        ordered.sort(Comparator.comparingLong(StockUpdate::productId));
+        for (int from = 0; from < ordered.size(); from += chunkSize) {
+            List<StockUpdate> chunk = ordered.subList(from, Math.min(from + chunkSize, ordered.size()));
+            List<Tuple> keys = transactionTemplate.execute(status -> writeChunk(chunk));
+            if (keys != null) {
+                productCacheEvictor.evictRows(keys);
+            }
+        }
+    }
+
+    private List<Tuple> writeChunk(List<StockUpdate> chunk) {
+        List<Long> ids = chunk.stream().map(StockUpdate::productId).toList();
+        Specification<Product> byIds = (root, query, cb) -> root.get("id").in(ids);
+        List<Tuple> keys = productRepository.findColumns(byIds, KEY_COLUMNS, Sort.unsorted(), ids.size());
+        if (keys.size() < ids.size()) {
+            log.warn("Dropping write-behind stock updates for {} unknown product(s)", ids.size() - keys.size());
+        }
+        Map<String, Long> countedBefore = dashboardService.countProducts(ids);
+
+        // Truncated to what the database stores, so the change-log insert can match on it
+        LocalDateTime stamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        jdbcTemplate.batchUpdate(UPDATE_SQL, chunk, chunk.size(), (statement, update) -> {
+            statement.setObject(1, update.quantity(), Types.INTEGER);
+            statement.setObject(2, update.status(), Types.VARCHAR);
+            statement.setObject(3, stamp);
+            statement.setLong(4, update.productId());
+        });
+        changeLogService.recordProducts(ids, CatalogChange.Operation.UPDATED, stamp);
+        dashboardService.recordChange(countedBefore, dashboardService.countProducts(ids));
+        return keys;
+    }
+}
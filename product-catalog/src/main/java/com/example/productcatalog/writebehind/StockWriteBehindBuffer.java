@@ -0,0 +1,262 @@
+package com.example.productcatalog.writebehind;
+
+import com.example.productcatalog.web.dto.ProductDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for quantity and status corrections.
+ *
+ * <p>Accepted updates are journaled, then coalesced per product in memory:
+ * a burst of corrections to one product becomes a single row update. The
+ * buffer is flushed on {@code app.write-behind.flush-interval}, or as soon as
+ * {@code app.write-behind.max-pending} products are waiting, through
+ * {@link StockUpdateWriter}. A failed flush puts its updates back under any
+ * newer ones and keeps their journal segments for the next attempt.
+ *
+ * <p>Until an update is committed and its cache entries evicted,
+ * {@link #overlay} applies it to product reads, so clients see their writes
+ * through the cache and on cache misses alike. List and filter queries read
+ * the database and catch up within one flush interval.
+ *
+ * <p>Values are absolute, so re-applying an update is harmless; after a crash
+ * the journal is replayed at startup. A synchronous write to a product with
+ * buffered fields supersedes them once it commits ({@link #supersedeAfterCommit}):
+ * they are dropped from the pending and in-flight updates and a supersede
+ * record is journaled, so neither a failed flush nor a replay restores them.
+ * A flush already writing the product when the supersede arrives can still
+ * land after it.
+ */
+@Slf4j
+public class StockWriteBehindBuffer implements Closeable {
+
+    private final StockUpdateJournal journal;
+    private final StockUpdateWriter writer;
+    private final int maxPending;
+
+    // Guards journal appends and changes to pending/inFlight against the rotate-and-drain in flush()
+    private final Object lock = new Object();
+    private final Map<Long, StockUpdate> pending = new ConcurrentHashMap<>();
+    private volatile Map<Long, StockUpdate> inFlight = new ConcurrentHashMap<>();
+    private final List<Path> unflushedSegments = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ExecutorService sizeTriggeredFlush = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-write-behind-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StockWriteBehindBuffer(StockUpdateJournal journal, StockUpdateWriter writer, int maxPending) {
+        this.journal = journal;
+        this.writer = writer;
+        this.maxPending = maxPending;
+        recover();
+    }
+
+    /**
+     * Accepts an update once it is in the journal; it reaches the database
+     * with the next flush.
+     */
+    public void submit(long productId, Integer quantity, String status) {
+        StockUpdate update = new StockUpdate(productId, quantity, status, sequence.incrementAndGet());
+        synchronized (lock) {
+            try {
+                journal.append(update);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not journal stock update for product " + productId, e);
+            }
+            pending.merge(productId, update, StockUpdate::mergedWith);
+        }
+        if (pending.size() >= maxPending && flushQueued.compareAndSet(false, true)) {
+            sizeTriggeredFlush.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Drops the given fields of the product's pending and in-flight updates
+     * after a synchronous write of them, so the older buffered values do not
+     * overwrite it, and journals the supersede for replay.
+     */
+    public void supersede(long productId, boolean quantity, boolean status) {
+        if (!quantity && !status) {
+            return;
+        }
+        synchronized (lock) {
+            boolean buffered = pending.containsKey(productId) || inFlight.containsKey(productId);
+            if (!buffered) {
+                return;
+            }
+            try {
+                journal.appendSupersede(productId, quantity, status);
+            } catch (IOException e) {
+                // The write is committed; dropping the fields in memory still keeps the next flush from undoing it
+                log.warn("Could not journal supersede for product {}: {}", productId, e.getMessage());
+            }
+            pending.computeIfPresent(productId, (id, update) -> update.without(quantity, status));
+            inFlight.computeIfPresent(productId, (id, update) -> update.without(quantity, status));
+        }
+    }
+
+    /**
+     * {@link #supersede} once the current transaction commits, or right away
+     * outside a transaction. A rolled-back write leaves the buffered update
+     * in place.
+     */
+    public void supersedeAfterCommit(long productId, boolean quantity, boolean status) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            supersede(productId, quantity, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                supersede(productId, quantity, status);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.write-behind.flush-interval:500ms}")
+    public synchronized int flush() {
+        List<StockUpdate> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            try {
+                unflushedSegments.add(journal.rotate());
+            } catch (IOException e) {
+                log.warn("Could not rotate write-behind journal, flush skipped: {}", e.getMessage());
+                return 0;
+            }
+            inFlight = new ConcurrentHashMap<>(pending);
+            batch = new ArrayList<>(inFlight.values());
+            pending.clear();
+        }
+        try {
+            writer.write(batch);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                // From inFlight rather than the batch: fields superseded meanwhile stay dropped
+                inFlight.values().forEach(failed -> pending.merge(failed.productId(), failed,
+                        (newer, older) -> older.mergedWith(newer)));
+                inFlight = new ConcurrentHashMap<>();
+            }
+            log.warn("Write-behind flush of {} product(s) failed, retrying next interval: {}", batch.size(),
+                    e.getMessage());
+            return 0;
+        }
+        synchronized (lock) {
+            inFlight = new ConcurrentHashMap<>();
+        }
+        journal.delete(unflushedSegments);
+        unflushedSegments.clear();
+        log.debug("Flushed write-behind stock updates for {} product(s)", batch.size());
+        return batch.size();
+    }
+
+    /**
+     * The product with its not yet committed quantity and status applied; the
+     * instance passed in is left untouched.
+     */
+    public ProductDTO overlay(ProductDTO product) {
+        StockUpdate update = product != null && product.getId() != null ? pendingFor(product.getId()) : null;
+        if (update == null) {
+            return product;
+        }
+        ProductDTO overlaid = new ProductDTO();
+        BeanUtils.copyProperties(product, overlaid);
+        if (update.quantity() != null) {
+            int threshold = product.getLowStockThreshold() != null ? product.getLowStockThreshold() : 5;
+            int available = update.quantity() - (product.getReservedQuantity() != null ? product.getReservedQuantity() : 0);
+            overlaid.setQuantity(update.quantity());
+            overlaid.setAvailableQuantity(available);
+            overlaid.setInStock(available > 0);
+            overlaid.setLowStock(available <= threshold);
+        }
+        if (update.status() != null) {
+            overlaid.setStatus(update.status());
+        }
+        return overlaid;
+    }
+
+    /**
+     * Sequence of the newest uncommitted update of the product, or
+     * {@code null}; part of the product's ETag while it is pending.
+     */
+    public Long pendingSequence(long productId) {
+        StockUpdate update = pendingFor(productId);
+        return update != null ? update.seq() : null;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        sizeTriggeredFlush.shutdown();
+        try {
+            sizeTriggeredFlush.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever cannot be written now stays in the journal for the next start
+        flush();
+    }
+
+    private StockUpdate pendingFor(long productId) {
+        StockUpdate flushing = inFlight.get(productId);
+        StockUpdate waiting = pending.get(productId);
+        if (flushing == null) {
+            return waiting;
+        }
+        return waiting == null ? flushing : flushing.mergedWith(waiting);
+    }
+
+    private void recover() {
+        int replayed = 0;
+        for (Path segment : journal.getRecoveredSegments()) {
+            try {
+                for (StockUpdateJournal.Entry entry : StockUpdateJournal.read(segment)) {
+                    if (entry instanceof StockUpdateJournal.Superseded superseded) {
+                        pending.computeIfPresent(superseded.productId(),
+                                (id, update) -> update.without(superseded.quantity(), superseded.status()));
+                        continue;
+                    }
+                    StockUpdate update = ((StockUpdateJournal.Accepted) entry).update();
+                    StockUpdate sequenced = new StockUpdate(update.productId(), update.quantity(), update.status(),
+                            sequence.incrementAndGet());
+                    pending.merge(update.productId(), sequenced, StockUpdate::mergedWith);
+                    replayed++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not replay write-behind journal segment " + segment, e);
+            }
+            unflushedSegments.add(segment);
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} journaled stock update(s) for {} product(s)", replayed, pending.size());
+        }
+    }
+}
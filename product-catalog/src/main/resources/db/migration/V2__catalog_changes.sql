@@ -0,0 +1,12 @@
+-- Change log for incremental catalog sync, written in the same transaction
+-- as the product/category change it describes. Consumers poll by seq.
+CREATE TABLE catalog_changes (
+    seq BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    changed_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Compaction looks for newer entries of the same entity
+CREATE INDEX idx_catalog_changes_entity ON catalog_changes (entity_type, entity_id, seq);
@@ -0,0 +1,24 @@
+-- The tag and image element collections were created without keys or
+-- indexes, so loading a product's tags and every tag filter scanned the
+-- whole table.
+
+-- Both collections are sets; drop any duplicate rows before keying them
+DELETE FROM product_tags a
+    USING product_tags b
+WHERE a.ctid < b.ctid
+  AND a.product_id = b.product_id
+  AND a.tag = b.tag;
+
+DELETE FROM product_images a
+    USING product_images b
+WHERE a.ctid < b.ctid
+  AND a.product_id = b.product_id
+  AND a.image_url = b.image_url;
+
+-- Leading product_id serves collection loads and the foreign key
+ALTER TABLE product_tags ADD CONSTRAINT pk_product_tags PRIMARY KEY (product_id, tag);
+ALTER TABLE product_images ADD CONSTRAINT pk_product_images PRIMARY KEY (product_id, image_url);
+
+-- Tag filters and facets match case-insensitively; product_id is included
+-- so that EXISTS probes and tag counts are answered from the index alone
+CREATE INDEX idx_product_tags_tag ON product_tags (lower(tag), product_id);
@@ -0,0 +1,33 @@
+-- Dashboard counters maintained by the product write paths, so reading the
+-- dashboard does not aggregate the products table. A counter is the sum of
+-- its slots: writers add to a random slot 1..n to spread row-lock
+-- contention, the reconciliation job writes its corrections to slot 0.
+CREATE TABLE catalog_counters (
+    counter_key VARCHAR(100) NOT NULL,
+    slot INTEGER NOT NULL,
+    amount BIGINT NOT NULL,
+    CONSTRAINT pk_catalog_counters PRIMARY KEY (counter_key, slot)
+);
+
+-- Seed from the current catalog; keys as in DashboardServiceImpl. Category,
+-- featured and low-stock counters cover live (not ARCHIVED/DELETED) products.
+INSERT INTO catalog_counters (counter_key, slot, amount)
+SELECT 'status:' || status, 0, count(*)
+FROM products
+GROUP BY status;
+
+INSERT INTO catalog_counters (counter_key, slot, amount)
+SELECT 'category:' || coalesce(category_id::text, 'none'), 0, count(*)
+FROM products
+WHERE status NOT IN ('ARCHIVED', 'DELETED')
+GROUP BY category_id;
+
+INSERT INTO catalog_counters (counter_key, slot, amount)
+SELECT 'featured', 0, count(*)
+FROM products
+WHERE status NOT IN ('ARCHIVED', 'DELETED') AND featured;
+
+INSERT INTO catalog_counters (counter_key, slot, amount)
+SELECT 'low_stock', 0, count(*)
+FROM products
+WHERE status NOT IN ('ARCHIVED', 'DELETED') AND coalesce(quantity, 0) <= coalesce(low_stock_threshold, 5);
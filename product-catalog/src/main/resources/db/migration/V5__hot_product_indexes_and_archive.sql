@@ -0,0 +1,53 @@
+-- Split the live catalog from archived products.
+--
+-- products is not list-partitioned on status: Postgres requires the
+-- partition key in every unique constraint, so neither the id primary key
+-- that product_tags/product_images reference nor the unique sku could stay.
+-- Instead:
+--   * filter indexes only cover live rows. ProductSpecification renders its
+--     status <> 'DELETED' AND status <> 'ARCHIVED' exclusion as literals,
+--     which lets the planner match these predicates even for generic plans;
+--   * products archived for longer than app.archive.retention are moved to
+--     products_archive by ProductArchiveServiceImpl, so they leave the heap
+--     and every remaining index too.
+
+CREATE INDEX idx_product_hot_price ON products (price)
+    WHERE status <> 'DELETED' AND status <> 'ARCHIVED';
+CREATE INDEX idx_product_hot_category_price ON products (category_id, price)
+    WHERE status <> 'DELETED' AND status <> 'ARCHIVED';
+-- Brand filters compare lower(brand); the old index on brand never served them
+CREATE INDEX idx_product_hot_brand ON products (lower(brand))
+    WHERE status <> 'DELETED' AND status <> 'ARCHIVED';
+
+DROP INDEX idx_product_price;
+DROP INDEX idx_product_brand;
+-- idx_product_status stays for explicit status filters and the archive mover;
+-- idx_product_category stays for the category foreign key check
+
+CREATE TABLE products_archive (
+    id BIGINT PRIMARY KEY,
+    sku VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    short_description VARCHAR(500),
+    price DECIMAL(19, 2) NOT NULL,
+    compare_at_price DECIMAL(19, 2),
+    cost_price DECIMAL(19, 2),
+    status VARCHAR(50) NOT NULL,
+    quantity INTEGER,
+    low_stock_threshold INTEGER,
+    brand VARCHAR(255),
+    weight_grams DOUBLE PRECISION,
+    -- No foreign key: categories may be deleted after their products are archived
+    category_id BIGINT,
+    featured BOOLEAN,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    version BIGINT,
+    tags TEXT[] NOT NULL DEFAULT '{}',
+    images TEXT[] NOT NULL DEFAULT '{}',
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- SKUs are free for reuse once archived, so not unique here
+CREATE INDEX idx_products_archive_sku ON products_archive (sku);
@@ -0,0 +1,20 @@
+-- Checkout holds on stock. quantity stays the on-hand stock; the part of it
+-- held by unexpired reservations is reserved_quantity, and what can still be
+-- sold is quantity - reserved_quantity. Both columns are only changed by
+-- ReservationServiceImpl's batched flushes (and product edits for quantity).
+ALTER TABLE products ADD COLUMN reserved_quantity INTEGER NOT NULL DEFAULT 0;
+
+-- One row per active hold, removed on confirm, release or expiry. The rows
+-- are authoritative: reserved_quantity is recomputed from them at startup.
+CREATE TABLE stock_reservations (
+    id UUID PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products (id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_stock_reservations_product ON stock_reservations (product_id);
+
+-- Startup consistency check: products that claim reserved stock
+CREATE INDEX idx_product_reserved ON products (id) WHERE reserved_quantity <> 0;
@@ -0,0 +1,86 @@
+package com.example.productcatalog.cache;
+
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.web.dto.ProductDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductAccessTracker accessTracker;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("products", "productBySku");
+    private CacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        warmer = new CacheWarmer(productService, productRepository, accessTracker, cacheManager,
+                new PipelinedCacheWriter(null), 10, 10, 2, 0, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        warmer.shutdown();
+    }
+
+    @Test
+    void warm_ShouldLoadFeaturedThenHotProductsIntoBothCaches() {
+        when(productRepository.findFeaturedIds(Limit.of(10))).thenReturn(List.of(1L, 2L));
+        when(accessTracker.topIds(10)).thenReturn(List.of(2L, 3L));
+        when(productService.getProductsByIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).stream().map(CacheWarmerTest::product).toList());
+
+        warmer.warm("test");
+
+        verify(productService).getProductsByIds(List.of(1L, 2L));
+        verify(productService).getProductsByIds(List.of(3L));
+        for (long id = 1; id <= 3; id++) {
+            assertEquals(id, ((ProductDTO) cacheManager.getCache("products").get(id).get()).getId());
+            assertNotNull(cacheManager.getCache("productBySku").get("SKU-" + id));
+        }
+    }
+
+    @Test
+    void warm_ShouldDropABatchEvictedWhileItWasLoading() {
+        when(productRepository.findFeaturedIds(Limit.of(10))).thenReturn(List.of(1L));
+        when(accessTracker.topIds(10)).thenReturn(List.of());
+        when(productService.getProductsByIds(List.of(1L))).thenAnswer(invocation -> {
+            ProductDTO stale = product(1L);
+            // A concurrent update evicts the product after it was read
+            warmer.onEvict();
+            return List.of(stale);
+        });
+
+        warmer.warm("test");
+
+        assertNull(cacheManager.getCache("products").get(1L));
+        assertNull(cacheManager.getCache("productBySku").get("SKU-1"));
+    }
+
+    private static ProductDTO product(Long id) {
+        return ProductDTO.builder().id(id).sku("SKU-" + id).build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.productcatalog.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(5), now::get);
+
+    @Test
+    void onFailure_OpensAfterConsecutiveFailuresOnly() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess(CircuitBreaker.Permission.PERMITTED);
+        assertFalse(breaker.onFailure());
+        assertFalse(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.onFailure());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.Permission.REJECTED, breaker.tryAcquire());
+        assertEquals(1, breaker.getTimesOpened());
+    }
+
+    @Test
+    void tryAcquire_AllowsOneTrialAfterOpenDuration() {
+        breaker.trip();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertEquals(CircuitBreaker.Permission.TRIAL, breaker.tryAcquire());
+        assertEquals(CircuitBreaker.Permission.REJECTED, breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        assertTrue(breaker.onSuccess(CircuitBreaker.Permission.TRIAL));
+        assertEquals(CircuitBreaker.Permission.PERMITTED, breaker.tryAcquire());
+    }
+
+    @Test
+    void onFailure_DuringTrialReopensForAnotherOpenDuration() {
+        breaker.trip();
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals(CircuitBreaker.Permission.TRIAL, breaker.tryAcquire());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(CircuitBreaker.Permission.REJECTED, breaker.tryAcquire());
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(CircuitBreaker.Permission.TRIAL, breaker.tryAcquire());
+    }
+
+    @Test
+    void onSuccess_OfCallStartedBeforeOpeningDoesNotClose() {
+        breaker.trip();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertEquals(CircuitBreaker.Permission.TRIAL, breaker.tryAcquire());
+
+        assertFalse(breaker.onSuccess(CircuitBreaker.Permission.PERMITTED));
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.productcatalog.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    @Test
+    void topKeys_ShouldFindHeavyHittersAmongTheLongTail() {
+        HotKeyTracker tracker = new HotKeyTracker(1, 3, 1024);
+        for (long id = 0; id < 5_000; id++) {
+            tracker.record(id);
+            if (id % 10 == 0) {
+                tracker.record(-1L);
+                tracker.record(-2L);
+            }
+            if (id % 50 == 0) {
+                tracker.record(-3L);
+            }
+        }
+
+        List<HotKeyTracker.HotKey> top = tracker.topKeys(3);
+
+        assertEquals(List.of(-1L, -2L, -3L), top.stream().map(HotKeyTracker.HotKey::key).toList());
+        assertTrue(top.get(0).estimatedReads() >= 500);
+        assertTrue(tracker.isHot(-3L));
+        assertFalse(tracker.isHot(4_999L));
+    }
+
+    @Test
+    void decay_ShouldLetKeysThatAreNoLongerReadCoolDown() {
+        HotKeyTracker tracker = new HotKeyTracker(1, 2, 1024);
+        tracker.record("a");
+        tracker.record("b");
+        tracker.expiresAt("a", 42L);
+        assertTrue(tracker.isHot("a"));
+
+        tracker.decay();
+
+        assertFalse(tracker.isHot("a"));
+        assertFalse(tracker.isSeen("a"));
+        assertNull(tracker.expiresAt("a"));
+    }
+
+    @Test
+    void expiresAt_ShouldOnlyBeKeptForHotKeys() {
+        HotKeyTracker tracker = new HotKeyTracker(1, 1, 1024);
+        tracker.record("hot");
+        tracker.record("hot");
+        tracker.record("cold");
+
+        tracker.expiresAt("hot", 1L);
+        tracker.expiresAt("cold", 2L);
+
+        assertEquals(1L, tracker.expiresAt("hot"));
+        assertNull(tracker.expiresAt("cold"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.productcatalog.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(15);
+    private static final Duration MIN_TTL = Duration.ofMinutes(2);
+    private static final Duration MAX_TTL = Duration.ofHours(1);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile CountDownLatch loading = new CountDownLatch(0);
+    private final ConcurrentMapCache target = new ConcurrentMapCache("products");
+    private final HotKeyMonitor monitor = new HotKeyMonitor(Map.of("products", (key, current) -> {
+        loads.incrementAndGet();
+        await(loading);
+        return "v" + loads.get();
+    }), 1, 2, 1024, MIN_TTL, MAX_TTL, 0, 0.2, 1, now::get);
+    private final Cache cache = monitor.decorate(target);
+    private final RedisCacheWriter.TtlFunction ttl = monitor.ttlFunction("products", (key, value) -> TTL);
+
+    @AfterEach
+    void tearDown() {
+        monitor.shutdown();
+    }
+
+    @Test
+    void ttlFunction_ShouldFollowReadFrequency() {
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(2L);
+        cache.get(3L);
+
+        assertEquals(MAX_TTL, ttl.getTimeToLive(1L, "v"));
+        assertEquals(TTL, ttl.getTimeToLive(3L, "v"));
+        assertEquals(MIN_TTL, ttl.getTimeToLive(4L, "v"));
+        assertEquals(Duration.ZERO, monitor.ttlFunction("products", (key, value) -> Duration.ZERO)
+                .getTimeToLive(1L, "v"));
+    }
+
+    @Test
+    void get_ShouldRefreshHotEntryShortlyBeforeItExpires() throws Exception {
+        write(1L, "v0");
+        cache.get(1L);
+        write(1L, "v0");
+
+        now.addAndGet(MAX_TTL.minus(Duration.ofMinutes(13)).toNanos());
+        assertEquals("v0", cache.get(1L).get());
+        assertEquals(0, loads.get());
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertEquals("v0", cache.get(1L).get());
+
+        assertTrue(waitFor(() -> "v1".equals(valueOf(1L))));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldDiscardRefreshOverlappingAnEviction() throws Exception {
+        write(1L, "v0");
+        cache.get(1L);
+        write(1L, "v0");
+        now.addAndGet(MAX_TTL.toNanos());
+        loading = new CountDownLatch(1);
+
+        cache.get(1L);
+        assertTrue(waitFor(() -> loads.get() == 1));
+        cache.evict(1L);
+        loading.countDown();
+
+        // The refresh is over once it has dropped the expiry it was started for
+        assertTrue(waitFor(() -> monitor.getTrackers().get("products").expiresAt(1L) == null));
+        assertNull(target.get(1L));
+    }
+
+    // As RedisCache.put: the TTL function sees every write
+    private void write(Object key, Object value) {
+        ttl.getTimeToLive(key, value);
+        target.put(key, value);
+    }
+
+    private Object valueOf(Object key) {
+        Cache.ValueWrapper value = target.get(key);
+        return value != null ? value.get() : null;
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
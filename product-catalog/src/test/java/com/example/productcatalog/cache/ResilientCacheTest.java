@@ -0,0 +1,222 @@
+package com.example.productcatalog.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fault injection against a stand-in for Redis that can be slowed down past
+ * the command timeout or have its connection dropped.
+ */
+class ResilientCacheTest {
+
+    private static final Duration COMMAND_TIMEOUT = Duration.ofMillis(20);
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private FlakyRedis redis;
+    private CacheFailover failover;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FlakyRedis("products");
+        failover = new CacheFailover(new CircuitBreaker(3, Duration.ofSeconds(5), now::get), 100,
+                Duration.ofMinutes(1), 2);
+        failover.bindTo(registry);
+        cache = failover.decorate(redis);
+    }
+
+    @Test
+    void get_ShouldStopCallingRedisOnceTimeoutsOpenTheCircuit() {
+        redis.put(1L, "cached");
+        redis.latency = Duration.ofSeconds(10);
+
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            assertNull(cache.get(1L));
+            // Each failing call costs the command timeout, not the injected latency
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        }
+        int callsWhenOpened = redis.calls.get();
+
+        cache.put(2L, "from database");
+
+        assertEquals(CircuitBreaker.State.OPEN, failover.getState());
+        assertEquals("from database", cache.get(2L).get());
+        assertEquals(callsWhenOpened, redis.calls.get());
+        assertEquals(3.0, registry.get("app.cache.redis.failures").functionCounter().count());
+        assertEquals(1.0, registry.get("app.cache.redis.circuit-opened").functionCounter().count());
+        assertEquals(1.0, registry.get("app.cache.fallback").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void evict_ShouldBeReplayedBeforeRedisIsReadAgain() {
+        redis.put(1L, "stale");
+        redis.down = true;
+        tripCircuit();
+
+        cache.evict(1L);
+        assertEquals(1, failover.getPendingInvalidations());
+
+        redis.down = false;
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertNull(cache.get(1L));
+        assertEquals(CircuitBreaker.State.CLOSED, failover.getState());
+        assertEquals(0, failover.getPendingInvalidations());
+        assertEquals(1.0, registry.get("app.cache.invalidations.replayed").functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldKeepInvalidationsQueuedWhenTrialFails() {
+        redis.put(1L, "stale");
+        redis.down = true;
+        tripCircuit();
+        cache.evict(1L);
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertNull(cache.get(1L));
+
+        assertEquals(CircuitBreaker.State.OPEN, failover.getState());
+        assertEquals(1, failover.getPendingInvalidations());
+        assertEquals("stale", redis.getNativeCache().get(1L));
+    }
+
+    @Test
+    void evict_ShouldOpenCircuitAtOnceWhenItFails() {
+        redis.put(1L, "stale");
+        redis.down = true;
+
+        cache.evict(1L);
+
+        assertEquals(CircuitBreaker.State.OPEN, failover.getState());
+        assertEquals(1, failover.getPendingInvalidations());
+    }
+
+    @Test
+    void evict_ShouldCollapseIntoClearBeyondPendingLimit() {
+        redis.put(1L, "a");
+        redis.put(2L, "b");
+        redis.put(3L, "c");
+        redis.down = true;
+        tripCircuit();
+
+        cache.evict(1L);
+        cache.evict(2L);
+        cache.evict(3L);
+        assertEquals(1, failover.getPendingInvalidations());
+
+        redis.down = false;
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        cache.get(4L);
+
+        assertTrue(redis.getNativeCache().isEmpty());
+    }
+
+    @Test
+    void closing_ShouldDiscardLocalEntriesSoTheNextOutageStartsEmpty() {
+        redis.down = true;
+        tripCircuit();
+        cache.put(1L, "written during outage");
+        assertEquals("written during outage", cache.get(1L).get());
+
+        redis.down = false;
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertNull(cache.get(1L));
+        assertEquals(CircuitBreaker.State.CLOSED, failover.getState());
+
+        redis.down = true;
+        tripCircuit();
+        assertNull(cache.get(1L));
+    }
+
+    private void tripCircuit() {
+        for (int i = 0; i < 3; i++) {
+            cache.get(-1L);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, failover.getState());
+    }
+
+    /**
+     * In-memory Redis stand-in. Latency beyond the command timeout ends in a
+     * timeout, as with Lettuce; {@code down} fails every call like a dropped
+     * connection.
+     */
+    private static class FlakyRedis extends ConcurrentMapCache {
+
+        final AtomicInteger calls = new AtomicInteger();
+        volatile Duration latency = Duration.ZERO;
+        volatile boolean down;
+
+        FlakyRedis(String name) {
+            super(name);
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            fault();
+            return super.lookup(key);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            fault();
+            super.put(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            fault();
+            super.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            fault();
+            return super.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            fault();
+            super.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            fault();
+            return super.invalidate();
+        }
+
+        private void fault() {
+            calls.incrementAndGet();
+            if (down) {
+                throw new RedisConnectionFailureException("Connection closed");
+            }
+            if (latency.compareTo(COMMAND_TIMEOUT) > 0) {
+                sleep(COMMAND_TIMEOUT);
+                throw new QueryTimeoutException("Redis command timed out after " + COMMAND_TIMEOUT);
+            }
+            sleep(latency);
+        }
+
+        private static void sleep(Duration duration) {
+            try {
+                Thread.sleep(duration.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.productcatalog.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimitTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_RejectsOnceLimitIsReached() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveLimit limit = new AdaptiveLimit("search", 2, 1, 10, Duration.ofSeconds(1), 0.5);
+        limit.bindTo(registry);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(1.0, registry.get("app.load-shedding.rejected").tag("budget", "search").counter().count());
+    }
+
+    @Test
+    void release_ShrinksOnSlowCallsAndGrowsOnFastOnes() {
+        AdaptiveLimit limit = new AdaptiveLimit("read", 8, 2, 16, Duration.ofSeconds(1), 0.5, clock::get);
+
+        clock.addAndGet(SLOW);
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+        assertEquals(4, limit.getLimit());
+
+        clock.addAndGet(SLOW);
+        limit.tryAcquire();
+        limit.release(SLOW, true);
+        clock.addAndGet(SLOW);
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+        assertEquals(2, limit.getLimit(), "limit must not drop below the minimum");
+
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(FAST, false);
+            limit.release(FAST, false);
+        }
+        assertTrue(limit.getLimit() > 2);
+    }
+
+    @Test
+    void release_ShouldShrinkOnceForCallsThatWereInFlightTogether() {
+        AdaptiveLimit limit = new AdaptiveLimit("read", 64, 2, 100, Duration.ofSeconds(1), 0.5, clock::get);
+        clock.addAndGet(SLOW);
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+        }
+
+        // The backend stalls: all ten calls come back slow at about the same time
+        clock.addAndGet(SLOW);
+        for (int i = 0; i < 10; i++) {
+            limit.release(SLOW, false);
+        }
+        assertEquals(32, limit.getLimit());
+
+        // A call admitted after the decrease that is still slow shrinks it again
+        limit.tryAcquire();
+        clock.addAndGet(SLOW);
+        limit.release(SLOW, false);
+        assertEquals(16, limit.getLimit());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.productcatalog.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void acquire_TimesOutWhenAllPermitsAreHeld() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("db", 2, Duration.ofMillis(20));
+        limiter.bindTo(registry);
+
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.acquire());
+        assertEquals(2, limiter.getInFlight());
+
+        assertFalse(limiter.acquire());
+        assertEquals(1.0, registry.get("app.concurrency.rejected").counter().count());
+        assertEquals(3, registry.get("app.concurrency.queue-time").timer().count());
+    }
+
+    @Test
+    void release_LetsQueuedCallerProceed() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("redis", 1, Duration.ofSeconds(5));
+        assertTrue(limiter.acquire());
+
+        Thread waiter = new Thread(() -> {
+            try {
+                assertTrue(limiter.acquire());
+                limiter.release();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        while (limiter.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        limiter.release();
+        waiter.join(5000);
+
+        assertFalse(waiter.isAlive());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.productcatalog.concurrency;
+
+import com.example.productcatalog.datasource.ReadYourWritesContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutTest {
+
+    private final FanOut fanOut = new FanOut("test", 4, 4, Duration.ofMillis(500));
+
+    @AfterEach
+    void tearDown() {
+        fanOut.shutdown();
+    }
+
+    @Test
+    void start_ShouldRunSectionsConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        FanOut.Section<Boolean> first = fanOut.start("first", () -> meet(bothStarted));
+        FanOut.Section<Boolean> second = fanOut.start("second", () -> meet(bothStarted));
+
+        // Each section only completes once the other one has started
+        assertEquals(Boolean.TRUE, first.join());
+        assertEquals(Boolean.TRUE, second.join());
+    }
+
+    @Test
+    void join_ShouldReturnNullForFailedAndLateSectionsAndKeepTheOthers() {
+        CountDownLatch blocked = new CountDownLatch(2);
+        FanOut.Section<String> ok = fanOut.start("ok", () -> "loaded");
+        FanOut.Section<String> failing = fanOut.start("failing", () -> {
+            throw new IllegalStateException("database down");
+        });
+        FanOut.Section<Boolean> late = fanOut.start("late", () -> meet(blocked));
+
+        assertEquals("loaded", ok.join());
+        assertNull(failing.join());
+        assertNull(late.join());
+        assertFalse(ok.isFailed());
+        assertTrue(failing.isFailed());
+        assertTrue(late.isFailed());
+        blocked.countDown();
+    }
+
+    @Test
+    void start_ShouldFailSectionsAtOnceWhenThePoolAndQueueAreFull() {
+        FanOut small = new FanOut("small", 1, 1, Duration.ofMillis(500));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            FanOut.Section<Boolean> running = small.start("running", () -> await(release));
+            FanOut.Section<Boolean> queued = small.start("queued", () -> await(release));
+            Thread caller = Thread.currentThread();
+            FanOut.Section<Boolean> refused = small.start("refused", () -> Thread.currentThread() == caller);
+
+            // Refused without running the loader on the caller's thread
+            assertNull(refused.join());
+            assertTrue(refused.isFailed());
+            release.countDown();
+            assertEquals(Boolean.TRUE, running.join());
+            assertEquals(Boolean.TRUE, queued.join());
+        } finally {
+            release.countDown();
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void start_ShouldCarryReadYourWritesToThePoolThreadAndClearItAfterwards() {
+        FanOut single = new FanOut("single", 1, 4, Duration.ofMillis(500));
+        try {
+            ReadYourWritesContext.requirePrimary();
+            FanOut.Section<Boolean> pinned = single.start("pinned", ReadYourWritesContext::isPrimaryRequired);
+            assertEquals(Boolean.TRUE, pinned.join());
+
+            ReadYourWritesContext.clear();
+            // Same pool thread, next request: must not inherit the previous request's routing
+            FanOut.Section<Boolean> next = single.start("next", ReadYourWritesContext::isPrimaryRequired);
+            assertEquals(Boolean.FALSE, next.join());
+        } finally {
+            ReadYourWritesContext.clear();
+            single.shutdown();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean meet(CountDownLatch latch) {
+        latch.countDown();
+        return await(latch);
+    }
+}
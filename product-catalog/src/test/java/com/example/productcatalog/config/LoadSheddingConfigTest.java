@@ -0,0 +1,81 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.concurrency.AdaptiveLimit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSheddingConfigTest {
+
+    private static final String ORIGIN = "https://shop.example.com";
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(CorsConfig.class, LoadSheddingConfig.class)
+            .withBean(ObjectMapper.class, () -> new ObjectMapper().findAndRegisterModules())
+            .withPropertyValues(
+                    "app.cors.allowed-origins=" + ORIGIN,
+                    "app.load-shedding.enabled=true",
+                    "app.load-shedding.search.initial-limit=1",
+                    "app.load-shedding.search.min-limit=1",
+                    "app.load-shedding.search.max-limit=1");
+
+    @Test
+    void filters_WhenShedding_ShouldStillAnswerWithCorsHeaders() {
+        contextRunner.run(context -> {
+            // Another search request holds the only slot
+            assertTrue(context.getBean("searchAdaptiveLimit", AdaptiveLimit.class).tryAcquire());
+            AtomicInteger calls = new AtomicInteger();
+
+            MockHttpServletRequest search = new MockHttpServletRequest("GET", "/api/v1/products/filter");
+            search.addHeader(HttpHeaders.ORIGIN, ORIGIN);
+            MockHttpServletResponse shed = serve(context, search, calls);
+
+            assertEquals(503, shed.getStatus());
+            assertEquals(ORIGIN, shed.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+
+            MockHttpServletRequest preflight = new MockHttpServletRequest("OPTIONS", "/api/v1/products/filter");
+            preflight.addHeader(HttpHeaders.ORIGIN, ORIGIN);
+            preflight.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET");
+            MockHttpServletResponse answered = serve(context, preflight, calls);
+
+            assertEquals(200, answered.getStatus());
+            assertEquals(ORIGIN, answered.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+            assertEquals(0, calls.get());
+        });
+    }
+
+    // Runs the request through the registered filters in their servlet container order
+    private static MockHttpServletResponse serve(ApplicationContext context, MockHttpServletRequest request,
+            AtomicInteger calls) throws Exception {
+        List<FilterRegistrationBean<?>> registrations = new ArrayList<>();
+        context.getBeansOfType(FilterRegistrationBean.class).values().forEach(registrations::add);
+        AnnotationAwareOrderComparator.sort(registrations);
+        Filter[] filters = registrations.stream().map(FilterRegistrationBean::getFilter).toArray(Filter[]::new);
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                calls.incrementAndGet();
+            }
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(servlet, filters).doFilter(request, response);
+        return response;
+    }
+}
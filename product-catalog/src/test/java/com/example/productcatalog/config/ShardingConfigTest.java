@@ -0,0 +1,72 @@
+package com.example.productcatalog.config;
+
+import com.example.productcatalog.concurrency.LimitedDataSource;
+import com.example.productcatalog.datasource.CategoryReplicator;
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.datasource.ShardRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ShardingConfigTest {
+
+    // Pools connect lazily, so the context starts without a database
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            // Converts @Value durations such as "30s", as in a Spring Boot application
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(DataSourcePropertiesConfig.class, ShardingConfig.class, ConcurrencyConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(PlatformTransactionManager.class, () -> mock(PlatformTransactionManager.class))
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:postgresql://localhost:5432/shard0",
+                    "app.sharding.enabled=true",
+                    "app.sharding.urls=jdbc:postgresql://localhost:5432/shard1");
+
+    @Test
+    void context_WithConcurrencyLimits_ShouldLimitOnlyTheApplicationDataSource() {
+        contextRunner.withPropertyValues("app.concurrency.enabled=true").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(2, context.getBean(ShardRoutingDataSource.class).getShards().size());
+            assertNotNull(context.getBean(ProductShards.class));
+            assertNotNull(context.getBean(CategoryReplicator.class));
+
+            // One permit per connection: the limit wraps the lazy proxy, not the shard router behind it
+            DataSource dataSource = context.getBean("dataSource", DataSource.class);
+            LimitedDataSource limited = assertInstanceOf(LimitedDataSource.class, dataSource);
+            LazyConnectionDataSourceProxy proxy = assertInstanceOf(LazyConnectionDataSourceProxy.class,
+                    limited.getTargetDataSource());
+            assertSame(context.getBean(ShardRoutingDataSource.class), proxy.getTargetDataSource());
+        });
+    }
+
+    @Test
+    void context_WithAnIncompatibleFeature_ShouldFailToStart() {
+        contextRunner.withPropertyValues("app.write-behind.enabled=true").run(context -> {
+            Throwable failure = context.getStartupFailure();
+            assertNotNull(failure);
+            while (failure.getCause() != null) {
+                failure = failure.getCause();
+            }
+            assertEquals("app.sharding.enabled cannot be combined with [app.write-behind.enabled]",
+                    failure.getMessage());
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfig {
+    }
+}
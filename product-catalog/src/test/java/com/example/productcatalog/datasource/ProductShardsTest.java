@@ -0,0 +1,71 @@
+package com.example.productcatalog.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductShardsTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductShards shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = new ProductShards(3, transactionManager, 2, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.shutdown();
+    }
+
+    @Test
+    void shardOf_ShouldPlaceIdsByResidueAndSkusByStableHash() {
+        assertEquals(0, shards.shardOf(9L));
+        assertEquals(1, shards.shardOf(7L));
+        assertEquals(2, shards.shardOf(5L));
+        // CRC32C, so every instance and release agrees
+        assertEquals(1, shards.shardOf("SKU-1"));
+        assertEquals(0, shards.shardOf("SKU-2"));
+        assertEquals(2, shards.shardOf("SKU-3"));
+        assertEquals(Map.of(0, List.of(3L, 9L), 2, List.of(5L)), shards.groupByShard(List.of(3L, 5L, 9L)));
+    }
+
+    @Test
+    void onEveryShard_ShouldRunOnEachShardAndReturnResultsInShardOrder() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        assertEquals(List.of(0, 1, 2), shards.onEveryShard(ShardContext::current));
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    void onShards_ShouldFailWhenAnyShardFails() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+                () -> shards.onShards(List.of(0, 1), shard -> {
+                    if (shard == 1) {
+                        throw new IllegalArgumentException("shard 1 is down");
+                    }
+                    return shard;
+                }));
+        assertEquals("shard 1 is down", failure.getMessage());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.productcatalog.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceTest {
+
+    @Mock
+    private HikariDataSource primary;
+
+    @Mock
+    private HikariDataSource first;
+
+    @Mock
+    private HikariDataSource second;
+
+    private ReplicaPool firstPool;
+    private ReplicaPool secondPool;
+    private ReplicaDataSource replicas;
+
+    @BeforeEach
+    void setUp() {
+        firstPool = new ReplicaPool("replica-0", first);
+        secondPool = new ReplicaPool("replica-1", second);
+        replicas = new ReplicaDataSource(primary, List.of(firstPool, secondPool));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    void getConnection_ShouldRoundRobinAcrossHealthyReplicas() throws SQLException {
+        Connection fromFirst = mock(Connection.class);
+        Connection fromSecond = mock(Connection.class);
+        when(first.getConnection()).thenReturn(fromFirst);
+        when(second.getConnection()).thenReturn(fromSecond);
+        firstPool.markHealthy(0);
+        secondPool.markHealthy(0);
+
+        assertSame(fromFirst, replicas.getConnection());
+        assertSame(fromSecond, replicas.getConnection());
+        assertSame(fromFirst, replicas.getConnection());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ShouldSkipUnhealthyReplicasAndFallBackToThePrimary() throws SQLException {
+        Connection fromSecond = mock(Connection.class);
+        Connection fromPrimary = mock(Connection.class);
+        when(second.getConnection()).thenReturn(fromSecond);
+        when(primary.getConnection()).thenReturn(fromPrimary);
+        secondPool.markHealthy(0);
+
+        assertSame(fromSecond, replicas.getConnection());
+        assertSame(fromSecond, replicas.getConnection());
+
+        secondPool.markUnhealthy(60_000);
+        assertSame(fromPrimary, replicas.getConnection());
+        verify(first, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ShouldUseThePrimaryWhileReadYourWritesRequiresIt() throws SQLException {
+        Connection fromPrimary = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(fromPrimary);
+        firstPool.markHealthy(0);
+        secondPool.markHealthy(0);
+
+        ReadYourWritesContext.requirePrimary();
+
+        assertSame(fromPrimary, replicas.getConnection());
+        verify(first, never()).getConnection();
+        verify(second, never()).getConnection();
+    }
+
+    @Test
+    void close_ShouldCloseThePrimaryAndEveryReplicaPool() {
+        new ReplicaRoutingDataSource(primary, replicas).close();
+
+        verify(first).close();
+        verify(second).close();
+        verify(primary).close();
+    }
+}
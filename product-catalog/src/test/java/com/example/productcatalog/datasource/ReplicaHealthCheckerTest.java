@@ -0,0 +1,77 @@
+package com.example.productcatalog.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaHealthCheckerTest {
+
+    @Mock
+    private HikariDataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Test
+    void checkAll_ShouldRotateAReplicaOutWhileItLagsAndBackInOnceItCatchesUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getLong(1)).thenReturn(200L, 9_000L, 0L);
+        ReplicaPool pool = new ReplicaPool("replica-0", dataSource);
+        ReplicaHealthChecker checker = new ReplicaHealthChecker(List.of(pool), Duration.ofSeconds(5));
+
+        // Not used before its first successful check
+        assertFalse(pool.isHealthy());
+
+        checker.checkAll();
+        assertTrue(pool.isHealthy());
+        assertEquals(200, pool.getLagMillis());
+
+        checker.checkAll();
+        assertFalse(pool.isHealthy());
+        assertEquals(9_000, pool.getLagMillis());
+
+        checker.checkAll();
+        assertTrue(pool.isHealthy());
+    }
+
+    @Test
+    void checkAll_ShouldRotateOutAnUnreachableReplica() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection)
+                .thenThrow(new SQLTransientConnectionException("Connection is not available"));
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getLong(1)).thenReturn(0L);
+        ReplicaPool pool = new ReplicaPool("replica-0", dataSource);
+        ReplicaHealthChecker checker = new ReplicaHealthChecker(List.of(pool), Duration.ofSeconds(5));
+
+        checker.checkAll();
+        assertTrue(pool.isHealthy());
+
+        checker.checkAll();
+        assertFalse(pool.isHealthy());
+        assertEquals(-1, pool.getLagMillis());
+    }
+}
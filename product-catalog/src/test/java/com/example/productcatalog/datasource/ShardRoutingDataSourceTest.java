@@ -0,0 +1,52 @@
+package com.example.productcatalog.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShardRoutingDataSourceTest {
+
+    @Mock
+    private HikariDataSource home;
+
+    @Mock
+    private HikariDataSource other;
+
+    @Test
+    void getConnection_ShouldUseTheShardInContextOrTheHomeShard() throws SQLException {
+        Connection fromHome = mock(Connection.class);
+        Connection fromOther = mock(Connection.class);
+        when(home.getConnection()).thenReturn(fromHome);
+        when(other.getConnection()).thenReturn(fromOther);
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(List.of(home, other));
+
+        assertSame(fromHome, routing.getConnection());
+        assertSame(fromOther, ShardContext.callOn(1, () -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+
+    @Test
+    void close_ShouldCloseEveryShardPool() {
+        new ShardRoutingDataSource(List.of(home, other)).close();
+
+        verify(home).close();
+        verify(other).close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.productcatalog.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedPageTest {
+
+    @Test
+    void perShard_ShouldFetchEveryRowUpToTheEndOfThePageWithIdAsTiebreak() {
+        Pageable perShard = ShardedPage.perShard(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertEquals(0, perShard.getPageNumber());
+        assertEquals(30, perShard.getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "price").and(Sort.by("id")), perShard.getSort());
+    }
+
+    @Test
+    void merge_ShouldCutThePageOutOfTheMergedShards() {
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("price"));
+        Page<ShardedPage.Row<String>> shard0 = page(row("a", 10, 3L), row("c", 30, 6L), row("e", 50, 9L));
+        Page<ShardedPage.Row<String>> shard1 = page(row("b", 20, 1L), row("d", 30, 4L));
+
+        Page<String> merged = ShardedPage.merge(List.of(shard0, shard1), pageable);
+
+        assertEquals(List.of("d", "c"), merged.getContent());
+        assertEquals(5, merged.getTotalElements());
+    }
+
+    @Test
+    void merge_ShouldPlaceNullsLastWhenAscendingLikePostgres() {
+        Pageable pageable = PageRequest.of(0, 3, Sort.by("price"));
+        Page<ShardedPage.Row<String>> shard0 = page(row("none", null, 3L));
+        Page<ShardedPage.Row<String>> shard1 = page(row("cheap", 5, 1L), row("dear", 90, 2L));
+
+        assertEquals(List.of("cheap", "dear", "none"), ShardedPage.merge(List.of(shard0, shard1), pageable).getContent());
+    }
+
+    @SafeVarargs
+    private static Page<ShardedPage.Row<String>> page(ShardedPage.Row<String>... rows) {
+        return new PageImpl<>(List.of(rows));
+    }
+
+    private static ShardedPage.Row<String> row(String value, Integer price, Long id) {
+        return ShardedPage.row(value, Arrays.asList(price, id));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.productcatalog.inventory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Contention benchmark: 1,000 threads reserving and releasing one SKU
+ * through {@link ReservationLedger}, with a single counter cell (plain CAS
+ * on one cache line) against striped counters, then a sell-out round that
+ * checks no unit is handed out twice. A background thread drains the ledger
+ * as the scheduled flush would. Not a unit test; run it on a quiet machine:
+ *
+ * <pre>
+ *   ./mvnw -q test-compile
+ *   java -cp target/classes:target/test-classes \
+ *       com.example.productcatalog.inventory.ReservationContentionBenchmark [threads] [seconds]
+ * </pre>
+ */
+public final class ReservationContentionBenchmark {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private ReservationContentionBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d reservers on one SKU, %d core(s), %d s per round%n", threads, cores, seconds);
+
+        for (int stripes : IntStream.of(1, cores, 4 * cores).distinct().toArray()) {
+            // Warm-up round, then the measured one
+            churn(threads, stripes, 2);
+            long ops = churn(threads, stripes, seconds);
+            System.out.printf("stripes=%-4d reserve+release: %,12d ops/s%n", stripes, ops / seconds);
+        }
+
+        int stock = threads / 2;
+        for (int stripes : new int[] { 1, 4 * cores }) {
+            long start = System.nanoTime();
+            long granted = sellOut(threads, stripes, stock);
+            System.out.printf("stripes=%-4d sell-out of %d units: %d granted in %.1f ms%s%n", stripes, stock,
+                    granted, (System.nanoTime() - start) / 1e6, granted > stock ? "  OVERSOLD" : "");
+        }
+    }
+
+    // Every thread loops reserve(1) + release on a product with spare stock
+    private static long churn(int threads, int stripes, int seconds) throws InterruptedException {
+        ReservationLedger ledger = new ReservationLedger();
+        ProductStock stock = ledger.addStock(new ProductStock(1L, "SKU-1", threads * 2, 0, true, stripes));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong operations = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(startThread(() -> {
+                await(start);
+                long done = 0;
+                while (running.get()) {
+                    StockHold hold = ledger.reserve(stock, 1, LocalDateTime.now(), TTL);
+                    if (hold != null) {
+                        ledger.release(hold.id());
+                        done++;
+                    }
+                }
+                operations.addAndGet(done);
+            }));
+        }
+        Thread flusher = startThread(() -> {
+            while (running.get()) {
+                ledger.drain();
+                sleep(200);
+            }
+        });
+        start.countDown();
+        sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        flusher.join();
+        return operations.get();
+    }
+
+    // Every thread tries to reserve one unit of a product with half as many units as threads
+    private static long sellOut(int threads, int stripes, int units) throws InterruptedException {
+        ReservationLedger ledger = new ReservationLedger();
+        ProductStock stock = ledger.addStock(new ProductStock(1L, "SKU-1", units, 0, true, stripes));
+        AtomicLong granted = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(startThread(() -> {
+                await(start);
+                if (ledger.reserve(stock, 1, LocalDateTime.now(), TTL) != null) {
+                    granted.incrementAndGet();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (stock.getAvailable() != units - granted.get()) {
+            throw new IllegalStateException("Counter out of balance: " + stock.getAvailable() + " available");
+        }
+        return granted.get();
+    }
+
+    private static Thread startThread(Runnable body) {
+        Thread thread = new Thread(body);
+        thread.start();
+        return thread;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.productcatalog.inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationLedgerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private ReservationLedger ledger;
+    private ProductStock stock;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new ReservationLedger();
+        // 10 on hand, 2 held by holds from before a restart
+        stock = ledger.addStock(new ProductStock(1L, "SKU-1", 10, 2, true, 4));
+    }
+
+    @Test
+    void reserve_ShouldFailOnceAvailableStockIsHeld() {
+        assertNotNull(ledger.reserve(stock, 5, NOW, Duration.ofMinutes(10)));
+        assertNull(ledger.reserve(stock, 4, NOW, Duration.ofMinutes(10)));
+        assertEquals(3, stock.getAvailable());
+    }
+
+    @Test
+    void drain_ShouldCarryHoldRowsAndColumnDeltas() {
+        StockHold sold = ledger.reserve(stock, 3, NOW, Duration.ofMinutes(10));
+        StockHold kept = ledger.reserve(stock, 1, NOW, Duration.ofMinutes(10));
+        ledger.drain();
+
+        assertSame(sold, ledger.confirm(sold.id(), NOW.plusMinutes(1)));
+        ReservationBatch batch = ledger.drain();
+
+        assertEquals(List.of(), batch.created());
+        assertEquals(List.of(sold.id()), batch.ended());
+        ReservationBatch.Delta delta = batch.deltas().get(0);
+        assertEquals(-3, delta.reserved());
+        assertEquals(3, delta.sold());
+        // Confirmed units stay out of the available stock
+        assertEquals(4, stock.getAvailable());
+        assertNotNull(ledger.getActive(kept.id()));
+        assertTrue(ledger.drain().isEmpty());
+    }
+
+    @Test
+    void drain_ShouldSkipHoldsCreatedAndEndedInOneBatch() {
+        StockHold hold = ledger.reserve(stock, 2, NOW, Duration.ofMinutes(10));
+        assertSame(hold, ledger.release(hold.id()));
+
+        ReservationBatch batch = ledger.drain();
+
+        assertEquals(List.of(), batch.created());
+        assertEquals(List.of(), batch.ended());
+        assertEquals(List.of(), batch.deltas());
+        assertEquals(8, stock.getAvailable());
+    }
+
+    @Test
+    void confirm_ShouldReleaseAnExpiredHoldInstead() {
+        StockHold hold = ledger.reserve(stock, 2, NOW, Duration.ofMinutes(10));
+
+        assertNull(ledger.confirm(hold.id(), NOW.plusMinutes(10)));
+        assertNull(ledger.getConfirmed(hold.id()));
+        assertNull(ledger.release(hold.id()));
+        assertEquals(8, stock.getAvailable());
+    }
+
+    @Test
+    void requeue_ShouldPutAFailedBatchBackForTheNextDrain() {
+        StockHold hold = ledger.reserve(stock, 2, NOW, Duration.ofMinutes(10));
+        ReservationBatch failed = ledger.drain();
+        ledger.reserve(stock, 1, NOW, Duration.ofMinutes(10));
+
+        ledger.requeue(failed);
+        ReservationBatch retried = ledger.drain();
+
+        assertEquals(2, retried.created().size());
+        assertTrue(retried.created().contains(hold));
+        assertEquals(3, retried.deltas().get(0).reserved());
+    }
+
+    @Test
+    void refresh_ShouldApplyOnlyOtherWritersChanges() {
+        StockHold hold = ledger.reserve(stock, 3, NOW, Duration.ofMinutes(10));
+        ledger.confirm(hold.id(), NOW);
+        ledger.drain();
+        stock.flushed(3);
+
+        // The flush took quantity from 10 to 7; an admin then restocks to 12
+        stock.refresh(7, true);
+        assertEquals(5, stock.getAvailable());
+        stock.refresh(12, true);
+        assertEquals(10, stock.getAvailable());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.productcatalog.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedStockCounterTest {
+
+    @Test
+    void tryAcquire_GathersAcrossStripesButNeverOversells() {
+        StripedStockCounter counter = new StripedStockCounter(4, 10);
+
+        // No single stripe holds 7 of the 10 units
+        assertTrue(counter.tryAcquire(7));
+        assertFalse(counter.tryAcquire(4));
+        assertEquals(3, counter.sum());
+        assertTrue(counter.tryAcquire(3));
+        assertFalse(counter.tryAcquire(1));
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    void adjust_KeepsDebtUntilReleasesPayItOff() {
+        StripedStockCounter counter = new StripedStockCounter(4, 5);
+        assertTrue(counter.tryAcquire(3));
+
+        // On-hand stock cut by 4 while 3 are held: 2 unreserved, 2 short
+        counter.adjust(-4);
+        assertEquals(-2, counter.sum());
+
+        counter.release(2);
+        assertEquals(0, counter.sum());
+        assertFalse(counter.tryAcquire(1));
+
+        counter.adjust(3);
+        assertEquals(3, counter.sum());
+        assertTrue(counter.tryAcquire(3));
+    }
+
+    @Test
+    void tryAcquire_ConcurrentReserversOfOneProductGetExactlyTheStock() throws Exception {
+        int stock = 500;
+        int reservers = 1000;
+        StripedStockCounter counter = new StripedStockCounter(16, stock);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < reservers; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (counter.tryAcquire(1)) {
+                    granted.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+
+        // Single units never need gathering, so no reserver is turned away while stock is left
+        assertEquals(stock, granted.get());
+        assertEquals(0, counter.sum());
+    }
+}
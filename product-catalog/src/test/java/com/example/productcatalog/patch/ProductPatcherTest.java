@@ -0,0 +1,90 @@
+package com.example.productcatalog.patch;
+
+import com.example.productcatalog.domain.Category;
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.web.dto.ProductPatchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductPatcherTest {
+
+    private static final Function<Long, Category> NO_CATEGORIES = id -> {
+        throw new AssertionError("category " + id + " should not be loaded");
+    };
+
+    private final ProductPatcher patcher = new ProductPatcher();
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product();
+        product.setSku("SKU-123");
+        product.setName("Test Product");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStatus("ACTIVE");
+        product.setBrand("Acme");
+        product.setTags(new HashSet<>(Set.of("red", "sale")));
+        product.setImages(new HashSet<>(Set.of("a.jpg")));
+    }
+
+    @Test
+    void apply_ShouldSetOnlyChangedFieldsAndDiffCollections() {
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setName("Renamed");
+        patch.setPrice(new BigDecimal("100"));
+        patch.setBrand(null);
+        patch.setTags(Set.of("red", "new"));
+
+        ProductPatcher.Changes changes = patcher.apply(product, patch, NO_CATEGORIES);
+
+        assertEquals(List.of("name", "brand"), List.copyOf(changes.columns()));
+        assertEquals(4, changes.columnsWritten());
+        // "sale" deleted and "new" inserted, instead of 2 deletes and 2 inserts
+        assertEquals(2, changes.collectionRows());
+        assertEquals(4, changes.replacedCollectionRows());
+        assertEquals("Renamed", product.getName());
+        assertNull(product.getBrand());
+        assertEquals(new BigDecimal("100.00"), product.getPrice());
+        assertEquals(Set.of("red", "new"), product.getTags());
+        assertEquals(Set.of("a.jpg"), product.getImages());
+    }
+
+    @Test
+    void apply_ShouldReportNoChangesWhenPatchMatchesProduct() {
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setSku("SKU-123");
+        patch.setName("Test Product");
+        patch.setPrice(new BigDecimal("100.0"));
+        patch.setCategoryId(null);
+        patch.setTags(Set.of("sale", "red"));
+
+        ProductPatcher.Changes changes = patcher.apply(product, patch, NO_CATEGORIES);
+
+        assertTrue(changes.isEmpty());
+        assertEquals(0, changes.columnsWritten());
+        assertEquals(0, changes.collectionRows());
+    }
+
+    @Test
+    void apply_ShouldRejectSkuChangesAndNullRequiredFields() {
+        ProductPatchRequest skuPatch = new ProductPatchRequest();
+        skuPatch.setSku("SKU-999");
+        assertThrows(BadRequestException.class, () -> patcher.apply(product, skuPatch, NO_CATEGORIES));
+
+        ProductPatchRequest pricePatch = new ProductPatchRequest();
+        pricePatch.setPrice(null);
+        BadRequestException failure = assertThrows(BadRequestException.class,
+                () -> patcher.apply(product, pricePatch, NO_CATEGORIES));
+        assertEquals("price cannot be null", failure.getMessage());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.productcatalog.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-01T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void load_ShouldReturnWrittenProductsInBatchesWithToken() throws IOException {
+        CatalogSnapshotStore store = store(Clock.fixed(NOW, ZoneOffset.UTC), 1 << 20);
+        write(store, "42", product(1, "Phone", null), product(2, null, BigDecimal.valueOf(1999, 2)),
+                product(5, "Tablet", BigDecimal.TEN));
+
+        List<List<IndexedProduct>> batches = new ArrayList<>();
+        String token = store.load(2, batches::add);
+
+        assertEquals("42", token);
+        assertEquals(2, batches.size());
+        assertEquals(List.of(product(1, "Phone", null), product(2, null, BigDecimal.valueOf(1999, 2))),
+                batches.get(0));
+        assertEquals(List.of(product(5, "Tablet", BigDecimal.TEN)), batches.get(1));
+    }
+
+    @Test
+    void load_ShouldReturnNullWithoutSnapshotOrWhenOlderThanMaxAge() throws IOException {
+        assertNull(store(Clock.fixed(NOW, ZoneOffset.UTC), 1 << 20).load(10, batch -> fail()));
+
+        write(store(Clock.fixed(NOW, ZoneOffset.UTC), 1 << 20), "7", product(1, "Phone", null));
+        Clock dayLater = Clock.fixed(NOW.plus(Duration.ofHours(25)), ZoneOffset.UTC);
+
+        assertNull(store(dayLater, 1 << 20).load(10, batch -> fail()));
+    }
+
+    @Test
+    void load_ShouldRemapWhenRecordsCrossWindowBoundaries() throws IOException {
+        // Windows smaller than one record force a remap for nearly every read
+        CatalogSnapshotStore store = store(Clock.fixed(NOW, ZoneOffset.UTC), 16);
+        IndexedProduct[] products = new IndexedProduct[50];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = product(i + 1, "Product " + "x".repeat(i), BigDecimal.valueOf(i));
+        }
+        write(store, "3", products);
+
+        List<IndexedProduct> loaded = new ArrayList<>();
+        store.load(7, loaded::addAll);
+
+        assertEquals(List.of(products), loaded);
+    }
+
+    @Test
+    void load_ShouldRejectCorruptSnapshot() throws IOException {
+        CatalogSnapshotStore store = store(Clock.fixed(NOW, ZoneOffset.UTC), 1 << 20);
+        write(store, "9", product(1, "Phone", null), product(2, "Tablet", null));
+        try (RandomAccessFile file = new RandomAccessFile(
+                directory.resolve(CatalogSnapshotStore.FILE_NAME).toFile(), "rw")) {
+            // Inside the last record, just before the footer
+            file.seek(file.length() - 25);
+            file.write(file.read() ^ 0xff);
+        }
+
+        assertThrows(IOException.class, () -> store.load(10, batch -> { }));
+    }
+
+    @Test
+    void merge_ShouldApplyStagedUpdatesRemovalsAndInserts() throws IOException {
+        CatalogSnapshotStore store = store(Clock.fixed(NOW, ZoneOffset.UTC), 1 << 20);
+        write(store, "10", product(1, "Phone", null), product(3, "Tablet", null), product(5, "Laptop", null));
+
+        store.stage(List.of(product(3, "Tablet Pro", null), product(4, "Watch", null),
+                product(9, "Camera", null)), List.of(1L));
+        store.stage(List.of(), List.of(9L));
+
+        assertTrue(store.merge("15"));
+        List<IndexedProduct> loaded = new ArrayList<>();
+        assertEquals("15", store.load(10, loaded::addAll));
+        assertEquals(List.of(product(3, "Tablet Pro", null), product(4, "Watch", null), product(5, "Laptop", null)),
+                loaded);
+    }
+
+    @Test
+    void merge_ShouldDoNothingWithoutASnapshotToMergeInto() throws IOException {
+        CatalogSnapshotStore store = store(Clock.fixed(NOW, ZoneOffset.UTC), 1 << 20);
+        store.stage(List.of(product(2, "Phone", null)), List.of());
+
+        assertFalse(store.merge("5"));
+        assertFalse(Files.exists(directory.resolve(CatalogSnapshotStore.FILE_NAME)));
+    }
+
+    @Test
+    void create_ShouldRejectOutOfOrderProductsAndLeaveExistingSnapshot() throws IOException {
+        CatalogSnapshotStore store = store(Clock.fixed(NOW, ZoneOffset.UTC), 1 << 20);
+        write(store, "1", product(1, "Phone", null));
+
+        try (CatalogSnapshotFile.Writer writer = store.create("2")) {
+            writer.write(product(5, "Laptop", null));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(product(4, "Watch", null)));
+        }
+
+        List<IndexedProduct> loaded = new ArrayList<>();
+        assertEquals("1", store.load(10, loaded::addAll));
+        assertEquals(List.of(product(1, "Phone", null)), loaded);
+        assertFalse(Files.exists(directory.resolve(CatalogSnapshotStore.FILE_NAME + ".tmp")));
+    }
+
+    private CatalogSnapshotStore store(Clock clock, int windowSize) {
+        return new CatalogSnapshotStore(directory, Duration.ofHours(24), windowSize, clock);
+    }
+
+    private static void write(CatalogSnapshotStore store, String token, IndexedProduct... products)
+            throws IOException {
+        try (CatalogSnapshotFile.Writer writer = store.create(token)) {
+            for (IndexedProduct product : products) {
+                writer.write(product);
+            }
+            writer.commit();
+        }
+    }
+
+    private static IndexedProduct product(long id, String name, BigDecimal price) {
+        return new IndexedProduct(id, "SKU-" + id, name, "Short " + id, null, "Brand", Set.of("new", "sale"),
+                id % 2 == 0 ? null : id * 10, price, "ACTIVE", (int) id * 3, id % 3 == 0,
+                id % 2 == 0 ? LocalDateTime.of(2026, 1, (int) (id % 28) + 1, 9, 30, 0, 123_456_000) : null);
+    }
+}
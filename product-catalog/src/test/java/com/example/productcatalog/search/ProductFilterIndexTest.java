@@ -0,0 +1,135 @@
+package com.example.productcatalog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFilterIndexTest {
+
+    private ProductFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFilterIndex();
+        index.indexAll(List.of(
+                product(1, "Apple", 3L, "999.00", "ACTIVE", 5, true),
+                product(2, "Spigen", 4L, "19.99", "ACTIVE", 0, false),
+                product(3, "Samsung", 3L, "899.00", "ACTIVE", 2, false),
+                product(4, "Apple", 3L, "199.00", "ARCHIVED", 1, false),
+                product(5, "apple", 3L, "499.50", "DRAFT", 8, false)));
+        index.markReady();
+    }
+
+    @Test
+    void filter_ShouldHideArchivedByDefaultAndReturnIdOrder() {
+        Page<Long> page = index.filter(query(null, null, null, null, null, null, null), PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 2L, 3L, 5L), page.getContent());
+        assertEquals(4, page.getTotalElements());
+    }
+
+    @Test
+    void filter_ShouldIntersectBitmapsAndScanPriceRange() {
+        ProductQuery query = query(3L, "APPLE", new BigDecimal("200"), new BigDecimal("999.00"), null, true, null);
+
+        assertEquals(List.of(1L, 5L), index.filter(query, PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(4L), index.filter(query(null, null, null, null, "ARCHIVED", null, null),
+                PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(2L, 3L, 5L), index.filter(query(null, null, null, null, null, null, false),
+                PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void filter_ShouldSortAndPageWithBoundedHeap() {
+        ProductQuery all = query(null, null, null, null, null, null, null);
+
+        Page<Long> page = index.filter(all, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "price")));
+        assertEquals(List.of(5L, 2L), page.getContent());
+        assertEquals(List.of(5L, 3L), index.filter(all, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")))
+                .getContent());
+        assertEquals(List.of(3L, 5L), index.filter(all, PageRequest.of(1, 2)).getContent());
+    }
+
+    @Test
+    void indexAll_ShouldMoveProductBetweenBitmapsOnUpdate() {
+        index.indexAll(List.of(product(2, "Apple", 3L, "19.99", "ARCHIVED", 4, true)));
+        index.removeAll(List.of(3L));
+
+        ProductQuery all = query(null, null, null, null, null, null, null);
+        assertEquals(List.of(1L, 5L), index.filter(all, PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(2L, 4L), index.filter(query(null, "apple", null, null, "ARCHIVED", null, null),
+                PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void filter_ShouldExcludeUnpricedProductsFromPriceBoundsAndSortThemLast() {
+        index.indexAll(List.of(new IndexedProduct(6, "SKU-6", "Product 6", null, null, "Apple", Set.of(), 3L,
+                null, "ACTIVE", 1, false, LocalDateTime.of(2024, 1, 6, 0, 0))));
+
+        assertEquals(List.of(2L), index.filter(query(null, null, null, new BigDecimal("100"), null, null, null),
+                PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(1L, 2L, 3L, 5L), index.filter(query(null, null, BigDecimal.ZERO, null, null, null, null),
+                PageRequest.of(0, 10)).getContent());
+        ProductQuery all = query(null, null, null, null, null, null, null);
+        assertEquals(List.of(2L, 5L, 3L, 1L, 6L), index.filter(all,
+                PageRequest.of(0, 10, Sort.by("price"))).getContent());
+        assertEquals(List.of(6L, 1L), index.filter(all,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price"))).getContent());
+    }
+
+    @Test
+    void indexAll_ShouldSizeColumnsByProductCountForSparseIds() {
+        // Ids of one shard out of four, with every third product archived away
+        index.clear();
+        List<IndexedProduct> products = new ArrayList<>();
+        for (long id = 2_000_000_003L; id > 2_000_000_003L - 4 * 3000; id -= 4) {
+            products.add(product(id, "Acme", 1L, String.valueOf(id % 1000), "ACTIVE", 1, false));
+        }
+        index.indexAll(products);
+        List<Long> removed = products.stream().map(IndexedProduct::id).filter(id -> id % 3 == 0).toList();
+        index.removeAll(removed);
+        index.markReady();
+
+        assertEquals(2000, index.size());
+        assertTrue(index.sizeInBytes() < 1024 * 1024, "columns should not be sized by the largest id");
+        List<Long> expected = products.stream().map(IndexedProduct::id)
+                .filter(id -> id % 3 != 0 && id % 1000 >= 990).sorted().toList();
+        assertEquals(expected, index.filter(query(null, null, new BigDecimal("990"), null, null, null, null),
+                PageRequest.of(0, 100)).getContent());
+        List<Long> priciest = products.stream().map(IndexedProduct::id).filter(id -> id % 3 != 0)
+                .sorted(Comparator.comparing((Long id) -> id % 1000).reversed().thenComparing(id -> id))
+                .limit(5).toList();
+        assertEquals(priciest, index.filter(query(null, null, null, null, null, null, null),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "price"))).getContent());
+    }
+
+    @Test
+    void filter_ShouldReturnNullForTextOrUnsupportedSort() {
+        assertNull(index.filter(new ProductQuery("phone", null, null, null, null, null, null, null),
+                PageRequest.of(0, 10)));
+        assertNull(index.filter(query(null, null, null, null, null, null, null),
+                PageRequest.of(0, 10, Sort.by("name"))));
+    }
+
+    private static ProductQuery query(Long categoryId, String brand, BigDecimal minPrice, BigDecimal maxPrice,
+            String status, Boolean inStock, Boolean featured) {
+        return new ProductQuery(null, categoryId, brand, minPrice, maxPrice, status, inStock, featured);
+    }
+
+    private static IndexedProduct product(long id, String brand, Long categoryId, String price, String status,
+            int quantity, boolean featured) {
+        return new IndexedProduct(id, "SKU-" + id, "Product " + id, null, null, brand, Set.of(), categoryId,
+                new BigDecimal(price), status, quantity, featured, LocalDateTime.of(2024, 1, (int) (id % 28) + 1, 0, 0));
+    }
+}
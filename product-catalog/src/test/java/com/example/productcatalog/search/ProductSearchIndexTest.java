@@ -0,0 +1,85 @@
+package com.example.productcatalog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.indexAll(List.of(
+                product(1, "Apple iPhone 15", "Apple", Set.of("smartphone"), 3L, "999.00", "ACTIVE", 5, true),
+                product(2, "iPhone 15 Case", "Spigen", Set.of("accessory"), 4L, "19.99", "ACTIVE", 0, false),
+                product(3, "Samsung Galaxy Phone", "Samsung", Set.of("smartphone"), 3L, "899.00", "ACTIVE", 2, false),
+                product(4, "Old iPhone 8", "Apple", Set.of("smartphone"), 3L, "199.00", "ARCHIVED", 1, false)));
+        index.markReady();
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAndExcludeArchivedByDefault() {
+        Page<Long> hits = index.search(query("iphone"), PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 2L), hits.getContent());
+        assertEquals(2, hits.getTotalElements());
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesAndRequireAllTokens() {
+        assertEquals(List.of(1L, 2L), index.search(query("iph 15"), PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(3L), index.search(query("smart gal"), PageRequest.of(0, 10)).getContent());
+        assertTrue(index.search(query("iphone galaxy"), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_ShouldIntersectWithStructuredFilters() {
+        ProductQuery query = new ProductQuery("smartphone", 3L, "apple", new BigDecimal("500"), null, null, true, null);
+
+        assertEquals(List.of(1L), index.search(query, PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void search_ShouldApplyRequestedSort() {
+        Page<Long> hits = index.search(query("smartphone"), PageRequest.of(0, 10, Sort.by("price")));
+
+        assertEquals(List.of(3L, 1L), hits.getContent());
+    }
+
+    @Test
+    void search_ShouldReturnNullWhenSqlMustAnswer() {
+        assertNull(index.search(query("iphone"), PageRequest.of(0, 10, Sort.by("brand"))));
+        assertNull(index.search(query("--"), PageRequest.of(0, 10)));
+        index.clear();
+        assertNull(index.search(query("iphone"), PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void indexAll_ShouldReplaceExistingDocument() {
+        index.indexAll(List.of(product(2, "Pixel Case", "Spigen", Set.of(), 4L, "19.99", "ACTIVE", 0, false)));
+
+        assertEquals(List.of(1L), index.search(query("iphone"), PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(2L), index.search(query("pixel"), PageRequest.of(0, 10)).getContent());
+    }
+
+    private static ProductQuery query(String text) {
+        return new ProductQuery(text, null, null, null, null, null, null, null);
+    }
+
+    private static IndexedProduct product(long id, String name, String brand, Set<String> tags, Long categoryId,
+            String price, String status, int quantity, boolean featured) {
+        return new IndexedProduct(id, "SKU-" + id, name, null, null, brand, tags, categoryId, new BigDecimal(price),
+                status, quantity, featured, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.productcatalog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSuggestIndex(10);
+        index.indexAll(List.of(
+                product(1, "APL-IP15", "Apple iPhone 15", "Apple", "ACTIVE", true),
+                product(2, "SPG-IP15", "iPhone 15 Case", "Spigen", "ACTIVE", false),
+                product(3, "SAM-GX1", "Samsung Galaxy Phone", "Samsung", "ACTIVE", false),
+                product(4, "APL-IP8", "Old iPhone 8", "Apple", "ARCHIVED", false)));
+        index.markReady();
+    }
+
+    @Test
+    void suggest_ShouldMatchNamesFromAnyWordStartAndRankByWeight() {
+        List<ProductSuggestIndex.Suggestion> suggestions = index.suggest("iph", 10);
+
+        assertEquals(List.of(1L, 2L), suggestions.stream().map(ProductSuggestIndex.Suggestion::productId).toList());
+    }
+
+    @Test
+    void suggest_ShouldMatchSkusAndBrandsIgnoringCaseAndAccents() {
+        assertEquals(3L, index.suggest("sam-", 5).get(0).productId());
+
+        List<ProductSuggestIndex.Suggestion> brands = index.suggest("ÁPP", 5).stream()
+                .filter(s -> s.type() == ProductSuggestIndex.Type.BRAND).toList();
+        assertEquals(1, brands.size());
+        assertEquals("Apple", brands.get(0).text());
+    }
+
+    @Test
+    void indexAll_ShouldReplacePreviousEntryAndDropInactiveProducts() {
+        index.indexAll(List.of(product(2, "SPG-IP15", "Pixel Case", "Spigen", "ACTIVE", false)));
+        index.indexAll(List.of(product(1, "APL-IP15", "Apple iPhone 15", "Apple", "INACTIVE", true)));
+
+        assertTrue(index.suggest("iph", 10).isEmpty());
+        assertEquals(2L, index.suggest("pix", 10).get(0).productId());
+        assertTrue(index.suggest("apple", 10).isEmpty());
+    }
+
+    @Test
+    void applyViews_ShouldPromoteViewedProducts() {
+        for (int i = 0; i < 20; i++) {
+            index.recordView(2L);
+        }
+        index.applyViews();
+
+        assertEquals(2L, index.suggest("iph", 1).get(0).productId());
+    }
+
+    @Test
+    void suggest_ShouldReturnNullUntilReady() {
+        index.clear();
+
+        assertNull(index.suggest("iph", 5));
+    }
+
+    private static IndexedProduct product(long id, String sku, String name, String brand, String status,
+            boolean featured) {
+        return new IndexedProduct(id, sku, name, null, null, brand, Set.of(), 1L, BigDecimal.TEN, status, 1,
+                featured, null);
+    }
+}
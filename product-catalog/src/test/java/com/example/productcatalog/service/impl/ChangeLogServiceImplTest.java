@@ -0,0 +1,139 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.repository.CatalogChangeRepository;
+import com.example.productcatalog.web.dto.CatalogChangeDTO;
+import com.example.productcatalog.web.dto.ChangeFeedDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeLogServiceImplTest {
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+
+    private ChangeLogServiceImpl changeLogService;
+
+    @BeforeEach
+    void setUp() {
+        changeLogService = new ChangeLogServiceImpl(catalogChangeRepository, event -> {
+        }, 100, Duration.ofSeconds(5), Duration.ofDays(7));
+    }
+
+    @Test
+    void getChanges_ShouldReturnBatchAndNextToken() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(10L), eq(Limit.of(3))))
+                .thenReturn(List.of(change(11, old), change(12, old), change(13, old)));
+
+        ChangeFeedDTO feed = changeLogService.getChanges("10", 2);
+
+        assertEquals(List.of(11L, 12L), feed.getChanges().stream().map(CatalogChangeDTO::getSeq).toList());
+        assertEquals("12", feed.getNextToken());
+        assertTrue(feed.isHasMore());
+    }
+
+    @Test
+    void getChanges_ShouldStopBeforeRecentGap() {
+        LocalDateTime now = LocalDateTime.now();
+        when(catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(0L), eq(Limit.of(101))))
+                .thenReturn(List.of(change(1, now), change(3, now)));
+
+        ChangeFeedDTO feed = changeLogService.getChanges(null, 500);
+
+        // seq 2 may still be in flight, so the consumer must not move past it yet
+        assertEquals(1, feed.getChanges().size());
+        assertEquals("1", feed.getNextToken());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void getChanges_ShouldSkipSettledGap() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(0L), eq(Limit.of(101))))
+                .thenReturn(List.of(change(1, old), change(5, old)));
+        // No other writing transaction is open
+        when(catalogChangeRepository.findOldestWritingTransactionStart()).thenReturn(null);
+
+        ChangeFeedDTO feed = changeLogService.getChanges("0", 100);
+
+        assertEquals(2, feed.getChanges().size());
+        assertEquals("5", feed.getNextToken());
+    }
+
+    @Test
+    void getChanges_ShouldWaitForASettledGapWhileAnOlderWriteIsStillOpen() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(0L), eq(Limit.of(101))))
+                .thenReturn(List.of(change(1, old), change(3, old)));
+        // A long transaction that started before seq 3 was written may hold seq 2
+        long startedBeforeSeq3 = old.minusMinutes(5).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        when(catalogChangeRepository.findOldestWritingTransactionStart()).thenReturn(startedBeforeSeq3);
+
+        ChangeFeedDTO feed = changeLogService.getChanges("0", 100);
+
+        assertEquals("1", feed.getNextToken());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void getChanges_ShouldSkipASettledGapWhenOnlyNewerWritesAreOpen() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(0L), eq(Limit.of(101))))
+                .thenReturn(List.of(change(1, old), change(3, old), change(6, old)));
+        long startedJustNow = System.currentTimeMillis();
+        when(catalogChangeRepository.findOldestWritingTransactionStart()).thenReturn(startedJustNow);
+
+        ChangeFeedDTO feed = changeLogService.getChanges("0", 100);
+
+        assertEquals("6", feed.getNextToken());
+        // Looked up once per poll, not once per gap
+        verify(catalogChangeRepository, times(1)).findOldestWritingTransactionStart();
+    }
+
+    @Test
+    void getRevision_ShouldChangeWhenAnEntryCommitsBehindTheNewest() {
+        when(catalogChangeRepository.findLatestSeq()).thenReturn(5000L);
+        when(catalogChangeRepository.countBySeqGreaterThan(5000L - ChangeLogServiceImpl.REVISION_TAIL))
+                .thenReturn(998L, 999L);
+
+        String before = changeLogService.getRevision();
+        // seq 4990 commits after seq 5000: the newest seq stays the same
+        String after = changeLogService.getRevision();
+
+        assertEquals("5000.998", before);
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void getChanges_WithInvalidToken_ShouldThrow() {
+        assertThrows(BadRequestException.class, () -> changeLogService.getChanges("abc", 10));
+    }
+
+    private static CatalogChange change(long seq, LocalDateTime changedAt) {
+        return CatalogChange.builder()
+                .seq(seq)
+                .entityType(CatalogChange.EntityType.PRODUCT)
+                .entityId(seq)
+                .operation(CatalogChange.Operation.UPDATED)
+                .changedAt(changedAt)
+                .build();
+    }
+}
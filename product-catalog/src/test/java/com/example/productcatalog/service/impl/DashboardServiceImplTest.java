@@ -0,0 +1,157 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.domain.Category;
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.repository.CatalogCounterRepository;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.CounterTotal;
+import com.example.productcatalog.repository.projection.ProductCounterGroup;
+import com.example.productcatalog.web.dto.DashboardDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceImplTest {
+
+    @Mock
+    private CatalogCounterRepository catalogCounterRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ObjectProvider<ProductShards> shards;
+
+    private DashboardServiceImpl dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardServiceImpl(catalogCounterRepository, productRepository, shards, 4);
+    }
+
+    @Test
+    void counterKeys_ShouldCountLiveProductsPerCategoryFeaturedAndLowStock() {
+        Product product = Product.builder().status("ACTIVE").featured(true).quantity(2).lowStockThreshold(5)
+                .category(Category.builder().id(7L).build()).build();
+
+        assertEquals(Set.of("status:ACTIVE", "category:7", "featured", "low_stock"),
+                dashboardService.counterKeys(product));
+
+        product.setStatus("ARCHIVED");
+        assertEquals(Set.of("status:ARCHIVED"), dashboardService.counterKeys(product));
+    }
+
+    @Test
+    void recordChange_ShouldOnlyTouchCountersThatChanged() {
+        dashboardService.recordChange(Set.of("status:DRAFT", "category:7"), Set.of("status:ACTIVE", "category:7"));
+
+        verify(catalogCounterRepository).increment(eq("status:ACTIVE"), anyInt(), eq(1L));
+        verify(catalogCounterRepository).increment(eq("status:DRAFT"), anyInt(), eq(-1L));
+        verify(catalogCounterRepository, never()).increment(eq("category:7"), anyInt(), anyLong());
+    }
+
+    @Test
+    void getDashboard_ShouldSumCountersAndSkipZeroes() {
+        when(catalogCounterRepository.findTotals()).thenReturn(List.of(total("status:ACTIVE", 8),
+                total("status:ARCHIVED", 2), total("status:DRAFT", 0), total("category:7", 5),
+                total("category:none", 3), total("featured", 4), total("low_stock", 1)));
+
+        DashboardDTO dashboard = dashboardService.getDashboard();
+
+        assertEquals(10, dashboard.getTotalProducts());
+        assertEquals(8, dashboard.getLiveProducts());
+        assertEquals(Map.of("ACTIVE", 8L, "ARCHIVED", 2L), dashboard.getProductsByStatus());
+        assertEquals(Map.of("7", 5L, "none", 3L), dashboard.getProductsByCategory());
+        assertEquals(4, dashboard.getFeaturedProducts());
+        assertEquals(1, dashboard.getLowStockProducts());
+    }
+
+    @Test
+    void reconcile_ShouldWriteDriftToReconcileSlot() {
+        when(productRepository.countCounterGroups()).thenReturn(List.of(
+                group("ACTIVE", 7L, true, false, 3), group("ARCHIVED", 7L, false, true, 2)));
+        when(catalogCounterRepository.findTotals()).thenReturn(List.of(total("status:ACTIVE", 3),
+                total("status:ARCHIVED", 1), total("category:7", 3), total("featured", 4),
+                total("status:DELETED", 0)));
+
+        int corrected = dashboardService.reconcile();
+
+        assertEquals(2, corrected);
+        verify(catalogCounterRepository).increment("status:ARCHIVED", 0, 1L);
+        verify(catalogCounterRepository).increment("featured", 0, -1L);
+        verify(catalogCounterRepository, never()).increment(eq("status:ACTIVE"), anyInt(), anyLong());
+        verify(catalogCounterRepository, never()).increment(eq("low_stock"), anyInt(), anyLong());
+    }
+
+    @Test
+    void reconcile_ShouldDoNothingWithoutDrift() {
+        when(productRepository.countCounterGroups()).thenReturn(List.of(group("DRAFT", null, false, false, 2)));
+        when(catalogCounterRepository.findTotals())
+                .thenReturn(List.of(total("status:DRAFT", 2), total("category:none", 2)));
+
+        assertEquals(0, dashboardService.reconcile());
+        verify(catalogCounterRepository, never()).increment(anyString(), anyInt(), anyLong());
+    }
+
+    private static CounterTotal total(String key, long amount) {
+        return new CounterTotal() {
+            @Override
+            public String getCounterKey() {
+                return key;
+            }
+
+            @Override
+            public Long getAmount() {
+                return amount;
+            }
+        };
+    }
+
+    private static ProductCounterGroup group(String status, Long categoryId, boolean featured, boolean lowStock,
+            long count) {
+        return new ProductCounterGroup() {
+            @Override
+            public String getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public Boolean getFeatured() {
+                return featured;
+            }
+
+            @Override
+            public Boolean getLowStock() {
+                return lowStock;
+            }
+
+            @Override
+            public Long getProductCount() {
+                return count;
+            }
+        };
+    }
+}
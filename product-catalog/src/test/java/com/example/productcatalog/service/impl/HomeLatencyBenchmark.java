@@ -0,0 +1,86 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.concurrency.FanOut;
+import com.example.productcatalog.service.CategoryService;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.service.ProductService;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Wall time of the home page's five section loads made one after the other,
+ * as the frontend did, against {@link HomeServiceImpl} loading them on its
+ * {@link FanOut} pool. Each section is simulated by sleeping for its
+ * latency, so this measures the orchestration only; {@code benchmarks/home.sh}
+ * measures a running instance end to end. Not a unit test:
+ *
+ * <pre>
+ *   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/classes:target/test-classes:$(cat cp.txt) \
+ *       com.example.productcatalog.service.impl.HomeLatencyBenchmark [runs]
+ * </pre>
+ */
+public final class HomeLatencyBenchmark {
+
+    // Simulated milliseconds per section call
+    private static final Map<String, Long> LATENCY_MILLIS = Map.of(
+            "getDashboard", 40L,
+            "getAllCategories", 10L,
+            "getFeaturedProducts", 25L,
+            "getLowStockProducts", 30L,
+            "searchProducts", 25L);
+
+    private HomeLatencyBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        DashboardService dashboardService = simulated(DashboardService.class);
+        CategoryService categoryService = simulated(CategoryService.class);
+        ProductService productService = simulated(ProductService.class);
+        FanOut fanOut = new FanOut("home", 10, 50, Duration.ofSeconds(2));
+        HomeServiceImpl homeService = new HomeServiceImpl(dashboardService, categoryService, productService, fanOut);
+        try {
+            System.out.printf("sections %s%n", LATENCY_MILLIS);
+            report("sequential", runs, () -> {
+                dashboardService.getDashboard();
+                categoryService.getAllCategories();
+                productService.getFeaturedProducts(PageRequest.of(0, 8));
+                productService.getLowStockProducts(PageRequest.of(0, 10));
+                productService.searchProducts(null, null, null, null, null, null, null, null, null, null,
+                        PageRequest.of(0, 5));
+            });
+            report("home", runs, () -> homeService.getHome(8, 10, 5));
+        } finally {
+            fanOut.shutdown();
+        }
+    }
+
+    private static void report(String name, int runs, Runnable pageLoad) {
+        for (int i = 0; i < 5; i++) {
+            pageLoad.run();
+        }
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            pageLoad.run();
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-12s median %5d ms   p95 %5d ms%n", name, millis[(runs - 1) / 2],
+                millis[Math.min(runs - 1, (int) (runs * 0.95))]);
+    }
+
+    // Every call sleeps for its section's latency and returns null
+    private static <T> T simulated(Class<T> service) {
+        return mock(service, invocation -> {
+            Thread.sleep(LATENCY_MILLIS.getOrDefault(invocation.getMethod().getName(), 0L));
+            return null;
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.concurrency.FanOut;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.service.CategoryService;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.web.dto.CategoryDTO;
+import com.example.productcatalog.web.dto.DashboardDTO;
+import com.example.productcatalog.web.dto.HomeDTO;
+import com.example.productcatalog.web.dto.ProductDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HomeServiceImplTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private ProductService productService;
+
+    private FanOut fanOut;
+
+    private HomeServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        fanOut = new FanOut("test", 5, 5, Duration.ofMillis(300));
+        service = new HomeServiceImpl(dashboardService, categoryService, productService, fanOut);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOut.shutdown();
+    }
+
+    @Test
+    void getHome_ShouldReturnEverySectionWithTheRequestedSizes() {
+        DashboardDTO dashboard = DashboardDTO.builder().totalProducts(3).build();
+        List<CategoryDTO> categories = List.of(CategoryDTO.builder().id(1L).name("Phones").build());
+        Page<ProductDTO> featured = page("SKU-1");
+        Page<ProductDTO> lowStock = page("SKU-2");
+        Page<ProductDTO> recent = page("SKU-3");
+        when(dashboardService.getDashboard()).thenReturn(dashboard);
+        when(categoryService.getAllCategories()).thenReturn(categories);
+        when(productService.getFeaturedProducts(PageRequest.of(0, 8))).thenReturn(featured);
+        when(productService.getLowStockProducts(PageRequest.of(0, 10))).thenReturn(lowStock);
+        when(productService.searchProducts(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                eq(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createdAt"))))).thenReturn(recent);
+
+        HomeDTO home = service.getHome(8, 10, 5);
+
+        assertSame(dashboard, home.getDashboard());
+        assertSame(categories, home.getCategories());
+        assertSame(featured, home.getFeaturedProducts());
+        assertSame(lowStock, home.getLowStockProducts());
+        assertSame(recent, home.getRecentProducts());
+        assertEquals(List.of(), home.getUnavailableSections());
+    }
+
+    @Test
+    void getHome_ShouldAnswerWithoutFailedAndLateSections() {
+        CountDownLatch release = new CountDownLatch(1);
+        DashboardDTO dashboard = DashboardDTO.builder().totalProducts(3).build();
+        Page<ProductDTO> featured = page("SKU-1");
+        Page<ProductDTO> recent = page("SKU-3");
+        when(dashboardService.getDashboard()).thenReturn(dashboard);
+        when(categoryService.getAllCategories()).thenThrow(new IllegalStateException("database down"));
+        when(productService.getFeaturedProducts(any(Pageable.class))).thenReturn(featured);
+        when(productService.getLowStockProducts(any(Pageable.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return page("SKU-2");
+        });
+        when(productService.searchProducts(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(Pageable.class))).thenReturn(recent);
+
+        try {
+            HomeDTO home = service.getHome(8, 10, 5);
+
+            assertSame(dashboard, home.getDashboard());
+            assertNull(home.getCategories());
+            assertSame(featured, home.getFeaturedProducts());
+            assertNull(home.getLowStockProducts());
+            assertSame(recent, home.getRecentProducts());
+            assertEquals(List.of("categories", "lowStockProducts"), home.getUnavailableSections());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void getHome_ShouldRejectSectionSizesOutOfRange() {
+        assertThrows(BadRequestException.class, () -> service.getHome(0, 10, 5));
+        assertThrows(BadRequestException.class, () -> service.getHome(8, 51, 5));
+        assertThrows(BadRequestException.class, () -> service.getHome(8, 10, -1));
+
+        verifyNoInteractions(dashboardService, categoryService, productService);
+    }
+
+    private static Page<ProductDTO> page(String sku) {
+        return new PageImpl<>(List.of(ProductDTO.builder().sku(sku).build()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.ProductKey;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductArchiveServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ProductShards> shards;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("products", "productBySku");
+    }
+
+    @Test
+    void archiveExpired_ShouldMoveChunksUntilOneIsShort() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.lockArchivedBefore(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(key(1L, "SKU-1"), key(2L, "SKU-2")))
+                .thenReturn(List.of(key(5L, "SKU-5")));
+        when(dashboardService.countProducts(any())).thenReturn(Map.of("status:ARCHIVED", 2L));
+        cacheManager.getCache("products").put(1L, "cached");
+        cacheManager.getCache("productBySku").put("SKU-5", "cached");
+
+        int moved = service(true).archiveExpired();
+
+        assertEquals(3, moved);
+        InOrder order = inOrder(changeLogService, productRepository, dashboardService);
+        order.verify(changeLogService).recordProducts(List.of(1L, 2L), CatalogChange.Operation.DELETED);
+        order.verify(productRepository).copyToArchive(List.of(1L, 2L));
+        order.verify(productRepository).deleteRowsByIdIn(List.of(1L, 2L));
+        order.verify(dashboardService).recordChange(Map.of("status:ARCHIVED", 2L), Map.of());
+        verify(productRepository).deleteRowsByIdIn(List.of(5L));
+        assertNull(cacheManager.getCache("products").get(1L));
+        assertNull(cacheManager.getCache("productBySku").get("SKU-5"));
+    }
+
+    @Test
+    void archiveExpired_ShouldDoNothingWhenDisabled() {
+        assertEquals(0, service(false).archiveExpired());
+        verify(productRepository, never()).lockArchivedBefore(any(), anyInt());
+    }
+
+    private ProductArchiveServiceImpl service(boolean enabled) {
+        return new ProductArchiveServiceImpl(productRepository, changeLogService, dashboardService,
+                new ProductCacheEvictor(cacheManager), transactionManager, shards, enabled, Duration.ofDays(30), 2);
+    }
+
+    private static ProductKey key(Long id, String sku) {
+        return new ProductKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSku() {
+                return sku;
+            }
+        };
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.domain.Product;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.repository.CategoryRepository;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.ProductField;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
+import com.example.productcatalog.web.dto.BulkProductSelection;
+import com.example.productcatalog.web.dto.BulkProductUpdateRequest;
+import com.example.productcatalog.web.dto.BulkStatusRequest;
+import com.example.productcatalog.web.dto.BulkUpdateResult;
+import com.example.productcatalog.web.dto.ProductDTO;
+import com.example.productcatalog.writebehind.StockUpdate;
+import com.example.productcatalog.writebehind.StockUpdateJournal;
+import com.example.productcatalog.writebehind.StockUpdateWriter;
+import com.example.productcatalog.writebehind.StockWriteBehindBuffer;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ProductShards> shards;
+
+    @Mock
+    private ObjectProvider<StockWriteBehindBuffer> stockWriteBehind;
+
+    @Mock
+    private StockUpdateWriter stockUpdateWriter;
+
+    @TempDir
+    java.nio.file.Path journalDir;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private ProductBulkServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("products", "productBySku");
+        service = new ProductBulkServiceImpl(productRepository, categoryRepository, changeLogService,
+                dashboardService, new ProductCacheEvictor(cacheManager), transactionManager, shards, stockWriteBehind, 2);
+    }
+
+    @Test
+    void updateStatus_ShouldUpdateChunkByChunkAndApplyCounterDeltas() {
+        List<Tuple> firstChunk = List.of(row(1L, "SKU-1"), row(2L, "SKU-2"));
+        List<Tuple> secondChunk = List.of(row(5L, "SKU-5"));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.findColumns(any(), any(), any(), eq(2)))
+                .thenReturn(firstChunk)
+                .thenReturn(secondChunk);
+        // The second chunk's product was changed by then and no longer matches
+        when(productRepository.updateAll(any(), any(), any(), any(LocalDateTime.class))).thenReturn(2, 0);
+        when(dashboardService.countProducts(List.of(1L, 2L)))
+                .thenReturn(Map.of("status:ACTIVE", 2L))
+                .thenReturn(Map.of("status:ARCHIVED", 2L));
+        when(dashboardService.countProducts(List.of(5L))).thenReturn(Map.of("status:ACTIVE", 1L));
+        cacheManager.getCache("products").put(1L, "cached");
+        cacheManager.getCache("productBySku").put("SKU-5", "cached");
+
+        BulkStatusRequest request = new BulkStatusRequest();
+        request.setFilter(new BulkProductSelection.Filter());
+        request.setStatus("ARCHIVED");
+        BulkUpdateResult result = service.updateStatus(request);
+
+        assertEquals(3, result.getMatched());
+        assertEquals(2, result.getUpdated());
+        assertEquals(2, result.getChunks());
+        verify(changeLogService).recordProducts(eq(List.of(1L, 2L)), eq(CatalogChange.Operation.UPDATED),
+                any(LocalDateTime.class));
+        verify(dashboardService).recordChange(Map.of("status:ACTIVE", 2L), Map.of("status:ARCHIVED", 2L));
+        // Nothing was updated in the second chunk, so there is no delta to apply
+        verify(dashboardService, never()).recordChange(eq(Map.of("status:ACTIVE", 1L)), ArgumentMatchers.<Map<String, Long>>any());
+        assertNull(cacheManager.getCache("products").get(1L));
+        assertNull(cacheManager.getCache("productBySku").get("SKU-5"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateStatus_ShouldSupersedeBufferedStatusOfWrittenProductsBeforeTheNextFlush() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, false),
+                stockUpdateWriter, 1000);
+        buffer.submit(1, null, "ACTIVE");
+        buffer.submit(2, 5, "DRAFT");
+        when(stockWriteBehind.getIfAvailable()).thenReturn(buffer);
+        List<Tuple> chunk = List.of(row(1L, "SKU-1"), row(2L, "SKU-2"));
+        // Product 2 stopped matching before the UPDATE, so only product 1 carries the chunk's stamp
+        Tuple written = mock(Tuple.class);
+        when(written.get(ProductField.ID.name(), Long.class)).thenReturn(1L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.findColumns(any(), any(), any(), eq(2)))
+                .thenReturn(chunk)
+                .thenReturn(List.of(written))
+                .thenReturn(List.of());
+        when(productRepository.updateAll(any(), any(), any(), any(LocalDateTime.class))).thenReturn(1);
+
+        BulkStatusRequest request = new BulkStatusRequest();
+        request.setIds(List.of(1L, 2L));
+        request.setStatus("ARCHIVED");
+        service.updateStatus(request);
+
+        assertNull(buffer.pendingSequence(1));
+        assertEquals("DRAFT", buffer.overlay(ProductDTO.builder().id(2L).status("ACTIVE").build()).getStatus());
+        assertEquals(1, buffer.flush());
+        ArgumentCaptor<List<StockUpdate>> batch = ArgumentCaptor.forClass(List.class);
+        verify(stockUpdateWriter).write(batch.capture());
+        // The flush no longer puts product 1's older status back over ARCHIVED
+        assertEquals(List.of(new StockUpdate(2, 5, "DRAFT", batch.getValue().get(0).seq())), batch.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateFields_ShouldRepeatTheSelectionAndThePriceGuardInTheUpdate() {
+        List<Tuple> chunk = List.of(row(1L, "SKU-1"));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.findColumns(any(), any(), any(), anyInt())).thenReturn(chunk);
+        when(productRepository.updateAll(any(), any(), any(), any(LocalDateTime.class))).thenReturn(1);
+
+        BulkProductUpdateRequest.PriceAdjustment adjustment = new BulkProductUpdateRequest.PriceAdjustment();
+        adjustment.setType(BulkProductUpdateRequest.PriceAdjustment.Type.AMOUNT);
+        adjustment.setValue(new BigDecimal("-5"));
+        BulkProductUpdateRequest request = new BulkProductUpdateRequest();
+        request.setIds(List.of(1L));
+        request.setPriceAdjustment(adjustment);
+        BulkUpdateResult result = service.updateFields(request);
+
+        assertEquals(1, result.getUpdated());
+        ArgumentCaptor<Specification<Product>> where = ArgumentCaptor.forClass(Specification.class);
+        verify(productRepository).updateAll(eq(List.of(1L)), where.capture(), any(), any(LocalDateTime.class));
+
+        Root<Product> root = mock(Root.class);
+        Path<Object> column = mock(Path.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        when(root.get(anyString())).thenReturn(column);
+        where.getValue().toPredicate(root, null, cb);
+        verify(column).in(Set.of(1L));
+        verify(cb).greaterThan(ArgumentMatchers.<Expression<BigDecimal>>any(), eq(BigDecimal.ZERO));
+        // Price alone cannot move a product between dashboard counters
+        verifyNoInteractions(dashboardService);
+    }
+
+    @Test
+    void updateFields_ShouldRejectInvalidRequestsBeforeTouchingTheDatabase() {
+        BulkProductUpdateRequest noChanges = new BulkProductUpdateRequest();
+        noChanges.setIds(List.of(1L));
+        assertThrows(BadRequestException.class, () -> service.updateFields(noChanges));
+
+        BulkProductUpdateRequest neitherSelection = new BulkProductUpdateRequest();
+        neitherSelection.setFeatured(true);
+        assertThrows(BadRequestException.class, () -> service.updateFields(neitherSelection));
+
+        BulkProductUpdateRequest bothSelections = new BulkProductUpdateRequest();
+        bothSelections.setIds(List.of(1L));
+        bothSelections.setFilter(new BulkProductSelection.Filter());
+        bothSelections.setFeatured(true);
+        assertThrows(BadRequestException.class, () -> service.updateFields(bothSelections));
+
+        BulkProductUpdateRequest.PriceAdjustment zero = new BulkProductUpdateRequest.PriceAdjustment();
+        zero.setType(BulkProductUpdateRequest.PriceAdjustment.Type.SET);
+        zero.setValue(BigDecimal.ZERO);
+        BulkProductUpdateRequest zeroPrice = new BulkProductUpdateRequest();
+        zeroPrice.setIds(List.of(1L));
+        zeroPrice.setPriceAdjustment(zero);
+        assertThrows(BadRequestException.class, () -> service.updateFields(zeroPrice));
+
+        verifyNoInteractions(productRepository, transactionManager);
+    }
+
+    private static Tuple row(Long id, String sku) {
+        Tuple row = mock(Tuple.class);
+        when(row.get(ProductField.ID.name(), Long.class)).thenReturn(id);
+        when(row.get(ProductField.SKU.name(), String.class)).thenReturn(sku);
+        return row;
+    }
+}
@@ -1,27 +1,45 @@
 package com.example.productcatalog.service.impl;
 
+import com.example.productcatalog.cache.ProductCacheEvictor;
+import com.example.productcatalog.datasource.ProductShards;
+import com.example.productcatalog.datasource.ReadYourWritesContext;
+import com.example.productcatalog.domain.CatalogChange;
 import com.example.productcatalog.domain.Category;
 import com.example.productcatalog.domain.Product;
 import com.example.productcatalog.exception.ResourceNotFoundException;
+import com.example.productcatalog.patch.ProductPatcher;
 import com.example.productcatalog.repository.CategoryRepository;
 import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.search.ProductFilterIndex;
+import com.example.productcatalog.search.ProductSearchIndex;
+import com.example.productcatalog.service.ChangeLogService;
+import com.example.productcatalog.service.DashboardService;
 import com.example.productcatalog.web.dto.CreateProductRequest;
 import com.example.productcatalog.web.dto.ProductDTO;
+import com.example.productcatalog.web.dto.ProductPatchRequest;
 import com.example.productcatalog.web.mapper.ProductMapper;
+import com.example.productcatalog.writebehind.StockWriteBehindBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +57,32 @@ class ProductServiceImplTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private ProductPatcher productPatcher;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("products", "productBySku");
+
+    @Spy
+    private ProductCacheEvictor productCacheEvictor = new ProductCacheEvictor(cacheManager);
+
+    @Mock
+    private ObjectProvider<ProductSearchIndex> searchIndex;
+
+    @Mock
+    private ObjectProvider<ProductFilterIndex> filterIndex;
+
+    @Mock
+    private ObjectProvider<StockWriteBehindBuffer> stockWriteBehind;
+
+    @Mock
+    private ObjectProvider<ProductShards> shards;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -92,6 +136,21 @@ class ProductServiceImplTest {
         assertEquals(1L, result.getId());
     }
 
+    @Test
+    void getProductById_ShouldReadOnThePrimaryBecauseTheResultIsCached() {
+        AtomicBoolean primary = new AtomicBoolean();
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            primary.set(ReadYourWritesContext.isPrimaryRequired());
+            return Optional.of(product);
+        });
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+
+        productService.getProductById(1L);
+
+        assertTrue(primary.get());
+        assertFalse(ReadYourWritesContext.isPrimaryRequired());
+    }
+
     @Test
     void getProductById_NotFound() {
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
@@ -110,6 +169,51 @@ class ProductServiceImplTest {
         assertEquals("ARCHIVED", product.getStatus());
     }
 
+    @Test
+    void patchProduct_ShouldSkipWriteAndEvictionWhenNothingChanges() {
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setName("Test Product");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productPatcher.apply(eq(product), eq(patch), any())).thenReturn(new ProductPatcher.Changes(Set.of(), 0, 0));
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+
+        ProductDTO result = productService.patchProduct(1L, patch);
+
+        assertEquals(productDTO, result);
+        verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(changeLogService, productCacheEvictor);
+    }
+
+    @Test
+    void patchProduct_ShouldSaveRecordAndEvictOnlyAfterCommit() {
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setName("Renamed");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productPatcher.apply(eq(product), eq(patch), any()))
+                .thenReturn(new ProductPatcher.Changes(Set.of("name"), 0, 0));
+        when(productRepository.save(product)).thenReturn(product);
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+        cacheManager.getCache("products").put(1L, productDTO);
+        cacheManager.getCache("productBySku").put("SKU-123", productDTO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productService.patchProduct(1L, patch);
+
+            verify(productRepository).save(product);
+            verify(changeLogService).record(CatalogChange.EntityType.PRODUCT, 1L, CatalogChange.Operation.UPDATED);
+            // Still cached until the transaction commits
+            assertNotNull(cacheManager.getCache("products").get(1L));
+            assertNotNull(cacheManager.getCache("productBySku").get("SKU-123"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(cacheManager.getCache("products").get(1L));
+        assertNull(cacheManager.getCache("productBySku").get("SKU-123"));
+    }
+
     @Test
     void getAllProducts_Success() {
         Pageable pageable = PageRequest.of(0, 10);
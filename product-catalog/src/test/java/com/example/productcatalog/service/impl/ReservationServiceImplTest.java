@@ -0,0 +1,154 @@
+package com.example.productcatalog.service.impl;
+
+import com.example.productcatalog.domain.CatalogChange;
+import com.example.productcatalog.event.CatalogChangeEvent;
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.exception.InsufficientStockException;
+import com.example.productcatalog.inventory.ReservationBatch;
+import com.example.productcatalog.inventory.ReservationLedger;
+import com.example.productcatalog.inventory.ReservationStore;
+import com.example.productcatalog.inventory.StockHold;
+import com.example.productcatalog.repository.ProductRepository;
+import com.example.productcatalog.repository.projection.ProductStockLevel;
+import com.example.productcatalog.web.dto.ReservationDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceImplTest {
+
+    @Mock
+    private ReservationStore store;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ReservationLedger ledger = new ReservationLedger();
+
+    @Test
+    void reserve_ShouldLoadStockOnceAndRefuseToOversell() {
+        stockLevel(3, 0, "ACTIVE");
+        ReservationServiceImpl service = service();
+
+        ReservationDTO reservation = service.reserve(1L, 2, null);
+
+        assertEquals("ACTIVE", reservation.getStatus());
+        assertEquals(1, reservation.getAvailableQuantity());
+        assertThrows(InsufficientStockException.class, () -> service.reserve(1L, 2, null));
+        verify(productRepository, times(1)).findStockLevelsByIdIn(any());
+    }
+
+    @Test
+    void reserve_ShouldRejectInactiveProductsAndLongHolds() {
+        stockLevel(3, 0, "DRAFT");
+        ReservationServiceImpl service = service();
+
+        assertThrows(BadRequestException.class, () -> service.reserve(1L, 1, Duration.ofHours(2)));
+        assertThrows(BadRequestException.class, () -> service.reserve(1L, 1, null));
+    }
+
+    @Test
+    void confirm_ShouldFlushTheSaleBeforeReturningAndBeRepeatable() {
+        stockLevel(3, 0, "ACTIVE");
+        ReservationServiceImpl service = service();
+        UUID id = service.reserve(1L, 2, null).getId();
+
+        ReservationDTO confirmed = service.confirm(id);
+        ReservationDTO again = service.confirm(id);
+
+        assertEquals("CONFIRMED", confirmed.getStatus());
+        assertEquals(confirmed, again);
+        ArgumentCaptor<ReservationBatch> batch = ArgumentCaptor.forClass(ReservationBatch.class);
+        verify(store, times(1)).write(batch.capture());
+        // Reserved and confirmed within one flush: no hold row, just the sale
+        assertTrue(batch.getValue().created().isEmpty());
+        assertEquals(2, batch.getValue().deltas().get(0).sold());
+        assertEquals(0, batch.getValue().deltas().get(0).reserved());
+    }
+
+    @Test
+    void expireHolds_ShouldReleaseRecoveredHoldsPastTheirExpiry() {
+        StockHold stale = new StockHold(UUID.randomUUID(), 1L, 2, LocalDateTime.now().minusMinutes(1),
+                LocalDateTime.now().minusMinutes(11));
+        when(store.recover()).thenReturn(List.of(stale));
+        stockLevel(5, 2, "ACTIVE");
+        ReservationServiceImpl service = service();
+
+        assertEquals(1, service.expireHolds());
+        assertEquals(5, ledger.getStock(1L).getAvailable());
+        assertEquals(0, ledger.getActiveCount());
+    }
+
+    @Test
+    void onCatalogChange_ShouldApplyQuantityEditsToLoadedStock() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.findStockLevelsByIdIn(any()))
+                .thenReturn(List.of(level(3, 0, "ACTIVE")))
+                .thenReturn(List.of(level(10, 1, "ACTIVE")));
+        ReservationServiceImpl service = service();
+        service.reserve(1L, 1, null);
+
+        service.onCatalogChange(new CatalogChangeEvent(CatalogChange.EntityType.PRODUCT, List.of(1L, 2L),
+                CatalogChange.Operation.UPDATED));
+
+        assertEquals(9, ledger.getStock(1L).getAvailable());
+    }
+
+    private ReservationServiceImpl service() {
+        return new ReservationServiceImpl(ledger, store, productRepository, transactionManager,
+                Duration.ofMinutes(10), Duration.ofMinutes(30), 4);
+    }
+
+    private void stockLevel(int quantity, int reserved, String status) {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.findStockLevelsByIdIn(any())).thenReturn(List.of(level(quantity, reserved, status)));
+    }
+
+    private static ProductStockLevel level(int quantity, int reserved, String status) {
+        return new ProductStockLevel() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public String getSku() {
+                return "SKU-1";
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Integer getReservedQuantity() {
+                return reserved;
+            }
+
+            @Override
+            public String getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.productcatalog.warmup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThroughputPlateauTest {
+
+    @Test
+    void record_ShouldWaitWhileThroughputClimbs() {
+        ThroughputPlateau plateau = new ThroughputPlateau(3, 0.1);
+
+        // 100, 200, 400 calls/s: the JIT is still compiling
+        assertFalse(plateau.record(100, 1_000_000_000L));
+        assertFalse(plateau.record(200, 1_000_000_000L));
+        assertFalse(plateau.record(400, 1_000_000_000L));
+        assertFalse(plateau.record(1000, 1_000_000_000L));
+        assertFalse(plateau.record(1050, 1_000_000_000L));
+
+        assertTrue(plateau.record(1020, 1_000_000_000L));
+        assertEquals(6, plateau.getRounds());
+        assertEquals(1020, plateau.getLatest(), 0.001);
+    }
+
+    @Test
+    void record_ShouldNotPlateauBeforeTheWindowIsFull() {
+        ThroughputPlateau plateau = new ThroughputPlateau(3, 0.5);
+
+        assertFalse(plateau.record(500, 1_000_000_000L));
+        assertFalse(plateau.record(500, 1_000_000_000L));
+        assertTrue(plateau.record(500, 1_000_000_000L));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.productcatalog.warmup;
+
+import com.example.productcatalog.cache.HotKeyMonitor;
+import com.example.productcatalog.cache.HotKeyTracker;
+import com.example.productcatalog.cache.ProductAccessTracker;
+import com.example.productcatalog.cache.ProductCacheObserver;
+import com.example.productcatalog.cache.RefreshAheadCache;
+import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.web.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+    @Mock
+    private ProductService productService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void warmUp_ShouldOnlyReadAndExportItsDuration() {
+        ProductDTO product = ProductDTO.builder().id(1L).sku("ELEC-PHN-X100").name("Smartphone X")
+                .price(BigDecimal.TEN).categoryId(3L).brand("Acme").build();
+        // A paged PageImpl: Jackson cannot serialize the unpaged Pageable of PageImpl(List)
+        Page<ProductDTO> page = new PageImpl<>(List.of(product), PageRequest.of(0, 20), 1);
+        when(productService.getAllProducts(any())).thenReturn(page);
+        when(productService.getProductById(anyLong())).thenReturn(product);
+        when(productService.getProductBySku(anyString())).thenReturn(product);
+        lenient().when(productService.searchProducts(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any())).thenReturn(page);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WarmupRunner runner = new WarmupRunner(productService, objectMapper, Duration.ofSeconds(30), 2, 50, 10, 2,
+                10.0);
+        runner.bindTo(registry);
+
+        runner.warmUp();
+
+        // A tolerance this wide plateaus after the first two rounds
+        assertEquals(100, registry.get("app.warmup.calls").gauge().value());
+        assertTrue(registry.get("app.warmup.duration").timeGauge().value() > 0);
+        verify(productService, atLeastOnce()).getProductById(1L);
+        verify(productService, atLeastOnce()).getProductBySku("ELEC-PHN-X100");
+        verify(productService, never()).updateProduct(any(), any());
+        verify(productService, never()).updateStock(any(), any(), any());
+        verify(productService, never()).deleteProduct(any());
+    }
+
+    @Test
+    void warmUp_ShouldGiveUpWhenEveryCallFails() {
+        ProductDTO product = ProductDTO.builder().id(1L).sku("ELEC-PHN-X100").build();
+        // The sample loads, then the database goes away
+        when(productService.getAllProducts(any())).thenReturn(new PageImpl<>(List.of(product)))
+                .thenThrow(new IllegalStateException("database down"));
+        when(productService.getProductById(anyLong())).thenThrow(new IllegalStateException("database down"));
+        when(productService.getProductBySku(anyString())).thenThrow(new IllegalStateException("database down"));
+        lenient().when(productService.searchProducts(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any())).thenThrow(new IllegalStateException("database down"));
+        lenient().when(productService.getFeaturedProducts(any())).thenThrow(new IllegalStateException("database down"));
+        lenient().when(productService.searchProductSummaries(any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), any(), any())).thenThrow(new IllegalStateException("database down"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WarmupRunner runner = new WarmupRunner(productService, objectMapper, Duration.ofSeconds(30), 2, 50, 10, 3,
+                0.1);
+        runner.bindTo(registry);
+
+        runner.warmUp();
+
+        assertEquals(0, registry.get("app.warmup.calls").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_ShouldLeaveTheHotKeyCountsUntouched() {
+        ProductDTO product = ProductDTO.builder().id(1L).sku("ELEC-PHN-X100").build();
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ProductAccessTracker accessTracker = new ProductAccessTracker(redis, "hot-products", 1, 100);
+        HotKeyTracker hotKeys = new HotKeyTracker(1, 10, 1024);
+        // The decorators of the products cache, as wired for Redis
+        Cache cache = new ProductCacheObserver(new RefreshAheadCache(new ConcurrentMapCache("products"), hotKeys,
+                mock(HotKeyMonitor.class)), accessTracker, mock(ObjectProvider.class));
+        when(productService.getAllProducts(any())).thenReturn(new PageImpl<>(List.of(product),
+                PageRequest.of(0, 20), 1));
+        when(productService.getProductById(anyLong()))
+                .thenAnswer(invocation -> cache.get(invocation.getArgument(0), () -> product));
+        when(productService.getProductBySku(anyString()))
+                .thenAnswer(invocation -> cache.get(invocation.getArgument(0), () -> product));
+        WarmupRunner runner = new WarmupRunner(productService, objectMapper, Duration.ofSeconds(30), 2, 50, 10, 2,
+                10.0);
+
+        runner.warmUp();
+
+        verify(productService, atLeastOnce()).getProductById(1L);
+        assertEquals(List.of(), hotKeys.topKeys(10));
+        accessTracker.publish();
+        verifyNoInteractions(redis);
+
+        // The same read made for a client counts
+        cache.get(1L, () -> product);
+        assertEquals(1L, hotKeys.topKeys(10).get(0).key());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.productcatalog.web.controller;
+
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.service.HomeService;
+import com.example.productcatalog.web.dto.DashboardDTO;
+import com.example.productcatalog.web.dto.HomeDTO;
+import com.example.productcatalog.web.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(HomeController.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.cache.type=none",
+        "spring.data.redis.repositories.enabled=false"
+})
+class HomeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HomeService homeService;
+
+    // Satisfy @EnableCaching on the main class inside the WebMvc slice context
+    @MockBean
+    private CacheManager cacheManager;
+
+    @Test
+    void getHome_ShouldReturnAllSectionsWithDefaultSizes() throws Exception {
+        given(homeService.getHome(8, 10, 5)).willReturn(HomeDTO.builder()
+                .dashboard(DashboardDTO.builder().totalProducts(42).build())
+                .categories(List.of())
+                .featuredProducts(new PageImpl<>(List.of(ProductDTO.builder().sku("SKU-1").build())))
+                .lowStockProducts(new PageImpl<>(List.of()))
+                .recentProducts(new PageImpl<>(List.of()))
+                .unavailableSections(List.of())
+                .build());
+
+        mockMvc.perform(get("/api/v1/home"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Home retrieved successfully"))
+                .andExpect(jsonPath("$.data.dashboard.totalProducts").value(42))
+                .andExpect(jsonPath("$.data.featuredProducts.content[0].sku").value("SKU-1"))
+                .andExpect(jsonPath("$.data.unavailableSections").isEmpty());
+    }
+
+    @Test
+    void getHome_ShouldReturnPartialResultAndNameTheMissingSections() throws Exception {
+        given(homeService.getHome(4, 10, 5)).willReturn(HomeDTO.builder()
+                .dashboard(DashboardDTO.builder().totalProducts(42).build())
+                .featuredProducts(new PageImpl<>(List.of(ProductDTO.builder().sku("SKU-1").build())))
+                .recentProducts(new PageImpl<>(List.of()))
+                .unavailableSections(List.of("categories", "lowStockProducts"))
+                .build());
+
+        mockMvc.perform(get("/api/v1/home").param("featuredSize", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Home retrieved without categories, lowStockProducts"))
+                .andExpect(jsonPath("$.data.dashboard.totalProducts").value(42))
+                .andExpect(jsonPath("$.data.categories").doesNotExist())
+                .andExpect(jsonPath("$.data.lowStockProducts").doesNotExist())
+                .andExpect(jsonPath("$.data.unavailableSections[0]").value("categories"))
+                .andExpect(jsonPath("$.data.unavailableSections[1]").value("lowStockProducts"));
+    }
+
+    @Test
+    void getHome_WithSizeOutOfRange_ShouldReturnBadRequest() throws Exception {
+        given(homeService.getHome(8, 10, 500))
+                .willThrow(new BadRequestException("recentSize must be between 1 and 50"));
+
+        mockMvc.perform(get("/api/v1/home").param("recentSize", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("recentSize must be between 1 and 50"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.productcatalog.web.controller;
+
+import com.example.productcatalog.exception.BadRequestException;
+import com.example.productcatalog.service.ProductBulkService;
+import com.example.productcatalog.web.dto.BulkProductUpdateRequest;
+import com.example.productcatalog.web.dto.BulkStatusRequest;
+import com.example.productcatalog.web.dto.BulkUpdateResult;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductBulkController.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.cache.type=none",
+        "spring.data.redis.repositories.enabled=false"
+})
+class ProductBulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductBulkService productBulkService;
+
+    // Satisfy @EnableCaching on the main class inside the WebMvc slice context
+    @MockBean
+    private CacheManager cacheManager;
+
+    @Test
+    void updateStatus_ShouldReturnCounts() throws Exception {
+        given(productBulkService.updateStatus(any(BulkStatusRequest.class)))
+                .willReturn(BulkUpdateResult.builder().matched(3).updated(2).chunks(1).build());
+
+        mockMvc.perform(patch("/api/v1/products/bulk/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2, 3], \"status\": \"ARCHIVED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.matched").value(3))
+                .andExpect(jsonPath("$.data.updated").value(2))
+                .andExpect(jsonPath("$.data.chunks").value(1));
+
+        ArgumentCaptor<BulkStatusRequest> request = ArgumentCaptor.forClass(BulkStatusRequest.class);
+        verify(productBulkService).updateStatus(request.capture());
+        assertEquals(List.of(1L, 2L, 3L), request.getValue().getIds());
+        assertEquals("ARCHIVED", request.getValue().getStatus());
+    }
+
+    @Test
+    void updateStatus_WithoutStatus_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/bulk/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productBulkService);
+    }
+
+    @Test
+    void updateFields_ShouldPassFilterAndPriceAdjustment() throws Exception {
+        given(productBulkService.updateFields(any(BulkProductUpdateRequest.class)))
+                .willReturn(BulkUpdateResult.builder().matched(10).updated(9).chunks(1).build());
+
+        mockMvc.perform(patch("/api/v1/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\": {\"brand\": \"Acme\"},"
+                        + " \"priceAdjustment\": {\"type\": \"PERCENT\", \"value\": -10}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.updated").value(9));
+
+        ArgumentCaptor<BulkProductUpdateRequest> request = ArgumentCaptor.forClass(BulkProductUpdateRequest.class);
+        verify(productBulkService).updateFields(request.capture());
+        assertEquals("Acme", request.getValue().getFilter().getBrand());
+        assertEquals(BulkProductUpdateRequest.PriceAdjustment.Type.PERCENT,
+                request.getValue().getPriceAdjustment().getType());
+        assertEquals(0, new BigDecimal("-10").compareTo(request.getValue().getPriceAdjustment().getValue()));
+    }
+
+    @Test
+    void updateFields_WhenServiceRejectsSelection_ShouldReturnBadRequest() throws Exception {
+        given(productBulkService.updateFields(any(BulkProductUpdateRequest.class)))
+                .willThrow(new BadRequestException("Provide either ids or filter"));
+
+        mockMvc.perform(patch("/api/v1/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"featured\": true}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Provide either ids or filter"));
+    }
+}
@@ -1,16 +1,26 @@
 package com.example.productcatalog.web.controller;
 
+import com.example.productcatalog.config.WireFormatConfig;
+import com.example.productcatalog.repository.projection.ProductField;
 import com.example.productcatalog.service.ProductService;
+import com.example.productcatalog.service.ProductSuggestService;
 import com.example.productcatalog.web.dto.ProductDTO;
+import com.example.productcatalog.web.dto.TagCountDTO;
+import com.example.productcatalog.web.dto.ProductSummaryDTO;
+import com.example.productcatalog.web.support.HttpCachePolicy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -18,14 +28,23 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductController.class)
+@Import({ HttpCachePolicy.class, WireFormatConfig.class })
 // Explicitly activate "test" profile so application-test.yml is loaded.
 // This makes spring.cache.type=none take effect inside the WebMvc test slice,
 // preventing CacheAutoConfiguration from trying to connect to Redis.
@@ -43,6 +62,9 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductSuggestService productSuggestService;
+
     // Satisfy @EnableCaching on the main class inside the WebMvc slice context
     @MockBean
     private CacheManager cacheManager;
@@ -91,4 +113,77 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.sku").value("SKU-123"));
     }
+
+    @Test
+    void getTagFacet_ShouldPassTagFiltersAndReturnCounts() throws Exception {
+        given(productService.getTagCounts(any(), any(), any(), any(), any(), any(), any(), any(),
+                eq(List.of("sale", "new")), eq(List.of("eco")), eq(5)))
+                .willReturn(List.of(new TagCountDTO("eco", 7), new TagCountDTO("sale", 3)));
+
+        mockMvc.perform(get("/api/v1/products/facets/tags")
+                .param("anyTags", "sale,new")
+                .param("allTags", "eco")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].tag").value("eco"))
+                .andExpect(jsonPath("$.data[0].count").value(7));
+    }
+
+    @Test
+    void getProductById_ShouldReturnNotModifiedWhenEtagMatches() throws Exception {
+        given(productService.getProductRevision(1L)).willReturn("3.0");
+
+        mockMvc.perform(get("/api/v1/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"product-1-3.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"product-1-3.0\""));
+
+        verify(productService, never()).getProductById(1L);
+    }
+
+    @Test
+    void getProductById_WithCborAccept_ShouldReturnCborWithItsOwnEtag() throws Exception {
+        given(productService.getProductRevision(1L)).willReturn("3.0");
+        given(productService.getProductById(1L)).willReturn(productDTO);
+
+        byte[] body = mockMvc.perform(get("/api/v1/products/1")
+                .header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"product-1-3.0-cbor\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode response = new CBORMapper().readTree(body);
+        assertEquals("SKU-123", response.path("data").path("sku").asText());
+    }
+
+    @Test
+    void getProductById_WithJsonEtagAndCborAccept_ShouldNotReturnNotModified() throws Exception {
+        given(productService.getProductRevision(1L)).willReturn("3.0");
+        given(productService.getProductById(1L)).willReturn(productDTO);
+
+        mockMvc.perform(get("/api/v1/products/1")
+                .header(HttpHeaders.ACCEPT, "application/cbor")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"product-1-3.0\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllProducts_WithSummaryView_ShouldReturnSparseRows() throws Exception {
+        ProductSummaryDTO summary = ProductSummaryDTO.builder().id(1L).sku("SKU-123").build();
+        given(productService.getAllProductSummaries(eq(ProductField.SUMMARY), any(Pageable.class)))
+                .willReturn(new PageImpl<>(Collections.singletonList(summary)));
+
+        mockMvc.perform(get("/api/v1/products").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].sku").value("SKU-123"))
+                .andExpect(jsonPath("$.data.content[0].description").doesNotExist());
+    }
+
+    @Test
+    void filterProducts_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/filter").param("fields", "id,costPrice"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.productcatalog.web.filter;
+
+import com.example.productcatalog.concurrency.AdaptiveLimit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSheddingFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final AdaptiveLimit readLimit = new AdaptiveLimit("read", 1, 1, 1, Duration.ofSeconds(1), 0.9);
+    private final AdaptiveLimit searchLimit = new AdaptiveLimit("search", 1, 1, 1, Duration.ofSeconds(1), 0.9);
+    private final AdaptiveLimit writeLimit = new AdaptiveLimit("write", 1, 1, 1, Duration.ofSeconds(1), 0.9);
+
+    private final LoadSheddingFilter filter =
+            new LoadSheddingFilter(readLimit, searchLimit, writeLimit, 2, objectMapper);
+
+    @Test
+    void doFilter_ShouldReject503WithRetryAfterWhenTheBudgetIsExhausted() throws Exception {
+        // Another search request holds the only slot
+        assertTrue(searchLimit.tryAcquire());
+        AtomicInteger calls = new AtomicInteger();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products/filter"), response,
+                (req, res) -> calls.incrementAndGet());
+
+        assertEquals(0, calls.get());
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(503, body.path("status").asInt());
+        assertEquals("/api/v1/products/filter", body.path("path").asText());
+    }
+
+    @Test
+    void doFilter_ShouldKeepOtherBudgetsServingAndReleaseTheSlot() throws Exception {
+        assertTrue(searchLimit.tryAcquire());
+        FilterChain ok = (req, res) -> ((MockHttpServletResponse) res).setStatus(200);
+
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products/1"), read, ok);
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/products"), write, ok);
+
+        assertEquals(200, read.getStatus());
+        assertEquals(200, write.getStatus());
+        assertEquals(0, readLimit.getInFlight());
+        assertEquals(0, writeLimit.getInFlight());
+    }
+
+    @Test
+    void doFilter_ShouldNotShedActuatorRequests() throws Exception {
+        assertTrue(readLimit.tryAcquire());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response,
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(200));
+
+        assertEquals(200, response.getStatus());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.productcatalog.web.filter;
+
+import com.example.productcatalog.datasource.ReadYourWritesContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), clock::get);
+
+    @Test
+    void doFilter_ShouldPinReadsThatCarryTheWritesCookieToThePrimaryOnAnyInstance() throws Exception {
+        MockHttpServletResponse write = run(filter, "POST", 201, true);
+        Cookie window = write.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(window);
+        assertEquals("1005000", window.getValue());
+        assertEquals(5, window.getMaxAge());
+        assertEquals("1005000", write.getHeader(ReadYourWritesFilter.HEADER));
+
+        // Another instance, with no memory of the write
+        ReadYourWritesFilter otherPod = new ReadYourWritesFilter(Duration.ofSeconds(5), clock::get);
+        assertTrue(primaryRequired(otherPod, window));
+        // Other clients keep reading from replicas
+        assertFalse(primaryRequired(otherPod, (Cookie) null));
+        assertFalse(ReadYourWritesContext.isPrimaryRequired());
+    }
+
+    @Test
+    void doFilter_ShouldAcceptTheWindowAsARequestHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.addHeader(ReadYourWritesFilter.HEADER, "1003000");
+
+        assertTrue(primaryRequired(filter, request));
+    }
+
+    @Test
+    void doFilter_ShouldNotOpenAWindowAfterAFailedWrite() throws Exception {
+        MockHttpServletResponse write = run(filter, "PUT", 409, true);
+
+        assertNull(write.getCookie(ReadYourWritesFilter.COOKIE));
+        assertNull(write.getHeader(ReadYourWritesFilter.HEADER));
+    }
+
+    @Test
+    void doFilter_ShouldOpenTheWindowForAWriteWithoutABody() throws Exception {
+        MockHttpServletResponse write = run(filter, "DELETE", 204, false);
+
+        assertNotNull(write.getCookie(ReadYourWritesFilter.COOKIE));
+    }
+
+    @Test
+    void doFilter_ShouldReleaseTheClientOnceTheWindowPassesOrForAForgedDeadline() throws Exception {
+        Cookie window = run(filter, "DELETE", 204, false).getCookie(ReadYourWritesFilter.COOKIE);
+        clock.addAndGet(5_001);
+
+        assertFalse(primaryRequired(filter, window));
+        assertFalse(primaryRequired(filter, new Cookie(ReadYourWritesFilter.COOKIE, "9999999999999")));
+        assertFalse(primaryRequired(filter, new Cookie(ReadYourWritesFilter.COOKIE, "soon")));
+    }
+
+    private static boolean primaryRequired(ReadYourWritesFilter filter, Cookie cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        return primaryRequired(filter, request);
+    }
+
+    // Whether reads inside the request were routed to the primary
+    private static boolean primaryRequired(ReadYourWritesFilter filter, MockHttpServletRequest request)
+            throws Exception {
+        AtomicBoolean primary = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> primary.set(ReadYourWritesContext.isPrimaryRequired()));
+        return primary.get();
+    }
+
+    private static MockHttpServletResponse run(ReadYourWritesFilter filter, String method, int status,
+            boolean body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/products/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            assertTrue(ReadYourWritesContext.isPrimaryRequired());
+            ((HttpServletResponse) res).setStatus(status);
+            if (body) {
+                res.getWriter().write("{}");
+                res.flushBuffer();
+            }
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
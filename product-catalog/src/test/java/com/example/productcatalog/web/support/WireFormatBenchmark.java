@@ -0,0 +1,135 @@
+package com.example.productcatalog.web.support;
+
+import com.example.productcatalog.common.ApiResponse;
+import com.example.productcatalog.web.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and single-thread encode/decode time of an
+ * {@code ApiResponse<Page<ProductDTO>>}, as returned by
+ * {@code /api/v1/products?size=N}, for each {@link WireFormat}. Decoding reads
+ * into a tree, as a client without the DTO classes would. Not a unit test;
+ * run it on a quiet machine:
+ *
+ * <pre>
+ *   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/classes:target/test-classes:$(cat cp.txt) \
+ *       com.example.productcatalog.web.support.WireFormatBenchmark [page sizes...]
+ * </pre>
+ */
+public final class WireFormatBenchmark {
+
+    private static final long WARMUP_NANOS = 3_000_000_000L;
+    private static final long MEASURE_NANOS = 5_000_000_000L;
+
+    private WireFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] pageSizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] { 20, 100 };
+        System.out.printf("%-6s %5s %10s %10s %12s %12s%n", "format", "page", "bytes", "gzipped", "encode us",
+                "decode us");
+        for (int size : pageSizes) {
+            ApiResponse<?> body = ApiResponse.success(page(size), "Products retrieved successfully");
+            for (WireFormat format : WireFormat.values()) {
+                ObjectMapper mapper = mapper(format);
+                byte[] encoded = mapper.writeValueAsBytes(body);
+                double encodeMicros = time(() -> mapper.writeValueAsBytes(body));
+                double decodeMicros = time(() -> mapper.readTree(encoded));
+                System.out.printf("%-6s %5d %10d %10d %12.1f %12.1f%n", format.name().toLowerCase(), size,
+                        encoded.length, gzipped(encoded), encodeMicros, decodeMicros);
+            }
+        }
+    }
+
+    private interface Operation {
+        Object run() throws IOException;
+    }
+
+    // Mean microseconds per operation after a warm-up period
+    private static double time(Operation operation) throws IOException {
+        Object sink = null;
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            sink = operation.run();
+        }
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 100; i++) {
+                sink = operation.run();
+            }
+            operations += 100;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return elapsed / 1_000.0 / operations;
+    }
+
+    private static ObjectMapper mapper(WireFormat format) {
+        // Same builder defaults as the converters in WireFormatConfig
+        return switch (format) {
+            case JSON -> Jackson2ObjectMapperBuilder.json().build();
+            case SMILE -> Jackson2ObjectMapperBuilder.smile().build();
+            case CBOR -> Jackson2ObjectMapperBuilder.cbor().build();
+        };
+    }
+
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    private static PageImpl<ProductDTO> page(int size) {
+        List<ProductDTO> products = new ArrayList<>(size);
+        LocalDateTime created = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 1; i <= size; i++) {
+            products.add(ProductDTO.builder()
+                    .id((long) i)
+                    .sku(String.format("ELEC-PHN-%04d", i))
+                    .name("Smartphone model " + i)
+                    .description("A mid-range smartphone with a 6.1 inch display, 128 GB of storage and a dual camera.")
+                    .shortDescription("6.1 inch, 128 GB")
+                    .price(BigDecimal.valueOf(29_999 + i, 2))
+                    .compareAtPrice(BigDecimal.valueOf(34_999 + i, 2))
+                    .status("ACTIVE")
+                    .quantity(40 + i % 20)
+                    .reservedQuantity(i % 3)
+                    .availableQuantity(40 + i % 20 - i % 3)
+                    .lowStockThreshold(5)
+                    .brand("brand-" + i % 12)
+                    .weightGrams(171.0)
+                    .categoryId((long) (1 + i % 8))
+                    .categoryName("Phones")
+                    .tags(Set.of("5g", "dual-sim", "sale"))
+                    .imageUrls(List.of("https://cdn.example.com/p/" + i + "/front.jpg",
+                            "https://cdn.example.com/p/" + i + "/back.jpg"))
+                    .inStock(true)
+                    .createdAt(created.plusMinutes(i))
+                    .updatedAt(created.plusDays(1).plusMinutes(i))
+                    .build());
+        }
+        return new PageImpl<>(products, PageRequest.of(0, size), 10_000);
+    }
+}
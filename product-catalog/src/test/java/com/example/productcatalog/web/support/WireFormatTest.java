@@ -0,0 +1,24 @@
+package com.example.productcatalog.web.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WireFormatTest {
+
+    @Test
+    void negotiate_ShouldDefaultToJson() {
+        assertEquals(WireFormat.JSON, WireFormat.negotiate(null));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("*/*"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("application/*"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("application/json, application/cbor"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("not a media type"));
+    }
+
+    @Test
+    void negotiate_ShouldPickTheHighestQualityBinaryFormat() {
+        assertEquals(WireFormat.CBOR, WireFormat.negotiate("application/cbor"));
+        assertEquals(WireFormat.SMILE, WireFormat.negotiate("application/json;q=0.5, application/x-jackson-smile"));
+        assertEquals(WireFormat.CBOR, WireFormat.negotiate("*/*;q=0.8, application/cbor"));
+    }
+}
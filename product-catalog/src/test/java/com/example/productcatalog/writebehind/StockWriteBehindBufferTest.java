@@ -0,0 +1,199 @@
+package com.example.productcatalog.writebehind;
+
+import com.example.productcatalog.web.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StockWriteBehindBufferTest {
+
+    @TempDir
+    Path journalDir;
+
+    @Mock
+    private StockUpdateWriter writer;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldCoalesceUpdatesPerProduct() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, false), writer,
+                1000);
+        buffer.submit(1, 10, null);
+        buffer.submit(1, 8, "INACTIVE");
+        buffer.submit(1, 7, null);
+        buffer.submit(2, null, "ACTIVE");
+
+        assertEquals(2, buffer.flush());
+
+        ArgumentCaptor<List<StockUpdate>> batch = ArgumentCaptor.forClass(List.class);
+        verify(writer).write(batch.capture());
+        StockUpdate first = batch.getValue().stream().filter(u -> u.productId() == 1).findFirst().orElseThrow();
+        assertEquals(7, first.quantity());
+        assertEquals("INACTIVE", first.status());
+        assertEquals(0, buffer.getPendingCount());
+        assertNull(buffer.pendingSequence(1));
+    }
+
+    @Test
+    void overlay_ShouldApplyPendingValuesToACopy() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, false), writer,
+                1000);
+        ProductDTO cached = ProductDTO.builder().id(1L).quantity(20).lowStockThreshold(5).inStock(true)
+                .status("ACTIVE").build();
+
+        buffer.submit(1, 0, null);
+        ProductDTO overlaid = buffer.overlay(cached);
+
+        assertEquals(0, overlaid.getQuantity());
+        assertFalse(overlaid.isInStock());
+        assertTrue(overlaid.isLowStock());
+        assertEquals("ACTIVE", overlaid.getStatus());
+        assertEquals(20, cached.getQuantity());
+        assertNotNull(buffer.pendingSequence(1));
+    }
+
+    @Test
+    void flush_ShouldKeepUpdatesWhenWriteFailsUnderNewerOnes() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, false), writer,
+                1000);
+        buffer.submit(1, 5, "ACTIVE");
+        doThrow(new IllegalStateException("db down")).when(writer).write(anyList());
+
+        assertEquals(0, buffer.flush());
+        buffer.submit(1, 3, null);
+
+        ProductDTO overlaid = buffer.overlay(ProductDTO.builder().id(1L).quantity(20).status("DRAFT").build());
+        assertEquals(3, overlaid.getQuantity());
+        assertEquals("ACTIVE", overlaid.getStatus());
+    }
+
+    @Test
+    void journal_ShouldReplayUpdatesLeftByACrash() throws Exception {
+        StockWriteBehindBuffer crashed = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, true), writer,
+                1000);
+        crashed.submit(1, 4, null);
+        crashed.submit(2, null, "INACTIVE");
+        // A torn line from dying mid-append
+        Files.writeString(journalDir.resolve("stock-0000000000000000001.journal"), "3,1",
+                StandardOpenOption.APPEND);
+
+        StockWriteBehindBuffer restarted = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, true), writer,
+                1000);
+
+        assertEquals(2, restarted.getPendingCount());
+        assertEquals(2, restarted.flush());
+        try (var files = Files.list(journalDir)) {
+            // Only the new active segment is left once the replayed updates are written
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void supersede_ShouldDropOnlyTheSynchronouslyWrittenFields() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, false), writer,
+                1000);
+        buffer.submit(1, 5, "ACTIVE");
+        buffer.submit(2, 9, null);
+
+        buffer.supersede(1, true, false);
+        buffer.supersede(2, true, false);
+
+        ProductDTO overlaid = buffer.overlay(ProductDTO.builder().id(1L).quantity(20).status("DRAFT").build());
+        assertEquals(20, overlaid.getQuantity());
+        assertEquals("ACTIVE", overlaid.getStatus());
+        assertNull(buffer.pendingSequence(2));
+        verify(writer, never()).write(anyList());
+    }
+
+    @Test
+    void journal_ShouldDropTornAndCorruptRecords() throws Exception {
+        StockWriteBehindBuffer crashed = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, true), writer,
+                1000);
+        crashed.submit(1, 4, null);
+        Path segment = journalDir.resolve("stock-0000000000000000001.journal");
+        Files.writeString(segment, "U,2,7,,0\n", StandardOpenOption.APPEND);
+        // Three fields, but torn inside the status
+        Files.writeString(segment, "3,12,ACT", StandardOpenOption.APPEND);
+
+        List<StockUpdateJournal.Entry> entries = StockUpdateJournal.read(segment);
+
+        assertEquals(List.of(new StockUpdateJournal.Accepted(new StockUpdate(1, 4, null, 0))), entries);
+    }
+
+    @Test
+    void supersede_ShouldBeJournaledSoReplayDoesNotRestoreTheField() throws Exception {
+        StockWriteBehindBuffer crashed = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, true), writer,
+                1000);
+        crashed.submit(1, 5, "ACTIVE");
+        crashed.supersede(1, true, false);
+
+        StockWriteBehindBuffer restarted = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, true), writer,
+                1000);
+
+        ProductDTO overlaid = restarted.overlay(ProductDTO.builder().id(1L).quantity(20).status("DRAFT").build());
+        assertEquals(20, overlaid.getQuantity());
+        assertEquals("ACTIVE", overlaid.getStatus());
+    }
+
+    @Test
+    void supersede_ShouldKeepAFailedInFlightUpdateFromComingBack() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, false), writer,
+                1000);
+        buffer.submit(1, 5, "ACTIVE");
+        doAnswer(invocation -> {
+            // A synchronous write commits while the flush is under way, then the flush fails
+            buffer.supersede(1, true, false);
+            throw new IllegalStateException("db down");
+        }).when(writer).write(anyList());
+
+        assertEquals(0, buffer.flush());
+
+        ProductDTO overlaid = buffer.overlay(ProductDTO.builder().id(1L).quantity(20).status("DRAFT").build());
+        assertEquals(20, overlaid.getQuantity());
+        assertEquals("ACTIVE", overlaid.getStatus());
+    }
+
+    @Test
+    void supersedeAfterCommit_ShouldOnlyDropTheUpdateOnceTheWriteCommits() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(new StockUpdateJournal(journalDir, false), writer,
+                1000);
+        buffer.submit(1, 5, null);
+        buffer.submit(2, 9, null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            buffer.supersedeAfterCommit(1, true, false);
+            assertNotNull(buffer.pendingSequence(1));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            buffer.supersedeAfterCommit(2, true, false);
+            // Rolled back: afterCommit never runs
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(buffer.pendingSequence(1));
+        assertNotNull(buffer.pendingSequence(2));
+    }
+}